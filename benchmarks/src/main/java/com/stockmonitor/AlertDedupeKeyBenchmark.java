@@ -0,0 +1,65 @@
+package com.stockmonitor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-alert key work of AlertManager: creating the alert (which computes its dedupe key)
+ * and the sound cooldown lookup keyed by it. This replaced the string key built by the former
+ * AlertManager.getAlertKey.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dstockmonitor.log.level=ERROR", "-Dstockmonitor.log.file="})
+@State(Scope.Thread)
+public class AlertDedupeKeyBenchmark {
+
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOGL", "AMZN", "NVDA", "META", "TSLA", "BINANCE:BTCUSDT"};
+    private static final AlertCondition[] CONDITIONS = AlertCondition.values();
+
+    private final Map<AlertEvent.Key, Long> lastPlayedSoundTimes = new ConcurrentHashMap<>();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (String symbol : SYMBOLS) {
+            for (AlertCondition condition : CONDITIONS) {
+                lastPlayedSoundTimes.put(AlertEvent.conditionMet(symbol, 1, condition, 100.0, 100.0).getDedupeKey(), 0L);
+            }
+        }
+    }
+
+    @Benchmark
+    public AlertEvent.Key dedupeKey() {
+        int i = next++;
+        AlertEvent alert = AlertEvent.conditionMet(SYMBOLS[i & 7], 1, CONDITIONS[i % CONDITIONS.length], 101.0, 100.0);
+        return alert.getDedupeKey();
+    }
+
+    @Benchmark
+    public boolean soundCooldownLookup() {
+        int i = next++;
+        AlertEvent alert = AlertEvent.conditionMet(SYMBOLS[i & 7], 1, CONDITIONS[i % CONDITIONS.length], 101.0, 100.0);
+        long now = System.currentTimeMillis();
+        Long lastPlayed = lastPlayedSoundTimes.get(alert.getDedupeKey());
+        if (lastPlayed == null || now - lastPlayed > 30000) { // AlertManager's 30 s sound cooldown
+            lastPlayedSoundTimes.put(alert.getDedupeKey(), now);
+            return true;
+        }
+        return false;
+    }
+}
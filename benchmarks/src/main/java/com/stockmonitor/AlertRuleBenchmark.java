@@ -0,0 +1,79 @@
+package com.stockmonitor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of a symbol's alert rules for one tick, as StockWatcherThread.checkAlerts does it:
+ * every rule sees the price, the previous price and the tick's indicators. The prices are a
+ * random walk around the targets, so rules fire, re-arm and get throttled as in a real session.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dstockmonitor.log.level=ERROR", "-Dstockmonitor.log.file="})
+@State(Scope.Thread)
+public class AlertRuleBenchmark {
+
+    private static final int TICKS = 4096; // Power of two
+    private static final String[] THRESHOLDS = {
+            "Price > Value@101", "Price < Value@99", "Price Crosses (Up)@100", "Price Crosses (Down)@100",
+            "Price > SMA@0", "Price < EMA@0", "RSI > Value@70", "RSI < Value@30",
+            "Price > Upper Bollinger@0", "Price < Lower Bollinger@0", "% Change > Value@1", "% Change < Value@-1"
+    };
+
+    @Param({"1", "4", "12"})
+    public int ruleCount;
+
+    private List<AlertRule> rules;
+    private final double[] prices = new double[TICKS];
+    private final IndicatorSnapshot[] indicators = new IndicatorSnapshot[TICKS];
+    private int tick;
+    private long nowMillis;
+
+    @Setup
+    public void setUp() {
+        rules = new ArrayList<>();
+        for (int i = 0; i < ruleCount; i++) {
+            rules.add(AlertRule.parse(THRESHOLDS[i]));
+        }
+        Random random = new Random(42);
+        IndicatorEngine engine = new IndicatorEngine();
+        double price = 100.0;
+        for (int i = 0; i < TICKS; i++) {
+            price = Math.max(90.0, Math.min(110.0, price + random.nextGaussian() * 0.3));
+            prices[i] = price;
+            indicators[i] = engine.update("AAPL", price);
+        }
+        nowMillis = System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public int checkAlerts() {
+        int index = tick++ & (TICKS - 1);
+        double previousPrice = prices[(index - 1) & (TICKS - 1)];
+        nowMillis += 1000; // One tick per second, so the per-rule throttle behaves as in production
+        int fired = 0;
+        for (AlertRule rule : rules) {
+            if (rule.evaluate("AAPL", prices[index], previousPrice, indicators[index], nowMillis, System.nanoTime()) != null) {
+                fired++;
+            }
+        }
+        return fired;
+    }
+}
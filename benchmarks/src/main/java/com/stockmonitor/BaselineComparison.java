@@ -0,0 +1,92 @@
+package com.stockmonitor;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Compares a JMH JSON result file (-rf json) with the checked-in baseline and exits with 1 if a
+ * benchmark got slower by more than the tolerance (default 10%) beyond the scores' error margins.
+ * Usage: BaselineComparison baseline.json results.json [tolerancePercent]
+ */
+public final class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    private static final class Score {
+        final double value;
+        final double error;
+        final String unit;
+        final boolean higherIsBetter;
+
+        Score(double value, double error, String unit, boolean higherIsBetter) {
+            this.value = value;
+            this.error = Double.isNaN(error) ? 0.0 : error;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <results.json> [tolerancePercent]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) / 100.0 : 0.10;
+        Map<String, Score> baseline = read(args[0]);
+        Map<String, Score> current = read(args[1]);
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s%n", entry.getKey(), "-", now.value, "new");
+                continue;
+            }
+            double change = (now.value - before.value) / before.value;
+            double worseBy = now.higherIsBetter ? -change : change;
+            // Only a change larger than both error margins and the tolerance counts
+            double noise = (before.error + now.error) / before.value;
+            boolean regressed = worseBy > tolerance + noise;
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%% %s %s%n", entry.getKey(), before.value, now.value, change * 100.0, now.unit,
+                    regressed ? "REGRESSION" : "");
+            if (regressed) regressions++;
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed by more than " + Math.round(tolerance * 100.0) + "%.");
+            System.exit(1);
+        }
+        System.out.println("No regressions.");
+    }
+
+    // Benchmark name with its parameters -> primary score
+    private static Map<String, Score> read(String file) throws IOException {
+        JSONArray runs = new JSONArray(new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8));
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (int i = 0; i < runs.length(); i++) {
+            JSONObject run = runs.getJSONObject(i);
+            StringBuilder name = new StringBuilder(run.getString("benchmark").replace("com.stockmonitor.", ""));
+            JSONObject params = run.optJSONObject("params");
+            if (params != null) {
+                for (String key : new TreeSet<>(params.keySet())) {
+                    name.append(' ').append(key).append('=').append(params.get(key));
+                }
+            }
+            JSONObject metric = run.getJSONObject("primaryMetric");
+            String mode = run.getString("mode");
+            scores.put(name.toString(), new Score(metric.getDouble("score"), metric.optDouble("scoreError", 0.0),
+                    metric.getString("scoreUnit"), "thrpt".equals(mode)));
+        }
+        return scores;
+    }
+}
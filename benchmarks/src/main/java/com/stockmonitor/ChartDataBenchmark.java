@@ -0,0 +1,79 @@
+package com.stockmonitor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The tick side of the chart path: a candle added with ChartDataBuffer.addCandle to the buffer
+ * of a visible panel, and a tick dispatched by GraphUpdater to one of many symbols,
+ * visible or not. The render scheduler runs as in the application, so frames are drawn at the
+ * default rate while ticks are added. The panels use the offscreen render mode: XChart's Swing
+ * panel cannot be created headless, and frames are then rasterized on the render threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dstockmonitor.log.level=ERROR", "-Dstockmonitor.log.file=",
+        "-Dstockmonitor.chart.renderMode=offscreen"})
+@State(Scope.Thread)
+public class ChartDataBenchmark {
+
+    private static final int SYMBOL_COUNT = 64; // Power of two
+    private static final int FPS = 30; // Default of stockmonitor.chart.fps
+
+    private ChartDataBuffer buffer;
+    private GraphUpdater graphUpdater;
+    private final String[] symbols = new String[SYMBOL_COUNT];
+    private final long timestampMillis = System.currentTimeMillis();
+    private double price = 100.0;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ChartRenderScheduler scheduler = new ChartRenderScheduler(FPS);
+        graphUpdater = new GraphUpdater(scheduler);
+        for (int i = 0; i < SYMBOL_COUNT; i++) {
+            symbols[i] = "SYM" + i;
+            graphUpdater.registerSymbol(symbols[i]);
+        }
+        SwingUtilities.invokeAndWait(() -> {
+            newVisiblePanel("AAPL", scheduler);
+            newVisiblePanel(symbols[0], scheduler);
+        });
+        buffer = graphUpdater.getDataBuffer("AAPL");
+    }
+
+    // A laid out panel showing the symbol, so its frames are really rendered
+    private void newVisiblePanel(String symbol, ChartRenderScheduler scheduler) {
+        XChartPanel chartPanel = new XChartPanel(symbol, scheduler);
+        graphUpdater.registerChartPanel(symbol, chartPanel);
+        chartPanel.setSize(800, 400);
+        chartPanel.doLayout();
+    }
+
+    @Benchmark
+    public void addCandle() {
+        price += (next++ & 1) == 0 ? 0.01 : -0.01;
+        buffer.addCandle(timestampMillis, price, price + 0.02, price - 0.02, price); // Marks the visible panel dirty
+    }
+
+    @Benchmark
+    public void graphUpdaterDispatch() {
+        String symbol = symbols[next++ & (SYMBOL_COUNT - 1)]; // One visible symbol, the rest only buffered
+        price += (next & 1) == 0 ? 0.01 : -0.01;
+        graphUpdater.onOHLCDataUpdate(symbol, timestampMillis, price, price + 0.02, price - 0.02, price, System.nanoTime());
+    }
+}
@@ -0,0 +1,236 @@
+package com.stockmonitor;
+
+import com.stockmonitor.logging.Log;
+import com.stockmonitor.metrics.LatencyHistogram;
+import com.stockmonitor.metrics.Metrics;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the headless polling engine (PriceFetcher, StockWatcherThreads, indicators, TickRingBuffer,
+ * AlertManager and chart buffers, wired as MainController does) against MockFinnhubServer with thousands of
+ * symbols. Prints throughput, error counts, fetch latency and resource use every few seconds
+ * and a summary at the end. The mock's failure injection options are accepted as well.
+ * <p>
+ * Usage: LoadTestDriver [--symbols 2000] [--interval 5] [--duration 60] [--pollThreads N]
+ * [--reportEvery 5] [--url BASE_URL] [--writeWatchlist FILE] [mock options, see MockFinnhubServer]
+ * <p>
+ * --url uses an already running server instead of starting the mock. --writeWatchlist only writes
+ * a watchlist file of the mock symbols, to load test the whole application with
+ * -Dstockmonitor.watchlist.file, and exits.
+ */
+public final class LoadTestDriver {
+
+    // Every symbol gets rules that fire regularly on the mock's random walk, so the alert path is loaded too
+    private static final List<String> RULES = Arrays.asList("% Change > Value@0.5", "% Change < Value@-0.5");
+
+    private LoadTestDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Before anything logs: no log file, and only errors on the console unless asked for
+        if (System.getProperty("stockmonitor.log.file") == null) System.setProperty("stockmonitor.log.file", "");
+        if (System.getProperty("stockmonitor.sound.enabled") == null) System.setProperty("stockmonitor.sound.enabled", "false");
+        if (System.getProperty("stockmonitor.log.level") == null) Log.setLevel(Log.Level.ERROR);
+
+        MockFinnhubServer.Options mockOptions = new MockFinnhubServer.Options();
+        mockOptions.port = 0;
+        Map<String, String> options = mockOptions.parse(MockFinnhubServer.parseArgs(args));
+        int symbolCount = Integer.parseInt(options.getOrDefault("symbols", "2000"));
+        long intervalSeconds = Long.parseLong(options.getOrDefault("interval", "5"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration", "60"));
+        int pollThreads = Integer.parseInt(options.getOrDefault("pollThreads",
+                String.valueOf(Math.max(2, Runtime.getRuntime().availableProcessors() / 2)))); // MainController's pool size
+        long reportSeconds = Long.parseLong(options.getOrDefault("reportEvery", "5"));
+        String watchlistFile = options.get("writeWatchlist");
+        String url = options.get("url");
+
+        if (watchlistFile != null) {
+            writeWatchlist(watchlistFile, symbolCount);
+            System.out.println("Wrote " + symbolCount + " symbols to " + watchlistFile + ".");
+            return;
+        }
+
+        MockFinnhubServer server = null;
+        if (url == null) {
+            server = new MockFinnhubServer(mockOptions);
+            server.start();
+            url = server.getBaseUrl();
+            System.out.println("Mock Finnhub API on " + url + " (" + mockOptions + ")");
+        }
+        System.out.printf("%d symbols, poll interval %ds (target %.1f polls/s), %d poll threads, %ds%n",
+                symbolCount, intervalSeconds, (double) symbolCount / intervalSeconds, pollThreads, durationSeconds);
+
+        PriceFetcher priceFetcher = new PriceFetcher(url, "loadtest");
+        AlertManager alertManager = new AlertManager(null);
+        alertManager.startConsumer();
+        GraphUpdater graphUpdater = new GraphUpdater();
+        IndicatorEngine indicatorEngine = new IndicatorEngine();
+        LongAdder quotes = new LongAdder();
+        TickRingBuffer tickRing = TickRingBuffer.createDefault(graphUpdater, (_s, _p, _t) -> quotes.increment());
+        AtomicInteger threadCounter = new AtomicInteger(1);
+        ScheduledExecutorService pollPool = Executors.newScheduledThreadPool(pollThreads,
+                r -> new Thread(r, "StockWatcherTaskThread-" + threadCounter.getAndIncrement()));
+
+        List<StockWatcherThread> watchers = new ArrayList<>(symbolCount);
+        long intervalMillis = TimeUnit.SECONDS.toMillis(intervalSeconds);
+        for (int i = 0; i < symbolCount; i++) {
+            String symbol = MockFinnhubServer.symbolName(i);
+            graphUpdater.registerSymbol(symbol);
+            StockWatcherThread watcher = new StockWatcherThread(new StockConfig(symbol, RULES, PollPriority.NORMAL),
+                    priceFetcher, alertManager, graphUpdater, tickRing, indicatorEngine, intervalSeconds);
+            // Spread over the interval like MainController.rescheduleWatchers
+            watcher.setScheduledFuture(pollPool.scheduleWithFixedDelay(watcher, intervalMillis * i / symbolCount, intervalMillis, TimeUnit.MILLISECONDS));
+            watchers.add(watcher);
+        }
+
+        ResourceSampler resources = new ResourceSampler();
+        long start = System.nanoTime();
+        long previousRequests = 0;
+        long previousTicks = 0;
+        long previousReport = start;
+        System.out.println("   time  req/s  tick/s     429    http5xx  fetchErr  fetch p50/p99 ms  alerts q/shown/dropped  heap MB  threads  cpu%");
+        while (System.nanoTime() - start < TimeUnit.SECONDS.toNanos(durationSeconds)) {
+            TimeUnit.SECONDS.sleep(Math.min(reportSeconds, Math.max(1, durationSeconds)));
+            long now = System.nanoTime();
+            double seconds = (now - previousReport) / 1e9;
+            long requests = Metrics.getCounter(Metrics.REQUESTS);
+            long ticks = Metrics.getCounter(Metrics.TICKS);
+            LatencyHistogram.Snapshot fetch = Metrics.FETCH.snapshot();
+            resources.sample();
+            System.out.printf(Locale.ROOT, "%6.0fs %6.1f %7.1f %7d %10d %9d %8.1f/%-8.1f %9d/%d/%d %12d %8d %5.0f%n",
+                    (now - start) / 1e9, (requests - previousRequests) / seconds, (ticks - previousTicks) / seconds,
+                    Metrics.getCounter(Metrics.RATE_LIMITED), Metrics.getCounter(Metrics.HTTP_ERRORS), Metrics.getCounter(Metrics.FETCH_ERRORS),
+                    fetch.getValueAtPercentile(50) / 1e6, fetch.getValueAtPercentile(99) / 1e6,
+                    Metrics.getCounter(Metrics.ALERTS_QUEUED), Metrics.getCounter(Metrics.ALERTS_DISPLAYED), alertManager.getDroppedAlertCount(),
+                    resources.heapUsedMb, resources.threads, resources.cpuPercent);
+            previousRequests = requests;
+            previousTicks = ticks;
+            previousReport = now;
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        pollPool.shutdownNow();
+        pollPool.awaitTermination(10, TimeUnit.SECONDS);
+        tickRing.shutdown(5000); // Drained before the watchers stop, whose ticks the consumers would skip
+        for (StockWatcherThread watcher : watchers) {
+            watcher.stopWatching();
+        }
+        alertManager.stopConsumer();
+
+        long requests = Metrics.getCounter(Metrics.REQUESTS);
+        long ticks = Metrics.getCounter(Metrics.TICKS);
+        LatencyHistogram.Snapshot fetch = Metrics.FETCH.snapshot();
+        LatencyHistogram.Snapshot tick = Metrics.TICK.snapshot();
+        LatencyHistogram.Snapshot ringTransit = Metrics.TICK_RING.snapshot();
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Throughput: %d requests (%.1f/s, target %.1f/s), %d ticks (%.1f/s), %d quotes to listeners%n",
+                requests, requests / elapsed, (double) symbolCount / intervalSeconds, ticks, ticks / elapsed, quotes.sum());
+        System.out.printf(Locale.ROOT, "Errors: %d rate limited (429), %d other HTTP errors, %d fetch errors (all causes); %d alerts queued, %d shown, %d dropped, %d coalesced%n",
+                Metrics.getCounter(Metrics.RATE_LIMITED), Metrics.getCounter(Metrics.HTTP_ERRORS), Metrics.getCounter(Metrics.FETCH_ERRORS),
+                Metrics.getCounter(Metrics.ALERTS_QUEUED), Metrics.getCounter(Metrics.ALERTS_DISPLAYED),
+                alertManager.getDroppedAlertCount(), alertManager.getCoalescedAlertCount());
+        System.out.printf(Locale.ROOT, "Latency (ms): fetch p50 %.1f p99 %.1f p99.9 %.1f max %.1f; tick p50 %.3f p99 %.3f%n",
+                fetch.getValueAtPercentile(50) / 1e6, fetch.getValueAtPercentile(99) / 1e6, fetch.getValueAtPercentile(99.9) / 1e6,
+                fetch.getMaxNanos() / 1e6, tick.getValueAtPercentile(50) / 1e6, tick.getValueAtPercentile(99) / 1e6);
+        StringBuilder consumers = new StringBuilder();
+        for (TickRingBuffer.Consumer consumer : tickRing.getConsumers()) {
+            consumers.append(String.format(Locale.ROOT, "; %s lost %d, failed %d", consumer.getName(), consumer.getLostCount(), consumer.getFailedCount()));
+        }
+        System.out.printf(Locale.ROOT, "Tick ring: %d published, transit p50 %.3f p99 %.3f max %.3f ms%s%n",
+                tickRing.getPublishedCount(), ringTransit.getValueAtPercentile(50) / 1e6, ringTransit.getValueAtPercentile(99) / 1e6,
+                ringTransit.getMaxNanos() / 1e6, consumers);
+        System.out.printf(Locale.ROOT, "Resources: peak heap %d MB, peak threads %d, CPU time %.1fs (%.0f%% of one core), GC %d collections / %d ms%n",
+                resources.peakHeapUsedMb, resources.peakThreads(), resources.cpuSeconds(), 100.0 * resources.cpuSeconds() / elapsed,
+                resources.gcCount(), resources.gcMillis());
+        if (server != null) {
+            System.out.printf("Mock server: %d requests, %d quotes, %d rate limited, %d server errors, %d slow bodies, %d unsupported%n",
+                    server.getRequests(), server.getQuotesServed(), server.getRateLimited(), server.getServerErrors(),
+                    server.getSlowBodies(), server.getUnsupported());
+            server.stop();
+        }
+        Log.flush();
+        System.exit(0); // The chart scheduler's Swing timer would keep the JVM alive
+    }
+
+    private static void writeWatchlist(String file, int symbolCount) throws IOException {
+        JSONArray symbols = new JSONArray();
+        for (int i = 0; i < symbolCount; i++) {
+            symbols.put(new JSONObject().put("symbol", MockFinnhubServer.symbolName(i)).put("rules", new JSONArray(RULES)));
+        }
+        JSONObject watchlist = new JSONObject().put("version", 1).put("symbols", symbols);
+        Files.write(Paths.get(file), watchlist.toString(2).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Heap, threads and CPU of this process, sampled at each report
+    private static final class ResourceSampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        private long lastCpuNanos = cpuNanos();
+        private long lastSampleNanos = System.nanoTime();
+        long heapUsedMb;
+        long peakHeapUsedMb;
+        int threads;
+        double cpuPercent;
+
+        void sample() {
+            heapUsedMb = memory.getHeapMemoryUsage().getUsed() >> 20;
+            peakHeapUsedMb = Math.max(peakHeapUsedMb, heapUsedMb);
+            threads = threadBean.getThreadCount();
+            long cpu = cpuNanos();
+            long now = System.nanoTime();
+            cpuPercent = cpu < 0 ? -1 : 100.0 * (cpu - lastCpuNanos) / (now - lastSampleNanos);
+            lastCpuNanos = cpu;
+            lastSampleNanos = now;
+        }
+
+        private long cpuNanos() {
+            return os instanceof com.sun.management.OperatingSystemMXBean ? ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime() : -1L;
+        }
+
+        int peakThreads() {
+            return threadBean.getPeakThreadCount();
+        }
+
+        double cpuSeconds() {
+            return cpuNanos() / 1e9;
+        }
+
+        long gcCount() {
+            long count = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+            }
+            return count;
+        }
+
+        long gcMillis() {
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                millis += Math.max(0, gc.getCollectionTime());
+            }
+            return millis;
+        }
+    }
+}
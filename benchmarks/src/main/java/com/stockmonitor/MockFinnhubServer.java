@@ -0,0 +1,366 @@
+package com.stockmonitor;
+
+import com.stockmonitor.metrics.SlidingWindowCounter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stand-in for the Finnhub REST API on the loopback interface, for load tests without an API key
+ * or rate limit. Serves /api/v1/quote with a random walk per symbol and /api/v1/stock/symbol
+ * with a generated symbol list, and injects the failures the real service shows: response
+ * latency drawn from a distribution, HTTP 429 once more than N requests arrived within a minute,
+ * bursts of 5xx responses, bodies trickling in slowly, and unsupported symbols (all-zero quotes).
+ * Point the application at it with -Dstockmonitor.finnhub.baseUrl=http://127.0.0.1:PORT/api/v1.
+ * <p>
+ * Usage: MockFinnhubServer [--port 8089] [--latency lognormal:30:0.5] [--rateLimit 0]
+ * [--errorBurstEvery 0] [--errorBurstLength 5] [--errorBurstStatus 503] [--slowBodyRate 0]
+ * [--slowBodyMs 3000] [--unsupportedRate 0] [--listSymbols 5000]
+ */
+public final class MockFinnhubServer {
+
+    /**
+     * Failure injection and behaviour of the server. Times are in milliseconds, rates are fractions.
+     */
+    public static final class Options {
+        int port = 8089;
+        Latency latency = Latency.parse("lognormal:30:0.5");
+        int rateLimitPerMinute = 0;       // 0 disables the limit
+        int errorBurstEverySeconds = 0;   // 0 disables 5xx bursts
+        int errorBurstSeconds = 5;
+        int errorBurstStatus = 503;
+        double slowBodyRate = 0.0;
+        long slowBodyMs = 3000;
+        double unsupportedRate = 0.0;     // Share of symbols answered with an all-zero quote
+        int listSymbols = 5000;           // Size of the generated US symbol list
+
+        /**
+         * Reads the options it knows from "--name value" pairs and returns the remaining arguments.
+         */
+        public Map<String, String> parse(Map<String, String> args) {
+            Map<String, String> rest = new HashMap<>(args);
+            String value;
+            if ((value = rest.remove("port")) != null) port = Integer.parseInt(value);
+            if ((value = rest.remove("latency")) != null) latency = Latency.parse(value);
+            if ((value = rest.remove("rateLimit")) != null) rateLimitPerMinute = Integer.parseInt(value);
+            if ((value = rest.remove("errorBurstEvery")) != null) errorBurstEverySeconds = Integer.parseInt(value);
+            if ((value = rest.remove("errorBurstLength")) != null) errorBurstSeconds = Integer.parseInt(value);
+            if ((value = rest.remove("errorBurstStatus")) != null) errorBurstStatus = Integer.parseInt(value);
+            if ((value = rest.remove("slowBodyRate")) != null) slowBodyRate = Double.parseDouble(value);
+            if ((value = rest.remove("slowBodyMs")) != null) slowBodyMs = Long.parseLong(value);
+            if ((value = rest.remove("unsupportedRate")) != null) unsupportedRate = Double.parseDouble(value);
+            if ((value = rest.remove("listSymbols")) != null) listSymbols = Integer.parseInt(value);
+            return rest;
+        }
+
+        @Override
+        public String toString() {
+            return "latency=" + latency + ", rateLimit=" + (rateLimitPerMinute > 0 ? rateLimitPerMinute + "/min" : "off")
+                    + ", errorBursts=" + (errorBurstEverySeconds > 0 ? errorBurstStatus + " for " + errorBurstSeconds + "s every " + errorBurstEverySeconds + "s" : "off")
+                    + ", slowBodies=" + (slowBodyRate > 0 ? Math.round(slowBodyRate * 100) + "% over " + slowBodyMs + "ms" : "off")
+                    + ", unsupported=" + Math.round(unsupportedRate * 100) + "%";
+        }
+    }
+
+    /**
+     * Response delay distribution: "fixed:MS", "uniform:MIN_MS:MAX_MS" or "lognormal:MEDIAN_MS:SIGMA"
+     * (long tail; sigma 0.5 puts p99 at about 3.2 times the median).
+     */
+    public static final class Latency {
+        private final String spec;
+        private final char kind;
+        private final double a;
+        private final double b;
+
+        private Latency(String spec, char kind, double a, double b) {
+            this.spec = spec;
+            this.kind = kind;
+            this.a = a;
+            this.b = b;
+        }
+
+        public static Latency parse(String spec) {
+            String[] parts = spec.trim().split(":");
+            switch (parts[0].toLowerCase(Locale.ROOT)) {
+                case "fixed":
+                    return new Latency(spec, 'f', Double.parseDouble(parts[1]), 0);
+                case "uniform":
+                    return new Latency(spec, 'u', Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "lognormal":
+                    return new Latency(spec, 'l', Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default:
+                    throw new IllegalArgumentException("Unknown latency distribution: " + spec + " (fixed:MS, uniform:MIN:MAX or lognormal:MEDIAN:SIGMA)");
+            }
+        }
+
+        long nextMillis() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            switch (kind) {
+                case 'f':
+                    return (long) a;
+                case 'u':
+                    return (long) (a + random.nextDouble() * (b - a));
+                default:
+                    return (long) (a * Math.exp(b * random.nextGaussian()));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return spec;
+        }
+    }
+
+    private final Options options;
+    private final SlidingWindowCounter requestsLastMinute = new SlidingWindowCounter(60);
+    private final Map<String, Double> prices = new ConcurrentHashMap<>();
+    private final long startMillis = System.currentTimeMillis();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder quotesServed = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder slowBodies = new LongAdder();
+    private final LongAdder unsupported = new LongAdder();
+
+    public MockFinnhubServer(Options options) {
+        this.options = options;
+    }
+
+    public void start() throws IOException {
+        // Without TCP_NODELAY the separate header and body writes meet delayed ACKs, adding about 40 ms per request
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), options.port), 1024);
+        AtomicInteger threadCounter = new AtomicInteger(1);
+        // Unbounded, so simulated latency delays each request on its own instead of queueing them
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "MockFinnhub-" + threadCounter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/api/v1/", this::handle);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getAddress().getPort() + "/api/v1";
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getQuotesServed() {
+        return quotesServed.sum();
+    }
+
+    public long getRateLimited() {
+        return rateLimited.sum();
+    }
+
+    public long getServerErrors() {
+        return serverErrors.sum();
+    }
+
+    public long getSlowBodies() {
+        return slowBodies.sum();
+    }
+
+    public long getUnsupported() {
+        return unsupported.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.increment();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            if (query.getOrDefault("token", "").isEmpty()) {
+                respond(exchange, 401, "{\"error\":\"Please use an API key.\"}", false);
+                return;
+            }
+            sleep(options.latency.nextMillis());
+            if (options.rateLimitPerMinute > 0) {
+                if (requestsLastMinute.sum() >= options.rateLimitPerMinute) {
+                    rateLimited.increment();
+                    respond(exchange, 429, "{\"error\":\"API limit reached. Please try again later. Remaining Limit: 0\"}", false);
+                    return;
+                }
+                requestsLastMinute.increment();
+            }
+            if (inErrorBurst()) {
+                serverErrors.increment();
+                respond(exchange, options.errorBurstStatus, "<html><body>" + options.errorBurstStatus + " Service Unavailable</body></html>", false);
+                return;
+            }
+            boolean slow = options.slowBodyRate > 0 && ThreadLocalRandom.current().nextDouble() < options.slowBodyRate;
+            if (slow) {
+                slowBodies.increment();
+            }
+            String path = exchange.getRequestURI().getPath().substring("/api/v1".length());
+            switch (path) {
+                case "/quote":
+                    respond(exchange, 200, quote(query.getOrDefault("symbol", "")), slow);
+                    break;
+                case "/stock/symbol":
+                    respond(exchange, 200, "US".equals(query.get("exchange")) ? symbolList() : "[]", slow);
+                    break;
+                case "/crypto/symbol":
+                case "/forex/symbol":
+                    respond(exchange, 200, "[]", slow);
+                    break;
+                default:
+                    respond(exchange, 404, "{\"error\":\"Not found\"}", false);
+            }
+        } catch (IOException e) {
+            // The client gave up (e.g. its read timeout during a slow body); nothing to answer
+        } catch (RuntimeException e) {
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean inErrorBurst() {
+        if (options.errorBurstEverySeconds <= 0) return false;
+        long elapsedSeconds = (System.currentTimeMillis() - startMillis) / 1000;
+        return elapsedSeconds % options.errorBurstEverySeconds >= options.errorBurstEverySeconds - options.errorBurstSeconds;
+    }
+
+    // Same shape as Finnhub: current, change, percent change, high, low, open, previous close, time
+    private String quote(String symbol) {
+        if (isUnsupported(symbol)) {
+            unsupported.increment();
+            return "{\"c\":0,\"d\":null,\"dp\":null,\"h\":0,\"l\":0,\"o\":0,\"pc\":0,\"t\":0}";
+        }
+        double previousClose = 10.0 + Math.floorMod(symbol.hashCode(), 49000) / 100.0;
+        double price = prices.merge(symbol, previousClose, (last, _start) -> last * (1.0 + ThreadLocalRandom.current().nextGaussian() * 0.002));
+        quotesServed.increment();
+        return String.format(Locale.ROOT, "{\"c\":%.4f,\"d\":%.4f,\"dp\":%.4f,\"h\":%.4f,\"l\":%.4f,\"o\":%.4f,\"pc\":%.4f,\"t\":%d}",
+                price, price - previousClose, 100.0 * (price - previousClose) / previousClose,
+                Math.max(price, previousClose), Math.min(price, previousClose), previousClose, previousClose,
+                System.currentTimeMillis() / 1000);
+    }
+
+    // Deterministic per symbol, so a symbol is always or never supported
+    private boolean isUnsupported(String symbol) {
+        return symbol.isEmpty() || Math.floorMod(symbol.hashCode() * 0x9E3779B1, 10000) < options.unsupportedRate * 10000;
+    }
+
+    private String symbolList() {
+        StringBuilder json = new StringBuilder(options.listSymbols * 96).append('[');
+        for (int i = 0; i < options.listSymbols; i++) {
+            String symbol = symbolName(i);
+            if (i > 0) json.append(',');
+            json.append("{\"symbol\":\"").append(symbol).append("\",\"displaySymbol\":\"").append(symbol)
+                    .append("\",\"description\":\"MOCK COMPANY ").append(i).append("\",\"type\":\"Common Stock\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    // Symbols of the generated list, also used by the load test driver
+    static String symbolName(int index) {
+        return String.format(Locale.ROOT, "MOCK%05d", index);
+    }
+
+    private void respond(HttpExchange exchange, int status, String body, boolean slow) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", status == 200 || status == 401 || status == 404 || status == 429 ? "application/json; charset=utf-8" : "text/html");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (!slow) {
+                out.write(bytes);
+                return;
+            }
+            int chunks = Math.min(10, bytes.length); // The body trickles in over slowBodyMs
+            for (int i = 0; i < chunks; i++) {
+                int from = bytes.length * i / chunks;
+                int to = bytes.length * (i + 1) / chunks;
+                out.write(bytes, from, to - from);
+                out.flush();
+                sleep(options.slowBodyMs / chunks);
+            }
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) return query;
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(pair.substring(0, equals), URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // "--name value" pairs
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value, got: " + args[i]);
+            }
+            values.put(args[i].substring(2), args[++i]);
+        }
+        return values;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options();
+        Map<String, String> unknown = options.parse(parseArgs(args));
+        if (!unknown.isEmpty()) {
+            System.err.println("Unknown options: " + unknown.keySet());
+            System.exit(2);
+        }
+        MockFinnhubServer server = new MockFinnhubServer(options);
+        server.start();
+        System.out.println("Mock Finnhub API on " + server.getBaseUrl() + " (" + options + ")");
+        System.out.println("Run the application with -Dstockmonitor.finnhub.baseUrl=" + server.getBaseUrl() + " and any FINNHUB_API_KEY.");
+        while (true) {
+            TimeUnit.SECONDS.sleep(10);
+            System.out.printf("requests=%d quotes=%d rateLimited=%d serverErrors=%d slowBodies=%d unsupported=%d%n",
+                    server.getRequests(), server.getQuotesServed(), server.getRateLimited(), server.getServerErrors(),
+                    server.getSlowBodies(), server.getUnsupported());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.stockmonitor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a Finnhub /quote response, done once per poll of every symbol.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dstockmonitor.log.level=ERROR", "-Dstockmonitor.log.file="})
+@State(Scope.Benchmark)
+public class QuoteParseBenchmark {
+
+    // Real response shape; "c" is the current price, "pc" the previous close
+    private static final String QUOTE = "{\"c\":189.98,\"d\":1.23,\"dp\":0.6517,\"h\":190.32,\"l\":187.45,\"o\":188.01,\"pc\":188.75,\"t\":1718047200}";
+    // Outside trading hours some symbols report c=0 and the previous close is used
+    private static final String QUOTE_CLOSED = "{\"c\":0,\"d\":null,\"dp\":null,\"h\":0,\"l\":0,\"o\":0,\"pc\":188.75,\"t\":0}";
+
+    @Benchmark
+    public double parseQuote() throws IOException {
+        return PriceFetcher.parsePriceFromFinnhubQuoteResponse(QUOTE, "AAPL");
+    }
+
+    @Benchmark
+    public double parseQuotePreviousClose() throws IOException {
+        return PriceFetcher.parsePriceFromFinnhubQuoteResponse(QUOTE_CLOSED, "AAPL");
+    }
+}
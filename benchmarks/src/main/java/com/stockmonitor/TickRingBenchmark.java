@@ -0,0 +1,67 @@
+package com.stockmonitor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a watcher pays per tick to hand it to the consumers: TickRingBuffer.publish with the
+ * application's three consumers (charts, alerts, metrics) attached, here as no-op handlers.
+ * Before the ring, the watcher ran the chart, watchlist and alert work itself (see
+ * ChartDataBenchmark.graphUpdaterDispatch and AlertRuleBenchmark).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dstockmonitor.log.level=ERROR", "-Dstockmonitor.log.file="})
+@State(Scope.Thread)
+public class TickRingBenchmark {
+
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOGL", "AMZN", "NVDA", "META", "TSLA", "BINANCE:BTCUSDT"};
+
+    private TickRingBuffer ring;
+    private final TickEvent tick = new TickEvent(); // Reused like a watcher's outgoing tick
+    private long timestampMillis = 1_700_000_000_000L;
+    private double price = 100.0;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ring = new TickRingBuffer(TickRingBuffer.DEFAULT_SIZE);
+        for (String name : new String[] {"charts", "alerts", "metrics"}) {
+            ring.addConsumer(name, _e -> { });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ring.shutdown(1000);
+    }
+
+    @Benchmark
+    public void publish() {
+        int i = next++;
+        price += (i & 1) == 0 ? 0.01 : -0.01;
+        tick.symbol = SYMBOLS[i & 7];
+        tick.timestampMillis = timestampMillis++;
+        tick.open = price;
+        tick.high = price;
+        tick.low = price;
+        tick.close = price;
+        tick.previousPrice = price;
+        tick.tickNanos = System.nanoTime();
+        ring.publish(tick);
+    }
+}
@@ -0,0 +1,222 @@
+package com.stockmonitor;
+
+import com.stockmonitor.logging.Log;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays alarm sounds with steady, low latency. Each sound file is decoded once at startup
+ * and kept in a small pool of pre-opened Clips, so playing only rewinds and starts a clip.
+ * Playback requests run on a dedicated "AlertSoundThread"; callers (the alert consumer) never
+ * wait for audio, and requests are dropped if the sound thread is already backed up.
+ */
+public class AlarmSoundPlayer {
+
+    private static final Log LOG = Log.get(AlarmSoundPlayer.class);
+
+    // -Dstockmonitor.sound.clipsPerSound=3
+    private static final int CLIPS_PER_SOUND = Integer.getInteger("stockmonitor.sound.clipsPerSound", 3);
+    // -Dstockmonitor.sound.enabled=true: false mutes alarms, e.g. for load tests
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("stockmonitor.sound.enabled", "true"));
+    private static final int MAX_PENDING_REQUESTS = 8;
+
+    private final Map<AlertSeverity, ClipPool> poolsBySeverity = new EnumMap<>(AlertSeverity.class);
+    private final ThreadPoolExecutor soundExecutor;
+    private boolean loadAttempted = false; // Sound thread only
+
+    public AlarmSoundPlayer() {
+        soundExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDING_REQUESTS),
+                r -> {
+                    Thread t = new Thread(r, "AlertSoundThread");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.DiscardPolicy()); // A missed beep is better than a growing backlog
+        LOG.info("Instance created. Clips per sound: {}.", CLIPS_PER_SOUND);
+    }
+
+    /**
+     * Decodes all sounds and opens the clip pools. Runs on the sound thread so startup is not delayed.
+     */
+    public void preload() {
+        if (!ENABLED) return;
+        try {
+            soundExecutor.execute(this::loadAllSounds);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Could not schedule sound preload: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Plays the sound for the severity. Returns immediately.
+     */
+    public void play(AlertSeverity severity) {
+        if (!ENABLED) return;
+        try {
+            soundExecutor.execute(() -> playNow(severity));
+        } catch (RejectedExecutionException e) {
+            // Executor is shut down; nothing to play
+        }
+    }
+
+    private void loadAllSounds() {
+        loadAttempted = true;
+        long start = System.nanoTime();
+        Map<String, ClipPool> poolsByResource = new java.util.HashMap<>(); // Severities sharing a file share one pool
+        for (AlertSeverity severity : AlertSeverity.values()) {
+            String resource = severity.getSoundResource();
+            ClipPool pool = poolsByResource.get(resource);
+            if (pool == null && soundExists(resource)) {
+                pool = loadPool(resource);
+                if (pool != null) poolsByResource.put(resource, pool);
+            }
+            if (pool == null) {
+                resource = AlertSeverity.DEFAULT_SOUND;
+                pool = poolsByResource.get(resource);
+                if (pool == null) {
+                    pool = loadPool(resource);
+                    if (pool != null) poolsByResource.put(resource, pool);
+                }
+            }
+            if (pool != null) {
+                synchronized (poolsBySeverity) {
+                    poolsBySeverity.put(severity, pool);
+                }
+            }
+        }
+        LOG.info("Sounds preloaded in {}ms. Distinct sounds: {}.", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), poolsByResource.size());
+    }
+
+    private void playNow(AlertSeverity severity) {
+        ClipPool pool;
+        synchronized (poolsBySeverity) {
+            pool = poolsBySeverity.get(severity);
+        }
+        if (pool == null && !loadAttempted) {
+            loadAllSounds(); // Preload was not called; load on this thread
+            synchronized (poolsBySeverity) {
+                pool = poolsBySeverity.get(severity);
+            }
+        }
+        if (pool == null || !pool.play()) {
+            java.awt.Toolkit.getDefaultToolkit().beep(); // Fallback beep
+        }
+    }
+
+    private ClipPool loadPool(String resource) {
+        try (InputStream raw = openStream(resource)) {
+            if (raw == null) {
+                LOG.warn("Sound file not found: {}", resource);
+                return null;
+            }
+            try (AudioInputStream audioIn = AudioSystem.getAudioInputStream(new BufferedInputStream(raw))) {
+                AudioFormat format = audioIn.getFormat();
+                byte[] pcm = readFully(audioIn);
+                ClipPool pool = new ClipPool(resource, format, pcm, CLIPS_PER_SOUND);
+                LOG.debug("Decoded {} ({} bytes, {}).", resource, pcm.length, format);
+                return pool;
+            }
+        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
+            LOG.error("Error loading sound file {}: {}", resource, e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean soundExists(String resource) {
+        return AlarmSoundPlayer.class.getResource(resource) != null || new File(resource).isFile();
+    }
+
+    // Classpath resource first (as before), then a plain file path.
+    private static InputStream openStream(String resource) {
+        try {
+            URL url = AlarmSoundPlayer.class.getResource(resource);
+            if (url != null) {
+                return url.openStream();
+            }
+            File file = new File(resource);
+            if (file.isFile()) {
+                return new java.io.FileInputStream(file);
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not open sound {}: {}", resource, e.getMessage());
+        }
+        return null;
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[16384];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    public void shutdown() {
+        soundExecutor.shutdownNow();
+        synchronized (poolsBySeverity) {
+            for (ClipPool pool : poolsBySeverity.values()) {
+                pool.close();
+            }
+            poolsBySeverity.clear();
+        }
+        LOG.info("Shut down, clips closed.");
+    }
+
+    // Pre-opened clips for one decoded sound. Only used on the sound thread (close() after shutdown).
+    private static final class ClipPool {
+        private final String resource;
+        private final Clip[] clips;
+        private int next = 0;
+
+        ClipPool(String resource, AudioFormat format, byte[] pcm, int size) throws LineUnavailableException {
+            this.resource = resource;
+            this.clips = new Clip[Math.max(1, size)];
+            for (int i = 0; i < clips.length; i++) {
+                Clip clip = AudioSystem.getClip();
+                clip.open(format, pcm, 0, pcm.length);
+                clips[i] = clip;
+            }
+        }
+
+        // Picks an idle clip (or the least recently started one) and restarts it from the beginning.
+        boolean play() {
+            for (int attempt = 0; attempt < clips.length; attempt++) {
+                Clip clip = clips[next];
+                next = (next + 1) % clips.length;
+                if (!clip.isRunning() || attempt == clips.length - 1) {
+                    clip.stop();
+                    clip.setFramePosition(0);
+                    clip.start();
+                    return true;
+                }
+            }
+            LOG.warn("No clip available for {}", resource);
+            return false;
+        }
+
+        void close() {
+            for (Clip clip : clips) {
+                clip.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.stockmonitor;
+
+// Enum defining the alert conditions that can be selected for a symbol.
+// The display name is what gets shown in the UI and stored in the "Condition@Value" threshold string.
+public enum AlertCondition {
+    PRICE_ABOVE("Price > Value", true, "%s price (%.4f) > target (%.4f)"),
+    PRICE_BELOW("Price < Value", true, "%s price (%.4f) < target (%.4f)"),
+    PRICE_CROSSES_UP("Price Crosses (Up)", true, "%s price (%.4f) crossed target (%.4f) upwards"),
+    PRICE_CROSSES_DOWN("Price Crosses (Down)", true, "%s price (%.4f) crossed target (%.4f) downwards"),
+    PRICE_ABOVE_SMA("Price > SMA", false, "%s price (%.4f) > SMA (%.4f)"),
+    PRICE_BELOW_SMA("Price < SMA", false, "%s price (%.4f) < SMA (%.4f)"),
+    PRICE_ABOVE_EMA("Price > EMA", false, "%s price (%.4f) > EMA (%.4f)"),
+    PRICE_BELOW_EMA("Price < EMA", false, "%s price (%.4f) < EMA (%.4f)"),
+    RSI_ABOVE("RSI > Value", true, "%s RSI (%.2f) > target (%.2f)"),
+    RSI_BELOW("RSI < Value", true, "%s RSI (%.2f) < target (%.2f)"),
+    PRICE_ABOVE_UPPER_BAND("Price > Upper Bollinger", false, "%s price (%.4f) > upper Bollinger band (%.4f)"),
+    PRICE_BELOW_LOWER_BAND("Price < Lower Bollinger", false, "%s price (%.4f) < lower Bollinger band (%.4f)"),
+    PERCENT_CHANGE_ABOVE("% Change > Value", true, "%s change (%.2f%%) > target (%.2f%%)"),
+    PERCENT_CHANGE_BELOW("% Change < Value", true, "%s change (%.2f%%) < target (%.2f%%)");
+
+    private final String displayName;
+    private final boolean requiresTargetValue;
+    private final String messagePattern; // Arguments: symbol, observed value, reference value
+
+    AlertCondition(String displayName, boolean requiresTargetValue, String messagePattern) {
+        this.displayName = displayName;
+        this.requiresTargetValue = requiresTargetValue;
+        this.messagePattern = messagePattern;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    // False for conditions that compare against an indicator instead of the user's target value.
+    public boolean requiresTargetValue() {
+        return requiresTargetValue;
+    }
+
+    // Price targets are what the user explicitly asked for; indicator signals are advisory.
+    public AlertSeverity getSeverity() {
+        switch (this) {
+            case PRICE_ABOVE:
+            case PRICE_BELOW:
+            case PRICE_CROSSES_UP:
+            case PRICE_CROSSES_DOWN:
+                return AlertSeverity.CRITICAL;
+            default:
+                return AlertSeverity.WARNING;
+        }
+    }
+
+    public String getMessagePattern() {
+        return messagePattern;
+    }
+
+    /**
+     * The value this condition watches: RSI, % change or the price itself.
+     */
+    public double observedValue(double price, IndicatorValues indicators) {
+        switch (this) {
+            case RSI_ABOVE:
+            case RSI_BELOW:
+                return indicators.getRsi();
+            case PERCENT_CHANGE_ABOVE:
+            case PERCENT_CHANGE_BELOW:
+                return indicators.getPercentChange();
+            default:
+                return price;
+        }
+    }
+
+    /**
+     * The level the observed value is compared against: the user's target or an indicator.
+     */
+    public double referenceValue(double targetValue, IndicatorValues indicators) {
+        switch (this) {
+            case PRICE_ABOVE_SMA:
+            case PRICE_BELOW_SMA:
+                return indicators.getSma();
+            case PRICE_ABOVE_EMA:
+            case PRICE_BELOW_EMA:
+                return indicators.getEma();
+            case PRICE_ABOVE_UPPER_BAND:
+                return indicators.getUpperBand();
+            case PRICE_BELOW_LOWER_BAND:
+                return indicators.getLowerBand();
+            default:
+                return targetValue;
+        }
+    }
+
+    /**
+     * Evaluates the condition for one tick. previousPrice is -1 when there is no previous tick.
+     * Indicator values are NaN until enough samples have arrived, and every comparison with NaN
+     * is false, so indicator conditions stay silent during warm-up without extra checks.
+     */
+    public boolean isMet(double price, double previousPrice, double targetValue, IndicatorValues indicators) {
+        double observed = observedValue(price, indicators);
+        double reference = referenceValue(targetValue, indicators);
+        switch (this) {
+            case PRICE_CROSSES_UP:
+                return previousPrice != -1 && previousPrice < reference && price >= reference;
+            case PRICE_CROSSES_DOWN:
+                return previousPrice != -1 && previousPrice > reference && price <= reference;
+            case PRICE_ABOVE:
+            case PRICE_ABOVE_SMA:
+            case PRICE_ABOVE_EMA:
+            case PRICE_ABOVE_UPPER_BAND:
+            case RSI_ABOVE:
+            case PERCENT_CHANGE_ABOVE:
+                return observed > reference;
+            default: // All remaining conditions are "below" comparisons
+                return observed < reference;
+        }
+    }
+
+    public static AlertCondition fromDisplayName(String displayName) {
+        if (displayName == null) return null;
+        String trimmed = displayName.trim();
+        for (AlertCondition condition : AlertCondition.values()) {
+            if (condition.displayName.equals(trimmed)) {
+                return condition;
+            }
+        }
+        return null; // Unknown condition, no alert is evaluated
+    }
+
+    public static String[] displayNames() {
+        AlertCondition[] conditions = AlertCondition.values();
+        String[] names = new String[conditions.length];
+        for (int i = 0; i < conditions.length; i++) {
+            names[i] = conditions[i].displayName;
+        }
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,199 @@
+package com.stockmonitor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+/**
+ * A single alert as it travels from a StockWatcherThread through the AlertManager queue.
+ * Fields are typed so consumers never have to parse a formatted message back;
+ * the human-readable text is only built when something actually displays it.
+ */
+public final class AlertEvent {
+
+    public enum Type {
+        CONDITION,   // A configured alert condition was met
+        FETCH_ERROR  // Price could not be fetched for the symbol
+    }
+
+    private static final DateTimeFormatter DTF = DateTimeFormatter.ofPattern("HH:mm:ss");
+    public static final int NO_RULE = -1;
+
+    private final String symbol;
+    private final int ruleId;
+    private final Type type;
+    private final AlertCondition condition; // null for FETCH_ERROR
+    private final double value;             // Observed value: price, RSI or % change
+    private final double target;            // Compared against: target value or indicator level
+    private final long timestampEpochNanos;
+    private final long tickNanos;           // System.nanoTime() when the triggering price arrived, 0 if unknown
+    private final String detail;            // Error detail for FETCH_ERROR, otherwise null
+    private final Key dedupeKey; // symbol + type + condition
+    private final Key ruleKey;   // dedupeKey + ruleId
+
+    private String displayText; // Built lazily, see toDisplayString()
+
+    private AlertEvent(String symbol, int ruleId, Type type, AlertCondition condition,
+                       double value, double target, long timestampEpochNanos, long tickNanos, String detail) {
+        this.symbol = symbol;
+        this.ruleId = ruleId;
+        this.type = type;
+        this.condition = condition;
+        this.value = value;
+        this.target = target;
+        this.timestampEpochNanos = timestampEpochNanos;
+        this.tickNanos = tickNanos;
+        this.detail = detail;
+        // Same granularity as the old string key ("SYMBOL: price > target"): symbol + condition.
+        this.dedupeKey = new Key(symbol, type, condition, NO_RULE);
+        this.ruleKey = ruleId == NO_RULE ? dedupeKey : new Key(symbol, type, condition, ruleId);
+    }
+
+    public static AlertEvent conditionMet(String symbol, int ruleId, AlertCondition condition, double value, double target) {
+        return conditionMet(symbol, ruleId, condition, value, target, 0L);
+    }
+
+    public static AlertEvent conditionMet(String symbol, int ruleId, AlertCondition condition, double value, double target, long tickNanos) {
+        return new AlertEvent(symbol, ruleId, Type.CONDITION, condition, value, target, currentEpochNanos(), tickNanos, null);
+    }
+
+    public static AlertEvent fetchError(String symbol, String detail) {
+        return new AlertEvent(symbol, NO_RULE, Type.FETCH_ERROR, null, Double.NaN, Double.NaN, currentEpochNanos(), 0L, detail);
+    }
+
+    static long currentEpochNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int getRuleId() {
+        return ruleId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public AlertCondition getCondition() {
+        return condition;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public double getTarget() {
+        return target;
+    }
+
+    public long getTimestampEpochNanos() {
+        return timestampEpochNanos;
+    }
+
+    // System.nanoTime() when the price that triggered the alert arrived; 0 for alerts without a tick
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public long getTimestampEpochMillis() {
+        return timestampEpochNanos / 1_000_000L;
+    }
+
+    public AlertSeverity getSeverity() {
+        return type == Type.FETCH_ERROR ? AlertSeverity.INFO : condition.getSeverity();
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * Key identifying "the same alert" for cooldowns: symbol + type + condition.
+     * Computed once in the constructor, so lookups only hash it once.
+     */
+    public Key getDedupeKey() {
+        return dedupeKey;
+    }
+
+    /**
+     * Key identifying the alert of one rule: symbol + type + condition + ruleId. Two rules with the
+     * same condition on one symbol (e.g. "Price > Value@100" and "Price > Value@110") differ here.
+     */
+    public Key getRuleKey() {
+        return ruleKey;
+    }
+
+    // Message without timestamp and prefix, e.g. "AAPL price (190.1200) > target (190.0000)".
+    public String getMessage() {
+        if (type == Type.FETCH_ERROR) {
+            return "Error fetching price for " + symbol + ": " + detail;
+        }
+        return String.format(condition.getMessagePattern(), symbol, value, target);
+    }
+
+    // Full line as shown in the alert log, e.g. "[14:03:12] ALERT (AAPL): AAPL price (...) > target (...)".
+    public String toDisplayString() {
+        String text = displayText;
+        if (text == null) {
+            LocalDateTime time = LocalDateTime.ofInstant(
+                    Instant.ofEpochSecond(0, timestampEpochNanos), ZoneId.systemDefault());
+            text = String.format("[%s] ALERT (%s): %s", time.format(DTF), symbol, getMessage());
+            displayText = text; // Benign race: every thread computes the same string
+        }
+        return text;
+    }
+
+    /**
+     * Composite alert identity. Equality compares the fields, so symbols with colliding hash codes
+     * never share a key; the hash code is only a bucket hint.
+     */
+    public static final class Key {
+        private final String symbol;
+        private final Type type;
+        private final AlertCondition condition;
+        private final int ruleId;
+        private final int hash;
+
+        private Key(String symbol, Type type, AlertCondition condition, int ruleId) {
+            this.symbol = symbol;
+            this.type = type;
+            this.condition = condition;
+            this.ruleId = ruleId;
+            int h = symbol.hashCode();
+            h = 31 * h + type.hashCode();
+            h = 31 * h + Objects.hashCode(condition);
+            this.hash = 31 * h + ruleId; // Like Objects.hash, without boxing and a varargs array per key
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return hash == key.hash && ruleId == key.ruleId && type == key.type
+                    && condition == key.condition && symbol.equals(key.symbol);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return symbol + "/" + type + "/" + condition + (ruleId == NO_RULE ? "" : "/" + ruleId);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AlertEvent[symbol=" + symbol + ", ruleId=" + ruleId + ", type=" + type + ", condition=" + condition
+                + ", value=" + value + ", target=" + target + ", timestampEpochNanos=" + timestampEpochNanos + "]";
+    }
+}
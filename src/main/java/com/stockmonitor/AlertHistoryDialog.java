@@ -0,0 +1,214 @@
+package com.stockmonitor;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Browses the persistent alert history one page at a time, filtered by symbol and time range.
+ * Queries run on a SwingWorker; only the rows of the current page are ever loaded.
+ */
+public class AlertHistoryDialog extends JDialog {
+
+    private static final int PAGE_SIZE = 100;
+    private static final String ALL_SYMBOLS = "All symbols";
+    private static final String[] RANGES = {"Last hour", "Today", "This week", "Last 30 days", "All time"};
+    private static final DateTimeFormatter DTF = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final AlertHistoryStore store;
+    private final JComboBox<String> symbolCombo = new JComboBox<>();
+    private final JComboBox<String> rangeCombo = new JComboBox<>(RANGES);
+    private final JButton previousButton = new JButton("< Newer");
+    private final JButton nextButton = new JButton("Older >");
+    private final JLabel statusLabel = new JLabel(" ");
+    private final HistoryTableModel tableModel = new HistoryTableModel();
+    private int pageOffset = 0;
+    private int totalCount = 0;
+    private SwingWorker<AlertHistoryStore.Page, Void> runningQuery;
+
+    public AlertHistoryDialog(JFrame owner, AlertHistoryStore store) {
+        super(owner, "Alert History", false);
+        this.store = store;
+        setLayout(new BorderLayout(5, 5));
+        ((JPanel) getContentPane()).setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filterPanel.add(new JLabel("Symbol:"));
+        filterPanel.add(symbolCombo);
+        filterPanel.add(new JLabel("Range:"));
+        rangeCombo.setSelectedItem("This week");
+        filterPanel.add(rangeCombo);
+        JButton refreshButton = new JButton("Refresh");
+        filterPanel.add(refreshButton);
+        add(filterPanel, BorderLayout.NORTH);
+
+        JTable table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(false); // Rows are already newest first; sorting a page would be misleading
+        table.getColumnModel().getColumn(0).setPreferredWidth(140);
+        table.getColumnModel().getColumn(1).setPreferredWidth(90);
+        table.getColumnModel().getColumn(2).setPreferredWidth(70);
+        table.getColumnModel().getColumn(3).setPreferredWidth(480);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JPanel pagingPanel = new JPanel(new BorderLayout());
+        pagingPanel.add(statusLabel, BorderLayout.WEST);
+        JPanel pagingButtons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        pagingButtons.add(previousButton);
+        pagingButtons.add(nextButton);
+        pagingPanel.add(pagingButtons, BorderLayout.EAST);
+        add(pagingPanel, BorderLayout.SOUTH);
+
+        symbolCombo.addActionListener(_e -> runQuery(0));
+        rangeCombo.addActionListener(_e -> runQuery(0));
+        refreshButton.addActionListener(_e -> {
+            reloadSymbols();
+            runQuery(0);
+        });
+        previousButton.addActionListener(_e -> runQuery(Math.max(0, pageOffset - PAGE_SIZE)));
+        nextButton.addActionListener(_e -> runQuery(pageOffset + PAGE_SIZE));
+
+        setSize(900, 500);
+        setLocationRelativeTo(owner);
+    }
+
+    /**
+     * Shows the dialog with fresh results. Must be called on the EDT.
+     */
+    public void open() {
+        reloadSymbols();
+        runQuery(0);
+        setVisible(true);
+        toFront();
+    }
+
+    private void reloadSymbols() {
+        Object selected = symbolCombo.getSelectedItem();
+        java.awt.event.ActionListener[] listeners = symbolCombo.getActionListeners();
+        for (java.awt.event.ActionListener l : listeners) symbolCombo.removeActionListener(l);
+        symbolCombo.removeAllItems();
+        symbolCombo.addItem(ALL_SYMBOLS);
+        for (String symbol : store.getSymbols()) {
+            symbolCombo.addItem(symbol);
+        }
+        symbolCombo.setSelectedItem(selected != null ? selected : ALL_SYMBOLS);
+        for (java.awt.event.ActionListener l : listeners) symbolCombo.addActionListener(l);
+    }
+
+    private void runQuery(int offset) {
+        if (runningQuery != null) {
+            runningQuery.cancel(false); // Its result is ignored
+        }
+        String selected = (String) symbolCombo.getSelectedItem();
+        final String symbol = selected == null || ALL_SYMBOLS.equals(selected) ? null : selected;
+        final long fromMillis = rangeStartMillis((String) rangeCombo.getSelectedItem());
+        final long toMillis = Long.MAX_VALUE;
+        statusLabel.setText("Loading...");
+        previousButton.setEnabled(false);
+        nextButton.setEnabled(false);
+
+        SwingWorker<AlertHistoryStore.Page, Void> worker = new SwingWorker<AlertHistoryStore.Page, Void>() {
+            @Override
+            protected AlertHistoryStore.Page doInBackground() throws Exception {
+                return store.query(symbol, fromMillis, toMillis, offset, PAGE_SIZE);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || runningQuery != this) return;
+                try {
+                    AlertHistoryStore.Page page = get();
+                    pageOffset = page.getOffset();
+                    totalCount = page.getTotalCount();
+                    tableModel.setRecords(page.getRecords());
+                    int shownTo = pageOffset + page.getRecords().size();
+                    statusLabel.setText(totalCount == 0 ? "No alerts found."
+                            : "Showing " + (pageOffset + 1) + "-" + shownTo + " of " + totalCount + " alerts (newest first)");
+                    previousButton.setEnabled(pageOffset > 0);
+                    nextButton.setEnabled(shownTo < totalCount);
+                } catch (InterruptedException | ExecutionException e) {
+                    statusLabel.setText("Could not load alert history: " + e.getMessage());
+                    System.err.println("[AlertHistoryDialog] [Thread: " + Thread.currentThread().getName() + "] Query failed: " + e.getMessage());
+                }
+            }
+        };
+        runningQuery = worker;
+        worker.execute();
+    }
+
+    private static long rangeStartMillis(String range) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate today = LocalDate.now(zone);
+        switch (range == null ? "" : range) {
+            case "Last hour":
+                return System.currentTimeMillis() - 3_600_000L;
+            case "Today":
+                return today.atStartOfDay(zone).toInstant().toEpochMilli();
+            case "This week":
+                return today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay(zone).toInstant().toEpochMilli();
+            case "Last 30 days":
+                return System.currentTimeMillis() - 30L * 86_400_000L;
+            default:
+                return Long.MIN_VALUE;
+        }
+    }
+
+    private static final class HistoryTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Time", "Symbol", "Severity", "Message"};
+        private List<AlertHistoryRecord> records = Collections.emptyList();
+
+        void setRecords(List<AlertHistoryRecord> records) {
+            this.records = records;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return records.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            AlertHistoryRecord record = records.get(row);
+            switch (column) {
+                case 0:
+                    return LocalDateTime.ofInstant(Instant.ofEpochMilli(record.getTimestampMillis()), ZoneId.systemDefault()).format(DTF);
+                case 1:
+                    return record.getSymbol();
+                case 2:
+                    return record.getType() == AlertEvent.Type.FETCH_ERROR ? "ERROR" : record.getSeverity().name();
+                default:
+                    return record.getMessage();
+            }
+        }
+    }
+}
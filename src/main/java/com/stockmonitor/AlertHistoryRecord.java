@@ -0,0 +1,65 @@
+package com.stockmonitor;
+
+/**
+ * One alert as read back from the AlertHistoryStore.
+ */
+public final class AlertHistoryRecord {
+
+    private final long timestampMillis;
+    private final String symbol;
+    private final AlertEvent.Type type;
+    private final String condition; // AlertCondition name, empty for fetch errors
+    private final AlertSeverity severity;
+    private final double value;
+    private final double target;
+    private final String message;
+
+    AlertHistoryRecord(long timestampMillis, String symbol, AlertEvent.Type type, String condition,
+                       AlertSeverity severity, double value, double target, String message) {
+        this.timestampMillis = timestampMillis;
+        this.symbol = symbol;
+        this.type = type;
+        this.condition = condition;
+        this.severity = severity;
+        this.value = value;
+        this.target = target;
+        this.message = message;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public AlertEvent.Type getType() {
+        return type;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public AlertSeverity getSeverity() {
+        return severity;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public double getTarget() {
+        return target;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "AlertHistoryRecord[" + timestampMillis + ", " + symbol + ", " + type + ", " + condition + ", " + message + "]";
+    }
+}
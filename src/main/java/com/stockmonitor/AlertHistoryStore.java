@@ -0,0 +1,348 @@
+package com.stockmonitor;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Append-only alert history on disk (one tab-separated line per alert) with in-memory indexes
+ * by time, globally and per symbol. An index entry is only a timestamp, file offset and length,
+ * so queries such as "all TSLA alerts this week, page 3" binary-search the index and read just
+ * the lines of the requested page from the file. The index is rebuilt by one scan on open().
+ *
+ * The store is an AlertSink, so alerts reach it through its own AsyncAlertSinkRunner and writing
+ * never happens on the alert consumer or the EDT.
+ */
+public class AlertHistoryStore implements AlertSink {
+
+    // -Dstockmonitor.history.file=~/.stockmonitor/alert-history.tsv
+    public static final File DEFAULT_FILE = new File(System.getProperty("stockmonitor.history.file",
+            System.getProperty("user.home") + File.separator + ".stockmonitor" + File.separator + "alert-history.tsv"));
+
+    private final File file;
+    private FileChannel channel;
+    private long writePosition;
+    private final TimeIndex globalIndex = new TimeIndex();
+    private final Map<String, TimeIndex> symbolIndexes = new HashMap<>();
+    private final Object lock = new Object(); // Guards channel state and indexes
+
+    public AlertHistoryStore() {
+        this(DEFAULT_FILE);
+    }
+
+    public AlertHistoryStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * One page of query results, newest first.
+     */
+    public static final class Page {
+        private final List<AlertHistoryRecord> records;
+        private final int offset;
+        private final int totalCount;
+
+        Page(List<AlertHistoryRecord> records, int offset, int totalCount) {
+            this.records = records;
+            this.offset = offset;
+            this.totalCount = totalCount;
+        }
+
+        public List<AlertHistoryRecord> getRecords() {
+            return records;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        public int getTotalCount() {
+            return totalCount;
+        }
+    }
+
+    /**
+     * Opens (or creates) the history file and rebuilds the indexes by scanning it once.
+     * A partially written last line (e.g. after a crash) is cut off.
+     */
+    public void open() throws IOException {
+        synchronized (lock) {
+            if (channel != null) return;
+            long start = System.nanoTime();
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Could not create directory " + parent);
+            }
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long validLength = rebuildIndexes();
+            if (validLength < channel.size()) {
+                System.err.println("[AlertHistoryStore] [Thread: " + Thread.currentThread().getName() + "] Truncating incomplete record at offset " + validLength + " in " + file);
+                channel.truncate(validLength);
+            }
+            writePosition = validLength;
+            System.out.println("[AlertHistoryStore] [Thread: " + Thread.currentThread().getName() + "] Opened " + file + ". Records: " + globalIndex.size
+                    + ", symbols: " + symbolIndexes.size() + ", indexed in " + (System.nanoTime() - start) / 1_000_000 + "ms.");
+        }
+    }
+
+    // Streams through the file once, parsing only the timestamp and symbol of each line.
+    private long rebuildIndexes() throws IOException {
+        globalIndex.clear();
+        symbolIndexes.clear();
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(0)), 65536);
+        byte[] line = new byte[256];
+        long lineStart = 0;
+        long position = 0;
+        int length = 0;
+        int b;
+        while ((b = in.read()) != -1) {
+            position++;
+            if (b != '\n') {
+                if (length == line.length) line = Arrays.copyOf(line, length * 2);
+                line[length++] = (byte) b;
+                continue;
+            }
+            indexLine(line, length, lineStart, (int) (position - lineStart));
+            lineStart = position;
+            length = 0;
+        }
+        // Not closing 'in': it would close the channel we keep using
+        return lineStart;
+    }
+
+    private void indexLine(byte[] line, int length, long offset, int recordLength) {
+        int firstTab = indexOf(line, 0, length);
+        int secondTab = firstTab < 0 ? -1 : indexOf(line, firstTab + 1, length);
+        if (secondTab < 0) return; // Corrupt line, skip it
+        try {
+            long timestamp = Long.parseLong(new String(line, 0, firstTab, StandardCharsets.US_ASCII));
+            String symbol = new String(line, firstTab + 1, secondTab - firstTab - 1, StandardCharsets.UTF_8);
+            addToIndexes(symbol, timestamp, offset, recordLength);
+        } catch (NumberFormatException e) {
+            // Corrupt line, skip it
+        }
+    }
+
+    private static int indexOf(byte[] line, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (line[i] == '\t') return i;
+        }
+        return -1;
+    }
+
+    private void addToIndexes(String symbol, long timestamp, long offset, int length) {
+        globalIndex.add(timestamp, offset, length);
+        symbolIndexes.computeIfAbsent(symbol, _s -> new TimeIndex()).add(timestamp, offset, length);
+    }
+
+    @Override
+    public String getName() {
+        return "history";
+    }
+
+    // Runs on the sink thread: one write per batch.
+    @Override
+    public void deliver(List<AlertEvent> batch) throws IOException {
+        byte[][] lines = new byte[batch.size()][];
+        int totalBytes = 0;
+        StringBuilder text = new StringBuilder(128);
+        for (int i = 0; i < lines.length; i++) {
+            text.setLength(0);
+            appendLine(text, batch.get(i));
+            lines[i] = text.toString().getBytes(StandardCharsets.UTF_8);
+            totalBytes += lines[i].length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(totalBytes);
+        for (byte[] line : lines) buffer.put(line);
+        buffer.flip();
+
+        synchronized (lock) {
+            if (channel == null) open();
+            long offset = writePosition;
+            while (buffer.hasRemaining()) {
+                writePosition += channel.write(buffer, writePosition);
+            }
+            for (int i = 0; i < lines.length; i++) {
+                addToIndexes(batch.get(i).getSymbol(), batch.get(i).getTimestampEpochMillis(), offset, lines[i].length);
+                offset += lines[i].length;
+            }
+        }
+    }
+
+    private static void appendLine(StringBuilder text, AlertEvent alert) {
+        text.append(alert.getTimestampEpochMillis()).append('\t')
+                .append(alert.getSymbol()).append('\t')
+                .append(alert.getType().name()).append('\t')
+                .append(alert.getCondition() != null ? alert.getCondition().name() : "").append('\t')
+                .append(alert.getSeverity().name()).append('\t')
+                .append(alert.getValue()).append('\t')
+                .append(alert.getTarget()).append('\t')
+                .append(alert.getMessage().replace('\t', ' ').replace('\n', ' ').replace('\r', ' '))
+                .append('\n');
+    }
+
+    /**
+     * Returns alerts with fromMillis <= timestamp < toMillis, newest first, skipping 'offset' records.
+     * symbol == null queries all symbols.
+     */
+    public Page query(String symbol, long fromMillis, long toMillis, int offset, int limit) throws IOException {
+        long[] offsets;
+        int[] lengths;
+        int total;
+        synchronized (lock) {
+            if (channel == null) open();
+            TimeIndex index = symbol == null ? globalIndex : symbolIndexes.get(symbol);
+            if (index == null) {
+                return new Page(Collections.emptyList(), offset, 0);
+            }
+            int lo = index.lowerBound(fromMillis);
+            int hi = index.lowerBound(toMillis);
+            total = Math.max(0, hi - lo);
+            int first = hi - 1 - Math.max(0, offset); // Newest first
+            int count = Math.max(0, Math.min(limit, first - lo + 1));
+            offsets = new long[count];
+            lengths = new int[count];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = index.offsets[first - i];
+                lengths[i] = index.lengths[first - i];
+            }
+        }
+        // Read outside the lock: positional reads do not disturb the writer
+        List<AlertHistoryRecord> records = new ArrayList<>(offsets.length);
+        for (int i = 0; i < offsets.length; i++) {
+            AlertHistoryRecord record = readRecord(offsets[i], lengths[i]);
+            if (record != null) records.add(record);
+        }
+        return new Page(records, offset, total);
+    }
+
+    public int count(String symbol, long fromMillis, long toMillis) {
+        synchronized (lock) {
+            TimeIndex index = symbol == null ? globalIndex : symbolIndexes.get(symbol);
+            return index == null ? 0 : Math.max(0, index.lowerBound(toMillis) - index.lowerBound(fromMillis));
+        }
+    }
+
+    public List<String> getSymbols() {
+        synchronized (lock) {
+            return new ArrayList<>(new TreeSet<>(symbolIndexes.keySet()));
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return globalIndex.size;
+        }
+    }
+
+    private AlertHistoryRecord readRecord(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        FileChannel readChannel;
+        synchronized (lock) {
+            readChannel = channel;
+        }
+        if (readChannel == null) return null;
+        while (buffer.hasRemaining()) {
+            if (readChannel.read(buffer, offset + buffer.position()) < 0) break;
+        }
+        String line = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).trim();
+        String[] fields = line.split("\t", 8);
+        if (fields.length < 8) return null;
+        try {
+            return new AlertHistoryRecord(Long.parseLong(fields[0]), fields[1], AlertEvent.Type.valueOf(fields[2]), fields[3],
+                    AlertSeverity.valueOf(fields[4]), Double.parseDouble(fields[5]), Double.parseDouble(fields[6]), fields[7]);
+        } catch (IllegalArgumentException e) {
+            System.err.println("[AlertHistoryStore] [Thread: " + Thread.currentThread().getName() + "] Skipping corrupt record at offset " + offset + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (channel == null) return;
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("[AlertHistoryStore] [Thread: " + Thread.currentThread().getName() + "] Error closing " + file + ": " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public String toString() {
+        return "AlertHistoryStore[" + file + "]";
+    }
+
+    // Timestamps with file offsets, kept sorted by time in parallel primitive arrays.
+    private static final class TimeIndex {
+        long[] times = new long[64];
+        long[] offsets = new long[64];
+        int[] lengths = new int[64];
+        int size;
+
+        void add(long time, long offset, int length) {
+            if (size == times.length) {
+                int capacity = size * 2;
+                times = Arrays.copyOf(times, capacity);
+                offsets = Arrays.copyOf(offsets, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            // Alerts arrive almost in time order; an older one is moved into place
+            int position = size;
+            if (size > 0 && times[size - 1] > time) {
+                position = upperBound(time);
+                System.arraycopy(times, position, times, position + 1, size - position);
+                System.arraycopy(offsets, position, offsets, position + 1, size - position);
+                System.arraycopy(lengths, position, lengths, position + 1, size - position);
+            }
+            times[position] = time;
+            offsets[position] = offset;
+            lengths[position] = length;
+            size++;
+        }
+
+        // First position with times[i] >= time
+        int lowerBound(long time) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (times[mid] < time) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        // First position with times[i] > time
+        int upperBound(long time) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (times[mid] <= time) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.stockmonitor;
+
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Alert and system message log. append() can be called from any thread: lines are buffered
+ * and written to the text area by a Swing timer once per frame (one append and one caret
+ * move for all pending lines), and the document is trimmed to a maximum line count.
+ * During an alert burst the EDT sees one runnable per frame instead of one per message.
+ */
+public class AlertLogView extends JScrollPane {
+
+    // -Dstockmonitor.alertLog.maxLines=5000 -Dstockmonitor.alertLog.flushIntervalMs=50
+    public static final int DEFAULT_MAX_LINES = Integer.getInteger("stockmonitor.alertLog.maxLines", 5000);
+    public static final int DEFAULT_FLUSH_INTERVAL_MS = Integer.getInteger("stockmonitor.alertLog.flushIntervalMs", 50);
+
+    private final JTextArea textArea;
+    private final int maxLines;
+    private final ConcurrentLinkedQueue<String> pendingLines = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Timer flushTimer;
+
+    public AlertLogView(int rows, int columns) {
+        this(rows, columns, DEFAULT_MAX_LINES, DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    public AlertLogView(int rows, int columns, int maxLines, int flushIntervalMs) {
+        this.textArea = new JTextArea(rows, columns);
+        this.maxLines = Math.max(1, maxLines);
+        textArea.setEditable(false);
+        textArea.setLineWrap(true);
+        textArea.setWrapStyleWord(true);
+        setViewportView(textArea);
+
+        // One-shot timer, started by the first append after a flush
+        flushTimer = new Timer(Math.max(1, flushIntervalMs), _e -> flushPendingLines());
+        flushTimer.setRepeats(false);
+        flushTimer.setCoalesce(false);
+        System.out.println("[AlertLogView] [Thread: " + Thread.currentThread().getName() + "] Instance created. Max lines: " + this.maxLines + ", flush interval: " + flushIntervalMs + "ms.");
+    }
+
+    /**
+     * Queues a line for display. Thread-safe and non-blocking.
+     */
+    public void append(String line) {
+        if (line == null) return;
+        pendingLines.offer(line);
+        // Lines beyond maxLines would be trimmed right after the flush anyway, so drop them early
+        if (pendingCount.incrementAndGet() > maxLines) {
+            if (pendingLines.poll() != null) {
+                pendingCount.decrementAndGet();
+            }
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            flushTimer.restart(); // javax.swing.Timer can be started from any thread
+        }
+    }
+
+    // Runs on the EDT (Swing timer).
+    private void flushPendingLines() {
+        flushScheduled.set(false); // Appends from now on schedule another flush
+        if (pendingLines.isEmpty()) {
+            return;
+        }
+        StringBuilder batch = new StringBuilder();
+        String line;
+        while ((line = pendingLines.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.append(line).append('\n');
+        }
+        textArea.append(batch.toString());
+        trimToMaxLines();
+        textArea.setCaretPosition(textArea.getDocument().getLength());
+    }
+
+    private void trimToMaxLines() {
+        int excessLines = textArea.getLineCount() - maxLines;
+        if (excessLines <= 0) {
+            return;
+        }
+        try {
+            Document document = textArea.getDocument();
+            int removeUpTo = textArea.getLineStartOffset(excessLines);
+            document.remove(0, removeUpTo);
+        } catch (BadLocationException e) {
+            System.err.println("[AlertLogView] [Thread: " + Thread.currentThread().getName() + "] Could not trim alert log: " + e.getMessage());
+        }
+    }
+
+    public JTextArea getTextArea() {
+        return textArea;
+    }
+
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    public int getPendingLineCount() {
+        return pendingCount.get();
+    }
+}
@@ -1,51 +1,94 @@
 package com.stockmonitor;
 
 // import com.stockmonitor.listeners.AlertListener; // No longer implements AlertListener directly
-import javax.swing.JTextArea;
-import javax.swing.SwingUtilities;
+import com.stockmonitor.logging.Log;
+import com.stockmonitor.metrics.AlertDispatchEvent;
+import com.stockmonitor.metrics.Metrics;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import javax.swing.JOptionPane;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-// Imports for playing custom sound (can remain)
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
-import javax.sound.sampled.LineUnavailableException;
-import javax.sound.sampled.UnsupportedAudioFileException;
-import java.io.IOException;
-import java.net.URL;
 
 public class AlertManager { // AlertListener implementation removed
 
-    private JTextArea alertTextArea; // Area in UI to display alerts
-    private final BlockingQueue<String> alertQueue; // Queue to process alerts
+    private static final Log LOG = Log.get(AlertManager.class);
+
+    private AlertLogView alertLogView; // Area in UI to display alerts, batches appends per frame
+    private volatile ToastNotifier toastNotifier; // Non-modal popups, replaces the modal JOptionPane
+    private volatile WatchlistTableModel watchlistModel; // Alert column of the watchlist
+    private final BoundedAlertQueue alertQueue; // Bounded queue to process alerts, never blocks the watchers
     private volatile boolean consumerRunning = true;
     private ExecutorService executorService;
     private Future<?> consumerTaskFuture;
     private static final DateTimeFormatter DTF = DateTimeFormatter.ofPattern("HH:mm:ss");
-    private static final String ALARM_SOUND_FILE = "/alarm.wav";
-    private final Map<String, Long> lastPlayedSoundTimes = new ConcurrentHashMap<>();
+    private final AlarmSoundPlayer soundPlayer; // Decodes alarm sounds once, plays them on its own thread
+    private final List<AsyncAlertSinkRunner> sinkRunners = new CopyOnWriteArrayList<>(); // File, webhook, command... each on its own thread
+    private final Map<AlertEvent.Key, Long> lastPlayedSoundTimes = new ConcurrentHashMap<>(); // AlertEvent dedupe key -> last played time
     private static final long SOUND_COOLDOWN_MS = 30000; // 30 seconds cooldown
+    // Queue size and overflow policy: -Dstockmonitor.alert.queueCapacity=256 -Dstockmonitor.alert.overflowPolicy=COALESCE|DROP_OLDEST
+    private static final int DEFAULT_QUEUE_CAPACITY = Integer.getInteger("stockmonitor.alert.queueCapacity", 256);
+    private static final BoundedAlertQueue.OverflowPolicy DEFAULT_OVERFLOW_POLICY =
+            BoundedAlertQueue.OverflowPolicy.fromString(System.getProperty("stockmonitor.alert.overflowPolicy"), BoundedAlertQueue.OverflowPolicy.COALESCE);
+
+    public AlertManager(AlertLogView alertLogView) {
+        this.alertLogView = alertLogView;
+        this.alertQueue = new BoundedAlertQueue(DEFAULT_QUEUE_CAPACITY, DEFAULT_OVERFLOW_POLICY);
+        this.soundPlayer = new AlarmSoundPlayer();
+        this.soundPlayer.preload(); // Decode before the first alert, not when it arrives
+        LOG.info("Instance created. alertLogView is {}. Queue capacity: {}, overflow policy: {}.", (alertLogView == null ? "null" : "set"), DEFAULT_QUEUE_CAPACITY, DEFAULT_OVERFLOW_POLICY);
+    }
 
-    public AlertManager(JTextArea alertTextArea) {
-        this.alertTextArea = alertTextArea;
-        this.alertQueue = new LinkedBlockingQueue<>();
-        System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Instance created. alertTextArea is " + (alertTextArea == null ? "null" : "set") + ".");
+    // To be called by MainController after MainFrame is created
+    public void setAlertLogView(AlertLogView alertLogView) {
+        this.alertLogView = alertLogView;
+        LOG.info("alertLogView set.");
     }
 
     // To be called by MainController after MainFrame is created
-    public void setAlertTextArea(JTextArea alertTextArea) {
-        this.alertTextArea = alertTextArea;
-        System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] alertTextArea set.");
+    public void setToastNotifier(ToastNotifier toastNotifier) {
+        this.toastNotifier = toastNotifier;
+        LOG.info("toastNotifier set.");
+    }
+
+    public void setWatchlistModel(WatchlistTableModel watchlistModel) {
+        this.watchlistModel = watchlistModel;
+    }
+
+    /**
+     * Routes every displayed alert to the sink as well. The sink runs on its own thread with a bounded queue,
+     * so a slow or failing sink never delays the consumer, the UI or the other sinks.
+     */
+    public void addSink(AlertSink sink) {
+        if (sink == null) return;
+        AsyncAlertSinkRunner runner = new AsyncAlertSinkRunner(sink);
+        runner.start();
+        sinkRunners.add(runner);
+        LOG.info("Alert sink added: {}", sink);
+    }
+
+    /**
+     * Stops routing alerts to the sink, delivers what is already queued for it and closes it.
+     */
+    public void removeSink(AlertSink sink) {
+        for (AsyncAlertSinkRunner runner : sinkRunners) {
+            if (runner.getSink() == sink) {
+                sinkRunners.remove(runner);
+                runner.stop(2000);
+                LOG.info("Alert sink removed: {}", sink);
+                return;
+            }
+        }
+    }
+
+    public List<AsyncAlertSinkRunner> getSinkRunners() {
+        return sinkRunners;
     }
 
     private void ensureExecutorIsReady() {
@@ -55,7 +98,7 @@ public class AlertManager { // AlertListener implementation removed
                 t.setDaemon(true); // Allows the thread to shut down when the main application closes
                 return t;
             });
-            System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] New ExecutorService (AlertConsumerThread) created for AlertManager.");
+            LOG.info("New ExecutorService (AlertConsumerThread) created for AlertManager.");
         }
     }
 
@@ -63,85 +106,114 @@ public class AlertManager { // AlertListener implementation removed
         ensureExecutorIsReady();
 
         if (consumerTaskFuture != null && !consumerTaskFuture.isDone() && !consumerTaskFuture.isCancelled()) {
-            System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] AlertManager consumer task is already running or pending completion.");
+            LOG.info("AlertManager consumer task is already running or pending completion.");
             return;
         }
-        System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Attempting to start consumer task.");
+        LOG.info("Attempting to start consumer task.");
         consumerRunning = true; // Set to true before starting the task
         consumerTaskFuture = executorService.submit(() -> {
-            System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] AlertManager consumer task (AlertConsumerThread) started.");
+            LOG.info("AlertManager consumer task (AlertConsumerThread) started.");
             try {
                 while (consumerRunning || !alertQueue.isEmpty()) {
-                    String alertMessage = null;
+                    AlertEvent alert = null;
                     try {
-                        alertMessage = alertQueue.poll(1, TimeUnit.SECONDS);
-                        if (alertMessage != null) {
-                            System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Dequeued alert: " + alertMessage);
-                            displayAlert(alertMessage);
+                        alert = alertQueue.poll(1, TimeUnit.SECONDS);
+                        if (alert != null) {
+                            LOG.debug("Dequeued alert: {}", alert);
+                            displayAlert(alert);
                         }
                         // If consumerRunning becomes false and the queue is empty, the loop will terminate.
                     } catch (InterruptedException e) {
                         if (consumerRunning) {
                             // Log if interrupted for a reason other than stopping.
-                            System.err.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] AlertManager consumer thread (poll) unexpectedly interrupted.");
+                            LOG.error("AlertManager consumer thread (poll) unexpectedly interrupted.");
                             Thread.currentThread().interrupt(); // Preserve interrupt status
                         } else {
                             // Expected interruption during stop.
-                            System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] AlertManager consumer thread (poll) interrupted during stop.");
+                            LOG.info("AlertManager consumer thread (poll) interrupted during stop.");
                         }
                         break; // Exit loop on interruption
                     }
                 }
             } finally {
-                System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] AlertManager consumer task (AlertConsumerThread) finished.");
+                LOG.info("AlertManager consumer task (AlertConsumerThread) finished.");
             }
         });
     }
 
     public void stopConsumer() {
-        System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] stopConsumer called. Setting consumerRunning to false.");
+        LOG.info("stopConsumer called. Setting consumerRunning to false.");
         consumerRunning = false; // Signal for the task's loop to terminate
 
         if (consumerTaskFuture != null) {
-            System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Cancelling consumer task future.");
+            LOG.info("Cancelling consumer task future.");
             consumerTaskFuture.cancel(true); // Attempt to cancel the task (sends interrupt if running)
         }
 
         if (executorService != null && !executorService.isShutdown()) {
-            System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Shutting down AlertManager executorService.");
+            LOG.info("Shutting down AlertManager executorService.");
             executorService.shutdown(); // Don't accept new tasks, try to finish existing ones
             try {
                 if (!executorService.awaitTermination(2, TimeUnit.SECONDS)) {
-                    System.err.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] AlertManager executor did not terminate in time, trying shutdownNow.");
+                    LOG.warn("AlertManager executor did not terminate in time, trying shutdownNow.");
                     executorService.shutdownNow(); // Attempt to interrupt active tasks
                     if (!executorService.awaitTermination(1, TimeUnit.SECONDS)) {
-                        System.err.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] AlertManager executor did not terminate after shutdownNow.");
+                        LOG.warn("AlertManager executor did not terminate after shutdownNow.");
                     }
                 }
             } catch (InterruptedException e) {
-                System.err.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Interrupted while shutting down AlertManager executor.");
+                LOG.warn("Interrupted while shutting down AlertManager executor.");
                 executorService.shutdownNow(); // Try to interrupt again
                 Thread.currentThread().interrupt(); // Preserve interrupt status of the current thread
             }
         }
         // alertQueue.clear(); // Optional: Clear remaining items in queue. Current loop already tries to empty it.
-        System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] stopConsumer completed.");
+        for (AsyncAlertSinkRunner runner : sinkRunners) {
+            runner.stop(2000); // Delivers what is already queued, then closes the sink
+        }
+        sinkRunners.clear();
+        soundPlayer.shutdown();
+        LOG.info("stopConsumer completed.");
+    }
+
+    // Called by StockWatcherThread and the TickRingBuffer's alerts consumer. Never blocks: when the queue is full the overflow policy drops or coalesces.
+    // The event is only formatted when it is displayed.
+    public void queueAlert(AlertEvent alert) {
+        if (alert == null) return;
+        Metrics.increment(Metrics.ALERTS_QUEUED);
+        LOG.debug("Queuing alert: {}", alert);
+        if (!alertQueue.offer(alert)) {
+            LOG.warn("Alert queue full ({}), oldest alert dropped. Total dropped: {}", alertQueue.getCapacity(), alertQueue.getDroppedCount());
+        }
+    }
+
+    public int getPendingAlertCount() {
+        return alertQueue.size();
+    }
+
+    public long getDroppedAlertCount() {
+        return alertQueue.getDroppedCount();
+    }
+
+    public long getCoalescedAlertCount() {
+        return alertQueue.getCoalescedCount();
     }
 
-    // Simplified method to be called by StockWatcherThread
-    public void queueAlert(String symbol, String message) {
-        if (symbol == null || message == null) return;
-        String fullMessage = String.format("[%s] ALERT (%s): %s",
-                                         LocalDateTime.now().format(DTF), // Use DTF
-                                         symbol,
-                                         message);
-        System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Queuing alert: " + fullMessage);
-        try {
-            alertQueue.put(fullMessage);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.err.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Adding to alert queue interrupted: " + fullMessage);
+    // Alerts waiting in all sink queues
+    public long getSinkQueueDepth() {
+        long depth = 0;
+        for (AsyncAlertSinkRunner runner : sinkRunners) {
+            depth += runner.getQueueDepth();
         }
+        return depth;
+    }
+
+    public long getSinkDroppedCount() {
+        long dropped = 0;
+        for (AsyncAlertSinkRunner runner : sinkRunners) {
+            dropped += runner.getDroppedCount();
+        }
+        return dropped;
     }
     
     // To write system messages directly to UI (e.g., monitoring started/stopped)
@@ -153,126 +225,78 @@ public class AlertManager { // AlertListener implementation removed
         // displayAlert(fullMessage); // Previously played sound.
 
         // Print system message directly to UI or console without playing sound:
-        if (alertTextArea != null) {
-            SwingUtilities.invokeLater(() -> {
-                System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Logging system message to UI: " + fullMessage);
-                alertTextArea.append(fullMessage + "\n");
-                alertTextArea.setCaretPosition(alertTextArea.getDocument().getLength());
-            });
+        if (alertLogView != null) {
+            alertLogView.append(fullMessage); // Written to the text area with the next frame
         } else {
-            System.out.println("System Message (AlertTextArea null): " + fullMessage);
-        }
-    }
-
-    // Extracts a key from the alert message to identify the alert type for cooldown
-    private String getAlertKey(String message) {
-        if (message == null) {
-            return "";
-        }
-        // Example message: "[04:02:43] ALERT (COINBASE:BTC-USD): COINBASE:BTC-USD price (103948.9600) < target (103960.8900)"
-        // We want a key like "COINBASE:BTC-USD: price < target"
-        try {
-            String noTimestamp = message.substring(message.indexOf("] ") + 2); // Remove timestamp
-            if (noTimestamp.startsWith("ALERT (")) {
-                String symbolPart = noTimestamp.substring(noTimestamp.indexOf("(") + 1, noTimestamp.indexOf(")"));
-                String detailsPart = noTimestamp.substring(noTimestamp.indexOf("): ") + 3);
-                // Further simplify detailsPart to get the core condition
-                // e.g., "COINBASE:BTC-USD price (103948.9600) < target (103960.8900)" -> "price < target"
-                // This is a bit naive, might need more robust parsing based on actual message formats
-                if (detailsPart.contains("price (") && detailsPart.contains(") < target (")) {
-                    return symbolPart + ": price < target";
-                } else if (detailsPart.contains("price (") && detailsPart.contains(") > target (")) {
-                    return symbolPart + ": price > target";
-                } else if (detailsPart.contains("price (") && detailsPart.contains(") crossed target (") && detailsPart.contains(" upwards")) {
-                    return symbolPart + ": price crossed target upwards";
-                } else if (detailsPart.contains("price (") && detailsPart.contains(") crossed target (") && detailsPart.contains(" downwards")) {
-                    return symbolPart + ": price crossed target downwards";
-                }
-                // Fallback to a more generic key if parsing fails
-                return symbolPart + ":" + detailsPart.split(" ")[1] + detailsPart.split(" ")[2];
-            }
-        } catch (Exception e) {
-            // If parsing fails, use a less specific part of the message or the whole message (minus timestamp)
-            System.err.println("[AlertManager] Error parsing alert key from message: '" + message + "'. Using broader key. Error: " + e.getMessage());
-            if (message.contains("ALERT (")) {
-                 return message.substring(message.indexOf("ALERT ("));
-            }
+            LOG.info("System Message (AlertLogView null): {}", fullMessage);
         }
-        return message; // Fallback to full message if specific parsing fails
     }
 
-    private boolean canPlaySound(String alertMessage) {
-        String alertKey = getAlertKey(alertMessage);
+    private boolean canPlaySound(AlertEvent alert) {
+        AlertEvent.Key alertKey = alert.getDedupeKey();
         long currentTime = System.currentTimeMillis();
         Long lastPlayedTime = lastPlayedSoundTimes.get(alertKey);
 
         if (lastPlayedTime == null || (currentTime - lastPlayedTime) > SOUND_COOLDOWN_MS) {
-            System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Cooldown check PASSED for alert key: '" + alertKey + "'. Sound can be played.");
+            LOG.debug("Cooldown check PASSED for {} ({}, {}). Sound can be played.", alert.getSymbol(), alert.getType(), alert.getCondition());
             lastPlayedSoundTimes.put(alertKey, currentTime);
             return true;
         }
-        System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Cooldown check FAILED for alert key: '" + alertKey + "'. Sound was played recently. Skipping.");
+        LOG.debug("Cooldown check FAILED for {} ({}, {}). Sound was played recently. Skipping.", alert.getSymbol(), alert.getType(), alert.getCondition());
         return false;
     }
 
-    // Displays alerts in the UI
-    private void displayAlert(String message) {
-        if (alertTextArea != null) {
-            SwingUtilities.invokeLater(() -> {
-                System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Displaying alert to UI: " + message);
-                alertTextArea.append(message + "\n");
-                alertTextArea.setCaretPosition(alertTextArea.getDocument().getLength());
+    // Displays alerts in the UI and hands them to the configured sinks
+    private void displayAlert(AlertEvent alert) {
+        AlertDispatchEvent event = new AlertDispatchEvent();
+        event.begin();
+        long queuedNanos = AlertEvent.currentEpochNanos() - alert.getTimestampEpochNanos(); // Time spent queued
+        Metrics.increment(Metrics.ALERTS_DISPLAYED);
+        Metrics.ALERT_DISPATCH.record(queuedNanos);
+        if (alert.getTickNanos() != 0L) {
+            Metrics.TICK_TO_ALERT.recordSince(alert.getTickNanos()); // From the price's HTTP response to dispatch
+        }
+        for (AsyncAlertSinkRunner runner : sinkRunners) {
+            runner.offer(alert); // Non-blocking; a full sink queue drops for that sink only
+        }
+        WatchlistTableModel watchlist = watchlistModel;
+        if (watchlist != null) {
+            watchlist.onAlert(alert); // Coalesced with the symbol's quotes, no EDT runnable per alert
+        }
+        final String message = alert.toDisplayString();
+        if (alertLogView != null) {
+            LOG.debug("Displaying alert to UI: {}", message);
+            alertLogView.append(message); // Batched, no EDT runnable per alert
 
-                if (canPlaySound(message)) {
-                    // Show JOptionPane dialog only when sound is also played
-                    java.awt.Component parentComponent = (alertTextArea != null && alertTextArea.isVisible()) ? SwingUtilities.getWindowAncestor(alertTextArea) : null;
-                    JOptionPane.showMessageDialog(parentComponent, 
-                                                  message, 
-                                                  "Stock Monitor Alert!", 
-                                                  JOptionPane.WARNING_MESSAGE);
-                    playSoundInternal(ALARM_SOUND_FILE); 
-                }
-            });
+            ToastNotifier notifier = toastNotifier;
+            if (notifier != null) {
+                notifier.show(alert); // Non-modal, collapses per symbol and dismisses itself
+            }
+            if (canPlaySound(alert)) {
+                playSound(alert);
+            }
         } else { // Fallback for when UI is not available (e.g. testing or headless mode)
-            System.out.println("Message (AlertTextArea null): " + message); 
-            if (canPlaySound(message)) {
-                 // Optionally, decide if JOptionPane makes sense in headless/no-UI mode
-                 // For now, skipping JOptionPane if alertTextArea is null, but sound still plays.
-                 playSoundInternal(ALARM_SOUND_FILE); 
+            LOG.info("Message (AlertLogView null): {}", message);
+            if (canPlaySound(alert)) {
+                 // No toast without a UI, but sound still plays.
+                 playSound(alert);
             }
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.symbol = alert.getSymbol();
+            event.type = alert.getType().name();
+            event.condition = String.valueOf(alert.getCondition());
+            event.queuedTime = queuedNanos;
+            event.commit();
+        }
     }
 
-    private void playSoundInternal(String soundFilePath) { // Renamed from playSound
+    private void playSound(AlertEvent alert) {
         if (!consumerRunning) { // If consumer is not running (monitoring stopped), don't play sound
-            System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Consumer not running, skipping sound for: " + soundFilePath);
+            LOG.info("Consumer not running, skipping sound for: {}", alert.getSeverity());
             return;
         }
-        System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Attempting to play sound: " + soundFilePath);
-        try {
-            URL soundURL = AlertManager.class.getResource(soundFilePath);
-            if (soundURL == null) {
-                System.err.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Warning: Sound file not found: " + soundFilePath);
-                java.awt.Toolkit.getDefaultToolkit().beep(); // Fallback beep
-                return;
-            }
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(soundURL);
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioIn);
-            // Add a listener to close the clip after it finishes playing
-            // This is important to release system resources, especially if sounds are played frequently.
-            clip.addLineListener(event -> {
-                if (event.getType() == javax.sound.sampled.LineEvent.Type.STOP) {
-                    Clip c = (Clip) event.getSource();
-                    c.close();
-                    // System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Sound clip closed: " + soundFilePath);
-                }
-            });
-            clip.start();
-            System.out.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Sound started: " + soundFilePath);
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
-            System.err.println("[AlertManager] [Thread: " + Thread.currentThread().getName() + "] Error playing sound file " + soundFilePath + ": " + e.getMessage());
-            java.awt.Toolkit.getDefaultToolkit().beep(); // Fallback beep
-        }
+        soundPlayer.play(alert.getSeverity()); // Returns immediately, a pre-opened clip is restarted on AlertSoundThread
     }
-} 
\ No newline at end of file
+}
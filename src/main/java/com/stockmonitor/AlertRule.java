@@ -0,0 +1,159 @@
+package com.stockmonitor;
+
+import com.stockmonitor.logging.Log;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One configured alert rule ("Condition@Value") with its firing state.
+ * The threshold string is parsed once instead of on every tick.
+ *
+ * A rule fires once when its condition becomes true and is then disarmed. It re-arms only
+ * after the observed value has moved back across the reference by the hysteresis band
+ * (rearmPercent of the reference), and it never fires more often than minFireIntervalMs.
+ * A stuck "Price > Value" condition therefore produces one alert, not one per tick.
+ *
+ * Each rule belongs to a single StockWatcherThread and is only evaluated by the alerts consumer
+ * of the TickRingBuffer, so its state is not synchronized.
+ */
+class AlertRule {
+
+    private static final Log LOG = Log.get(AlertRule.class);
+
+    // Defaults can be changed with -Dstockmonitor.alert.rearmPercent=... and -Dstockmonitor.alert.minFireIntervalMs=...
+    static final double DEFAULT_REARM_PERCENT = doubleProperty("stockmonitor.alert.rearmPercent", 0.5);
+    static final long DEFAULT_MIN_FIRE_INTERVAL_MS = Long.getLong("stockmonitor.alert.minFireIntervalMs", 15000L);
+
+    private static final AtomicInteger RULE_ID_SEQUENCE = new AtomicInteger(0);
+
+    private final int id;
+    private final AlertCondition condition;
+    private final double targetValue;
+    private final double rearmPercent;
+    private final long minFireIntervalMs;
+    private String source = ""; // The "Condition@Value" string the rule was parsed from
+
+    private boolean armed = true;
+    private long lastFiredMillis = Long.MIN_VALUE;
+    private long suppressedCount = 0; // Ticks where the condition held but the rule was disarmed or throttled
+
+    AlertRule(AlertCondition condition, double targetValue, double rearmPercent, long minFireIntervalMs) {
+        this.id = RULE_ID_SEQUENCE.incrementAndGet();
+        this.condition = condition;
+        this.targetValue = targetValue;
+        this.rearmPercent = Math.max(0.0, rearmPercent);
+        this.minFireIntervalMs = Math.max(0L, minFireIntervalMs);
+    }
+
+    /**
+     * Parses a "Condition@Value" threshold string. Returns null when no valid rule is configured.
+     */
+    static AlertRule parse(String thresholdConfig) {
+        if (thresholdConfig == null || thresholdConfig.trim().isEmpty() || !thresholdConfig.contains("@")) {
+            return null; // Threshold not configured or format is incorrect
+        }
+        String[] parts = thresholdConfig.split("@", 2);
+        AlertCondition condition = AlertCondition.fromDisplayName(parts[0]);
+        if (condition == null) {
+            LOG.error("Unknown alert condition: {}", parts[0]);
+            return null;
+        }
+        double targetValue;
+        try {
+            targetValue = Double.parseDouble(parts[1].trim());
+        } catch (NumberFormatException e) {
+            if (condition.requiresTargetValue()) {
+                LOG.error("Invalid target value format for {}: {}", condition, parts[1]);
+                return null;
+            }
+            targetValue = Double.NaN; // Indicator conditions do not use the target value
+        }
+        AlertRule rule = new AlertRule(condition, targetValue, DEFAULT_REARM_PERCENT, DEFAULT_MIN_FIRE_INTERVAL_MS);
+        rule.source = thresholdConfig;
+        return rule;
+    }
+
+    /**
+     * Evaluates the rule for one tick and returns an AlertEvent if it fires, otherwise null.
+     * previousPrice is -1 when there is no previous tick; tickNanos is the tick's arrival time, carried by the alert.
+     */
+    AlertEvent evaluate(String symbol, double price, double previousPrice, IndicatorValues indicators, long nowMillis, long tickNanos) {
+        double observed = condition.observedValue(price, indicators);
+        double reference = condition.referenceValue(targetValue, indicators);
+
+        if (!condition.isMet(price, previousPrice, targetValue, indicators)) {
+            if (!armed && hasMovedBackBeyondBand(observed, reference)) {
+                armed = true;
+            }
+            return null;
+        }
+        if (!armed || (lastFiredMillis != Long.MIN_VALUE && nowMillis - lastFiredMillis < minFireIntervalMs)) {
+            suppressedCount++;
+            return null;
+        }
+        armed = false;
+        lastFiredMillis = nowMillis;
+        return AlertEvent.conditionMet(symbol, id, condition, observed, reference, tickNanos);
+    }
+
+    // True when the observed value is back on the "not triggered" side of the reference by at least the band.
+    private boolean hasMovedBackBeyondBand(double observed, double reference) {
+        if (Double.isNaN(observed) || Double.isNaN(reference)) {
+            return false;
+        }
+        double band = Math.abs(reference) * rearmPercent / 100.0;
+        switch (condition) {
+            case PRICE_ABOVE:
+            case PRICE_ABOVE_SMA:
+            case PRICE_ABOVE_EMA:
+            case PRICE_ABOVE_UPPER_BAND:
+            case RSI_ABOVE:
+            case PERCENT_CHANGE_ABOVE:
+            case PRICE_CROSSES_UP:
+                return observed <= reference - band;
+            default: // "Below" and downward crossing conditions
+                return observed >= reference + band;
+        }
+    }
+
+    private static double doubleProperty(String key, double defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) return defaultValue;
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid value for {}: {}. Using default {}.", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    int getId() {
+        return id;
+    }
+
+    String getSource() {
+        return source;
+    }
+
+    AlertCondition getCondition() {
+        return condition;
+    }
+
+    double getTargetValue() {
+        return targetValue;
+    }
+
+    boolean isArmed() {
+        return armed;
+    }
+
+    long getSuppressedCount() {
+        return suppressedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "AlertRule[id=" + id + ", condition=" + condition + ", target=" + targetValue
+                + ", rearm=" + rearmPercent + "%, minInterval=" + minFireIntervalMs + "ms, armed=" + armed + "]";
+    }
+}
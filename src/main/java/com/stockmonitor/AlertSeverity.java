@@ -0,0 +1,22 @@
+package com.stockmonitor;
+
+// Severity of an alert, used to pick the alarm sound.
+public enum AlertSeverity {
+    INFO("/alarm-info.wav"),
+    WARNING("/alarm-warning.wav"),
+    CRITICAL("/alarm-critical.wav");
+
+    // Used for every severity whose own sound file is not available
+    public static final String DEFAULT_SOUND = "/alarm.wav";
+
+    private final String soundResource;
+
+    AlertSeverity(String soundResource) {
+        this.soundResource = soundResource;
+    }
+
+    // Classpath resource or file path; can be overridden with -Dstockmonitor.sound.<severity>=...
+    public String getSoundResource() {
+        return System.getProperty("stockmonitor.sound." + name().toLowerCase(), soundResource);
+    }
+}
@@ -0,0 +1,29 @@
+package com.stockmonitor;
+
+import java.util.List;
+
+/**
+ * Destination for alerts besides the UI (file, webhook, local command, ...).
+ * Implementations do blocking I/O; AlertManager never calls them directly but
+ * through an AsyncAlertSinkRunner, which gives each sink its own thread, bounded
+ * queue, batching and retries.
+ */
+public interface AlertSink {
+
+    /**
+     * Short name used for the worker thread and log messages, e.g. "file".
+     */
+    String getName();
+
+    /**
+     * Delivers a batch of alerts in arrival order. Throwing an exception marks the
+     * whole batch as failed; the runner retries it with backoff.
+     */
+    void deliver(List<AlertEvent> batch) throws Exception;
+
+    /**
+     * Releases resources. Called once after the last delivery.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,54 @@
+package com.stockmonitor;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the built-in alert sinks from a type name and target string, and from system properties:
+ * -Dstockmonitor.sink.file=alerts.log -Dstockmonitor.sink.webhook=https://... -Dstockmonitor.sink.command="notify.sh"
+ */
+public final class AlertSinkFactory {
+
+    private AlertSinkFactory() {
+    }
+
+    /**
+     * Returns the sink for type "file", "webhook" or "command", or null if the type or target is invalid.
+     */
+    public static AlertSink create(String type, String target) {
+        if (type == null || target == null || target.trim().isEmpty()) {
+            return null;
+        }
+        switch (type.trim().toLowerCase()) {
+            case "file":
+                return new RollingFileAlertSink(new File(target.trim()));
+            case "webhook":
+                try {
+                    return new WebhookAlertSink(new URL(target.trim()));
+                } catch (MalformedURLException e) {
+                    System.err.println("[AlertSinkFactory] [Thread: " + Thread.currentThread().getName() + "] Invalid webhook URL: " + target + " (" + e.getMessage() + ")");
+                    return null;
+                }
+            case "command":
+                return new CommandAlertSink(target);
+            default:
+                System.err.println("[AlertSinkFactory] [Thread: " + Thread.currentThread().getName() + "] Unknown sink type: " + type);
+                return null;
+        }
+    }
+
+    public static List<AlertSink> fromSystemProperties() {
+        List<AlertSink> sinks = new ArrayList<>();
+        for (String type : new String[]{"file", "webhook", "command"}) {
+            String target = System.getProperty("stockmonitor.sink." + type);
+            AlertSink sink = create(type, target);
+            if (sink != null) {
+                sinks.add(sink);
+            }
+        }
+        return sinks;
+    }
+}
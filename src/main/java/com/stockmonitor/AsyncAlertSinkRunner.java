@@ -0,0 +1,172 @@
+package com.stockmonitor;
+
+import com.stockmonitor.logging.Log;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs one AlertSink on its own daemon thread with a bounded queue.
+ * offer() never blocks: if the sink falls behind, new alerts for it are dropped and counted,
+ * so a slow or failing sink cannot delay the UI, the alert consumer or other sinks.
+ * Alerts are delivered in batches (up to maxBatchSize, waiting at most lingerMs to fill one)
+ * and a failed batch is retried with exponential backoff.
+ */
+public class AsyncAlertSinkRunner {
+
+    private static final Log LOG = Log.get(AsyncAlertSinkRunner.class);
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 50;
+    public static final long DEFAULT_LINGER_MS = 200;
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long INITIAL_BACKOFF_MS = 250;
+
+    private final AlertSink sink;
+    private final BlockingQueue<AlertEvent> queue;
+    private final int maxBatchSize;
+    private final long lingerMs;
+    private final int maxRetries;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    public AsyncAlertSinkRunner(AlertSink sink) {
+        this(sink, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH_SIZE, DEFAULT_LINGER_MS, DEFAULT_MAX_RETRIES);
+    }
+
+    public AsyncAlertSinkRunner(AlertSink sink, int queueCapacity, int maxBatchSize, long lingerMs, int maxRetries) {
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.lingerMs = Math.max(0, lingerMs);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.worker = new Thread(this::runLoop, "AlertSink-" + sink.getName());
+        this.worker.setDaemon(true);
+    }
+
+    public void start() {
+        worker.start();
+        LOG.info("Started sink '{}'.", sink.getName());
+    }
+
+    /**
+     * Hands an alert to the sink. Returns false (and counts a drop) if the sink's queue is full.
+     */
+    public boolean offer(AlertEvent alert) {
+        if (!running || alert == null) return false;
+        if (queue.offer(alert)) {
+            return true;
+        }
+        long dropped = droppedCount.incrementAndGet();
+        if (dropped == 1 || dropped % 100 == 0) { // Do not flood the console while the sink is stuck
+            LOG.warn("Sink '{}' is falling behind, alerts dropped: {}", sink.getName(), dropped);
+        }
+        return false;
+    }
+
+    private void runLoop() {
+        List<AlertEvent> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                AlertEvent first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Give a burst a moment to accumulate so it goes out as one batch
+                long lingerDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = lingerDeadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    AlertEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                deliverWithRetries(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                sink.close();
+            } catch (Exception e) {
+                LOG.warn("Error closing sink '{}': {}", sink.getName(), e.getMessage());
+            }
+            LOG.info("Sink '{}' stopped. Delivered: {}, dropped: {}, failed: {}.", sink.getName(), deliveredCount.get(), droppedCount.get(), failedCount.get());
+        }
+    }
+
+    private void deliverWithRetries(List<AlertEvent> batch) throws InterruptedException {
+        long backoffMs = INITIAL_BACKOFF_MS;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                sink.deliver(batch);
+                deliveredCount.addAndGet(batch.size());
+                return;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                if (attempt >= maxRetries || !running) {
+                    failedCount.addAndGet(batch.size());
+                    LOG.warn("Sink '{}' failed to deliver {} alert(s) after {} attempt(s): {}", sink.getName(), batch.size(), (attempt + 1), e.getMessage());
+                    return;
+                }
+                LOG.warn("Sink '{}' delivery failed (attempt {}), retrying in {}ms: {}", sink.getName(), (attempt + 1), backoffMs, e.getMessage());
+                TimeUnit.MILLISECONDS.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, 10000);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting alerts, delivers what is queued (without retries) and waits up to the timeout.
+     */
+    public void stop(long timeoutMs) {
+        running = false;
+        try {
+            worker.join(timeoutMs);
+            if (worker.isAlive()) {
+                worker.interrupt();
+                LOG.warn("Sink '{}' did not finish in {}ms, interrupted.", sink.getName(), timeoutMs);
+            }
+        } catch (InterruptedException e) {
+            worker.interrupt();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public AlertSink getSink() {
+        return sink;
+    }
+
+    public String getSinkName() {
+        return sink.getName();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+}
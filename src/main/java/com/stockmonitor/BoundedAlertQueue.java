@@ -0,0 +1,174 @@
+package com.stockmonitor;
+
+import com.stockmonitor.logging.Log;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-capacity alert queue between the StockWatcherThreads and the AlertManager consumer.
+ * offer() never blocks the producer: when the queue is full the overflow policy decides what is lost.
+ * Below capacity every alert is queued in arrival order, whatever the policy.
+ *
+ * DROP_OLDEST: the oldest pending alert is discarded to make room.
+ * COALESCE:    a pending alert of the same rule (symbol + condition + rule id) is replaced in place
+ *              by the newer one; only if there is none is the oldest alert discarded.
+ */
+class BoundedAlertQueue {
+
+    private static final Log LOG = Log.get(BoundedAlertQueue.class);
+
+    enum OverflowPolicy {
+        DROP_OLDEST,
+        COALESCE;
+
+        static OverflowPolicy fromString(String value, OverflowPolicy defaultPolicy) {
+            if (value == null) return defaultPolicy;
+            try {
+                return OverflowPolicy.valueOf(value.trim().toUpperCase().replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                LOG.warn("Unknown overflow policy: {}. Using {}.", value, defaultPolicy);
+                return defaultPolicy;
+            }
+        }
+    }
+
+    // Queue position of one alert; COALESCE replaces the alert without moving the slot
+    private static final class Slot {
+        AlertEvent alert;
+
+        Slot(AlertEvent alert) {
+            this.alert = alert;
+        }
+    }
+
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    private final ArrayDeque<Slot> fifo; // Pending alerts in arrival order
+    // COALESCE only: the newest pending slot of each rule key, the one a full queue overwrites
+    private final Map<AlertEvent.Key, Slot> newestByRule;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    BoundedAlertQueue(int capacity, OverflowPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Alert queue capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        this.fifo = new ArrayDeque<>(capacity);
+        this.newestByRule = policy == OverflowPolicy.COALESCE ? new HashMap<>(capacity * 2) : null;
+    }
+
+    /**
+     * Adds an alert without blocking. Returns false if an older alert was dropped to make room.
+     */
+    boolean offer(AlertEvent alert) {
+        boolean droppedOther = false;
+        lock.lock();
+        try {
+            if (fifo.size() >= capacity) {
+                Slot pending = policy == OverflowPolicy.COALESCE ? newestByRule.get(alert.getRuleKey()) : null;
+                if (pending != null) {
+                    pending.alert = alert; // Newer values win, position is kept
+                    coalescedCount.incrementAndGet();
+                    notEmpty.signal();
+                    return true;
+                }
+                forget(fifo.pollFirst());
+                droppedCount.incrementAndGet();
+                droppedOther = true;
+            }
+            Slot slot = new Slot(alert);
+            fifo.addLast(slot);
+            if (newestByRule != null) {
+                newestByRule.put(alert.getRuleKey(), slot);
+            }
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return !droppedOther;
+    }
+
+    /**
+     * Removes the oldest pending alert, waiting up to the timeout. Returns null on timeout.
+     */
+    AlertEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (fifo.isEmpty()) {
+                if (remainingNanos <= 0L) {
+                    return null;
+                }
+                remainingNanos = notEmpty.awaitNanos(remainingNanos);
+            }
+            Slot slot = fifo.pollFirst();
+            forget(slot);
+            return slot.alert;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Removes a slot leaving the queue from the index, unless a newer slot of its rule replaced it there
+    private void forget(Slot slot) {
+        if (newestByRule != null) {
+            newestByRule.remove(slot.alert.getRuleKey(), slot);
+        }
+    }
+
+    boolean isEmpty() {
+        lock.lock();
+        try {
+            return fifo.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return fifo.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            fifo.clear();
+            if (newestByRule != null) newestByRule.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+}
@@ -0,0 +1,169 @@
+package com.stockmonitor;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Chart data of one symbol: candles and indicator overlay points in primitive rings.
+ * GraphUpdater keeps one per monitored symbol, whether or not the symbol is on screen.
+ * Only a buffer that is bound to a visible XChartPanel schedules repaints, so symbols
+ * scrolled out of the chart grid keep their history up to date without any Swing cost.
+ * All methods are thread-safe.
+ */
+class ChartDataBuffer {
+
+    // MAX_DATA_POINTS_CANDLE is set to accommodate 1-minute candles for the last hour (60) + incoming live data (e.g., 60 more)
+    // -Dstockmonitor.chart.maxPoints=300; the Y range is tracked incrementally, so large windows are cheap to scale
+    static final int MAX_DATA_POINTS_CANDLE = Math.max(2, Integer.getInteger("stockmonitor.chart.maxPoints", 300));
+
+    static final int OPEN = 0, HIGH = 1, LOW = 2, CLOSE = 3;
+    static final int SMA = 0, EMA = 1, UPPER_BAND = 2, LOWER_BAND = 3;
+
+    private final Object dataLock = new Object(); // Guards both rings
+    // Candle data (open/high/low/close columns); tracks min(low) and max(high) for the Y axis
+    private final SeriesRingBuffer candleData = new SeriesRingBuffer(MAX_DATA_POINTS_CANDLE, LOW, HIGH);
+    // Indicator overlay data (SMA/EMA/upper/lower columns); tracks the band range
+    private final SeriesRingBuffer overlayData = new SeriesRingBuffer(MAX_DATA_POINTS_CANDLE, LOWER_BAND, UPPER_BAND);
+
+    private final ChartRenderScheduler renderScheduler;
+    private volatile ChartRenderScheduler.FrameRenderable boundView; // Visible panel showing this data, or null
+    private long unrenderedTickNanos; // Arrival of the oldest tick not yet taken by a frame, 0 if none; guarded by dataLock
+
+    ChartDataBuffer(ChartRenderScheduler renderScheduler) {
+        this.renderScheduler = renderScheduler;
+    }
+
+    void addCandle(long timestampMillis, double open, double high, double low, double close) {
+        addCandle(timestampMillis, open, high, low, close, 0L);
+    }
+
+    // tickNanos: System.nanoTime() when the price arrived, 0 if unknown
+    void addCandle(long timestampMillis, double open, double high, double low, double close, long tickNanos) {
+        synchronized (dataLock) {
+            candleData.add(timestampMillis, open, high, low, close);
+            if (unrenderedTickNanos == 0L) {
+                unrenderedTickNanos = tickNanos;
+            }
+        }
+        ChartRenderScheduler.FrameRenderable view = boundView;
+        if (view != null) {
+            renderScheduler.markDirty(view); // Redrawn with the next frame, together with any other ticks until then
+        }
+    }
+
+    // The overlay is redrawn together with the next candle update. Only the values are kept, not the object.
+    void addIndicators(long timestampMillis, IndicatorValues indicators) {
+        synchronized (dataLock) {
+            overlayData.add(timestampMillis, indicators.getSma(), indicators.getEma(),
+                    indicators.getUpperBand(), indicators.getLowerBand());
+        }
+    }
+
+    void clear() {
+        synchronized (dataLock) {
+            candleData.clear();
+            overlayData.clear();
+            unrenderedTickNanos = 0L;
+        }
+        ChartRenderScheduler.FrameRenderable view = boundView;
+        if (view != null) {
+            renderScheduler.markDirty(view);
+        }
+    }
+
+    void bind(ChartRenderScheduler.FrameRenderable view) {
+        this.boundView = view;
+    }
+
+    // Unbinds only if the view is still the bound one (another panel may have taken over)
+    void unbind(ChartRenderScheduler.FrameRenderable view) {
+        if (boundView == view) {
+            boundView = null;
+        }
+    }
+
+    /**
+     * Returns and resets the arrival time of the oldest tick since the last call (0 if none), so a
+     * frame measures tick-to-pixel latency from the oldest tick it shows for the first time.
+     */
+    long takeUnrenderedTickNanos() {
+        synchronized (dataLock) {
+            long tickNanos = unrenderedTickNanos;
+            unrenderedTickNanos = 0L;
+            return tickNanos;
+        }
+    }
+
+    int size() {
+        synchronized (dataLock) {
+            return candleData.size();
+        }
+    }
+
+    /**
+     * Copies the current data for one frame (XChart keeps references to the lists it is given).
+     */
+    Snapshot snapshot() {
+        synchronized (dataLock) {
+            return new Snapshot(candleData, overlayData);
+        }
+    }
+
+    /**
+     * Copies close prices and overlay values into primitive arrays for the line chart; no Date or Double per point.
+     */
+    LineSnapshot lineSnapshot() {
+        synchronized (dataLock) {
+            return new LineSnapshot(candleData, overlayData);
+        }
+    }
+
+    static final class LineSnapshot {
+        final double[] x;     // Epoch millis
+        final double[] close;
+        final double min, max; // Range of the candles, the same Y range as in candle mode
+        final double[] xOverlay;
+        final double[] sma, ema, upperBand, lowerBand;
+        final double bandMin, bandMax;
+
+        private LineSnapshot(SeriesRingBuffer candles, SeriesRingBuffer overlay) {
+            x = candles.copyTimesAsDoubles();
+            close = candles.copyColumnArray(CLOSE);
+            min = candles.min();
+            max = candles.max();
+            xOverlay = overlay.copyTimesAsDoubles();
+            sma = overlay.copyColumnArray(SMA);
+            ema = overlay.copyColumnArray(EMA);
+            upperBand = overlay.copyColumnArray(UPPER_BAND);
+            lowerBand = overlay.copyColumnArray(LOWER_BAND);
+            bandMin = overlay.min();
+            bandMax = overlay.max();
+        }
+    }
+
+    static final class Snapshot {
+        final List<Date> x;
+        final List<Double> open, high, low, close;
+        final double candleMin, candleMax; // O(1), maintained as points are added
+        final List<Date> xOverlay;
+        final List<Double> sma, ema, upperBand, lowerBand;
+        final double bandMin, bandMax;
+
+        private Snapshot(SeriesRingBuffer candles, SeriesRingBuffer overlay) {
+            x = candles.copyTimes();
+            open = candles.copyColumn(OPEN);
+            high = candles.copyColumn(HIGH);
+            low = candles.copyColumn(LOW);
+            close = candles.copyColumn(CLOSE);
+            candleMin = candles.min();
+            candleMax = candles.max();
+            xOverlay = overlay.copyTimes();
+            sma = overlay.copyColumn(SMA);
+            ema = overlay.copyColumn(EMA);
+            upperBand = overlay.copyColumn(UPPER_BAND);
+            lowerBand = overlay.copyColumn(LOWER_BAND);
+            bandMin = overlay.min();
+            bandMax = overlay.max();
+        }
+    }
+}
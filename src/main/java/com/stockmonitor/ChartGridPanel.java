@@ -0,0 +1,120 @@
+package com.stockmonitor;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingConstants;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.GridLayout;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Paged grid of charts for any number of symbols. Only rows x columns XChartPanels exist;
+ * they are reused for the symbols of the current page by binding them to the symbols'
+ * ChartDataBuffers in GraphUpdater. Symbols on other pages keep collecting data but hold
+ * no chart and cause no rendering. All methods must be called on the EDT.
+ */
+public class ChartGridPanel extends JPanel {
+
+    // -Dstockmonitor.chart.gridRows=2 -Dstockmonitor.chart.gridColumns=2
+    public static final int DEFAULT_ROWS = Math.max(1, Integer.getInteger("stockmonitor.chart.gridRows", 2));
+    public static final int DEFAULT_COLUMNS = Math.max(1, Integer.getInteger("stockmonitor.chart.gridColumns", 2));
+
+    private final GraphUpdater graphUpdater;
+    private final List<XChartPanel> panels = new ArrayList<>();
+    private final JButton previousButton = new JButton("< Previous");
+    private final JButton nextButton = new JButton("Next >");
+    private final JLabel pageLabel = new JLabel("", SwingConstants.CENTER);
+    private List<String> symbols = Collections.emptyList();
+    private int page = 0;
+
+    public ChartGridPanel(GraphUpdater graphUpdater) {
+        this(graphUpdater, DEFAULT_ROWS, DEFAULT_COLUMNS);
+    }
+
+    public ChartGridPanel(GraphUpdater graphUpdater, int rows, int columns) {
+        super(new BorderLayout(5, 5));
+        this.graphUpdater = graphUpdater;
+        setBorder(BorderFactory.createTitledBorder("Price Charts"));
+
+        JPanel grid = new JPanel(new GridLayout(rows, columns, 10, 10));
+        for (int i = 0; i < rows * columns; i++) {
+            XChartPanel chartPanel = new XChartPanel("Stock/Crypto " + (i + 1));
+            panels.add(chartPanel);
+            grid.add(chartPanel);
+        }
+        add(grid, BorderLayout.CENTER);
+
+        JPanel navigation = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        previousButton.addActionListener(_e -> showPage(page - 1));
+        nextButton.addActionListener(_e -> showPage(page + 1));
+        navigation.add(previousButton);
+        navigation.add(pageLabel);
+        navigation.add(nextButton);
+        add(navigation, BorderLayout.SOUTH);
+        updateNavigation();
+        System.out.println("[ChartGridPanel] [Thread: " + Thread.currentThread().getName() + "] Instance created with " + panels.size() + " chart panels (" + rows + "x" + columns + ").");
+    }
+
+    /**
+     * Sets the symbols shown by the grid, in order. The current page stays, or becomes the last
+     * page if the list got shorter. The symbols must be registered with GraphUpdater first.
+     */
+    public void setSymbols(List<String> symbols) {
+        this.symbols = new ArrayList<>(symbols);
+        showPage(page);
+    }
+
+    public void showPage(int requestedPage) {
+        int pages = getPageCount();
+        page = Math.max(0, Math.min(requestedPage, pages - 1));
+        int first = page * panels.size();
+        for (int i = 0; i < panels.size(); i++) {
+            XChartPanel panel = panels.get(i);
+            int symbolIndex = first + i;
+            ChartDataBuffer buffer = symbolIndex < symbols.size() ? graphUpdater.getDataBuffer(symbols.get(symbolIndex)) : null;
+            if (buffer != null) {
+                String symbol = symbols.get(symbolIndex);
+                panel.bindData(symbol, buffer, symbol + " Prices");
+            } else {
+                panel.unbindData();
+            }
+        }
+        updateNavigation();
+    }
+
+    private void updateNavigation() {
+        int pages = getPageCount();
+        previousButton.setEnabled(page > 0);
+        nextButton.setEnabled(page < pages - 1);
+        if (symbols.isEmpty()) {
+            pageLabel.setText("No symbols monitored");
+        } else {
+            int first = page * panels.size() + 1;
+            int last = Math.min(symbols.size(), (page + 1) * panels.size());
+            pageLabel.setText("Page " + (page + 1) + " of " + pages + "  (symbols " + first + "-" + last + " of " + symbols.size() + ")");
+        }
+    }
+
+    public int getPageCount() {
+        return Math.max(1, (symbols.size() + panels.size() - 1) / panels.size());
+    }
+
+    public int getCurrentPage() {
+        return page;
+    }
+
+    public void setIndicatorOverlayVisible(boolean visible) {
+        for (XChartPanel panel : panels) {
+            panel.setIndicatorOverlayVisible(visible);
+        }
+    }
+
+    public List<XChartPanel> getChartPanels() {
+        return Collections.unmodifiableList(panels);
+    }
+}
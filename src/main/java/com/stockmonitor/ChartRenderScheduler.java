@@ -0,0 +1,100 @@
+package com.stockmonitor;
+
+import com.stockmonitor.logging.Log;
+
+import javax.swing.Timer;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces chart repaints to a fixed frame rate. Data producers only mark a chart dirty
+ * (thread-safe, no EDT work); once per frame the EDT renders each dirty chart a single time
+ * from its latest data. EDT work is therefore bounded by (charts x FPS), independent of the tick rate.
+ * The timer only runs while something is dirty, so an idle UI costs nothing.
+ */
+public class ChartRenderScheduler {
+
+    private static final Log LOG = Log.get(ChartRenderScheduler.class);
+
+    // -Dstockmonitor.chart.fps=30
+    public static final int DEFAULT_FPS = Integer.getInteger("stockmonitor.chart.fps", 30);
+
+    private static final ChartRenderScheduler DEFAULT_INSTANCE = new ChartRenderScheduler(DEFAULT_FPS);
+
+    /**
+     * Something that can draw its latest state; renderFrame() is always called on the EDT.
+     */
+    public interface FrameRenderable {
+        void renderFrame();
+    }
+
+    private final int fps;
+    private final Set<FrameRenderable> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean frameScheduled = new AtomicBoolean(false);
+    private final Timer frameTimer;
+    private final AtomicLong dirtyMarks = new AtomicLong();
+    private final AtomicLong chartsRendered = new AtomicLong();
+    private final AtomicLong framesRendered = new AtomicLong();
+
+    public ChartRenderScheduler(int fps) {
+        this.fps = Math.max(1, Math.min(240, fps));
+        // One-shot: started by the first markDirty() after a frame, so frames are at least 1/fps apart
+        frameTimer = new Timer(1000 / this.fps, _e -> renderDirtyCharts());
+        frameTimer.setRepeats(false);
+        frameTimer.setCoalesce(false);
+        LOG.info("Instance created. Max FPS: {}.", this.fps);
+    }
+
+    public static ChartRenderScheduler getDefault() {
+        return DEFAULT_INSTANCE;
+    }
+
+    /**
+     * Requests a repaint of the chart with the next frame. Thread-safe and non-blocking;
+     * marking an already dirty chart again costs only a set lookup.
+     */
+    public void markDirty(FrameRenderable chart) {
+        dirtyMarks.incrementAndGet();
+        dirty.add(chart);
+        if (frameScheduled.compareAndSet(false, true)) {
+            frameTimer.restart(); // javax.swing.Timer can be started from any thread
+        }
+    }
+
+    // Runs on the EDT (Swing timer).
+    private void renderDirtyCharts() {
+        frameScheduled.set(false); // Marks from now on schedule the next frame
+        if (dirty.isEmpty()) return;
+        framesRendered.incrementAndGet();
+        for (Iterator<FrameRenderable> it = dirty.iterator(); it.hasNext(); ) {
+            FrameRenderable chart = it.next();
+            it.remove(); // Removed before rendering, so a tick arriving during rendering marks it again
+            try {
+                chart.renderFrame();
+                chartsRendered.incrementAndGet();
+            } catch (RuntimeException e) {
+                LOG.error("Error rendering chart: {}", e.getMessage());
+            }
+        }
+    }
+
+    public int getFps() {
+        return fps;
+    }
+
+    // Number of markDirty() calls; compared with getChartsRendered() it shows how many repaints were coalesced
+    public long getDirtyMarks() {
+        return dirtyMarks.get();
+    }
+
+    public long getChartsRendered() {
+        return chartsRendered.get();
+    }
+
+    public long getFramesRendered() {
+        return framesRendered.get();
+    }
+}
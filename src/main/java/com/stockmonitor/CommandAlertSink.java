@@ -0,0 +1,84 @@
+package com.stockmonitor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a local command once per batch. The alerts are written to the command's stdin,
+ * one display line per alert; ALERT_COUNT, ALERT_SYMBOLS and ALERT_MAX_SEVERITY are set in its
+ * environment for scripts that only need a summary. A non-zero exit code or a timeout fails the batch.
+ */
+public class CommandAlertSink implements AlertSink {
+
+    // -Dstockmonitor.sink.command.timeoutMs=10000
+    public static final long DEFAULT_TIMEOUT_MS = Long.getLong("stockmonitor.sink.command.timeoutMs", 10000L);
+
+    private final List<String> command;
+    private final long timeoutMs;
+
+    // The command line is split on whitespace, e.g. "notify-send StockMonitor"
+    public CommandAlertSink(String commandLine) {
+        this(Arrays.asList(commandLine.trim().split("\\s+")), DEFAULT_TIMEOUT_MS);
+    }
+
+    public CommandAlertSink(List<String> command, long timeoutMs) {
+        if (command.isEmpty() || command.get(0).isEmpty()) {
+            throw new IllegalArgumentException("Command must not be empty");
+        }
+        this.command = new ArrayList<>(command);
+        this.timeoutMs = Math.max(100, timeoutMs);
+    }
+
+    @Override
+    public String getName() {
+        return "command";
+    }
+
+    @Override
+    public void deliver(List<AlertEvent> batch) throws IOException, InterruptedException {
+        StringBuilder input = new StringBuilder();
+        Set<String> symbols = new LinkedHashSet<>(); // Each symbol once, in alert order
+        AlertSeverity maxSeverity = AlertSeverity.INFO;
+        for (AlertEvent alert : batch) {
+            input.append(alert.toDisplayString()).append('\n');
+            symbols.add(alert.getSymbol());
+            if (alert.getSeverity().compareTo(maxSeverity) > 0) {
+                maxSeverity = alert.getSeverity();
+            }
+        }
+
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.environment().put("ALERT_COUNT", String.valueOf(batch.size()));
+        builder.environment().put("ALERT_SYMBOLS", String.join(",", symbols));
+        builder.environment().put("ALERT_MAX_SEVERITY", maxSeverity.name());
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+
+        Process process = builder.start();
+        try (OutputStream stdin = process.getOutputStream()) {
+            stdin.write(input.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // The command may exit without reading stdin; its exit code decides success
+        }
+        if (!process.waitFor(timeoutMs, TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            throw new IOException("Command " + command.get(0) + " timed out after " + timeoutMs + "ms");
+        }
+        int exitCode = process.exitValue();
+        if (exitCode != 0) {
+            throw new IOException("Command " + command.get(0) + " exited with code " + exitCode);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CommandAlertSink" + command;
+    }
+}
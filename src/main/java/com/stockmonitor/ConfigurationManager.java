@@ -1,12 +1,16 @@
 package com.stockmonitor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.prefs.BackingStoreException;
 import java.util.prefs.Preferences;
 
 // Enum defining graph types
 enum GraphType {
     LINE("Line"),
+    AREA("Area"),
     CANDLE("Candle (Live Derived)");
 
     private final String displayName;
@@ -27,6 +31,18 @@ enum GraphType {
         }
         return LINE; // Default
     }
+
+    // Parses an enum name like "AREA" (case-insensitive); returns the default for null or unknown names
+    public static GraphType fromName(String name, GraphType defaultType) {
+        if (name != null) {
+            for (GraphType type : GraphType.values()) {
+                if (type.name().equalsIgnoreCase(name.trim())) {
+                    return type;
+                }
+            }
+        }
+        return defaultType;
+    }
     
     @Override
     public String toString() {
@@ -39,11 +55,24 @@ class StockConfig {
     private String symbol;
     private String threshold; // Format: "Condition@Value"
     // private GraphType graphType; // Removed
+    private final List<String> thresholds; // All rules of the symbol, the first one is threshold
+    private final PollPriority priority;
 
     // Constructor updated, graphType parameter removed
     public StockConfig(String symbol, String threshold) {
         this.symbol = symbol;
         this.threshold = threshold;
+        this.thresholds = threshold == null || threshold.isEmpty()
+                ? Collections.emptyList() : Collections.singletonList(threshold);
+        this.priority = PollPriority.NORMAL;
+    }
+
+    // Several "Condition@Value" rules and a poll priority, as in the watchlist file
+    public StockConfig(String symbol, List<String> thresholds, PollPriority priority) {
+        this.symbol = symbol;
+        this.thresholds = Collections.unmodifiableList(new ArrayList<>(thresholds));
+        this.threshold = this.thresholds.isEmpty() ? "" : this.thresholds.get(0);
+        this.priority = priority != null ? priority : PollPriority.NORMAL;
     }
 
     public String getSymbol() {
@@ -54,13 +83,25 @@ class StockConfig {
         return threshold;
     }
 
+    public List<String> getThresholds() {
+        return thresholds;
+    }
+
+    public PollPriority getPriority() {
+        return priority;
+    }
+
+    // True if both configure the same rules and priority (the symbol is not compared)
+    public boolean hasSameSettings(StockConfig other) {
+        return other != null && thresholds.equals(other.thresholds) && priority == other.priority;
+    }
+
     // public GraphType getGraphType() { // Removed
     //     return graphType;
     // }
 }
 
 public class ConfigurationManager {
-    private static final int MAX_STOCKS = 4; // Synchronized with MainController
     private List<StockConfig> selectedStocks;
     // private boolean apiMode = true; // Deleted as CSV Mode was removed
 
@@ -68,6 +109,9 @@ public class ConfigurationManager {
     private static final String PREFS_NODE_PATH = "com/stockmonitor";
     private static final String KEY_STOCK_SYMBOL_PREFIX = "stock_symbol_";
     private static final String KEY_STOCK_THRESHOLD_PREFIX = "stock_threshold_";
+    private static final String KEY_ACTIVE_PROFILE = "active_profile";
+    private static final String PROFILES_NODE = "profiles";
+    public static final String DEFAULT_PROFILE = "Default";
     // private static final String KEY_STOCK_GRAPHTYPE_PREFIX = "stock_graphtype_"; // Removed
     // private static final String KEY_API_MODE = "api_mode"; // Deleted as CSV Mode was removed
 
@@ -79,14 +123,12 @@ public class ConfigurationManager {
 
     // addStock and updateStock updated, graphType parameter removed
     public void addStock(String symbol, String threshold) {
-        if (selectedStocks.size() < MAX_STOCKS) {
-            boolean exists = selectedStocks.stream().anyMatch(s -> s.getSymbol().equalsIgnoreCase(symbol));
-            if (!exists) {
-                 selectedStocks.add(new StockConfig(symbol, threshold));
-                 System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Stock added: " + symbol);
-            } else {
-                System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Warning: " + symbol + " is already in the monitoring list.");
-            }
+        boolean exists = selectedStocks.stream().anyMatch(s -> s.getSymbol().equalsIgnoreCase(symbol));
+        if (!exists) {
+             selectedStocks.add(new StockConfig(symbol, threshold));
+             System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Stock added: " + symbol);
+        } else {
+            System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Warning: " + symbol + " is already in the monitoring list.");
         }
     }
     
@@ -94,7 +136,7 @@ public class ConfigurationManager {
         if (index >= 0 && index < selectedStocks.size()) {
             selectedStocks.set(index, new StockConfig(symbol, threshold));
             System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Stock updated at index " + index + ": " + symbol);
-        } else if (index < MAX_STOCKS) { 
+        } else if (index >= 0) { 
             if (selectedStocks.size() <= index) { 
                  for(int i = selectedStocks.size(); i < index; i++) {
                     selectedStocks.add(new StockConfig("", "")); 
@@ -117,10 +159,6 @@ public class ConfigurationManager {
         selectedStocks.clear();
     }
 
-    public int getMaxStocks() {
-        return MAX_STOCKS;
-    }
-
     // public boolean isApiMode() { // Deleted as CSV Mode was removed
     //     return apiMode;
     // }
@@ -133,43 +171,118 @@ public class ConfigurationManager {
     // Methods for saving and loading settings (kept simple for now)
     // More comprehensive error handling and data validation could be added in a real application.
     public void savePreferences(List<StockConfig> configsToSave) {
-        System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Saving preferences. Number of configs to save: " + configsToSave.size());
-        Preferences prefs = Preferences.userRoot().node(PREFS_NODE_PATH);
+        saveProfile(getActiveProfile(), configsToSave);
+        this.selectedStocks.clear(); // Clear current list
+        for (StockConfig config : configsToSave) {
+            if (config.getSymbol() != null && !config.getSymbol().isEmpty()) {
+                this.selectedStocks.add(config); // Also add saved ones to current list
+            }
+        }
+    }
+
+    public List<StockConfig> loadPreferences() {
+        List<StockConfig> loadedConfigs = loadProfile(getActiveProfile());
+        this.selectedStocks = new ArrayList<>(loadedConfigs); // Assign loaded ones to current list
+        return loadedConfigs;
+    }
+
+    // Profiles: the default profile uses the original keys of the root node, named profiles have a child node each
+    public List<String> getProfileNames() {
+        List<String> names = new ArrayList<>();
+        names.add(DEFAULT_PROFILE);
+        try {
+            String[] children = Preferences.userRoot().node(PREFS_NODE_PATH).node(PROFILES_NODE).childrenNames();
+            Arrays.sort(children, String.CASE_INSENSITIVE_ORDER);
+            names.addAll(Arrays.asList(children));
+        } catch (BackingStoreException e) {
+            System.err.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Could not list profiles: " + e.getMessage());
+        }
+        return names;
+    }
+
+    public String getActiveProfile() {
+        String name = Preferences.userRoot().node(PREFS_NODE_PATH).get(KEY_ACTIVE_PROFILE, DEFAULT_PROFILE);
+        return profileExists(name) ? name : DEFAULT_PROFILE;
+    }
+
+    public void setActiveProfile(String name) {
+        Preferences.userRoot().node(PREFS_NODE_PATH).put(KEY_ACTIVE_PROFILE, name);
+        System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Active profile: " + name);
+    }
+
+    // Preferences node names cannot contain '/' and are limited in length
+    public static boolean isValidProfileName(String name) {
+        return name != null && !name.trim().isEmpty() && name.equals(name.trim())
+                && name.indexOf('/') < 0 && name.length() <= Preferences.MAX_NAME_LENGTH;
+    }
+
+    public boolean profileExists(String name) {
+        if (DEFAULT_PROFILE.equals(name)) return true;
+        try {
+            return isValidProfileName(name) && Preferences.userRoot().node(PREFS_NODE_PATH).node(PROFILES_NODE).nodeExists(name);
+        } catch (BackingStoreException e) {
+            return false;
+        }
+    }
+
+    public void deleteProfile(String name) {
+        if (DEFAULT_PROFILE.equals(name) || !profileExists(name)) return;
+        try {
+            Preferences.userRoot().node(PREFS_NODE_PATH).node(PROFILES_NODE).node(name).removeNode();
+            System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Profile deleted: " + name);
+        } catch (BackingStoreException e) {
+            System.err.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Could not delete profile " + name + ": " + e.getMessage());
+        }
+    }
+
+    private Preferences profileNode(String name) {
+        Preferences root = Preferences.userRoot().node(PREFS_NODE_PATH);
+        if (DEFAULT_PROFILE.equals(name)) {
+            return root;
+        }
+        if (!isValidProfileName(name)) {
+            throw new IllegalArgumentException("Invalid profile name: " + name);
+        }
+        return root.node(PROFILES_NODE).node(name);
+    }
+
+    public void saveProfile(String profileName, List<StockConfig> configsToSave) {
+        System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Saving profile '" + profileName + "'. Number of configs to save: " + configsToSave.size());
+        Preferences prefs = profileNode(profileName);
         // prefs.putBoolean(KEY_API_MODE, apiMode); // Deleted as CSV Mode was removed
 
-        // Clear previous records
-        for (int i = 0; i < MAX_STOCKS; i++) {
+        // Clear previous records (slots are contiguous, so stop at the first missing one)
+        for (int i = 0; prefs.get(KEY_STOCK_SYMBOL_PREFIX + i, null) != null; i++) {
             prefs.remove(KEY_STOCK_SYMBOL_PREFIX + i);
             prefs.remove(KEY_STOCK_THRESHOLD_PREFIX + i);
             // prefs.remove(KEY_STOCK_GRAPHTYPE_PREFIX + i); // Removed
         }
-        
-        this.selectedStocks.clear(); // Clear current list
 
-        for (int i = 0; i < configsToSave.size(); i++) {
-            if (i < MAX_STOCKS) {
-                StockConfig config = configsToSave.get(i);
-                if (config.getSymbol() != null && !config.getSymbol().isEmpty()) {
-                    prefs.put(KEY_STOCK_SYMBOL_PREFIX + i, config.getSymbol());
-                    prefs.put(KEY_STOCK_THRESHOLD_PREFIX + i, config.getThreshold() != null ? config.getThreshold() : "");
-                    // prefs.put(KEY_STOCK_GRAPHTYPE_PREFIX + i, config.getGraphType().name()); // Removed
-                    this.selectedStocks.add(config); // Also add saved ones to current list
-                    System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Saved config for slot " + i + ": " + config.getSymbol());
-                }
+        int slot = 0;
+        for (StockConfig config : configsToSave) {
+            if (config.getSymbol() != null && !config.getSymbol().isEmpty()) {
+                prefs.put(KEY_STOCK_SYMBOL_PREFIX + slot, config.getSymbol());
+                prefs.put(KEY_STOCK_THRESHOLD_PREFIX + slot, config.getThreshold() != null ? config.getThreshold() : "");
+                // prefs.put(KEY_STOCK_GRAPHTYPE_PREFIX + i, config.getGraphType().name()); // Removed
+                System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Saved config for slot " + slot + ": " + config.getSymbol());
+                slot++;
             }
         }
         // try { prefs.flush(); } catch (Exception e) { e.printStackTrace(); }
     }
 
-    public List<StockConfig> loadPreferences() {
-        System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Loading preferences...");
-        Preferences prefs = Preferences.userRoot().node(PREFS_NODE_PATH);
+    public List<StockConfig> loadProfile(String profileName) {
+        System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Loading profile '" + profileName + "'...");
+        Preferences prefs = profileNode(profileName);
         List<StockConfig> loadedConfigs = new ArrayList<>();
         // apiMode = prefs.getBoolean(KEY_API_MODE, true); // Deleted as CSV Mode was removed
 
-        for (int i = 0; i < MAX_STOCKS; i++) {
+        for (int i = 0; ; i++) {
             String symbol = prefs.get(KEY_STOCK_SYMBOL_PREFIX + i, null);
-            if (symbol != null && !symbol.isEmpty()) {
+            if (symbol == null) {
+                break; // Slots are saved contiguously from 0
+            }
+            if (!symbol.isEmpty()) {
                 String threshold = prefs.get(KEY_STOCK_THRESHOLD_PREFIX + i, "");
                 // String graphTypeName = prefs.get(KEY_STOCK_GRAPHTYPE_PREFIX + i, GraphType.LINE.name()); // Removed
                 // GraphType graphType = GraphType.LINE; // Removed
@@ -178,8 +291,7 @@ public class ConfigurationManager {
                 System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Loaded config for slot " + i + ": " + symbol);
             }
         }
-        this.selectedStocks = new ArrayList<>(loadedConfigs); // Assign loaded ones to current list
-        System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Preferences loaded. Number of configs: " + loadedConfigs.size());
+        System.out.println("[ConfigurationManager] [Thread: " + Thread.currentThread().getName() + "] Profile '" + profileName + "' loaded. Number of configs: " + loadedConfigs.size());
         return loadedConfigs;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.stockmonitor;
+
+import com.stockmonitor.metrics.LatencyHistogram;
+import com.stockmonitor.metrics.Metrics;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+/**
+ * Shows the latency percentiles of every pipeline stage, including the end-to-end tick-to-alert
+ * and tick-to-pixel latencies, refreshed once a second while the dialog is open.
+ */
+public class DiagnosticsDialog extends JDialog {
+
+    private static final int REFRESH_MS = 1000;
+
+    private final StageTableModel tableModel = new StageTableModel();
+    private final JLabel budgetLabel = new JLabel(" ");
+    private final Timer refreshTimer = new Timer(REFRESH_MS, _e -> refresh());
+
+    public DiagnosticsDialog(JFrame owner) {
+        super(owner, "Diagnostics", false);
+        setLayout(new BorderLayout(5, 5));
+        ((JPanel) getContentPane()).setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+
+        JTable table = new JTable(tableModel);
+        table.getColumnModel().getColumn(0).setPreferredWidth(120);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.add(budgetLabel, BorderLayout.WEST);
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton resetButton = new JButton("Reset");
+        resetButton.setToolTipText("Clears all latency histograms");
+        resetButton.addActionListener(_e -> {
+            for (LatencyHistogram stage : Metrics.stages()) {
+                stage.reset();
+            }
+            refresh();
+        });
+        buttons.add(resetButton);
+        bottomPanel.add(buttons, BorderLayout.EAST);
+        add(bottomPanel, BorderLayout.SOUTH);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                refreshTimer.stop();
+            }
+
+            @Override
+            public void windowClosing(WindowEvent e) {
+                refreshTimer.stop();
+            }
+        });
+
+        setSize(760, 340);
+        setLocationRelativeTo(owner);
+    }
+
+    /**
+     * Shows the dialog and starts refreshing it. Must be called on the EDT.
+     */
+    public void open() {
+        refresh();
+        refreshTimer.start();
+        setVisible(true);
+        toFront();
+    }
+
+    private void refresh() {
+        tableModel.update(Metrics.stages());
+        budgetLabel.setText(String.format("API requests in the last minute: %d of %d (%.0f%%)",
+                Metrics.apiRequestsLastMinute(), Metrics.getApiBudgetPerMinute(), Metrics.apiBudgetUsedPercent()));
+    }
+
+    private static final class StageTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Stage", "Count", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms"};
+        private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+        private String[] names = new String[0];
+        private long[] counts = new long[0];
+        private double[][] millis = new double[0][];
+
+        // One snapshot per stage, so the percentiles of a row are consistent with each other
+        void update(LatencyHistogram[] stages) {
+            String[] newNames = new String[stages.length];
+            long[] newCounts = new long[stages.length];
+            double[][] newMillis = new double[stages.length][PERCENTILES.length + 1];
+            for (int i = 0; i < stages.length; i++) {
+                LatencyHistogram.Snapshot snapshot = stages[i].snapshot();
+                newNames[i] = stages[i].getName();
+                newCounts[i] = snapshot.getCount();
+                for (int p = 0; p < PERCENTILES.length; p++) {
+                    newMillis[i][p] = snapshot.getValueAtPercentile(PERCENTILES[p]) / 1_000_000.0;
+                }
+                newMillis[i][PERCENTILES.length] = snapshot.getMaxNanos() / 1_000_000.0;
+            }
+            boolean sameRows = newNames.length == names.length;
+            names = newNames;
+            counts = newCounts;
+            millis = newMillis;
+            if (sameRows) {
+                fireTableRowsUpdated(0, names.length - 1); // Keeps the selection
+            } else {
+                fireTableDataChanged();
+            }
+        }
+
+        @Override
+        public int getRowCount() {
+            return names.length;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 0 ? String.class : column == 1 ? Long.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            if (column == 0) return names[row];
+            if (column == 1) return counts[row];
+            if (counts[row] == 0) return "-";
+            return String.format("%.3f", millis[row][column - 2]);
+        }
+    }
+}
@@ -1,65 +1,89 @@
 package com.stockmonitor;
 
 // import com.stockmonitor.data.CandleStickData; // Removed
+import com.stockmonitor.logging.Log;
 import com.stockmonitor.listeners.GraphDataListener;
 import java.util.Date;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import javax.swing.SwingUtilities;
 
 /**
- * This class listens for price updates from StockWatcherThreads
- * and updates the corresponding XChartPanels.
+ * This class listens for price updates from StockWatcherThreads (delivered by the
+ * charts consumer of the TickRingBuffer) and stores them in a ChartDataBuffer per symbol. The chart grid binds the
+ * buffers of the visible symbols to its XChartPanels; buffers of symbols that
+ * are not on screen are updated without any Swing work.
  */
 public class GraphUpdater implements GraphDataListener {
 
-    // A map that associates symbols with XChartPanel instances.
-    private final Map<String, XChartPanel> chartPanelsMap;
+    private static final Log LOG = Log.get(GraphUpdater.class);
+
+    // A map that associates symbols with their chart data, visible or not.
+    private final Map<String, ChartDataBuffer> dataBuffers;
+    private final ChartRenderScheduler renderScheduler;
 
     public GraphUpdater() {
-        this.chartPanelsMap = new ConcurrentHashMap<>();
-        System.out.println("[GraphUpdater] [Thread: " + Thread.currentThread().getName() + "] Instance created.");
+        this(ChartRenderScheduler.getDefault());
+    }
+
+    public GraphUpdater(ChartRenderScheduler renderScheduler) {
+        this.dataBuffers = new ConcurrentHashMap<>();
+        this.renderScheduler = renderScheduler;
+        LOG.info("Instance created.");
+    }
+
+    /**
+     * Starts collecting chart data for a symbol. Any previous data of the symbol is discarded.
+     */
+    public ChartDataBuffer registerSymbol(String symbol) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            LOG.error("Invalid symbol, could not register.");
+            return null;
+        }
+        String upperSymbol = symbol.toUpperCase();
+        ChartDataBuffer buffer = dataBuffers.computeIfAbsent(upperSymbol, _s -> new ChartDataBuffer(renderScheduler));
+        buffer.clear(); // Clear chart data when registered
+        LOG.info("Registered chart data for symbol: {}", upperSymbol);
+        return buffer;
     }
 
     /**
-     * Registers an XChartPanel for a specific stock symbol.
+     * Registers the symbol and shows it in the given panel. Must be called on the EDT.
      */
     public void registerChartPanel(String symbol, XChartPanel chartPanel) {
-        if (symbol != null && !symbol.trim().isEmpty() && chartPanel != null) {
-            String upperSymbol = symbol.toUpperCase();
-            chartPanelsMap.put(upperSymbol, chartPanel);
-            System.out.println("[GraphUpdater] [Thread: " + Thread.currentThread().getName() + "] Registered chart panel for symbol: " + upperSymbol);
-            SwingUtilities.invokeLater(() -> {
-                // System.out.println("[GraphUpdater] [Thread: " + Thread.currentThread().getName() + "] Clearing chart on EDT for: " + upperSymbol);
-                chartPanel.clearChart(); // Clear chart when registered
-            }); 
-        } else {
-            System.err.println("[GraphUpdater] [Thread: " + Thread.currentThread().getName() + "] Invalid symbol or chartPanel, could not register.");
+        ChartDataBuffer buffer = registerSymbol(symbol);
+        if (buffer != null && chartPanel != null) {
+            chartPanel.bindData(symbol.toUpperCase(), buffer, symbol.toUpperCase() + " Prices");
         }
     }
 
+    public ChartDataBuffer getDataBuffer(String symbol) {
+        return symbol == null ? null : dataBuffers.get(symbol.toUpperCase());
+    }
+
     /**
-     * Unregisters the XChartPanel for a specific stock symbol.
-     * @param symbol The symbol of the panel to unregister.
+     * Stops collecting chart data for a specific stock symbol.
+     * @param symbol The symbol to unregister.
      */
-    public void unregisterChartPanel(String symbol) {
+    public void unregisterSymbol(String symbol) {
         if (symbol != null) {
             String upperSymbol = symbol.toUpperCase();
-            XChartPanel removedPanel = chartPanelsMap.remove(upperSymbol);
-            if (removedPanel != null) {
-                System.out.println("[GraphUpdater] [Thread: " + Thread.currentThread().getName() + "] Unregistered chart panel for symbol: " + upperSymbol);
-            } else {
-                // System.out.println("[GraphUpdater] [Thread: " + Thread.currentThread().getName() + "] No chart panel to unregister for symbol: " + upperSymbol);
+            ChartDataBuffer removed = dataBuffers.remove(upperSymbol);
+            if (removed != null) {
+                LOG.info("Unregistered chart data for symbol: {}", upperSymbol);
             }
         }
     }
 
     /**
-     * Clears all registered chart panels.
+     * Stops collecting chart data for all symbols.
      */
-    public void unregisterAllChartPanels() {
-        System.out.println("[GraphUpdater] [Thread: " + Thread.currentThread().getName() + "] Unregistering all chart panels. Current count: " + chartPanelsMap.size());
-        chartPanelsMap.clear();
+    public void unregisterAllSymbols() {
+        LOG.info("Unregistering all symbols. Current count: {}", dataBuffers.size());
+        dataBuffers.clear();
+    }
+
+    public int getSymbolCount() {
+        return dataBuffers.size();
     }
 
     @Override
@@ -69,56 +93,40 @@ public class GraphUpdater implements GraphDataListener {
     }
     
     @Override
-    public void onOHLCDataUpdate(String symbol, Date timestamp, double open, double high, double low, double close) {
+    public void onOHLCDataUpdate(String symbol, long timestampMillis, double open, double high, double low, double close, long tickNanos) {
         if (symbol == null) return;
-        String upperSymbol = symbol.toUpperCase();
-        XChartPanel chartPanel = chartPanelsMap.get(upperSymbol);
-
-        if (chartPanel != null) {
-            // SwingUtilities.invokeLater is already used inside XChartPanel for addOHLCDataPoint.
-            // System.out.println("[GraphUpdater] [Thread: " + Thread.currentThread().getName() + "] Received OHLC data for " + upperSymbol + ". Forwarding to chart panel.");
-            chartPanel.addOHLCDataPoint(timestamp, open, high, low, close);
+        ChartDataBuffer buffer = dataBuffers.get(symbol.toUpperCase());
+        if (buffer != null) {
+            // Only stores the point; if the symbol is on screen its panel is marked dirty and redrawn once per frame.
+            buffer.addCandle(timestampMillis, open, high, low, close, tickNanos);
         } else {
             // This log can be normal when the application first starts or when the symbol changes.
-            // System.err.println("[GraphUpdater] [Thread: " + Thread.currentThread().getName() + "] No registered XChartPanel found for " + upperSymbol + " (onOHLCDataUpdate).");
+            // LOG.warn("No chart data registered for {} (onOHLCDataUpdate).", symbol);
         }
     }
 
     @Override
-    public void clearGraph(String symbol) {
-        if (symbol == null) return;
-        String upperSymbol = symbol.toUpperCase();
-        XChartPanel chartPanel = chartPanelsMap.get(upperSymbol);
-        if (chartPanel != null) {
-            // SwingUtilities.invokeLater is already used inside XChartPanel for clearChart.
-            // System.out.println("[GraphUpdater] [Thread: " + Thread.currentThread().getName() + "] Clearing graph for symbol: " + upperSymbol);
-            chartPanel.clearChart();
+    public void onIndicatorUpdate(String symbol, long timestampMillis, IndicatorValues indicators) {
+        if (symbol == null || indicators == null || !indicators.hasOverlayValues()) return;
+        ChartDataBuffer buffer = dataBuffers.get(symbol.toUpperCase());
+        if (buffer != null) {
+            buffer.addIndicators(timestampMillis, indicators);
         }
     }
 
     @Override
-    public void clearAllGraphs() {
-        System.out.println("[GraphUpdater] [Thread: " + Thread.currentThread().getName() + "] Clearing all graphs. Panel count: " + chartPanelsMap.size());
-        for (XChartPanel panel : chartPanelsMap.values()) {
-            if (panel != null) {
-                // SwingUtilities.invokeLater is already used inside XChartPanel for clearChart.
-                panel.clearChart();
-            }
+    public void clearGraph(String symbol) {
+        ChartDataBuffer buffer = getDataBuffer(symbol);
+        if (buffer != null) {
+            buffer.clear(); // A bound panel redraws empty with the next frame
         }
     }
 
-    // A method can be added to update the title of the graph for a specific symbol.
-    // This can be called by MainController.
-    public void updateChartTitle(String symbol, String newTitle) {
-        if (symbol == null) return;
-        String upperSymbol = symbol.toUpperCase();
-        XChartPanel chartPanel = chartPanelsMap.get(upperSymbol);
-        if (chartPanel != null) { 
-            // System.out.println("[GraphUpdater] [Thread: " + Thread.currentThread().getName() + "] Updating chart title for " + upperSymbol + " to: " + newTitle);
-            SwingUtilities.invokeLater(() -> {
-                // System.out.println("[GraphUpdater] [Thread: " + Thread.currentThread().getName() + "] Setting panel title on EDT for " + upperSymbol);
-                chartPanel.setPanelTitle(newTitle);
-            });
+    @Override
+    public void clearAllGraphs() {
+        LOG.info("Clearing all graphs. Symbol count: {}", dataBuffers.size());
+        for (ChartDataBuffer buffer : dataBuffers.values()) {
+            buffer.clear();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+package com.stockmonitor;
+
+import com.stockmonitor.logging.Log;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incrementally maintains technical indicators (SMA, EMA, RSI, Bollinger bands
+ * and N-period % change) per symbol. Every update is O(1): each symbol keeps
+ * fixed-size primitive windows instead of recomputing from the price history.
+ */
+public class IndicatorEngine {
+
+    private static final Log LOG = Log.get(IndicatorEngine.class);
+
+    public static final int DEFAULT_SMA_PERIOD = 20;
+    public static final int DEFAULT_EMA_PERIOD = 20;
+    public static final int DEFAULT_RSI_PERIOD = 14;
+    public static final double DEFAULT_BOLLINGER_STDDEV_MULTIPLIER = 2.0;
+    public static final int DEFAULT_CHANGE_PERIOD = 10;
+
+    private final int smaPeriod;
+    private final int emaPeriod;
+    private final int rsiPeriod;
+    private final double bollingerMultiplier;
+    private final int changePeriod;
+
+    private final Map<String, SymbolIndicators> indicatorsBySymbol = new ConcurrentHashMap<>();
+
+    public IndicatorEngine() {
+        this(DEFAULT_SMA_PERIOD, DEFAULT_EMA_PERIOD, DEFAULT_RSI_PERIOD, DEFAULT_BOLLINGER_STDDEV_MULTIPLIER, DEFAULT_CHANGE_PERIOD);
+    }
+
+    public IndicatorEngine(int smaPeriod, int emaPeriod, int rsiPeriod, double bollingerMultiplier, int changePeriod) {
+        this.smaPeriod = smaPeriod;
+        this.emaPeriod = emaPeriod;
+        this.rsiPeriod = rsiPeriod;
+        this.bollingerMultiplier = bollingerMultiplier;
+        this.changePeriod = changePeriod;
+        LOG.info("Instance created. SMA({}), EMA({}), RSI({}), Bollinger({}, {}), Change({}).",
+                smaPeriod, emaPeriod, rsiPeriod, smaPeriod, bollingerMultiplier, changePeriod);
+    }
+
+    /**
+     * Feeds a new price for the symbol and returns the updated indicators.
+     * Each symbol is normally updated by a single StockWatcherThread.
+     */
+    public IndicatorSnapshot update(String symbol, double price) {
+        if (symbol == null || Double.isNaN(price)) {
+            return IndicatorSnapshot.EMPTY;
+        }
+        SymbolIndicators indicators = indicatorsBySymbol.computeIfAbsent(symbol.toUpperCase(), s -> new SymbolIndicators());
+        return indicators.update(price);
+    }
+
+    /**
+     * Same as {@link #update(String, double)}, but writes the indicators into the watcher's tick
+     * instead of returning a snapshot, so the per-tick path allocates nothing.
+     */
+    void update(String symbol, double price, TickEvent tick) {
+        if (symbol == null || Double.isNaN(price)) {
+            tick.clearIndicators();
+            return;
+        }
+        SymbolIndicators indicators = indicatorsBySymbol.computeIfAbsent(symbol.toUpperCase(), s -> new SymbolIndicators());
+        indicators.update(price, tick);
+    }
+
+    /**
+     * Returns the last computed indicators for the symbol, or IndicatorSnapshot.EMPTY.
+     */
+    public IndicatorSnapshot getSnapshot(String symbol) {
+        if (symbol == null) return IndicatorSnapshot.EMPTY;
+        SymbolIndicators indicators = indicatorsBySymbol.get(symbol.toUpperCase());
+        return indicators != null ? indicators.snapshot() : IndicatorSnapshot.EMPTY;
+    }
+
+    public void reset(String symbol) {
+        if (symbol != null) {
+            indicatorsBySymbol.remove(symbol.toUpperCase());
+        }
+    }
+
+    public void clear() {
+        LOG.info("Clearing indicator state. Symbol count: {}", indicatorsBySymbol.size());
+        indicatorsBySymbol.clear();
+    }
+
+    public int getSmaPeriod() {
+        return smaPeriod;
+    }
+
+    public int getEmaPeriod() {
+        return emaPeriod;
+    }
+
+    public int getRsiPeriod() {
+        return rsiPeriod;
+    }
+
+    public int getChangePeriod() {
+        return changePeriod;
+    }
+
+    // Indicator state for one symbol. Synchronized so the values are never read from a half-applied tick.
+    private final class SymbolIndicators {
+        private final RollingWindow smaWindow = new RollingWindow(smaPeriod);
+        // Holds changePeriod + 1 prices so oldest() is the price N ticks ago
+        private final RollingWindow changeWindow = new RollingWindow(changePeriod + 1);
+        private final double emaAlpha = 2.0 / (emaPeriod + 1);
+
+        private double ema = Double.NaN;
+        private double previousPrice = Double.NaN;
+        private double averageGain = 0.0;
+        private double averageLoss = 0.0;
+        private long samples = 0;
+
+        // Indicators after the last tick
+        private double sma = Double.NaN;
+        private double emaValue = Double.NaN;
+        private double rsi = Double.NaN;
+        private double upperBand = Double.NaN;
+        private double lowerBand = Double.NaN;
+        private double percentChange = Double.NaN;
+
+        synchronized IndicatorSnapshot update(double price) {
+            apply(price);
+            return snapshot();
+        }
+
+        synchronized void update(double price, TickEvent tick) {
+            apply(price);
+            tick.sma = sma;
+            tick.ema = emaValue;
+            tick.rsi = rsi;
+            tick.upperBand = upperBand;
+            tick.lowerBand = lowerBand;
+            tick.percentChange = percentChange;
+            tick.indicatorSamples = samples;
+        }
+
+        synchronized IndicatorSnapshot snapshot() {
+            return samples == 0 ? IndicatorSnapshot.EMPTY
+                    : new IndicatorSnapshot(previousPrice, sma, emaValue, rsi, upperBand, lowerBand, percentChange, samples);
+        }
+
+        private void apply(double price) {
+            samples++;
+
+            smaWindow.add(price);
+            changeWindow.add(price);
+            ema = Double.isNaN(ema) ? price : ema + emaAlpha * (price - ema);
+
+            // RSI with Wilder smoothing: simple average over the first period, then exponential.
+            if (!Double.isNaN(previousPrice)) {
+                double delta = price - previousPrice;
+                double gain = delta > 0 ? delta : 0.0;
+                double loss = delta < 0 ? -delta : 0.0;
+                long changes = samples - 1;
+                if (changes <= rsiPeriod) {
+                    averageGain += (gain - averageGain) / changes;
+                    averageLoss += (loss - averageLoss) / changes;
+                } else {
+                    averageGain = (averageGain * (rsiPeriod - 1) + gain) / rsiPeriod;
+                    averageLoss = (averageLoss * (rsiPeriod - 1) + loss) / rsiPeriod;
+                }
+            }
+            previousPrice = price;
+
+            sma = Double.NaN;
+            upperBand = Double.NaN;
+            lowerBand = Double.NaN;
+            if (smaWindow.isFull()) {
+                sma = smaWindow.mean();
+                double bandWidth = bollingerMultiplier * smaWindow.standardDeviation();
+                upperBand = sma + bandWidth;
+                lowerBand = sma - bandWidth;
+            }
+
+            emaValue = samples >= emaPeriod ? ema : Double.NaN;
+
+            rsi = Double.NaN;
+            if (samples > rsiPeriod) {
+                if (averageLoss == 0.0) {
+                    rsi = averageGain == 0.0 ? 50.0 : 100.0;
+                } else {
+                    rsi = 100.0 - (100.0 / (1.0 + averageGain / averageLoss));
+                }
+            }
+
+            percentChange = Double.NaN;
+            if (changeWindow.isFull()) {
+                double reference = changeWindow.oldest();
+                if (reference != 0.0) {
+                    percentChange = (price - reference) / reference * 100.0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.stockmonitor;
+
+/**
+ * Immutable view of the technical indicators for one symbol after a tick.
+ * Values that do not have enough samples yet are Double.NaN.
+ */
+public final class IndicatorSnapshot implements IndicatorValues {
+
+    public static final IndicatorSnapshot EMPTY = new IndicatorSnapshot(Double.NaN, Double.NaN, Double.NaN,
+            Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0);
+
+    private final double price;
+    private final double sma;
+    private final double ema;
+    private final double rsi;
+    private final double upperBand;
+    private final double lowerBand;
+    private final double percentChange;
+    private final long sampleCount;
+
+    IndicatorSnapshot(double price, double sma, double ema, double rsi,
+                      double upperBand, double lowerBand, double percentChange, long sampleCount) {
+        this.price = price;
+        this.sma = sma;
+        this.ema = ema;
+        this.rsi = rsi;
+        this.upperBand = upperBand;
+        this.lowerBand = lowerBand;
+        this.percentChange = percentChange;
+        this.sampleCount = sampleCount;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public double getSma() {
+        return sma;
+    }
+
+    public double getEma() {
+        return ema;
+    }
+
+    public double getRsi() {
+        return rsi;
+    }
+
+    public double getUpperBand() {
+        return upperBand;
+    }
+
+    public double getLowerBand() {
+        return lowerBand;
+    }
+
+    public double getPercentChange() {
+        return percentChange;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("IndicatorSnapshot[price=%.4f, sma=%.4f, ema=%.4f, rsi=%.2f, bands=%.4f/%.4f, change=%.2f%%, samples=%d]",
+                price, sma, ema, rsi, lowerBand, upperBand, percentChange, sampleCount);
+    }
+}
@@ -0,0 +1,28 @@
+package com.stockmonitor;
+
+/**
+ * Read access to the technical indicators of a symbol after a tick, shared by the immutable
+ * IndicatorSnapshot and the reused TickEvent. Values that do not have enough samples yet are Double.NaN.
+ */
+public interface IndicatorValues {
+
+    double getSma();
+
+    double getEma();
+
+    double getRsi();
+
+    double getUpperBand();
+
+    double getLowerBand();
+
+    double getPercentChange();
+
+    // Prices the indicators were computed from
+    long getSampleCount();
+
+    // True when every value drawn as a chart overlay is available.
+    default boolean hasOverlayValues() {
+        return !Double.isNaN(getSma()) && !Double.isNaN(getEma()) && !Double.isNaN(getUpperBand()) && !Double.isNaN(getLowerBand());
+    }
+}
@@ -2,10 +2,21 @@ package com.stockmonitor;
 
 // import com.stockmonitor.listeners.AlertListener; // Removed, no longer used
 import com.stockmonitor.listeners.GraphDataListener;
+import com.stockmonitor.logging.Log;
+import com.stockmonitor.metrics.FlightRecording;
+import com.stockmonitor.metrics.Metrics;
+import java.io.IOException;
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -21,16 +32,35 @@ public class MainController {
     private ConfigurationManager configManager;
     private PriceFetcher priceFetcher;
     private AlertManager alertManager;
+    private AlertHistoryStore alertHistoryStore; // Persistent, indexed alert history (null if the file could not be opened)
+    private AlertHistoryDialog alertHistoryDialog;
+    private DiagnosticsDialog diagnosticsDialog;
     private GraphUpdater graphUpdater;
+    private WatchlistTableModel watchlistModel; // Latest price and alert status of every symbol
+    private TickRingBuffer tickRing; // Watchers publish ticks, chart/alert/metrics/journal consumers drain them
+    private SimulatedPriceFeed simulatedPriceFeed; // Only with -Dstockmonitor.watchlist.simulatedSymbols > 0
+    private SymbolDirectory symbolDirectory; // Cached exchange symbol lists for autocomplete
+    private IndicatorEngine indicatorEngine;
     // A separate ExecutorService can be used to fetch initial prices, or the existing one can be shared.
     private ExecutorService initialPriceExecutorService; //İlk fiyatı almak için kullanılır.
 
     private final Map<String, StockWatcherThread> activeWatchers = new ConcurrentHashMap<>(); //thread safe map birden fazla thread ile erişilebilir.
-    private ExecutorService executorService; // ilk fiyatı aldıktan sonraki ana izleme için kullanılır.
+    // Watchers are changed by the UI (start/stop) and by watchlist file reloads; both diff against activeWatchers
+    final Object watcherLock = new Object(); // Package-private for StatusHttpServerTest
+    private Map<String, StockConfig> monitoredRowConfigs = Collections.emptyMap(); // Symbol rows while monitoring
+    private Map<String, StockConfig> fileConfigs = Collections.emptyMap();         // Symbols of the watchlist file
+    private final Map<String, AlertSink> fileSinks = new HashMap<>();               // Sinks of the watchlist file, by key
+    private WatchlistFileWatcher watchlistFileWatcher; // Only with -Dstockmonitor.watchlist.file
+    private StatusHttpServer statusHttpServer; // -Dstockmonitor.http.port, off by default
+    private final WarmProfileCache warmProfiles = new WarmProfileCache(WarmProfileCache.DEFAULT_CAPACITY); // Paused watchers of recent profiles
+    private volatile int warmWatcherCount; // Written under watcherLock whenever warmProfiles changes, read by the gauge without it
+    private ScheduledExecutorService executorService; // ilk fiyatı aldıktan sonraki ana izleme için kullanılır.
     // Finnhub free API limit is ~60 requests per minute.
     // Monitoring 2 stocks/cryptos and fetching each every 3 seconds makes 2*20 = 40 requests per minute.
-    private static final int MAX_DISPLAY_CHARTS = 4; // Increased from 2 to 4 limitation of the chart.
     private static final int MAX_API_REQUESTS_PER_MINUTE = 58; // Finnhub limit with a safety margin
+    private static final long MIN_FETCH_INTERVAL_SECONDS = 2; // Fastest poll, used for a single symbol
+    private static final int INITIAL_PRICE_THREADS = 4; // Initial price fetches when symbols are picked in the UI
+    private static final long RECENT_PRICE_MAX_AGE_MS = 60000; // A watchlist price this recent is shown instead of fetching
 
     // AtomicInteger is used to create thread-safe counters for naming threads.
     private static final java.util.concurrent.atomic.AtomicInteger stockWatcherThreadCounter = new java.util.concurrent.atomic.AtomicInteger(0);
@@ -49,15 +79,45 @@ public class MainController {
         System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] PriceFetcher instance created.");
         this.graphUpdater = new GraphUpdater();
         System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] GraphUpdater instance created.");
+        this.watchlistModel = new WatchlistTableModel();
+        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] WatchlistTableModel instance created.");
+        this.symbolDirectory = new SymbolDirectory();
+        symbolDirectory.start(); // Reads the cache (and downloads the lists if stale) on its own thread
+        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] SymbolDirectory instance created, loading in the background.");
+        this.indicatorEngine = new IndicatorEngine();
+        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] IndicatorEngine instance created.");
         this.alertManager = new AlertManager(null); // Will be set after MainFrame is set
-        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] AlertManager instance created (TextArea will be set later).");
+        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] AlertManager instance created (AlertLogView will be set later).");
+        this.tickRing = TickRingBuffer.createDefault(graphUpdater, watchlistModel);
+        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] TickRingBuffer created with " + tickRing.getCapacity() + " slots and " + tickRing.getConsumers().size() + " consumers.");
+        this.alertHistoryStore = new AlertHistoryStore();
+        try {
+            alertHistoryStore.open(); // Rebuilds the symbol/time indexes by scanning the file once
+            this.alertManager.addSink(alertHistoryStore);
+        } catch (IOException e) {
+            System.err.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Alert history disabled, could not open " + alertHistoryStore.getFile() + ": " + e.getMessage());
+            this.alertHistoryStore = null;
+        }
+        for (AlertSink sink : AlertSinkFactory.fromSystemProperties()) {
+            this.alertManager.addSink(sink); // -Dstockmonitor.sink.file / .webhook / .command
+        }
+        registerMetrics();
+        if (StatusHttpServer.DEFAULT_PORT > 0) {
+            this.statusHttpServer = new StatusHttpServer(this, StatusHttpServer.DEFAULT_PORT, StatusHttpServer.DEFAULT_CACHE_MS);
+            try {
+                statusHttpServer.start();
+            } catch (IOException e) {
+                System.err.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Status endpoint disabled, could not listen on port " + StatusHttpServer.DEFAULT_PORT + ": " + e.getMessage());
+                this.statusHttpServer = null;
+            }
+        }
         
 
         // Initial price fetch thread pool is created. 
         // It is used to fetch initial prices for the symbols.
-        // It is a fixed thread pool with a size of MAX_DISPLAY_CHARTS.
+        // It is a fixed thread pool with a size of INITIAL_PRICE_THREADS.
         // The threads are named InitialPriceFetchThread-X.
-        int initialPoolSize = MAX_DISPLAY_CHARTS > 0 ? MAX_DISPLAY_CHARTS : 1;
+        int initialPoolSize = INITIAL_PRICE_THREADS;
         this.initialPriceExecutorService = Executors.newFixedThreadPool(initialPoolSize, r -> new Thread(r, "InitialPriceFetchThread-" + initialPriceFetchThreadCounter.getAndIncrement()));
         System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] initialPriceExecutorService (for fetching initial prices) created with a fixed pool of " + initialPoolSize + " threads (named InitialPriceFetchThread-X).");
         
@@ -78,20 +138,73 @@ public class MainController {
             }
             this.mainFrame = new MainFrame(this);
             System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] MainFrame instance created on EDT.");
-            this.alertManager.setAlertTextArea(mainFrame.getAlertArea()); // Introduce TextArea to AlertManager
-            System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] AlertTextArea set in AlertManager on EDT.");
+            this.alertManager.setAlertLogView(mainFrame.getAlertLogView()); // Introduce the alert log to AlertManager
+            System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] AlertLogView set in AlertManager on EDT.");
+            this.alertManager.setToastNotifier(mainFrame.getToastNotifier());
+            this.alertManager.setWatchlistModel(watchlistModel);
             mainFrame.setVisible(true);
             System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] MainFrame set visible on EDT.");
             alertManager.startConsumer(); // Start AlertManager's consumer thread
             System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] alertManager.startConsumer() called on EDT (consumer runs on its own thread).");
+            if (SimulatedPriceFeed.DEFAULT_SYMBOLS > 0) {
+                simulatedPriceFeed = new SimulatedPriceFeed(watchlistModel, SimulatedPriceFeed.DEFAULT_SYMBOLS, SimulatedPriceFeed.DEFAULT_RATE);
+                simulatedPriceFeed.start(); // Synthetic symbols in the watchlist only, no API requests
+            }
         });
         int coreCount = Runtime.getRuntime().availableProcessors();
         int mainPoolSize = Math.max(2, coreCount / 2);
-        this.executorService = Executors.newFixedThreadPool(mainPoolSize, r -> new Thread(r, "StockWatcherTaskThread-" + stockWatcherThreadCounter.getAndIncrement()));
-        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Main executorService (for StockWatcherThreads) created with a fixed pool of " + mainPoolSize + " threads (named StockWatcherTaskThread-X). Core count: " + coreCount + ".");
+        // Watchers are scheduled per poll, so this pool serves any number of symbols
+        this.executorService = Executors.newScheduledThreadPool(mainPoolSize, r -> new Thread(r, "StockWatcherTaskThread-" + stockWatcherThreadCounter.getAndIncrement()));
+        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Main executorService (for StockWatcherThreads) created with a scheduled pool of " + mainPoolSize + " threads (named StockWatcherTaskThread-X). Core count: " + coreCount + ".");
+        String watchlistPath = System.getProperty("stockmonitor.watchlist.file");
+        if (watchlistPath != null && !watchlistPath.trim().isEmpty()) {
+            this.watchlistFileWatcher = new WatchlistFileWatcher(new File(watchlistPath.trim()), this::applyWatchlistFile);
+            SwingUtilities.invokeLater(() -> { // After MainFrame has been created; loads and applies on its own thread
+                try {
+                    watchlistFileWatcher.start();
+                } catch (IOException e) {
+                    System.err.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Watchlist file " + watchlistPath + " cannot be watched: " + e.getMessage());
+                }
+            });
+        }
         System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] initializeApplication finished.");
     }
 
+    // Read without watcherLock, so a scrape never waits for a reconcile or a profile switch
+    void registerWatcherGauges() {
+        Metrics.registerGauge("activeWatchers", activeWatchers::size);
+        Metrics.registerGauge("warmWatchers", () -> warmWatcherCount);
+    }
+
+    // Exposes the statistics the components already keep next to the pipeline histograms (JMX: com.stockmonitor)
+    private void registerMetrics() {
+        Metrics.registerGauge("alertQueueDepth", alertManager::getPendingAlertCount);
+        Metrics.registerGauge("sinkQueueDepth", alertManager::getSinkQueueDepth);
+        registerWatcherGauges();
+        Metrics.registerGauge("watchlistSymbols", watchlistModel::getSymbolCount);
+        Metrics.registerGauge("apiRequestsLastMinute", Metrics::apiRequestsLastMinute);
+        Metrics.registerCounter("alertsDropped", alertManager::getDroppedAlertCount);
+        Metrics.registerCounter("alertsCoalesced", alertManager::getCoalescedAlertCount);
+        Metrics.registerCounter("sinkAlertsDropped", alertManager::getSinkDroppedCount);
+        ChartRenderScheduler renderScheduler = ChartRenderScheduler.getDefault();
+        Metrics.registerCounter("chartDirtyMarks", renderScheduler::getDirtyMarks);
+        Metrics.registerCounter("chartsRendered", renderScheduler::getChartsRendered);
+        Metrics.registerCounter("framesRendered", renderScheduler::getFramesRendered);
+        Metrics.registerCounter("watchlistQuotes", watchlistModel::getQuotesReceived);
+        Metrics.registerCounter("watchlistRowsFlushed", watchlistModel::getRowsFlushed);
+        Metrics.registerCounter("watchlistCellsUpdated", watchlistModel::getCellsUpdated);
+        Metrics.registerCounter("logMessagesDropped", Log::getDroppedCount);
+        for (TickRingBuffer.Consumer consumer : tickRing.getConsumers()) {
+            String suffix = Character.toUpperCase(consumer.getName().charAt(0)) + consumer.getName().substring(1);
+            Metrics.registerGauge("tickLag" + suffix, consumer::getLag);
+            Metrics.registerCounter("ticksLost" + suffix, consumer::getLostCount);
+            Metrics.registerCounter("ticksFailed" + suffix, consumer::getFailedCount);
+        }
+        Metrics.registerMBeans();
+        Metrics.startEdtProbe();
+        FlightRecording.startFromSystemProperties(); // -Dstockmonitor.jfr.file
+    }
+
     public void startMonitoring() {
         System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] startMonitoring called.");
         if (mainFrame == null) {
@@ -101,81 +214,308 @@ public class MainController {
         List<StockConfig> configs = mainFrame.getSelectedStockConfigurations();
         if (configs.isEmpty()) {
             System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] No symbols selected for monitoring.");
-            mainFrame.getAlertArea().append("Warning: At least one symbol must be selected for monitoring.\n");
+            mainFrame.getAlertLogView().append("Warning: At least one symbol must be selected for monitoring.");
             return;
         }
         configManager.savePreferences(configs);
 
-        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Stopping and clearing previous active watchers (count: " + activeWatchers.size() + ").");
-        activeWatchers.values().forEach(watcher -> {
-            System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Calling stopWatching() for previous watcher: " + watcher.getSymbol());
-            watcher.stopWatching();
-        }); 
-        activeWatchers.clear();
-        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Unregistering all chart panels from GraphUpdater.");
-        graphUpdater.unregisterAllChartPanels(); 
-        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Previous watchers stopped and panels unregistered.");
-
-        int numberOfActiveSymbols = configs.size();
+        Map<String, StockConfig> rowConfigs = new LinkedHashMap<>();
+        for (StockConfig config : configs) {
+            if (config.getSymbol() != null && !config.getSymbol().isEmpty()) {
+                rowConfigs.putIfAbsent(config.getSymbol().toUpperCase(), config);
+            }
+        }
         long fetchIntervalSeconds;
-
-        if (numberOfActiveSymbols == 1) {
-            fetchIntervalSeconds = 2; // 2 seconds for a single symbol
-        } else if (numberOfActiveSymbols == 2) {
-            fetchIntervalSeconds = 3; // 3 seconds for 2 symbols (60 / (2*3) = 10 req/sym/min -> total 20*2=40)
-        } else if (numberOfActiveSymbols == 3) {
-            fetchIntervalSeconds = 4; // 4 seconds for 3 symbols (60 / (3*4) = 5 req/sym/min -> total 15*3=45)
-        } else if (numberOfActiveSymbols >= 4) {
-            fetchIntervalSeconds = 5; // 5 seconds for 4 or more symbols (60 / (4*5) = 3 req/sym/min -> total 12*4=48)
-        } else { // This case should be caught by configs.isEmpty() above, but as a fallback
-            fetchIntervalSeconds = 10; // Default
+        synchronized (watcherLock) {
+            monitoredRowConfigs = rowConfigs;
+            reconcileWatchers(); // Unchanged symbols keep running; only added, removed and edited ones are touched
+            fetchIntervalSeconds = fetchIntervalSecondsFor(totalPollWeight(), PollPriority.NORMAL);
         }
-        
-        // We can also check the minimum interval to avoid exceeding the API limit.
-        // E.g., (60 seconds / (MAX_API_REQUESTS_PER_MINUTE / numberOfActiveSymbols) )
-        // If numberOfActiveSymbols > 0: Max requests per minute per symbol = MAX_API_REQUESTS_PER_MINUTE / numberOfActiveSymbols
-        // In this case, min interval in seconds = 60 / (MAX_API_REQUESTS_PER_MINUTE / numberOfActiveSymbols)
-        // A check like fetchIntervalSeconds = Math.max(fetchIntervalSeconds, calculatedMinInterval); could be added.
-        // For now, the manual settings above should suffice.
-
-        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Number of active symbols: " + numberOfActiveSymbols + ", Data fetch interval set to: " + fetchIntervalSeconds + " seconds.");
+        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Finished setting up watchers. Updating button states and logging system message via AlertManager.");
+        mainFrame.updateButtonStates(true); 
+        alertManager.logSystemMessage("Monitoring started for all selected symbols (with " + fetchIntervalSeconds + "s interval).");
+    }
 
-        int chartIndex = 0;
-        for (StockConfig config : configs) {
-            final String currentSymbol = config.getSymbol();
-            System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Setting up monitoring and graph for symbol " + currentSymbol + ".");
-            if (currentSymbol != null && !currentSymbol.isEmpty()) {
-                if (chartIndex < MAX_DISPLAY_CHARTS) {
-                    XChartPanel panel = mainFrame.getXChartPanel(chartIndex);
-                    if (panel != null) {
-                        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Preparing XChartPanel at index " + chartIndex + " for symbol " + currentSymbol + ". Clearing chart, registering with GraphUpdater, and setting title.");
-                        panel.clearChart(); 
-                        graphUpdater.registerChartPanel(currentSymbol, panel);
-                        graphUpdater.updateChartTitle(currentSymbol, currentSymbol + " Prices (Candle)");
-                        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] XChartPanel " + chartIndex + " registered, cleared, and title set for symbol " + currentSymbol + ".");
-                    } else {
-                        System.err.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Error: XChartPanel at index " + chartIndex + " not found for symbol ("+ currentSymbol + ").");
+    /**
+     * Applies a (re)loaded watchlist file: only symbols whose presence, rules or priority changed are
+     * touched, and only added or removed sinks are created or closed. Called on the file watcher thread.
+     */
+    void applyWatchlistFile(WatchlistFile watchlist) {
+        long start = System.nanoTime();
+        synchronized (watcherLock) {
+            Map<String, WatchlistFile.SinkConfig> sinks = watchlist.getSinks();
+            for (Iterator<Map.Entry<String, AlertSink>> it = fileSinks.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, AlertSink> entry = it.next();
+                if (!sinks.containsKey(entry.getKey())) {
+                    alertManager.removeSink(entry.getValue());
+                    it.remove();
+                }
+            }
+            for (WatchlistFile.SinkConfig sinkConfig : sinks.values()) {
+                if (!fileSinks.containsKey(sinkConfig.key())) {
+                    AlertSink sink = AlertSinkFactory.create(sinkConfig.type, sinkConfig.target);
+                    if (sink != null) {
+                        alertManager.addSink(sink);
+                        fileSinks.put(sinkConfig.key(), sink);
                     }
-                    chartIndex++;
                 }
+            }
+            fileConfigs = watchlist.getSymbols();
+            reconcileWatchers();
+        }
+        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Watchlist file applied in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms. Active watchers: " + activeWatchers.size() + ".");
+    }
 
-                System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Creating StockWatcherThread for symbol " + currentSymbol + " with interval " + fetchIntervalSeconds + "s.");
+    /**
+     * Brings the running watchers in line with the symbol rows (while monitoring) plus the watchlist file;
+     * a symbol in both is configured by its row. Caller holds watcherLock.
+     */
+    private void reconcileWatchers() {
+        Map<String, StockConfig> desired = new LinkedHashMap<>(monitoredRowConfigs);
+        for (StockConfig config : fileConfigs.values()) {
+            desired.putIfAbsent(config.getSymbol(), config);
+        }
+        int stopped = 0, started = 0, updated = 0, resumed = 0;
+        for (Iterator<Map.Entry<String, StockWatcherThread>> it = activeWatchers.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, StockWatcherThread> entry = it.next();
+            StockConfig config = desired.get(entry.getKey());
+            StockWatcherThread watcher = entry.getValue();
+            if (config == null) {
+                System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Calling stopWatching() for removed symbol: " + watcher.getSymbol());
+                watcher.stopWatching();
+                indicatorEngine.reset(entry.getKey());
+                watchlistModel.removeSymbol(entry.getKey());
+                if (!desired.isEmpty()) {
+                    graphUpdater.unregisterSymbol(entry.getKey()); // When nothing is left, the charts stay as they were
+                }
+                it.remove();
+                stopped++;
+            } else if (!config.hasSameSettings(watcher.getStockConfig())) {
+                watcher.updateConfig(config); // Price history, indicators and unchanged rules are kept
+                updated++;
+            }
+        }
+        for (StockConfig config : desired.values()) {
+            String symbol = config.getSymbol().toUpperCase();
+            if (!activeWatchers.containsKey(symbol)) {
+                StockWatcherThread warm = warmProfiles.take(configManager.getActiveProfile(), symbol);
+                if (warm != null) { // Paused with a recently used profile: chart history and indicators are still there
+                    if (!config.hasSameSettings(warm.getStockConfig())) {
+                        warm.updateConfig(config);
+                    }
+                    activeWatchers.put(symbol, warm);
+                    warmWatcherCount = warmProfiles.getWatcherCount();
+                    resumed++;
+                    continue;
+                }
+                graphUpdater.registerSymbol(symbol); // Every symbol gets a data buffer; the grid shows one page of them
+                indicatorEngine.reset(symbol); // Indicators restart their warm-up with the chart
                 StockWatcherThread watcher = new StockWatcherThread(
                     config, 
                     priceFetcher,
                     alertManager,  
                     graphUpdater,
-                    fetchIntervalSeconds 
+                    tickRing,
+                    indicatorEngine,
+                    0 // Scheduled by rescheduleWatchers()
                 );
-                activeWatchers.put(currentSymbol, watcher);
-                System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Submitting StockWatcherThread for symbol " + currentSymbol + " to main executorService.");
-                executorService.submit(watcher); 
-                System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] StockWatcherThread for symbol " + currentSymbol + " submitted successfully to executorService. It will run on a StockWatcherTaskThread-X.");
+                activeWatchers.put(symbol, watcher);
+                started++;
             }
         }
-        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Finished setting up watchers. Updating button states and logging system message via AlertManager.");
-        mainFrame.updateButtonStates(true); 
-        alertManager.logSystemMessage("Monitoring started for all selected symbols (with " + fetchIntervalSeconds + "s interval).");
+        int rescheduled = rescheduleWatchers();
+        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Watchers reconciled: " + started + " started, " + resumed + " resumed, " + stopped + " stopped, " + updated + " updated, " + rescheduled + " (re)scheduled, " + activeWatchers.size() + " active.");
+        if (!desired.isEmpty() && mainFrame != null) {
+            List<String> chartSymbols = new ArrayList<>(); // In configured order: rows, then the watchlist file
+            for (StockConfig config : desired.values()) {
+                String symbol = config.getSymbol().toUpperCase();
+                if (activeWatchers.containsKey(symbol) && !chartSymbols.contains(symbol)) {
+                    chartSymbols.add(symbol);
+                }
+            }
+            if (SwingUtilities.isEventDispatchThread()) {
+                mainFrame.getChartGrid().setSymbols(chartSymbols);
+            } else {
+                SwingUtilities.invokeLater(() -> mainFrame.getChartGrid().setSymbols(chartSymbols));
+            }
+        }
+    }
+
+    /**
+     * Makes another profile active. The rows of the current profile are saved first. While monitoring,
+     * symbols only the old profile uses are paused and parked in the warm cache (not cleared), the new
+     * profile's symbols resume from the cache where possible, and only the rest start from scratch.
+     * Symbols both profiles share keep running. EDT.
+     */
+    public void switchProfile(String profileName) {
+        String current = configManager.getActiveProfile();
+        if (profileName == null || profileName.equals(current) || !configManager.profileExists(profileName)) {
+            return;
+        }
+        long start = System.nanoTime();
+        configManager.saveProfile(current, mainFrame.getSelectedStockConfigurations());
+        List<StockConfig> nextConfigs = configManager.loadProfile(profileName);
+        configManager.setActiveProfile(profileName);
+        boolean monitoring;
+        synchronized (watcherLock) {
+            monitoring = !monitoredRowConfigs.isEmpty();
+            if (monitoring) {
+                Map<String, StockConfig> nextRows = new LinkedHashMap<>();
+                for (StockConfig config : nextConfigs) {
+                    nextRows.putIfAbsent(config.getSymbol().toUpperCase(), config);
+                }
+                Map<String, StockWatcherThread> parked = new HashMap<>();
+                for (String symbol : monitoredRowConfigs.keySet()) {
+                    if (!nextRows.containsKey(symbol) && !fileConfigs.containsKey(symbol)) {
+                        StockWatcherThread watcher = activeWatchers.remove(symbol);
+                        if (watcher != null) {
+                            watcher.pause();
+                            parked.put(symbol, watcher);
+                            watchlistModel.removeSymbol(symbol); // A resumed watcher's next quote adds the row again
+                        }
+                    }
+                }
+                discardWatchers(warmProfiles.park(current, parked));
+                warmWatcherCount = warmProfiles.getWatcherCount();
+                monitoredRowConfigs = nextRows;
+                reconcileWatchers(); // Starts polling the new profile only
+            }
+        }
+        mainFrame.showConfigurations(nextConfigs);
+        mainFrame.updateButtonStates(monitoring);
+        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Switched from profile '" + current + "' to '" + profileName + "' in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms. Warm profiles: " + warmProfiles.getProfileCount() + " (" + warmWatcherCount + " paused watchers).");
+        alertManager.logSystemMessage("Profile '" + profileName + "' active" + (monitoring ? ", monitoring its symbols." : "."));
+    }
+
+    // Saves the current rows as a new profile and makes it active; the running watchers are unchanged. EDT.
+    public boolean createProfile(String profileName) {
+        if (!ConfigurationManager.isValidProfileName(profileName) || configManager.profileExists(profileName)) {
+            return false;
+        }
+        List<StockConfig> rows = mainFrame.getSelectedStockConfigurations();
+        configManager.saveProfile(configManager.getActiveProfile(), rows);
+        configManager.saveProfile(profileName, rows);
+        configManager.setActiveProfile(profileName);
+        alertManager.logSystemMessage("Profile '" + profileName + "' created.");
+        return true;
+    }
+
+    // Deletes the active profile (not the default one) and switches to the default profile. EDT.
+    public void deleteActiveProfile() {
+        String profileName = configManager.getActiveProfile();
+        if (ConfigurationManager.DEFAULT_PROFILE.equals(profileName)) {
+            return;
+        }
+        switchProfile(ConfigurationManager.DEFAULT_PROFILE);
+        synchronized (watcherLock) {
+            discardWatchers(warmProfiles.remove(profileName));
+            warmWatcherCount = warmProfiles.getWatcherCount();
+        }
+        configManager.deleteProfile(profileName);
+        alertManager.logSystemMessage("Profile '" + profileName + "' deleted.");
+    }
+
+    public List<String> getProfileNames() {
+        return configManager.getProfileNames();
+    }
+
+    public String getActiveProfile() {
+        return configManager.getActiveProfile();
+    }
+
+    // Weakly consistent copy, taken without the watcher lock (used by the status endpoint)
+    public List<StockWatcherThread> getActiveWatchers() {
+        return new ArrayList<>(activeWatchers.values());
+    }
+
+    // Watchers dropped from the warm cache: their chart data and indicators are released. Caller holds watcherLock.
+    private void discardWatchers(List<StockWatcherThread> watchers) {
+        for (StockWatcherThread watcher : watchers) {
+            String symbol = watcher.getSymbol().toUpperCase();
+            if (!activeWatchers.containsKey(symbol)) { // Otherwise the symbol's data belongs to its running watcher
+                watcher.stopWatching();
+                graphUpdater.unregisterSymbol(symbol);
+                indicatorEngine.reset(symbol);
+                watchlistModel.removeSymbol(symbol);
+            }
+        }
+    }
+
+    /**
+     * Schedules new watchers and reschedules those whose interval changed with the total API budget.
+     * Start times of the (re)scheduled watchers are spread over their interval so the requests do not
+     * arrive at the API in bursts. Caller holds watcherLock.
+     */
+    private int rescheduleWatchers() {
+        double totalWeight = totalPollWeight();
+        List<StockWatcherThread> changed = new ArrayList<>();
+        for (StockWatcherThread watcher : activeWatchers.values()) {
+            long interval = fetchIntervalSecondsFor(totalWeight, watcher.getStockConfig().getPriority());
+            if (interval != watcher.getFetchIntervalSeconds()) {
+                changed.add(watcher);
+            }
+        }
+        for (int i = 0; i < changed.size(); i++) {
+            StockWatcherThread watcher = changed.get(i);
+            long intervalSeconds = fetchIntervalSecondsFor(totalWeight, watcher.getStockConfig().getPriority());
+            long intervalMillis = TimeUnit.SECONDS.toMillis(intervalSeconds);
+            long initialDelayMillis = intervalMillis * i / changed.size();
+            ScheduledFuture<?> future = executorService.scheduleWithFixedDelay(watcher, initialDelayMillis, intervalMillis, TimeUnit.MILLISECONDS);
+            watcher.reschedule(future, intervalSeconds);
+        }
+        return changed.size();
+    }
+
+    private double totalPollWeight() {
+        double weight = 0;
+        for (StockWatcherThread watcher : activeWatchers.values()) {
+            weight += watcher.getStockConfig().getPriority().getWeight();
+        }
+        return weight;
+    }
+
+    // Slowest poll interval that keeps all symbols together under the API budget, but not below the minimum.
+    // 1..4 symbols give 2, 3, 4 and 5 seconds as before; more symbols are polled proportionally slower.
+    static long fetchIntervalSecondsFor(int numberOfSymbols) {
+        return fetchIntervalSecondsFor(numberOfSymbols, PollPriority.NORMAL);
+    }
+
+    // totalWeight is the sum of the priority weights of all symbols; a HIGH symbol polls twice as often as a NORMAL one
+    static long fetchIntervalSecondsFor(double totalWeight, PollPriority priority) {
+        long budgetSeconds = (long) Math.ceil(60.0 * Math.max(1.0, totalWeight) / MAX_API_REQUESTS_PER_MINUTE);
+        return Math.max(MIN_FETCH_INTERVAL_SECONDS, (long) Math.ceil(budgetSeconds / priority.getWeight()));
+    }
+
+    public GraphUpdater getGraphUpdater() {
+        return graphUpdater;
+    }
+
+    public WatchlistTableModel getWatchlistModel() {
+        return watchlistModel;
+    }
+
+    public SymbolDirectory getSymbolDirectory() {
+        return symbolDirectory;
+    }
+
+    // Opens the alert history browser (EDT)
+    public void showAlertHistory() {
+        if (alertHistoryStore == null) {
+            JOptionPane.showMessageDialog(mainFrame, "Alert history is not available (see console for details).", "Alert History", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (alertHistoryDialog == null) {
+            alertHistoryDialog = new AlertHistoryDialog(mainFrame, alertHistoryStore);
+        }
+        alertHistoryDialog.open();
+    }
+
+    // Opens the latency diagnostics (EDT)
+    public void showDiagnostics() {
+        if (diagnosticsDialog == null) {
+            diagnosticsDialog = new DiagnosticsDialog(mainFrame);
+        }
+        diagnosticsDialog.open();
     }
 
     public void stopMonitoring() {
@@ -184,12 +524,11 @@ public class MainController {
             System.err.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] MainFrame is null in stopMonitoring. Cannot proceed.");
             return;
         }
-        activeWatchers.values().forEach(watcher -> {
-            System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Calling stopWatching() on StockWatcherThread for symbol: " + watcher.getSymbol());
-            watcher.stopWatching();
-        });
-        activeWatchers.clear();
-        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] All active watchers instructed to stop and cleared from map. Updating button states and logging system message.");
+        synchronized (watcherLock) {
+            monitoredRowConfigs = Collections.emptyMap();
+            reconcileWatchers(); // Symbols from the watchlist file keep running
+        }
+        System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Row watchers stopped. Updating button states and logging system message.");
         mainFrame.updateButtonStates(false);
         
         // Clearing graphs and resetting panel titles has been removed.
@@ -209,13 +548,20 @@ public class MainController {
     // Fetch initial price for a specific stock and display it in the UI
     public void fetchAndDisplayInitialPrice(int stockIndex, String symbol) {
         System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] fetchAndDisplayInitialPrice called for symbol: " + symbol + ", index: " + stockIndex + ".");
-        if (symbol == null || symbol.trim().isEmpty() || stockIndex < 0 || stockIndex >= MAX_DISPLAY_CHARTS) {
+        if (symbol == null || symbol.trim().isEmpty() || stockIndex < 0) {
             System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Invalid symbol or index for fetchAndDisplayInitialPrice. Symbol: " + symbol + ", Index: " + stockIndex + ". Clearing UI display on EDT.");
             SwingUtilities.invokeLater(() -> {
                  if (mainFrame != null) mainFrame.clearInitialPriceDisplay(stockIndex);
             });
             return;
         }
+        double recentPrice = watchlistModel.getRecentPrice(symbol, RECENT_PRICE_MAX_AGE_MS);
+        if (!Double.isNaN(recentPrice)) { // Symbol is (or was just) monitored, e.g. after a profile switch: no request
+            SwingUtilities.invokeLater(() -> {
+                if (mainFrame != null) mainFrame.updateInitialPriceDisplay(stockIndex, recentPrice, symbol);
+            });
+            return;
+        }
         System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Submitting task to initialPriceExecutorService to fetch price for " + symbol + ". Will run on an InitialPriceFetchThread-X.");
         initialPriceExecutorService.submit(() -> {
             System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] initialPriceExecutorService: Now running task to fetch initial price for " + symbol + ".");
@@ -253,11 +599,26 @@ public class MainController {
             }
         }
 
+        if (statusHttpServer != null) {
+            statusHttpServer.stop();
+        }
+
+        if (watchlistFileWatcher != null) {
+            watchlistFileWatcher.stop();
+            synchronized (watcherLock) {
+                fileConfigs = Collections.emptyMap(); // stopMonitoring() then stops the file's watchers as well
+            }
+        }
+
         stopMonitoring(); 
 
+        if (simulatedPriceFeed != null) {
+            simulatedPriceFeed.stop();
+        }
+
         if (graphUpdater != null) {
             graphUpdater.clearAllGraphs();
-            graphUpdater.unregisterAllChartPanels();
+            graphUpdater.unregisterAllSymbols();
             System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] All graphs and panel registrations cleared on application exit.");
         }
 
@@ -303,6 +664,10 @@ public class MainController {
             }
         }
 
+        if (tickRing != null) {
+            tickRing.shutdown(1000); // Drains the published ticks, so their alerts are still queued below
+        }
+
         if (alertManager != null) { 
             System.out.println("[MainController] [Thread: " + Thread.currentThread().getName() + "] Stopping AlertManager consumer thread...");
             alertManager.stopConsumer();
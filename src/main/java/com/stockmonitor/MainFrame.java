@@ -17,27 +17,75 @@ import java.util.Locale;
 public class MainFrame extends JFrame {
 
     private MainController controller;
-    private JTextArea alertArea;
-    private JButton startButton, stopButton;
-
-    // Lists for dynamic stock input
-    private List<JComboBox<String>> stockSelectionCombos;
-    private List<JComboBox<String>> conditionCombos; // Formerly operatorCombos, name changed
-    private List<JTextField> targetValueFields;   // Formerly thresholdValueFields, name changed
-    private List<JLabel> priceLabels; // To display live prices
-    private List<XChartPanel> chartPanels;
-
-    private static final int NUM_STOCK_SLOTS = 4; // Maximum number of stocks to monitor
-
-    private final String[] availableSymbols = {"", "AAPL", "MSFT", "GOOGL", "AMZN", "TSLA", "NVDA", "META", 
-                                               "BINANCE:BTCUSDT", "BINANCE:ETHUSDT", "BINANCE:SOLUSDT", 
-                                               "BINANCE:ADAUSDT", "BINANCE:XRPUSDT", "BINANCE:DOGEUSDT",
-                                               "COINBASE:BTC-USD", "COINBASE:ETH-USD",
-                                               "OANDA:EUR_USD", "OANDA:GBP_USD", "OANDA:USD_JPY" };
-    // New alert conditions
-    private final String[] alertConditions = {"Price > Value", "Price < Value", "Price Crosses (Up)", "Price Crosses (Down)"};
+    private AlertLogView alertLogView;
+    private ToastNotifier toastNotifier;
+    private JButton startButton, stopButton, addSymbolButton, deleteProfileButton;
+    private JComboBox<String> profileCombo;
+    private boolean updatingProfiles = false; // Profile combo is being refilled, not a user choice
+    private boolean loadingRows = false;      // Rows are being filled from a profile
+
+    // One row per symbol, any number of rows
+    private final List<SymbolRow> symbolRows = new ArrayList<>();
+    private JPanel symbolRowsPanel;
+    private ChartGridPanel chartGrid; // Paged charts, only the visible page holds chart panels
+
+    private static final int INITIAL_STOCK_ROWS = 4; // Empty rows shown when nothing is saved
+
+    private final String[] availableSymbols = withEmptyOption(SymbolDirectory.BUILT_IN_SYMBOLS);
+    // Alert conditions (price thresholds and technical indicator rules)
+    private final String[] alertConditions = AlertCondition.displayNames();
     private DecimalFormat priceDecimalFormat;
 
+    // Input components of one symbol row
+    private final class SymbolRow {
+        final JComboBox<String> stockCombo = new JComboBox<>(availableSymbols);
+        final JComboBox<String> conditionCombo = new JComboBox<>(alertConditions);
+        final JTextField targetValueField = new JTextField(7); // Size slightly reduced
+        final JLabel priceLabel = new JLabel("N/A");
+        final JButton removeButton = new JButton("x");
+        private final SymbolAutoComplete autoComplete;
+        boolean keepTarget = false; // Target value came from a saved profile; the fetched price must not replace it
+
+        SymbolRow() {
+            stockCombo.setEditable(true); 
+            stockCombo.setSelectedIndex(0); // Empty option selected initially
+            autoComplete = SymbolAutoComplete.install(stockCombo, controller.getSymbolDirectory());
+            stockCombo.addActionListener(_e -> { // Lambda parameter changed to _e (not used)
+                if (autoComplete.isAdjusting()) return; // Suggestions changed while typing, not a choice
+                if (!loadingRows) {
+                    keepTarget = false; // Symbol picked by the user: prefill the target with its price
+                }
+                String selectedSymbol = (String) stockCombo.getSelectedItem();
+                int stockIndex = symbolRows.indexOf(this);
+                if (controller != null && stockIndex >= 0) {
+                    if (selectedSymbol != null && !selectedSymbol.trim().isEmpty()) {
+                        controller.fetchAndDisplayInitialPrice(stockIndex, selectedSymbol);
+                    } else {
+                        // Clear UI when symbol is selected as empty
+                        clearInitialPriceDisplay(stockIndex);
+                    }
+                }
+            });
+            priceLabel.setPreferredSize(new Dimension(70, priceLabel.getPreferredSize().height)); // Size adjusted
+            priceLabel.setHorizontalAlignment(SwingConstants.RIGHT);
+            removeButton.setMargin(new Insets(0, 4, 0, 4));
+            removeButton.setToolTipText("Remove this symbol");
+            removeButton.addActionListener(_e -> removeSymbolRow(this));
+        }
+
+        String getSymbol() {
+            String symbol = (String) stockCombo.getSelectedItem();
+            return symbol == null ? "" : symbol.trim();
+        }
+    }
+
+    private static String[] withEmptyOption(String[] symbols) {
+        String[] options = new String[symbols.length + 1];
+        options[0] = "";
+        System.arraycopy(symbols, 0, options, 1, symbols.length);
+        return options;
+    }
+
     public MainFrame(MainController controller) {
         this.controller = controller;
         setTitle("Stock Monitoring System v1.5 (Advanced Layout)"); 
@@ -52,12 +100,6 @@ public class MainFrame extends JFrame {
         DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.US);
         priceDecimalFormat = new DecimalFormat("0.####", symbols);
 
-        stockSelectionCombos = new ArrayList<>();
-        conditionCombos = new ArrayList<>();
-        targetValueFields = new ArrayList<>();
-        priceLabels = new ArrayList<>();
-        chartPanels = new ArrayList<>();
-
         // Create main components
         JPanel controlPanel = setupControlPanel();
         JPanel chartsPanel = setupChartsPanel(); // Panel containing only charts
@@ -69,83 +111,44 @@ public class MainFrame extends JFrame {
         southSplitPane.setOneTouchExpandable(true); // Arrows for quick collapse/expand
 
         // Add components to the main window
-        add(chartsPanel, BorderLayout.CENTER); // Charts in the center, takes the largest area
+        JTabbedPane centerTabs = new JTabbedPane();
+        centerTabs.addTab("Charts", chartsPanel);
+        centerTabs.addTab("Watchlist", new WatchlistView(controller.getWatchlistModel()));
+        add(centerTabs, BorderLayout.CENTER); // Charts in the center, takes the largest area
         add(southSplitPane, BorderLayout.SOUTH); // Control and alarms side by side at the bottom
 
         // pack(); // pack() is generally not called for full screen, or called at the end
         // setMinimumSize(new Dimension(800, 700)); // Meaningless for full screen
+        toastNotifier = new ToastNotifier(this); // Alert popups on top of the content, non-modal
         setLocationRelativeTo(null); // May not be very effective if called after full screen
-        updateButtonStates(false);
         loadConfigurationsToUI(); // Load saved settings to UI
+        updateButtonStates(false);
     }
 
     private JPanel setupControlPanel() {
-        JPanel controlPanel = new JPanel(new GridBagLayout());
+        JPanel controlPanel = new JPanel(new BorderLayout(5, 5));
         controlPanel.setBorder(BorderFactory.createTitledBorder("Control Panel"));
-        GridBagConstraints gbc = new GridBagConstraints();
-        gbc.insets = new Insets(5, 5, 5, 5);
-        gbc.fill = GridBagConstraints.HORIZONTAL;
-        gbc.weighty = 0; // Don't leave vertical space
-
-        // Titles updated (Graph Type removed)
-        gbc.gridx = 0; gbc.gridy = 0; gbc.weightx = 0.30; controlPanel.add(new JLabel("Stock/Crypto Symbol:"), gbc);
-        gbc.gridx = 1; gbc.gridy = 0; gbc.weightx = 0.30; controlPanel.add(new JLabel("Alert Condition:"), gbc);
-        gbc.gridx = 2; gbc.gridy = 0; gbc.weightx = 0.20; controlPanel.add(new JLabel("Target Value:"), gbc);
-        gbc.gridx = 3; gbc.gridy = 0; gbc.weightx = 0.20; gbc.anchor = GridBagConstraints.CENTER; controlPanel.add(new JLabel("Current Price:"), gbc);
-        gbc.anchor = GridBagConstraints.WEST; // Default for subsequent components
-
-        // Stock input fields (Dynamically created up to NUM_STOCK_SLOTS)
-        for (int i = 0; i < NUM_STOCK_SLOTS; i++) {
-            gbc.gridy = i + 1; // Increment y position for each row
 
-            // Stock Selection ComboBox
-            gbc.gridx = 0; gbc.weightx = 0.30;
-            JComboBox<String> stockCombo = new JComboBox<>(availableSymbols);
-            stockCombo.setEditable(true); 
-            stockCombo.setSelectedIndex(0); // Empty option selected initially
-            final int stockIndex = i; // Final or effectively final for lambda
-            stockCombo.addActionListener(_e -> { // Lambda parameter changed to _e (not used)
-                String selectedSymbol = (String) stockCombo.getSelectedItem();
-                if (controller != null) {
-                    if (selectedSymbol != null && !selectedSymbol.trim().isEmpty()) {
-                        controller.fetchAndDisplayInitialPrice(stockIndex, selectedSymbol);
-                    } else {
-                        // Clear UI when symbol is selected as empty
-                        clearInitialPriceDisplay(stockIndex);
-                        if (chartPanels.get(stockIndex) != null) {
-                            chartPanels.get(stockIndex).clearChart();
-                            // Reset chart title to its initial state
-                            chartPanels.get(stockIndex).setPanelTitle("Stock/Crypto " + (stockIndex + 1));
-                        }
-                    }
-                }
-            });
-            stockSelectionCombos.add(stockCombo);
-            controlPanel.add(stockCombo, gbc);
-
-            // Alert Condition Selection ComboBox
-            gbc.gridx = 1; gbc.weightx = 0.30;
-            JComboBox<String> condCombo = new JComboBox<>(alertConditions);
-            conditionCombos.add(condCombo);
-            controlPanel.add(condCombo, gbc);
-
-            // Target Value Input Field
-            gbc.gridx = 2; gbc.weightx = 0.20;
-            JTextField valField = new JTextField(7); // Size slightly reduced
-            targetValueFields.add(valField);
-            controlPanel.add(valField, gbc);
-
-            // Current Price Label
-            gbc.gridx = 3; gbc.weightx = 0.20;
-            JLabel priceLabel = new JLabel("N/A");
-            priceLabel.setPreferredSize(new Dimension(70, priceLabel.getPreferredSize().height)); // Size adjusted
-            priceLabel.setHorizontalAlignment(SwingConstants.RIGHT);
-            priceLabels.add(priceLabel);
-            controlPanel.add(priceLabel, gbc);
-        }
+        // Symbol rows scroll once there are more than fit; the header and buttons stay visible
+        symbolRowsPanel = new JPanel(new GridBagLayout());
+        JPanel rowsWrapper = new JPanel(new BorderLayout());
+        rowsWrapper.add(symbolRowsPanel, BorderLayout.NORTH); // Keep rows at the top, not stretched
+        JScrollPane rowsScrollPane = new JScrollPane(rowsWrapper);
+        rowsScrollPane.setBorder(BorderFactory.createEmptyBorder());
+        rowsScrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        rowsScrollPane.setPreferredSize(new Dimension(520, 190));
+        controlPanel.add(rowsScrollPane, BorderLayout.CENTER);
+        controlPanel.add(setupProfilePanel(), BorderLayout.NORTH);
 
         // Buttons Panel
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        addSymbolButton = new JButton("Add Symbol");
+        addSymbolButton.addActionListener(_e -> {
+            addSymbolRow();
+            layoutSymbolRows();
+        });
+        buttonPanel.add(addSymbolButton);
+
         startButton = new JButton("Start Monitoring"); // Icons removed for now, L&F issues possible
         startButton.addActionListener(_e -> controller.startMonitoring()); // Lambda parameter _e
         buttonPanel.add(startButton);
@@ -154,58 +157,171 @@ public class MainFrame extends JFrame {
         stopButton.addActionListener(_e -> controller.stopMonitoring()); // Lambda parameter _e
         buttonPanel.add(stopButton);
 
-        gbc.gridx = 0; gbc.gridy = NUM_STOCK_SLOTS + 1; // Y position adjusted according to data source row
-        gbc.gridwidth = 4;       // Span 4 columns
-        gbc.anchor = GridBagConstraints.EAST;
-        gbc.fill = GridBagConstraints.NONE;
-        gbc.weightx = 1.0; // Ensure panel aligns to the right
-        controlPanel.add(buttonPanel, gbc);
+        JButton historyButton = new JButton("Alert History");
+        historyButton.addActionListener(_e -> controller.showAlertHistory());
+        buttonPanel.add(historyButton);
+
+        JButton diagnosticsButton = new JButton("Diagnostics");
+        diagnosticsButton.setToolTipText("Latency percentiles per stage, including tick-to-alert and tick-to-pixel");
+        diagnosticsButton.addActionListener(_e -> controller.showDiagnostics());
+        buttonPanel.add(diagnosticsButton);
+
+        JCheckBox indicatorOverlayCheckBox = new JCheckBox("Show Indicators", true);
+        indicatorOverlayCheckBox.setToolTipText("SMA, EMA and Bollinger band overlays on the charts");
+        indicatorOverlayCheckBox.addActionListener(_e -> chartGrid.setIndicatorOverlayVisible(indicatorOverlayCheckBox.isSelected()));
+        buttonPanel.add(indicatorOverlayCheckBox, 0);
+        controlPanel.add(buttonPanel, BorderLayout.SOUTH);
 
         return controlPanel;
     }
 
-    // Creates the panel containing only charts
-    private JPanel setupChartsPanel() {
-        JPanel chartsOuterPanel = new JPanel(new GridLayout(2, 2, 10, 10)); 
-        chartsOuterPanel.setBorder(BorderFactory.createTitledBorder("Price Charts (Candle)")); 
+    // Named watchlist profiles; switching keeps the recently used profiles' data warm
+    private JPanel setupProfilePanel() {
+        JPanel profilePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        profilePanel.add(new JLabel("Profile:"));
+        profileCombo = new JComboBox<>();
+        profileCombo.setPrototypeDisplayValue("Crypto majors (long)");
+        profileCombo.addActionListener(_e -> {
+            String selected = (String) profileCombo.getSelectedItem();
+            if (!updatingProfiles && selected != null) {
+                controller.switchProfile(selected);
+                refreshProfiles();
+            }
+        });
+        profilePanel.add(profileCombo);
+
+        JButton saveAsButton = new JButton("Save As...");
+        saveAsButton.setToolTipText("Save the symbols below as a new profile");
+        saveAsButton.addActionListener(_e -> {
+            String name = JOptionPane.showInputDialog(this, "Profile name:", "New Profile", JOptionPane.PLAIN_MESSAGE);
+            if (name == null) return;
+            if (!controller.createProfile(name.trim())) {
+                JOptionPane.showMessageDialog(this, "Invalid or existing profile name: " + name, "New Profile", JOptionPane.WARNING_MESSAGE);
+            }
+            refreshProfiles();
+        });
+        profilePanel.add(saveAsButton);
+
+        deleteProfileButton = new JButton("Delete");
+        deleteProfileButton.setToolTipText("Delete the current profile");
+        deleteProfileButton.addActionListener(_e -> {
+            String name = controller.getActiveProfile();
+            int answer = JOptionPane.showConfirmDialog(this, "Delete profile '" + name + "'?", "Delete Profile", JOptionPane.OK_CANCEL_OPTION);
+            if (answer == JOptionPane.OK_OPTION) {
+                controller.deleteActiveProfile();
+                refreshProfiles();
+            }
+        });
+        profilePanel.add(deleteProfileButton);
+        refreshProfiles();
+        return profilePanel;
+    }
+
+    private void refreshProfiles() {
+        updatingProfiles = true;
+        try {
+            String active = controller.getActiveProfile();
+            profileCombo.setModel(new DefaultComboBoxModel<>(controller.getProfileNames().toArray(new String[0])));
+            profileCombo.setSelectedItem(active);
+            deleteProfileButton.setEnabled(!ConfigurationManager.DEFAULT_PROFILE.equals(active));
+        } finally {
+            updatingProfiles = false;
+        }
+    }
+
+    private SymbolRow addSymbolRow() {
+        SymbolRow row = new SymbolRow();
+        symbolRows.add(row);
+        return row;
+    }
 
-        for (int i = 0; i < NUM_STOCK_SLOTS; i++) {
-            XChartPanel chartPanel = new XChartPanel("Stock/Crypto " + (i + 1));
-            chartPanels.add(chartPanel);
-            chartsOuterPanel.add(chartPanel);
+    private void removeSymbolRow(SymbolRow row) {
+        symbolRows.remove(row);
+        if (symbolRows.isEmpty()) {
+            addSymbolRow(); // Always keep one row to type into
         }
-        return chartsOuterPanel;
+        layoutSymbolRows();
+    }
+
+    // Re-adds the header and all rows; called after rows were added or removed.
+    private void layoutSymbolRows() {
+        symbolRowsPanel.removeAll();
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.weighty = 0; // Don't leave vertical space
+
+        // Titles updated (Graph Type removed)
+        gbc.gridx = 0; gbc.gridy = 0; gbc.weightx = 0.30; symbolRowsPanel.add(new JLabel("Stock/Crypto Symbol:"), gbc);
+        gbc.gridx = 1; gbc.gridy = 0; gbc.weightx = 0.30; symbolRowsPanel.add(new JLabel("Alert Condition:"), gbc);
+        gbc.gridx = 2; gbc.gridy = 0; gbc.weightx = 0.20; symbolRowsPanel.add(new JLabel("Target Value:"), gbc);
+        gbc.gridx = 3; gbc.gridy = 0; gbc.weightx = 0.20; gbc.anchor = GridBagConstraints.CENTER; symbolRowsPanel.add(new JLabel("Current Price:"), gbc);
+        gbc.anchor = GridBagConstraints.WEST; // Default for subsequent components
+
+        for (int i = 0; i < symbolRows.size(); i++) {
+            SymbolRow row = symbolRows.get(i);
+            gbc.gridy = i + 1; // Increment y position for each row
+            gbc.gridx = 0; gbc.weightx = 0.30; symbolRowsPanel.add(row.stockCombo, gbc);
+            gbc.gridx = 1; gbc.weightx = 0.30; symbolRowsPanel.add(row.conditionCombo, gbc);
+            gbc.gridx = 2; gbc.weightx = 0.20; symbolRowsPanel.add(row.targetValueField, gbc);
+            gbc.gridx = 3; gbc.weightx = 0.20; symbolRowsPanel.add(row.priceLabel, gbc);
+            gbc.gridx = 4; gbc.weightx = 0; symbolRowsPanel.add(row.removeButton, gbc);
+        }
+        symbolRowsPanel.revalidate();
+        symbolRowsPanel.repaint();
+    }
+
+    // Creates the panel containing only charts
+    private JPanel setupChartsPanel() {
+        chartGrid = new ChartGridPanel(controller.getGraphUpdater());
+        return chartGrid;
     }
 
     // Creates the panel containing only alarms
     private JScrollPane setupAlertsPanel() {
-        alertArea = new JTextArea(10, 30); // Narrower initial width in JSplitPane (column count reduced)
-        alertArea.setEditable(false);
-        alertArea.setLineWrap(true);
-        alertArea.setWrapStyleWord(true);
-        JScrollPane alertScrollPane = new JScrollPane(alertArea);
-        alertScrollPane.setBorder(BorderFactory.createTitledBorder("Alerts and System Messages"));
-        // alertScrollPane.setMinimumSize(new Dimension(200, 100)); // Minimum size for JSplitPane (optional)
-        return alertScrollPane;
+        alertLogView = new AlertLogView(10, 30); // Narrower initial width in JSplitPane (column count reduced)
+        alertLogView.setBorder(BorderFactory.createTitledBorder("Alerts and System Messages"));
+        // alertLogView.setMinimumSize(new Dimension(200, 100)); // Minimum size for JSplitPane (optional)
+        return alertLogView;
     }
 
-    public JTextArea getAlertArea() {
-        return alertArea;
+    public AlertLogView getAlertLogView() {
+        return alertLogView;
+    }
+
+    public ToastNotifier getToastNotifier() {
+        return toastNotifier;
+    }
+
+    public ChartGridPanel getChartGrid() {
+        return chartGrid;
     }
 
     public List<StockConfig> getSelectedStockConfigurations() {
         List<StockConfig> configs = new ArrayList<>();
-        for (int i = 0; i < NUM_STOCK_SLOTS; i++) {
-            String symbol = (String) stockSelectionCombos.get(i).getSelectedItem();
-            if (symbol == null || symbol.trim().isEmpty()) {
+        for (SymbolRow row : symbolRows) {
+            String symbol = row.getSymbol();
+            if (symbol.isEmpty()) {
                 continue; 
             }
+            if (configs.stream().anyMatch(c -> c.getSymbol().equalsIgnoreCase(symbol))) {
+                System.err.println("Warning: " + symbol + " is selected more than once. Only the first row is used.");
+                continue;
+            }
 
-            String condition = (String) conditionCombos.get(i).getSelectedItem();
-            String valueText = targetValueFields.get(i).getText();
+            String condition = (String) row.conditionCombo.getSelectedItem();
+            String valueText = row.targetValueField.getText();
 
             String combinedThreshold = "";
-            if (condition != null && valueText != null && !valueText.trim().isEmpty()) {
+            AlertCondition alertCondition = AlertCondition.fromDisplayName(condition);
+            if (alertCondition != null && !alertCondition.requiresTargetValue()) {
+                // Indicator conditions (e.g. "Price > SMA") do not use the target value
+                String storedValue = "0";
+                if (valueText != null && valueText.trim().matches("-?[0-9]+([.,][0-9]+)?")) {
+                    storedValue = valueText.trim().replace(',', '.');
+                }
+                combinedThreshold = condition + "@" + storedValue;
+            } else if (condition != null && valueText != null && !valueText.trim().isEmpty()) {
                 try {
                     Double.parseDouble(valueText.trim().replace(',', '.'));
                     combinedThreshold = condition + "@" + valueText.trim().replace(',', '.');
@@ -213,7 +329,7 @@ public class MainFrame extends JFrame {
                     System.err.println("Warning: Invalid target value for " + symbol + ": " + valueText + ". Alert condition will be ignored.");
                 }
             }
-            configs.add(new StockConfig(symbol.trim().toUpperCase(), combinedThreshold));
+            configs.add(new StockConfig(symbol.toUpperCase(), combinedThreshold));
         }
         return configs;
     }
@@ -221,76 +337,88 @@ public class MainFrame extends JFrame {
     public void updateButtonStates(boolean monitoringActive) {
         startButton.setEnabled(!monitoringActive);
         stopButton.setEnabled(monitoringActive);
+        addSymbolButton.setEnabled(!monitoringActive);
         // Input fields in the UI can also be enabled/disabled based on monitoring state.
-        for (int i = 0; i < NUM_STOCK_SLOTS; i++) {
-            stockSelectionCombos.get(i).setEnabled(!monitoringActive);
-            conditionCombos.get(i).setEnabled(!monitoringActive);
-            targetValueFields.get(i).setEnabled(!monitoringActive);
+        for (SymbolRow row : symbolRows) {
+            row.stockCombo.setEnabled(!monitoringActive);
+            row.conditionCombo.setEnabled(!monitoringActive);
+            row.targetValueField.setEnabled(!monitoringActive);
+            row.removeButton.setEnabled(!monitoringActive);
         }
     }
 
-    public XChartPanel getXChartPanel(int index) {
-        if (index >= 0 && index < chartPanels.size()) {
-            return chartPanels.get(index);
-        }
-        return null;
+    // The row may have been removed or changed while the price was fetched; then the result is dropped.
+    private SymbolRow rowShowing(int stockIndex, String symbol) {
+        if (stockIndex < 0 || stockIndex >= symbolRows.size()) return null;
+        SymbolRow row = symbolRows.get(stockIndex);
+        return symbol == null || row.getSymbol().equalsIgnoreCase(symbol) ? row : null;
     }
 
     public void updateInitialPriceDisplay(int stockIndex, double price, String symbol) {
-        if (stockIndex >= 0 && stockIndex < NUM_STOCK_SLOTS) {
+        SymbolRow row = rowShowing(stockIndex, symbol);
+        if (row != null) {
             if (price == -1 || Double.isNaN(price)) { // Error or N/A state
-                priceLabels.get(stockIndex).setText("Error");
-                priceLabels.get(stockIndex).setForeground(Color.RED);
-                targetValueFields.get(stockIndex).setText(""); // Clear target value in case of error
+                row.priceLabel.setText("Error");
+                row.priceLabel.setForeground(Color.RED);
+                row.targetValueField.setText(""); // Clear target value in case of error
             } else {
                 String formattedPrice = priceDecimalFormat.format(price);
-                priceLabels.get(stockIndex).setText(formattedPrice);
-                priceLabels.get(stockIndex).setForeground(Color.BLUE);
-                // Also write the current price to the corresponding Target Value field (user can change it)
-                targetValueFields.get(stockIndex).setText(formattedPrice.replace(',', '.')); // Ensure format uses a dot
+                row.priceLabel.setText(formattedPrice);
+                row.priceLabel.setForeground(Color.BLUE);
+                if (!row.keepTarget) {
+                    // Also write the current price to the corresponding Target Value field (user can change it)
+                    row.targetValueField.setText(formattedPrice.replace(',', '.')); // Ensure format uses a dot
+                }
             }
         }
     }
     
     public void clearInitialPriceDisplay(int stockIndex) {
-        if (stockIndex >= 0 && stockIndex < NUM_STOCK_SLOTS) {
-            priceLabels.get(stockIndex).setText("N/A");
-            priceLabels.get(stockIndex).setForeground(Color.BLACK); // Default color
-            // targetValueFields.get(stockIndex).setText(""); // Optionally clear target value as well
+        SymbolRow row = rowShowing(stockIndex, null);
+        if (row != null) {
+            row.priceLabel.setText("N/A");
+            row.priceLabel.setForeground(Color.BLACK); // Default color
+            // row.targetValueField.setText(""); // Optionally clear target value as well
         }
     }
 
     // Load configurations from ConfigurationManager and update UI
     public void loadConfigurationsToUI() {
-        List<StockConfig> savedConfigs = controller.getSavedConfigurations();
-        if (savedConfigs != null) {
-            for (int i = 0; i < NUM_STOCK_SLOTS && i < savedConfigs.size(); i++) {
-                StockConfig config = savedConfigs.get(i);
-                if (config != null && config.getSymbol() != null && !config.getSymbol().isEmpty()) {
-                    stockSelectionCombos.get(i).setSelectedItem(config.getSymbol());
-                    // Trigger action listener to fetch initial price
-                    // Ensure this doesn't cause issues if controller or other parts are not fully initialized
-                    // This might be better handled by having controller fetch prices after UI is fully up
-                    // For now, let's directly call it if symbol is valid
-                    controller.fetchAndDisplayInitialPrice(i, config.getSymbol());
+        showConfigurations(controller.getSavedConfigurations());
+    }
 
+    // Replaces the symbol rows, e.g. with the rows of another profile
+    public void showConfigurations(List<StockConfig> savedConfigs) {
+        symbolRows.clear();
+        loadingRows = true;
+        try {
+            if (savedConfigs != null) {
+                for (StockConfig config : savedConfigs) {
+                    if (config == null || config.getSymbol() == null || config.getSymbol().isEmpty()) {
+                        continue;
+                    }
+                    SymbolRow row = addSymbolRow();
                     String threshold = config.getThreshold();
                     if (threshold != null && threshold.contains("@")) {
                         String[] parts = threshold.split("@", 2);
-                        conditionCombos.get(i).setSelectedItem(parts[0]);
-                        targetValueFields.get(i).setText(parts[1]);
+                        row.conditionCombo.setSelectedItem(parts[0]);
+                        row.targetValueField.setText(parts[1]);
+                        row.keepTarget = true;
                     } else {
-                        conditionCombos.get(i).setSelectedIndex(0); // Default condition
-                        targetValueFields.get(i).setText("");
+                        row.conditionCombo.setSelectedIndex(0); // Default condition
+                        row.targetValueField.setText("");
                     }
-                } else {
-                    // Clear this slot if no valid config or empty symbol
-                    stockSelectionCombos.get(i).setSelectedIndex(0);
-                    conditionCombos.get(i).setSelectedIndex(0);
-                    targetValueFields.get(i).setText("");
-                    clearInitialPriceDisplay(i);
+                    // Triggers the row's action listener, which shows the initial price
+                    // (from the watchlist if the symbol was monitored recently, otherwise fetched)
+                    row.stockCombo.setSelectedItem(config.getSymbol());
                 }
             }
+        } finally {
+            loadingRows = false;
+        }
+        while (symbolRows.size() < INITIAL_STOCK_ROWS) {
+            addSymbolRow(); // Empty rows to fill in
         }
+        layoutSymbolRows();
     }
-} 
\ No newline at end of file
+}
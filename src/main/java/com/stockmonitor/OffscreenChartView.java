@@ -0,0 +1,152 @@
+package com.stockmonitor;
+
+import com.stockmonitor.logging.Log;
+import com.stockmonitor.metrics.ChartRenderEvent;
+import com.stockmonitor.metrics.Metrics;
+import org.knowm.xchart.internal.chartpart.Chart;
+
+import javax.swing.JComponent;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shows a chart that is rasterized off the EDT. Rendering runs on a shared pool of
+ * "ChartRenderThread"s: the chart is updated and painted into a back buffer image, which is then
+ * swapped with the front buffer. The EDT only blits the finished front image, so busy charts
+ * are drawn on several cores in parallel and never hold up the UI thread.
+ * At most one render per view is in flight; requests arriving meanwhile trigger one more render.
+ */
+class OffscreenChartView extends JComponent {
+
+    private static final Log LOG = Log.get(OffscreenChartView.class);
+
+    // -Dstockmonitor.chart.renderThreads=<cores - 1>
+    static final int RENDER_THREADS = Math.max(1, Integer.getInteger("stockmonitor.chart.renderThreads",
+            Runtime.getRuntime().availableProcessors() - 1));
+    private static final AtomicInteger renderThreadCounter = new AtomicInteger(1);
+    private static final ExecutorService RENDER_POOL = Executors.newFixedThreadPool(RENDER_THREADS, r -> {
+        Thread t = new Thread(r, "ChartRenderThread-" + renderThreadCounter.getAndIncrement());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Chart<?, ?> chart;
+    private final Object chartLock;        // Held while the chart is updated or painted
+    private final Runnable chartUpdater;   // Pushes the latest data into the chart, runs on the render thread
+    private final Runnable framePresented; // Runs on the EDT after a new frame has been blitted
+
+    private final Object bufferLock = new Object(); // Guards the front buffer swap against the EDT blit
+    private BufferedImage frontBuffer;     // Last finished frame, drawn by paintComponent
+    private BufferedImage backBuffer;      // Render thread only
+    private volatile int viewWidth;
+    private volatile int viewHeight;
+    private volatile boolean newFrame;     // A frame was swapped in since the last blit
+
+    private final AtomicBoolean renderInFlight = new AtomicBoolean(false);
+    private volatile boolean renderRequested = false;
+
+    OffscreenChartView(Chart<?, ?> chart, Object chartLock, Runnable chartUpdater, Runnable framePresented) {
+        this.chart = chart;
+        this.chartLock = chartLock;
+        this.chartUpdater = chartUpdater;
+        this.framePresented = framePresented;
+        setOpaque(true);
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                viewWidth = getWidth();
+                viewHeight = getHeight();
+                requestRender();
+            }
+        });
+    }
+
+    /**
+     * Asks for a new frame. Thread-safe; returns immediately.
+     */
+    void requestRender() {
+        renderRequested = true;
+        if (renderInFlight.compareAndSet(false, true)) {
+            RENDER_POOL.execute(this::renderLoop);
+        }
+    }
+
+    private void renderLoop() {
+        try {
+            while (renderRequested) {
+                renderRequested = false;
+                renderOnce();
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Error rendering chart: {}", e.getMessage());
+        } finally {
+            renderInFlight.set(false);
+            // A request may have arrived after the loop check but before the flag was cleared
+            if (renderRequested && renderInFlight.compareAndSet(false, true)) {
+                RENDER_POOL.execute(this::renderLoop);
+            }
+        }
+    }
+
+    private void renderOnce() {
+        int width = viewWidth;
+        int height = viewHeight;
+        if (width <= 0 || height <= 0) return; // Not laid out yet; componentResized requests a render
+        if (backBuffer == null || backBuffer.getWidth() != width || backBuffer.getHeight() != height) {
+            backBuffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        Graphics2D g = backBuffer.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            synchronized (chartLock) {
+                chartUpdater.run();
+                ChartRenderEvent event = new ChartRenderEvent();
+                event.begin();
+                long paintStart = System.nanoTime();
+                chart.paint(g, width, height);
+                Metrics.CHART_PAINT.recordSince(paintStart);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.panel = chart.getTitle();
+                    event.stage = "paint";
+                    event.offscreen = true;
+                    event.commit();
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        synchronized (bufferLock) {
+            BufferedImage finished = backBuffer;
+            backBuffer = frontBuffer; // Reused for the next frame if the size is unchanged
+            frontBuffer = finished;
+        }
+        newFrame = true;
+        repaint(); // Thread-safe; the EDT only blits frontBuffer
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        synchronized (bufferLock) {
+            if (frontBuffer == null) {
+                g.setColor(getBackground() != null ? getBackground() : java.awt.Color.BLACK);
+                g.fillRect(0, 0, getWidth(), getHeight());
+                return;
+            }
+            g.drawImage(frontBuffer, 0, 0, null); // Stretched frames are avoided: resizing requests a new render
+        }
+        if (newFrame) {
+            newFrame = false;
+            framePresented.run();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.stockmonitor;
+
+// Poll priority of a symbol: its share of the API request budget relative to NORMAL
+enum PollPriority {
+    HIGH(2.0),   // Polled twice as often as NORMAL
+    NORMAL(1.0),
+    LOW(0.25);   // Polled a quarter as often as NORMAL
+
+    private final double weight;
+
+    PollPriority(double weight) {
+        this.weight = weight;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    // Parses "high"/"normal"/"low" (case-insensitive); returns the default for null or unknown names
+    public static PollPriority fromName(String name, PollPriority defaultPriority) {
+        if (name != null) {
+            for (PollPriority priority : PollPriority.values()) {
+                if (priority.name().equalsIgnoreCase(name.trim())) {
+                    return priority;
+                }
+            }
+        }
+        return defaultPriority;
+    }
+}
@@ -1,5 +1,8 @@
 package com.stockmonitor;
 
+import com.stockmonitor.logging.Log;
+import com.stockmonitor.metrics.FetchEvent;
+import com.stockmonitor.metrics.Metrics;
 import org.json.JSONObject;
 import org.json.JSONException;
 
@@ -11,67 +14,112 @@ import java.net.URL;
 
 public class PriceFetcher {
 
-    private static String FINNHUB_API_KEY = System.getenv("FINNHUB_API_KEY");
-    private static final String API_URL_TEMPLATE_QUOTE = "https://finnhub.io/api/v1/quote?symbol=%s&token=%s";
+    private static final Log LOG = Log.get(PriceFetcher.class);
+
+    private static final String FINNHUB_API_KEY = System.getenv("FINNHUB_API_KEY");
+    // -Dstockmonitor.finnhub.baseUrl=https://finnhub.io/api/v1, e.g. a local mock server for load tests
+    public static final String DEFAULT_BASE_URL = stripTrailingSlash(System.getProperty("stockmonitor.finnhub.baseUrl", "https://finnhub.io/api/v1"));
+
+    private final String apiUrlTemplateQuote;
+    private final String apiKey;
 
     public PriceFetcher() {
-        System.out.println("[PriceFetcher] [Thread: " + Thread.currentThread().getName() + "] Instance created.");
-        if (FINNHUB_API_KEY == null || FINNHUB_API_KEY.trim().isEmpty()) {
-            System.err.println("[PriceFetcher] [Thread: " + Thread.currentThread().getName() + "] ERROR: FINNHUB_API_KEY environment variable is not set.");
+        this(DEFAULT_BASE_URL, FINNHUB_API_KEY);
+    }
+
+    public PriceFetcher(String baseUrl, String apiKey) {
+        this.apiUrlTemplateQuote = stripTrailingSlash(baseUrl) + "/quote?symbol=%s&token=%s";
+        this.apiKey = apiKey;
+        LOG.info("Instance created. Base URL: {}", baseUrl);
+        if (apiKey == null || apiKey.trim().isEmpty()) {
+            LOG.error("FINNHUB_API_KEY environment variable is not set.");
         }
     }
 
+    static String stripTrailingSlash(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
     public double fetchPrice(String symbol) throws IOException {
+        return fetchQuote(symbol).getPrice();
+    }
+
+    /**
+     * Fetches the price together with the time the response arrived (System.nanoTime()).
+     */
+    public PriceQuote fetchQuote(String symbol) throws IOException {
         // System.out.println("[PriceFetcher] [Thread: " + Thread.currentThread().getName() + "] fetchPrice called for symbol: " + symbol);
         if (symbol == null || symbol.trim().isEmpty()) {
             throw new IllegalArgumentException("Stock symbol cannot be empty.");
         }
-        if (FINNHUB_API_KEY == null || FINNHUB_API_KEY.trim().isEmpty()){
+        if (apiKey == null || apiKey.trim().isEmpty()){
             throw new IOException("Finnhub API key is not set or is empty.");
         }
 
-        String apiUrlString = String.format(API_URL_TEMPLATE_QUOTE, symbol.toUpperCase(), FINNHUB_API_KEY);
-        URL url = new URL(apiUrlString);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod("GET");
-        connection.setConnectTimeout(10000); // 10 seconds
-        connection.setReadTimeout(10000);    // 10 seconds
-
-        int responseCode = connection.getResponseCode();
-        // System.out.println("[PriceFetcher] [Thread: " + Thread.currentThread().getName() + "] API request for " + symbol + " completed. Response code: " + responseCode);
-
-        if (responseCode == HttpURLConnection.HTTP_OK) {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
-            }
-            reader.close();
-            return parsePriceFromFinnhubQuoteResponse(response.toString(), symbol);
-        } else {
-            String errorResponse = "";
-            if (connection.getErrorStream() != null) {
-                try (BufferedReader errorReader = new BufferedReader(new InputStreamReader(connection.getErrorStream()))) {
-                    StringBuilder errorBuilder = new StringBuilder();
-                    String errorLine;
-                    while ((errorLine = errorReader.readLine()) != null) {
-                        errorBuilder.append(errorLine);
-                    }
-                    errorResponse = errorBuilder.toString();
+        long fetchStart = System.nanoTime();
+        Metrics.increment(Metrics.REQUESTS);
+        Metrics.recordApiRequest();
+        FetchEvent event = new FetchEvent(); // JFR, a disabled check unless a recording is running
+        event.begin();
+        event.symbol = symbol;
+        try {
+            String apiUrlString = String.format(apiUrlTemplateQuote, symbol.toUpperCase(), apiKey);
+            URL url = new URL(apiUrlString);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("GET");
+            connection.setConnectTimeout(10000); // 10 seconds
+            connection.setReadTimeout(10000);    // 10 seconds
+
+            int responseCode = connection.getResponseCode();
+            event.status = responseCode;
+            // System.out.println("[PriceFetcher] [Thread: " + Thread.currentThread().getName() + "] API request for " + symbol + " completed. Response code: " + responseCode);
+
+            if (responseCode == HttpURLConnection.HTTP_OK) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
+                StringBuilder response = new StringBuilder();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    response.append(line);
                 }
+                reader.close();
+                long fetched = System.nanoTime();
+                event.bytes = response.length(); // Characters; the quote JSON is ASCII
+                event.end(); // The fetch event excludes parsing
+                Metrics.FETCH.record(fetched - fetchStart);
+                Metrics.symbolFetch(symbol).record(fetched - fetchStart);
+                double price = parsePriceFromFinnhubQuoteResponse(response.toString(), symbol);
+                Metrics.PARSE.recordSince(fetched);
+                return new PriceQuote(price, fetched);
             } else {
-                errorResponse = connection.getResponseMessage(); 
+                Metrics.increment(responseCode == 429 ? Metrics.RATE_LIMITED : Metrics.HTTP_ERRORS);
+                String errorResponse = "";
+                if (connection.getErrorStream() != null) {
+                    try (BufferedReader errorReader = new BufferedReader(new InputStreamReader(connection.getErrorStream()))) {
+                        StringBuilder errorBuilder = new StringBuilder();
+                        String errorLine;
+                        while ((errorLine = errorReader.readLine()) != null) {
+                            errorBuilder.append(errorLine);
+                        }
+                        errorResponse = errorBuilder.toString();
+                        event.bytes = errorResponse.length();
+                    }
+                } else {
+                    errorResponse = connection.getResponseMessage(); 
+                }
+                LOG.warn("Finnhub API (/quote) request failed. HTTP Code: {}. Symbol: {}. Detail: {}", responseCode, symbol, errorResponse);
+                throw new IOException("Finnhub API (/quote) request failed. HTTP Code: " + responseCode + ". Symbol: " + symbol + ". Detail: " + errorResponse);
             }
-            System.err.println("[PriceFetcher] [Thread: " + Thread.currentThread().getName() + "] Finnhub API (/quote) request failed. HTTP Code: " + responseCode + ". Symbol: " + symbol + ". Detail: " + errorResponse);
-            throw new IOException("Finnhub API (/quote) request failed. HTTP Code: " + responseCode + ". Symbol: " + symbol + ". Detail: " + errorResponse);
+        } finally {
+            event.commit(); // Status stays -1 if no response was received
         }
     }
 
-    private double parsePriceFromFinnhubQuoteResponse(String jsonResponse, String symbol) throws IOException {
+    // Package-private and static for the quote parsing benchmark
+    static double parsePriceFromFinnhubQuoteResponse(String jsonResponse, String symbol) throws IOException {
         // System.out.println("[PriceFetcher] [Thread: " + Thread.currentThread().getName() + "] Parsing Finnhub quote response for " + symbol + ": " + jsonResponse.substring(0, Math.min(jsonResponse.length(), 100)) + "...");
         if (jsonResponse == null || jsonResponse.trim().isEmpty() || jsonResponse.trim().equals("{}") || jsonResponse.trim().equalsIgnoreCase("Symbol not supported")) {
-            System.err.println("[PriceFetcher] [Thread: " + Thread.currentThread().getName() + "] Empty, invalid, or unsupported symbol response from Finnhub API (/quote) for: " + symbol + ". Response: " + jsonResponse);
+            LOG.warn("Empty, invalid, or unsupported symbol response from Finnhub API (/quote) for: {}. Response: {}", symbol, jsonResponse);
             throw new IOException("Empty, invalid, or unsupported symbol response from Finnhub API (/quote): " + symbol + ". Response: " + jsonResponse);
         }
         
@@ -87,11 +135,11 @@ public class PriceFetcher {
                 // System.out.println("[PriceFetcher] [Thread: " + Thread.currentThread().getName() + "] Current price (c) is 0, using previous close (pc) for " + symbol + ": " + previousClose);
                 return previousClose;
             } else {
-                 System.err.println("[PriceFetcher] [Thread: " + Thread.currentThread().getName() + "] Could not parse Finnhub price ('c' and 'pc' are 0 or missing). Symbol: " + symbol + ", Response: " + jsonResponse.substring(0, Math.min(jsonResponse.length(), 300)));
+                 LOG.warn("Could not parse Finnhub price ('c' and 'pc' are 0 or missing). Symbol: {}, Response: {}", symbol, jsonResponse.substring(0, Math.min(jsonResponse.length(), 300)));
                  throw new IOException("Could not parse 'c' or 'pc' key with a valid value from Finnhub JSON response. Symbol: " + symbol);
             }
         } catch (JSONException e) {
-            System.err.println("[PriceFetcher] [Thread: " + Thread.currentThread().getName() + "] Finnhub (/quote) JSON parse error. Symbol: " + symbol + ", Response: " + jsonResponse.substring(0, Math.min(jsonResponse.length(), 300)) + ", Error: " + e.getMessage());
+            LOG.warn("Finnhub (/quote) JSON parse error. Symbol: {}, Response: {}, Error: {}", symbol, jsonResponse.substring(0, Math.min(jsonResponse.length(), 300)), e.getMessage());
             throw new IOException("Could not parse Finnhub (/quote) JSON response. Symbol: " + symbol, e);
         }
     }
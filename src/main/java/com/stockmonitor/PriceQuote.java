@@ -0,0 +1,24 @@
+package com.stockmonitor;
+
+/**
+ * A fetched price and the System.nanoTime() at which its HTTP response arrived. The receive
+ * time travels with the tick to the chart and alert paths, which measure their latency from it.
+ */
+public final class PriceQuote {
+
+    private final double price;
+    private final long receivedNanos;
+
+    public PriceQuote(double price, long receivedNanos) {
+        this.price = price;
+        this.receivedNanos = receivedNanos;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+}
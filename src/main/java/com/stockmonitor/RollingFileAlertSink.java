@@ -0,0 +1,61 @@
+package com.stockmonitor;
+
+import com.stockmonitor.logging.Log;
+import com.stockmonitor.logging.RollingFileWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Appends alerts as text lines to a file and rolls it when it grows past maxBytes:
+ * alerts.log -> alerts.log.1 -> alerts.log.2 ... keeping at most maxBackups old files.
+ * Each batch is written with one write and one flush.
+ */
+public class RollingFileAlertSink implements AlertSink {
+
+    // -Dstockmonitor.sink.file.maxBytes=10485760 -Dstockmonitor.sink.file.maxBackups=5
+    public static final long DEFAULT_MAX_BYTES = Long.getLong("stockmonitor.sink.file.maxBytes", 10L * 1024 * 1024);
+    public static final int DEFAULT_MAX_BACKUPS = Integer.getInteger("stockmonitor.sink.file.maxBackups", 5);
+
+    private static final Log LOG = Log.get(RollingFileAlertSink.class);
+
+    private final RollingFileWriter rollingFile; // Sink thread only
+
+    public RollingFileAlertSink(File file) {
+        this(file, DEFAULT_MAX_BYTES, DEFAULT_MAX_BACKUPS);
+    }
+
+    public RollingFileAlertSink(File file, long maxBytes, int maxBackups) {
+        this.rollingFile = new RollingFileWriter(file, maxBytes, maxBackups, 8192);
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public void deliver(List<AlertEvent> batch) throws IOException {
+        StringBuilder text = new StringBuilder(batch.size() * 96);
+        for (AlertEvent alert : batch) {
+            text.append(alert.toDisplayString()).append(System.lineSeparator());
+        }
+        rollingFile.write(text.toString());
+        rollingFile.flush();
+    }
+
+    @Override
+    public void close() {
+        try {
+            rollingFile.close();
+        } catch (IOException e) {
+            LOG.warn("Error closing {}: {}", rollingFile.getFile(), e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RollingFileAlertSink[" + rollingFile.getFile() + "]";
+    }
+}
@@ -0,0 +1,104 @@
+package com.stockmonitor;
+
+/**
+ * Fixed-size ring of primitive doubles with a running sum and sum of squares,
+ * so mean and standard deviation over the window cost O(1) per added value.
+ * Not thread-safe; callers (IndicatorEngine) guard it per symbol.
+ */
+class RollingWindow {
+
+    private final double[] values;
+    private int head = 0;   // Index where the next value will be written
+    private int count = 0;  // Number of valid values (<= capacity)
+    private double sum = 0.0;
+    private double sumOfSquares = 0.0;
+    private long writesSinceResync = 0;
+
+    RollingWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Window capacity must be positive: " + capacity);
+        }
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Adds a value, evicting the oldest one when the window is full.
+     */
+    void add(double value) {
+        if (count == values.length) {
+            double evicted = values[head];
+            sum -= evicted;
+            sumOfSquares -= evicted * evicted;
+        } else {
+            count++;
+        }
+        values[head] = value;
+        sum += value;
+        sumOfSquares += value * value;
+        head = (head + 1) % values.length;
+
+        // Running sums drift with floating point error over millions of ticks.
+        // Recomputing them every 64 full wraps of the window keeps the cost O(1) amortized.
+        if (++writesSinceResync >= values.length * 64L) {
+            resync();
+        }
+    }
+
+    private void resync() {
+        double s = 0.0;
+        double sq = 0.0;
+        for (int i = 0; i < count; i++) {
+            double v = values[i];
+            s += v;
+            sq += v * v;
+        }
+        sum = s;
+        sumOfSquares = sq;
+        writesSinceResync = 0;
+    }
+
+    boolean isFull() {
+        return count == values.length;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int capacity() {
+        return values.length;
+    }
+
+    double mean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    // Population standard deviation, as used by Bollinger bands.
+    double standardDeviation() {
+        if (count == 0) return Double.NaN;
+        double mean = sum / count;
+        double variance = (sumOfSquares / count) - (mean * mean);
+        return variance <= 0.0 ? 0.0 : Math.sqrt(variance);
+    }
+
+    // Oldest value still in the window.
+    double oldest() {
+        if (count == 0) return Double.NaN;
+        int oldestIndex = (count == values.length) ? head : 0;
+        return values[oldestIndex];
+    }
+
+    // Most recently added value.
+    double latest() {
+        if (count == 0) return Double.NaN;
+        return values[(head - 1 + values.length) % values.length];
+    }
+
+    void clear() {
+        head = 0;
+        count = 0;
+        sum = 0.0;
+        sumOfSquares = 0.0;
+        writesSinceResync = 0;
+    }
+}
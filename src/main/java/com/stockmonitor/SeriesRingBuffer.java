@@ -0,0 +1,133 @@
+package com.stockmonitor;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Fixed-capacity ring of time-stamped points with four primitive value columns
+ * (open/high/low/close for candles, SMA/EMA/upper/lower for indicator overlays).
+ * Adding a point overwrites the oldest one in O(1), without shifting or boxing, and keeps a
+ * sliding minimum of one column and maximum of another for Y axis scaling.
+ * Not thread-safe; ChartDataBuffer owns its rings and guards them with its dataLock.
+ */
+class SeriesRingBuffer {
+
+    static final int COLUMNS = 4;
+
+    private final long[] times;
+    private final double[][] columns;
+    private final int minColumn;
+    private final int maxColumn;
+    private final SlidingWindowMinMax range;
+    private int head = 0; // Index where the next point will be written
+    private int size = 0;
+
+    /**
+     * @param minColumn column whose values form the lower bound of the range (e.g. low)
+     * @param maxColumn column whose values form the upper bound of the range (e.g. high)
+     */
+    SeriesRingBuffer(int capacity, int minColumn, int maxColumn) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.times = new long[capacity];
+        this.columns = new double[COLUMNS][capacity];
+        this.minColumn = minColumn;
+        this.maxColumn = maxColumn;
+        this.range = new SlidingWindowMinMax(capacity);
+    }
+
+    void add(long timeMillis, double v0, double v1, double v2, double v3) {
+        times[head] = timeMillis;
+        columns[0][head] = v0;
+        columns[1][head] = v1;
+        columns[2][head] = v2;
+        columns[3][head] = v3;
+        range.add(columns[minColumn][head], columns[maxColumn][head]);
+        head = (head + 1) % times.length;
+        if (size < times.length) size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return times.length;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Smallest value of the min column over the buffered points, NaN if empty
+    double min() {
+        return range.min();
+    }
+
+    // Largest value of the max column over the buffered points, NaN if empty
+    double max() {
+        return range.max();
+    }
+
+    // Physical index of the i-th oldest point
+    private int physical(int i) {
+        return (head - size + i + times.length) % times.length;
+    }
+
+    long timeAt(int i) {
+        return times[physical(i)];
+    }
+
+    double valueAt(int column, int i) {
+        return columns[column][physical(i)];
+    }
+
+    /**
+     * Copies the timestamps, oldest first, into a new list (XChart keeps the lists it is given).
+     */
+    List<Date> copyTimes() {
+        List<Date> copy = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            copy.add(new Date(times[physical(i)]));
+        }
+        return copy;
+    }
+
+    List<Double> copyColumn(int column) {
+        List<Double> copy = new ArrayList<>(size);
+        double[] values = columns[column];
+        for (int i = 0; i < size; i++) {
+            copy.add(values[physical(i)]);
+        }
+        return copy;
+    }
+
+    /**
+     * Copies the timestamps (epoch millis), oldest first, into a new primitive array for XYChart.
+     */
+    double[] copyTimesAsDoubles() {
+        double[] copy = new double[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = times[physical(i)];
+        }
+        return copy;
+    }
+
+    // Two arraycopy calls, one per side of the ring's wrap point
+    double[] copyColumnArray(int column) {
+        double[] copy = new double[size];
+        int start = physical(0);
+        int firstPart = Math.min(size, times.length - start);
+        System.arraycopy(columns[column], start, copy, 0, firstPart);
+        System.arraycopy(columns[column], 0, copy, firstPart, size - firstPart);
+        return copy;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+        range.clear();
+    }
+}
@@ -0,0 +1,86 @@
+package com.stockmonitor;
+
+import com.stockmonitor.listeners.QuoteListener;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generates random-walk prices for many synthetic symbols ("SIM0001", ...) at a fixed total rate,
+ * without using the API. Used to exercise the watchlist with thousands of symbols and tens of
+ * thousands of updates per second. Runs on one daemon thread, "SimulatedPriceFeed".
+ */
+public class SimulatedPriceFeed {
+
+    // -Dstockmonitor.watchlist.simulatedSymbols=0 (off) -Dstockmonitor.watchlist.simulatedRate=20000
+    public static final int DEFAULT_SYMBOLS = Integer.getInteger("stockmonitor.watchlist.simulatedSymbols", 0);
+    public static final int DEFAULT_RATE = Integer.getInteger("stockmonitor.watchlist.simulatedRate", 20000);
+
+    private static final long PACE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final QuoteListener listener;
+    private final String[] symbols;
+    private final double[] prices;
+    private final int ticksPerSecond;
+    private volatile boolean running = false;
+    private volatile long ticksSent = 0;
+    private Thread thread;
+
+    public SimulatedPriceFeed(QuoteListener listener, int symbolCount, int ticksPerSecond) {
+        this.listener = listener;
+        this.symbols = new String[Math.max(1, symbolCount)];
+        this.prices = new double[symbols.length];
+        this.ticksPerSecond = Math.max(1, ticksPerSecond);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = String.format("SIM%04d", i + 1);
+            prices[i] = 10 + random.nextDouble() * 490;
+        }
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "SimulatedPriceFeed");
+        thread.setDaemon(true);
+        thread.start();
+        System.out.println("[SimulatedPriceFeed] [Thread: " + Thread.currentThread().getName() + "] Started: " + symbols.length + " symbols, " + ticksPerSecond + " ticks/s.");
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    // Emits the ticks due since the start, then parks ~1ms, so the rate holds without busy spinning.
+    private void run() {
+        SplittableRandom random = new SplittableRandom();
+        long start = System.nanoTime();
+        long sent = 0;
+        while (running) {
+            long due = (long) ((System.nanoTime() - start) / 1e9 * ticksPerSecond);
+            long now = System.currentTimeMillis();
+            for (; sent < due && running; sent++) {
+                int i = random.nextInt(symbols.length);
+                double price = prices[i] * (1 + (random.nextDouble() - 0.5) * 0.002); // +/-0.1% per tick
+                prices[i] = price;
+                listener.onQuote(symbols[i], price, now);
+            }
+            ticksSent = sent;
+            LockSupport.parkNanos(PACE_NANOS);
+            if (Thread.interrupted()) break;
+        }
+        System.out.println("[SimulatedPriceFeed] [Thread: " + Thread.currentThread().getName() + "] Stopped after " + sent + " ticks.");
+    }
+
+    public long getTicksSent() {
+        return ticksSent;
+    }
+
+    public int getSymbolCount() {
+        return symbols.length;
+    }
+}
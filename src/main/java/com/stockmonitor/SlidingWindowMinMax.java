@@ -0,0 +1,102 @@
+package com.stockmonitor;
+
+/**
+ * Minimum and maximum over the last 'window' added values in O(1) amortized per value,
+ * using two monotonic deques (increasing for the minimum, decreasing for the maximum).
+ * Each value is pushed and popped at most once per deque; the deques are primitive rings,
+ * so adding allocates nothing. NaN values take a slot in the window but are ignored.
+ * Not thread-safe; callers guard it together with the data it tracks.
+ */
+class SlidingWindowMinMax {
+
+    private final int window;
+    private long nextSequence = 0; // Sequence number of the next added value
+    private final MonotonicDeque minDeque;
+    private final MonotonicDeque maxDeque;
+
+    SlidingWindowMinMax(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window size must be positive: " + window);
+        }
+        this.window = window;
+        this.minDeque = new MonotonicDeque(window, true);
+        this.maxDeque = new MonotonicDeque(window, false);
+    }
+
+    void add(double value) {
+        add(value, value);
+    }
+
+    /**
+     * Adds one window slot whose low and high contribute to the minimum and maximum respectively
+     * (e.g. a candle's low and high).
+     */
+    void add(double low, double high) {
+        long sequence = nextSequence++;
+        long oldestInWindow = sequence - window + 1;
+        minDeque.push(sequence, low, oldestInWindow);
+        maxDeque.push(sequence, high, oldestInWindow);
+    }
+
+    // NaN if the window holds no (non-NaN) value
+    double min() {
+        return minDeque.front();
+    }
+
+    double max() {
+        return maxDeque.front();
+    }
+
+    void clear() {
+        nextSequence = 0;
+        minDeque.clear();
+        maxDeque.clear();
+    }
+
+    int getWindow() {
+        return window;
+    }
+
+    private static final class MonotonicDeque {
+        private final long[] sequences;
+        private final double[] values;
+        private final boolean keepMinimum;
+        private int head = 0; // Index of the front element
+        private int size = 0;
+
+        MonotonicDeque(int capacity, boolean keepMinimum) {
+            this.sequences = new long[capacity];
+            this.values = new double[capacity];
+            this.keepMinimum = keepMinimum;
+        }
+
+        void push(long sequence, double value, long oldestInWindow) {
+            // Drop values that slid out of the window
+            while (size > 0 && sequences[head] < oldestInWindow) {
+                head = (head + 1) % sequences.length;
+                size--;
+            }
+            if (Double.isNaN(value)) return;
+            // Drop values that can never be the extreme again while this one is in the window
+            while (size > 0) {
+                int back = (head + size - 1) % sequences.length;
+                boolean dominated = keepMinimum ? values[back] >= value : values[back] <= value;
+                if (!dominated) break;
+                size--;
+            }
+            int slot = (head + size) % sequences.length;
+            sequences[slot] = sequence;
+            values[slot] = value;
+            size++;
+        }
+
+        double front() {
+            return size == 0 ? Double.NaN : values[head];
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.stockmonitor;
+
+import com.stockmonitor.logging.Log;
+import com.stockmonitor.metrics.LatencyHistogram;
+import com.stockmonitor.metrics.Metrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Local HTTP endpoint for monitoring, bound to the loopback interface only:
+ * /status (JSON), /metrics (Prometheus text format) and /health.
+ * Everything is read from lock-free sources (watcher and gauge volatiles, LongAdders, histogram
+ * snapshots), so a scrape never blocks a watcher, the alert consumer or the EDT. Requests are
+ * served by one daemon thread and each body is cached for a short time, so frequent scrapes
+ * from several collectors compute it once per interval.
+ */
+public class StatusHttpServer {
+
+    private static final Log LOG = Log.get(StatusHttpServer.class);
+
+    // -Dstockmonitor.http.port=0: port of the status endpoint, 0 disables it
+    public static final int DEFAULT_PORT = Integer.getInteger("stockmonitor.http.port", 0);
+    // -Dstockmonitor.http.cacheMs=1000: a response body is reused for this long
+    public static final long DEFAULT_CACHE_MS = Long.getLong("stockmonitor.http.cacheMs", 1000L);
+
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+    private static final double[] SYMBOL_QUANTILES = { 0.5, 0.99 };
+
+    private final MainController controller;
+    private final int port;
+    private final long cacheNanos;
+    private final long startMillis = System.currentTimeMillis();
+    private HttpServer server;
+    private ExecutorService executor;
+    private final CachedBody statusBody = new CachedBody();
+    private final CachedBody metricsBody = new CachedBody();
+
+    // Body of one endpoint, rebuilt when older than the cache interval; only used on the server thread
+    private static final class CachedBody {
+        byte[] body;
+        long builtNanos;
+    }
+
+    public StatusHttpServer(MainController controller, int port, long cacheMillis) {
+        this.controller = controller;
+        this.port = port;
+        this.cacheNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, cacheMillis));
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 16);
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "StatusHttpServer");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/status", exchange -> respond(exchange, "application/json; charset=utf-8", statusBody, this::buildStatus));
+        server.createContext("/metrics", exchange -> respond(exchange, "text/plain; version=0.0.4; charset=utf-8", metricsBody, this::buildMetrics));
+        server.createContext("/health", exchange -> respond(exchange, "text/plain; charset=utf-8", null, () -> "ok\n"));
+        server.start();
+        LOG.info("Status endpoint listening on http://{}:{}/ (/status, /metrics, /health).",
+                InetAddress.getLoopbackAddress().getHostAddress(), server.getAddress().getPort());
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    // Actual port, e.g. when started with port 0 in tests
+    public int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    private void respond(HttpExchange exchange, String contentType, CachedBody cache, Supplier<String> builder) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body;
+            if (cache == null) {
+                body = builder.get().getBytes(StandardCharsets.UTF_8);
+            } else {
+                long now = System.nanoTime();
+                if (cache.body == null || now - cache.builtNanos > cacheNanos) {
+                    cache.body = builder.get().getBytes(StandardCharsets.UTF_8);
+                    cache.builtNanos = now;
+                }
+                body = cache.body;
+            }
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Error serving {}: {}", exchange.getRequestURI(), e.toString());
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private List<StockWatcherThread> sortedWatchers() {
+        List<StockWatcherThread> watchers = controller.getActiveWatchers();
+        watchers.sort(Comparator.comparing(StockWatcherThread::getSymbol));
+        return watchers;
+    }
+
+    private String buildStatus() {
+        JSONObject status = new JSONObject();
+        status.put("uptimeSeconds", (System.currentTimeMillis() - startMillis) / 1000);
+        status.put("activeProfile", controller.getActiveProfile());
+
+        JSONArray watchers = new JSONArray();
+        for (StockWatcherThread watcher : sortedWatchers()) {
+            JSONObject entry = new JSONObject();
+            entry.put("symbol", watcher.getSymbol());
+            entry.put("priority", watcher.getStockConfig().getPriority().name());
+            entry.put("intervalSeconds", watcher.getFetchIntervalSeconds());
+            double price = watcher.getLastPrice();
+            if (!Double.isNaN(price)) {
+                entry.put("lastPrice", price);
+                entry.put("lastPriceMillis", watcher.getLastPriceMillis());
+            }
+            watchers.put(entry);
+        }
+        status.put("activeWatchers", watchers.length());
+        status.put("watchers", watchers);
+
+        JSONObject budget = new JSONObject();
+        budget.put("requestsLastMinute", Metrics.apiRequestsLastMinute());
+        budget.put("budgetPerMinute", Metrics.getApiBudgetPerMinute());
+        budget.put("usedPercent", Math.round(Metrics.apiBudgetUsedPercent() * 10) / 10.0);
+        status.put("apiBudget", budget);
+
+        status.put("gauges", new JSONObject(Metrics.gauges()));
+        status.put("counters", new JSONObject(Metrics.counters()));
+
+        JSONObject latency = new JSONObject();
+        for (LatencyHistogram stage : Metrics.stages()) {
+            latency.put(stage.getName(), latencyJson(stage.snapshot()));
+        }
+        status.put("latencyMicros", latency);
+        JSONObject symbolLatency = new JSONObject();
+        for (Map.Entry<String, LatencyHistogram> entry : Metrics.symbolFetchHistograms().entrySet()) {
+            symbolLatency.put(entry.getKey(), latencyJson(entry.getValue().snapshot()));
+        }
+        status.put("fetchLatencyMicrosBySymbol", symbolLatency);
+        return status.toString(2);
+    }
+
+    private static JSONObject latencyJson(LatencyHistogram.Snapshot snapshot) {
+        JSONObject json = new JSONObject();
+        json.put("count", snapshot.getCount());
+        json.put("mean", Math.round(snapshot.getMeanNanos() / 1000.0));
+        json.put("p50", snapshot.getValueAtPercentile(50.0) / 1000);
+        json.put("p90", snapshot.getValueAtPercentile(90.0) / 1000);
+        json.put("p99", snapshot.getValueAtPercentile(99.0) / 1000);
+        json.put("p999", snapshot.getValueAtPercentile(99.9) / 1000);
+        json.put("max", snapshot.getMaxNanos() / 1000);
+        return json;
+    }
+
+    private String buildMetrics() {
+        StringBuilder out = new StringBuilder(8192);
+        for (Map.Entry<String, Long> counter : Metrics.counters().entrySet()) {
+            String name = "stockmonitor_" + snakeCase(counter.getKey()) + "_total";
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(counter.getValue()).append('\n');
+        }
+        for (Map.Entry<String, Long> gauge : Metrics.gauges().entrySet()) {
+            String name = "stockmonitor_" + snakeCase(gauge.getKey());
+            out.append("# TYPE ").append(name).append(" gauge\n");
+            out.append(name).append(' ').append(gauge.getValue()).append('\n');
+        }
+        out.append("# TYPE stockmonitor_api_budget_per_minute gauge\n");
+        out.append("stockmonitor_api_budget_per_minute ").append(Metrics.getApiBudgetPerMinute()).append('\n');
+        out.append("# TYPE stockmonitor_uptime_seconds gauge\n");
+        out.append("stockmonitor_uptime_seconds ").append((System.currentTimeMillis() - startMillis) / 1000).append('\n');
+
+        List<StockWatcherThread> watchers = sortedWatchers();
+        out.append("# TYPE stockmonitor_watcher_interval_seconds gauge\n");
+        for (StockWatcherThread watcher : watchers) {
+            out.append("stockmonitor_watcher_interval_seconds{symbol=\"").append(escapeLabel(watcher.getSymbol()))
+                    .append("\",priority=\"").append(watcher.getStockConfig().getPriority().name().toLowerCase())
+                    .append("\"} ").append(watcher.getFetchIntervalSeconds()).append('\n');
+        }
+        out.append("# TYPE stockmonitor_last_price gauge\n");
+        for (StockWatcherThread watcher : watchers) {
+            double price = watcher.getLastPrice();
+            if (!Double.isNaN(price)) {
+                out.append("stockmonitor_last_price{symbol=\"").append(escapeLabel(watcher.getSymbol())).append("\"} ").append(price).append('\n');
+            }
+        }
+        out.append("# TYPE stockmonitor_last_price_timestamp_seconds gauge\n");
+        for (StockWatcherThread watcher : watchers) {
+            if (!Double.isNaN(watcher.getLastPrice())) {
+                out.append("stockmonitor_last_price_timestamp_seconds{symbol=\"").append(escapeLabel(watcher.getSymbol())).append("\"} ")
+                        .append(watcher.getLastPriceMillis() / 1000.0).append('\n');
+            }
+        }
+
+        out.append("# TYPE stockmonitor_stage_latency_seconds summary\n");
+        for (LatencyHistogram stage : Metrics.stages()) {
+            appendSummary(out, "stockmonitor_stage_latency_seconds", "stage=\"" + stage.getName() + "\"", stage.snapshot(), QUANTILES);
+        }
+        out.append("# TYPE stockmonitor_symbol_fetch_latency_seconds summary\n");
+        for (Map.Entry<String, LatencyHistogram> entry : Metrics.symbolFetchHistograms().entrySet()) {
+            appendSummary(out, "stockmonitor_symbol_fetch_latency_seconds", "symbol=\"" + escapeLabel(entry.getKey()) + "\"", entry.getValue().snapshot(), SYMBOL_QUANTILES);
+        }
+        return out.toString();
+    }
+
+    private static void appendSummary(StringBuilder out, String name, String labels, LatencyHistogram.Snapshot snapshot, double[] quantiles) {
+        for (double quantile : quantiles) {
+            out.append(name).append('{').append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                    .append(snapshot.getValueAtPercentile(quantile * 100.0) / 1e9).append('\n');
+        }
+        out.append(name).append("_sum{").append(labels).append("} ").append(snapshot.getSumNanos() / 1e9).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(snapshot.getCount()).append('\n');
+    }
+
+    // alertQueueDepth -> alert_queue_depth
+    static String snakeCase(String name) {
+        StringBuilder snake = new StringBuilder(name.length() + 8);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) snake.append('_');
+                snake.append(Character.toLowerCase(c));
+            } else if (Character.isLetterOrDigit(c)) {
+                snake.append(c);
+            } else {
+                snake.append('_');
+            }
+        }
+        return snake.toString();
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
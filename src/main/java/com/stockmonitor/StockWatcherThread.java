@@ -2,168 +2,283 @@ package com.stockmonitor;
 
 // import com.stockmonitor.listeners.AlertListener; // Removed
 import com.stockmonitor.listeners.GraphDataListener;
+import com.stockmonitor.logging.Log;
+import com.stockmonitor.metrics.AlertEvaluationEvent;
+import com.stockmonitor.metrics.Metrics;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.Date;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
 
 public class StockWatcherThread implements Runnable {
 
-    private final StockConfig stockConfig; // Using StockConfig instead of String symbol and rawThresholdInput
+    private static final Log LOG = Log.get(StockWatcherThread.class);
+
+    private volatile StockConfig stockConfig; // Using StockConfig instead of String symbol and rawThresholdInput
     private final PriceFetcher priceFetcher;
     private final AlertManager alertManager;
     private final GraphDataListener graphDataListener;
-    private final long fetchIntervalSeconds; // No longer static, now a final instance variable
+    private final TickRingBuffer tickRing; // Charts, watchlist, alerts and the journal consume the ticks from it
+    private final IndicatorEngine indicatorEngine;
+    private volatile long fetchIntervalSeconds; // Changes when MainController reschedules the watcher
     private volatile boolean running = true;
+    private volatile ScheduledFuture<?> scheduledFuture;
+    private boolean skipNextPoll = false; // Set after an exception, so the next poll comes two intervals later
     private double previousClosePrice = -1; // To store the previous closing price
     private boolean firstDataPoint = true;
+    private volatile double lastPrice = Double.NaN; // Read by the status endpoint without locking
+    private volatile long lastPriceMillis;
+    private volatile List<AlertRule> alertRules; // Parsed once from the thresholds, empty if no alert is configured
+    private final TickEvent outgoingTick = new TickEvent(); // Filled by each poll and copied into the TickRingBuffer
+
+    // Fetch errors are reported once and then at most every ERROR_ALERT_INTERVAL_MS while they persist
+    private static final long ERROR_ALERT_INTERVAL_MS = Long.getLong("stockmonitor.alert.errorIntervalMs", 60000L);
+    private long lastErrorAlertMillis = Long.MIN_VALUE;
+    private int suppressedErrorCount = 0;
 
     // Constructor updated, fetchIntervalSeconds parameter added
     public StockWatcherThread(StockConfig stockConfig, 
                               PriceFetcher priceFetcher,
                               AlertManager alertManager,
                               GraphDataListener graphDataListener,
+                              TickRingBuffer tickRing,
+                              IndicatorEngine indicatorEngine,
                               long fetchIntervalSeconds) { // New parameter
         this.stockConfig = stockConfig;
         this.priceFetcher = priceFetcher;
         this.alertManager = alertManager;
         this.graphDataListener = graphDataListener;
+        this.tickRing = tickRing;
+        this.indicatorEngine = indicatorEngine;
+        this.alertRules = parseRules(stockConfig, Collections.emptyList());
         this.fetchIntervalSeconds = fetchIntervalSeconds; // Assignment
-        System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] Instance created for symbol: " + stockConfig.getSymbol() + " with interval: " + fetchIntervalSeconds + "s");
+        LOG.info("Instance created for symbol: {} with interval: {}s", stockConfig.getSymbol(), fetchIntervalSeconds);
     }
 
+    /**
+     * Performs one poll: fetch, indicator update, and publishing the tick to the TickRingBuffer, whose
+     * consumers update the chart and watchlist and check the alerts. MainController schedules it
+     * with a fixed delay of fetchIntervalSeconds, so a watcher only holds a pool thread while polling
+     * and any number of symbols share a small scheduler pool.
+     */
     @Override
-    public void run() {
+    public synchronized void run() { // Never runs concurrently, also not while the watcher is rescheduled
         String symbol = stockConfig.getSymbol();
-        System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] run() started for symbol: " + symbol + ". Interval: " + this.fetchIntervalSeconds + "s.");
+        if (!running) {
+            return;
+        }
         if (symbol == null || symbol.trim().isEmpty()) {
-            System.err.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] Symbol not specified for monitoring: " + symbol);
+            LOG.error("Symbol not specified for monitoring: {}", symbol);
+            stopWatching();
+            return;
+        }
+        if (skipNextPoll) {
+            skipNextPoll = false; // Wait one interval longer after an error
             return;
         }
-        // Log message moved from MainController to here for more accurate thread info, or keep MainController's log
-        // alertManager.logSystemMessage("Monitoring started for " + symbol + " with " + fetchIntervalSeconds + " seconds interval."); 
-
-        while (running) {
-            try {
-                System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] " + symbol + ": Fetching price..."); // Can be too verbose
-                double currentPrice = priceFetcher.fetchPrice(symbol);
-                Date timestamp = new Date();
-                System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] " + symbol + ": Price fetched: " + currentPrice);
-
-                if (currentPrice != -1 && !Double.isNaN(currentPrice)) {
-                    // Derive OHLC data from the current price
-                    double open, high, low, close;
-                    close = currentPrice;
-
-                    if (firstDataPoint) {
-                        open = currentPrice;
-                        high = currentPrice;
-                        low = currentPrice;
-                        firstDataPoint = false;
-                    } else {
-                        open = previousClosePrice;
-                        high = Math.max(open, currentPrice);
-                        low = Math.min(open, currentPrice);
-                    }
-                    
-                    System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] " + symbol + ": Sending OHLC data to listener.");
-                    graphDataListener.onOHLCDataUpdate(symbol, timestamp, open, high, low, close);
-                    previousClosePrice = currentPrice; 
-
-                    checkAlerts(symbol, currentPrice);
+        try {
+            LOG.debug("{}: Fetching price...", symbol);
+            PriceQuote quote = priceFetcher.fetchQuote(symbol);
+            double currentPrice = quote.getPrice();
+            long tickNanos = quote.getReceivedNanos(); // Start of the tick-to-alert and tick-to-pixel latencies
+            long timestampMillis = System.currentTimeMillis();
+            if (LOG.isDebugEnabled()) LOG.debug("{}: Price fetched: {}", symbol, currentPrice);
+            if (!running) {
+                return; // Stopped while fetching; the chart was already cleared
+            }
+
+            if (currentPrice != -1 && !Double.isNaN(currentPrice)) {
+                long tickStart = System.nanoTime();
+                // Derive OHLC data from the current price
+                double open, high, low, close;
+                close = currentPrice;
+
+                if (firstDataPoint) {
+                    open = currentPrice;
+                    high = currentPrice;
+                    low = currentPrice;
+                    firstDataPoint = false;
                 } else {
-                    System.err.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] " + symbol + ": Could not fetch price or invalid price from API.");
-                    alertManager.queueAlert(symbol, "Could not fetch price or invalid price from API for " + symbol + ".");
-                }
-                System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] " + symbol + ": Sleeping for " + this.fetchIntervalSeconds + " seconds...");
-                TimeUnit.SECONDS.sleep(this.fetchIntervalSeconds); // Using this.fetchIntervalSeconds
-            } catch (InterruptedException e) {
-                running = false; // Ensure loop termination
-                Thread.currentThread().interrupt(); // Preserve interrupt status
-                System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] Monitoring interrupted for " + symbol + ". Thread stopping.");
-                // alertManager.logSystemMessage("Monitoring interrupted by InterruptedException for " + symbol + "."); // AlertManager will log this
-            } catch (Exception e) {
-                System.err.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] Error while fetching price for " + symbol + ": " + e.getMessage());
-                alertManager.queueAlert(symbol, "Error fetching price for " + symbol + ": " + e.getMessage());
-                try {
-                    TimeUnit.SECONDS.sleep(this.fetchIntervalSeconds * 2); // Wait longer in case of error, based on dynamic interval
-                } catch (InterruptedException ie) {
-                    running = false;
-                    Thread.currentThread().interrupt();
-                    System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] Sleep after error interrupted for " + symbol + ". Thread stopping.");
+                    open = previousClosePrice;
+                    high = Math.max(open, currentPrice);
+                    low = Math.min(open, currentPrice);
                 }
+                lastPrice = currentPrice;
+                lastPriceMillis = timestampMillis;
+
+                outgoingTick.watcher = this;
+                outgoingTick.symbol = symbol;
+                outgoingTick.timestampMillis = timestampMillis;
+                outgoingTick.open = open;
+                outgoingTick.high = high;
+                outgoingTick.low = low;
+                outgoingTick.close = close;
+                outgoingTick.previousPrice = previousClosePrice;
+                outgoingTick.tickNanos = tickNanos;
+                // O(1) per tick, the engine keeps fixed-size windows per symbol
+                indicatorEngine.update(symbol, currentPrice, outgoingTick);
+
+                // Never blocks: a slow chart or journal consumer must not delay the next fetch
+                tickRing.publish(outgoingTick);
+                previousClosePrice = currentPrice;
+                suppressedErrorCount = 0; // Fetch works again, the next error is reported immediately
+                lastErrorAlertMillis = Long.MIN_VALUE;
+                Metrics.TICK.recordSince(tickStart); // OHLC, indicator and publish work on the fetch thread
+            } else {
+                LOG.warn("{}: Could not fetch price or invalid price from API.", symbol);
+                reportFetchError(symbol, "Could not fetch price or invalid price from API.");
             }
+        } catch (Exception e) {
+            LOG.warn("Error while fetching price for {}: {}", symbol, e.getMessage());
+            reportFetchError(symbol, e.getMessage());
+            skipNextPoll = true; // Wait longer in case of error, based on dynamic interval
         }
-        System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] run() finished for symbol: " + symbol + ". Cleaning up graph.");
-        // alertManager.logSystemMessage("Monitoring stopped for " + symbol + "."); // AlertManager can handle this or MainController
-        graphDataListener.clearGraph(symbol); // Clear graph when monitoring stops
     }
 
-    private void checkAlerts(String symbol, double currentPrice) {
-        System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] " + symbol + ": Entering checkAlerts. Current price: " + currentPrice);
-        String thresholdConfig = stockConfig.getThreshold();
-        System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] " + symbol + ": Threshold config: " + thresholdConfig);
-        if (thresholdConfig == null || thresholdConfig.trim().isEmpty() || !thresholdConfig.contains("@")) {
-            System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] " + symbol + ": Threshold not configured or format incorrect. Returning.");
+    /**
+     * Evaluates the alert rules for one tick of this watcher. Called by the alerts consumer of the
+     * TickRingBuffer, so the rules' state is only ever touched by that one thread.
+     */
+    void checkAlerts(TickEvent tick) {
+        String symbol = tick.symbol;
+        double currentPrice = tick.close;
+        if (LOG.isDebugEnabled()) LOG.debug("{}: Entering checkAlerts. Current price: {}", symbol, currentPrice);
+        List<AlertRule> alertRules = this.alertRules;
+        if (!running || alertRules.isEmpty()) {
+            LOG.debug("{}: Threshold not configured or format incorrect. Returning.", symbol);
             return; // Threshold not configured or format is incorrect
         }
+        AlertEvaluationEvent event = new AlertEvaluationEvent();
+        event.begin();
+        long evalStart = System.nanoTime();
+        long now = System.currentTimeMillis();
+        int fired = 0;
+        for (AlertRule alertRule : alertRules) {
+            // The rule handles re-arm hysteresis and throttling, so a condition that stays true fires only once
+            AlertEvent alert = alertRule.evaluate(symbol, currentPrice, tick.previousPrice, tick, now, tick.tickNanos);
+            if (alert != null) {
+                LOG.info("{}: Alert triggered: {} (rule {})", symbol, alertRule.getCondition(), alertRule.getId());
+                alertManager.queueAlert(alert);
+                fired++;
+            }
+        }
+        Metrics.ALERT_EVAL.recordSince(evalStart);
+        event.end();
+        if (event.shouldCommit()) {
+            event.symbol = symbol;
+            event.rules = alertRules.size();
+            event.fired = fired;
+            event.commit();
+        }
+    }
 
-        String[] parts = thresholdConfig.split("@", 2);
-        String condition = parts[0];
-        double targetValue;
-        try {
-            targetValue = Double.parseDouble(parts[1]);
-        } catch (NumberFormatException e) {
-            System.err.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] Error: Invalid target value format for " + symbol + ": " + parts[1]);
-            System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] " + symbol + ": Invalid target value. Returning.");
-            return;
+    /**
+     * Applies changed rules or priority of the same symbol without restarting the watcher: price history,
+     * indicators and the state of unchanged rules are kept. Rules are matched by their threshold string.
+     * Only swaps the two volatile fields, so it never waits for a poll in progress; the next tick is
+     * evaluated with the new rules. Callers are serialized by MainController's watcherLock.
+     */
+    public void updateConfig(StockConfig newConfig) {
+        this.alertRules = parseRules(newConfig, alertRules);
+        this.stockConfig = newConfig;
+        LOG.info("{}: Configuration updated, {} rules.", getSymbol(), alertRules.size());
+    }
+
+    // Reuses the rule of an unchanged threshold, so its armed/throttle state survives a reload
+    private static List<AlertRule> parseRules(StockConfig config, List<AlertRule> previousRules) {
+        List<AlertRule> rules = new ArrayList<>();
+        for (String threshold : config.getThresholds()) {
+            AlertRule rule = null;
+            for (AlertRule previous : previousRules) {
+                if (threshold.equals(previous.getSource()) && !rules.contains(previous)) {
+                    rule = previous;
+                    break;
+                }
+            }
+            if (rule == null) {
+                rule = AlertRule.parse(threshold);
+            }
+            if (rule != null) {
+                rules.add(rule);
+            }
         }
-        System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] " + symbol + ": Condition: '" + condition + "', Target Value: " + targetValue);
+        return rules;
+    }
 
-        boolean alertTriggered = false;
-        String alertMessage = "";
+    // Throttles fetch error alerts at the source: a failing symbol produces one alert per interval, not one per attempt.
+    private void reportFetchError(String symbol, String detail) {
+        Metrics.increment(Metrics.FETCH_ERRORS);
+        long now = System.currentTimeMillis();
+        if (lastErrorAlertMillis != Long.MIN_VALUE && now - lastErrorAlertMillis < ERROR_ALERT_INTERVAL_MS) {
+            suppressedErrorCount++;
+            return;
+        }
+        String message = suppressedErrorCount > 0
+                ? detail + " (" + suppressedErrorCount + " similar errors suppressed)"
+                : detail;
+        lastErrorAlertMillis = now;
+        suppressedErrorCount = 0;
+        alertManager.queueAlert(AlertEvent.fetchError(symbol, message));
+    }
 
-        // For intersection control using the previous price (kept simple for now)
-        // More complex intersection scenarios might require tracking the previous price.
+    // The future of this watcher's fixed-delay schedule, cancelled by stopWatching()
+    public void setScheduledFuture(ScheduledFuture<?> scheduledFuture) {
+        this.scheduledFuture = scheduledFuture;
+    }
 
-        switch (condition.trim()) {
-            case "Price > Value": // Price > Value
-                if (currentPrice > targetValue) {
-                    alertTriggered = true;
-                    alertMessage = String.format("%s price (%.4f) > target (%.4f)", symbol, currentPrice, targetValue);
-                }
-                break;
-            case "Price < Value": // Price < Value
-                if (currentPrice < targetValue) {
-                    alertTriggered = true;
-                    alertMessage = String.format("%s price (%.4f) < target (%.4f)", symbol, currentPrice, targetValue);
-                }
-                break;
-            case "Price Crosses (Up)": // Price Crosses (Up)
-                if (previousClosePrice != -1 && previousClosePrice < targetValue && currentPrice >= targetValue) {
-                    alertTriggered = true;
-                    alertMessage = String.format("%s price (%.4f) crossed target (%.4f) upwards", symbol, currentPrice, targetValue);
-                }
-                break;
-            case "Price Crosses (Down)": // Price Crosses (Down)
-                if (previousClosePrice != -1 && previousClosePrice > targetValue && currentPrice <= targetValue) {
-                    alertTriggered = true;
-                    alertMessage = String.format("%s price (%.4f) crossed target (%.4f) downwards", symbol, currentPrice, targetValue);
-                }
-                break;
+    // Cancels the current schedule (a poll in progress finishes) and installs a new one; the watcher keeps running
+    public void reschedule(ScheduledFuture<?> newFuture, long newIntervalSeconds) {
+        ScheduledFuture<?> previous = scheduledFuture;
+        if (previous != null) {
+            previous.cancel(false);
         }
+        this.fetchIntervalSeconds = newIntervalSeconds;
+        this.scheduledFuture = newFuture;
+    }
 
-        if (alertTriggered) {
-            System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] " + symbol + ": Alert triggered: " + alertMessage);
-            alertManager.queueAlert(symbol, alertMessage);
+    // Stops polling but keeps the chart data, indicators and rule state (profile switched away); reschedule() resumes
+    public void pause() {
+        ScheduledFuture<?> future = scheduledFuture;
+        if (future != null) {
+            future.cancel(false);
         }
+        this.scheduledFuture = null;
+        this.fetchIntervalSeconds = 0; // Not scheduled
+        LOG.info("{}: Paused.", getSymbol());
+    }
+
+    public long getFetchIntervalSeconds() {
+        return fetchIntervalSeconds;
+    }
+
+    public StockConfig getStockConfig() {
+        return stockConfig;
+    }
+
+    // Last valid price of this watcher, NaN before the first successful poll
+    public double getLastPrice() {
+        return lastPrice;
+    }
+
+    public long getLastPriceMillis() {
+        return lastPriceMillis;
     }
 
     public void stopWatching() {
-        System.out.println("[StockWatcherThread] [Thread: " + Thread.currentThread().getName() + "] stopWatching() called for symbol: " + getSymbol() + ". Setting running to false.");
+        LOG.info("stopWatching() called for symbol: {}. Setting running to false.", getSymbol());
         this.running = false;
-        // Thread.currentThread().interrupt(); // Consider if interruption is needed here if sleep is long or blocked on I/O
+        ScheduledFuture<?> future = scheduledFuture;
+        if (future != null) {
+            future.cancel(false); // A poll in progress finishes, no further polls run
+        }
+        graphDataListener.clearGraph(getSymbol()); // Clear graph when monitoring stops
+    }
+
+    public boolean isRunning() {
+        return running;
     }
 
     public String getSymbol() {
@@ -0,0 +1,114 @@
+package com.stockmonitor;
+
+import javax.swing.DefaultComboBoxModel;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JComboBox;
+import javax.swing.JList;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+import java.awt.Component;
+import java.util.List;
+
+/**
+ * Autocomplete for an editable symbol combo box. Every edit of the typed text replaces the
+ * combo's items with SymbolDirectory matches and opens the popup; the directory answers from
+ * memory, so typing never waits for the network. EDT only.
+ */
+final class SymbolAutoComplete {
+
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private final JComboBox<String> combo;
+    private final SymbolDirectory directory;
+    private final JTextComponent editor;
+    private boolean adjusting = false; // True while the items are replaced, so action events are not user choices
+    private boolean updateQueued = false;
+
+    private SymbolAutoComplete(JComboBox<String> combo, SymbolDirectory directory) {
+        this.combo = combo;
+        this.directory = directory;
+        this.editor = (JTextComponent) combo.getEditor().getEditorComponent();
+    }
+
+    static SymbolAutoComplete install(JComboBox<String> combo, SymbolDirectory directory) {
+        SymbolAutoComplete autoComplete = new SymbolAutoComplete(combo, directory);
+        combo.setRenderer(autoComplete.new SymbolRenderer());
+        autoComplete.editor.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                autoComplete.textChanged();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                autoComplete.textChanged();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attribute changes only
+            }
+        });
+        return autoComplete;
+    }
+
+    boolean isAdjusting() {
+        return adjusting;
+    }
+
+    private void textChanged() {
+        // Only edits made by the user; the document must not be modified inside its own listener
+        if (adjusting || updateQueued || !editor.isFocusOwner()) return;
+        updateQueued = true;
+        SwingUtilities.invokeLater(this::updateSuggestions);
+    }
+
+    private void updateSuggestions() {
+        updateQueued = false;
+        String text = editor.getText();
+        int caret = editor.getCaretPosition();
+        List<SymbolInfo> matches = directory.search(text, MAX_SUGGESTIONS);
+        DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>();
+        if (matches.isEmpty()) {
+            model.addElement("");
+            for (String symbol : SymbolDirectory.BUILT_IN_SYMBOLS) {
+                model.addElement(symbol);
+            }
+        } else {
+            for (SymbolInfo info : matches) {
+                model.addElement(info.getSymbol());
+            }
+        }
+        adjusting = true;
+        try {
+            combo.setModel(model);
+            combo.setSelectedItem(text); // Keeps the typed text, not the first suggestion
+            editor.setCaretPosition(Math.min(caret, editor.getText().length()));
+        } finally {
+            adjusting = false;
+        }
+        if (combo.isShowing()) {
+            combo.hidePopup(); // Re-opened to resize the popup to the new item count
+            if (!text.trim().isEmpty() && !matches.isEmpty()) {
+                combo.showPopup();
+            }
+        }
+    }
+
+    // Shows the description next to the symbol, e.g. "AAPL  Apple Inc"
+    private final class SymbolRenderer extends DefaultListCellRenderer {
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+            String text = value == null ? "" : value.toString();
+            if (index >= 0 && !text.isEmpty()) { // Only in the popup list
+                SymbolInfo info = directory.lookup(text);
+                if (info != null && !info.getDescription().isEmpty()) {
+                    text = text + "  " + info.getDescription();
+                }
+            }
+            return super.getListCellRendererComponent(list, text.isEmpty() ? " " : text, index, isSelected, cellHasFocus);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.stockmonitor;
+
+import com.stockmonitor.metrics.Metrics;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Directory of all tradable symbols for autocomplete. The exchange symbol lists are downloaded from
+ * Finnhub (/stock/symbol, /crypto/symbol, /forex/symbol), cached in a file and refreshed in the
+ * background when the cache is older than the refresh interval. Lookups only read an immutable
+ * in-memory index (a SymbolTrie over symbols and description words), so they take microseconds
+ * and never touch the network; until the first list is loaded the built-in symbols are served.
+ */
+public class SymbolDirectory {
+
+    // Always available, also without an API key or cache
+    public static final String[] BUILT_IN_SYMBOLS = {"AAPL", "MSFT", "GOOGL", "AMZN", "TSLA", "NVDA", "META",
+            "BINANCE:BTCUSDT", "BINANCE:ETHUSDT", "BINANCE:SOLUSDT",
+            "BINANCE:ADAUSDT", "BINANCE:XRPUSDT", "BINANCE:DOGEUSDT",
+            "COINBASE:BTC-USD", "COINBASE:ETH-USD",
+            "OANDA:EUR_USD", "OANDA:GBP_USD", "OANDA:USD_JPY"};
+
+    // -Dstockmonitor.symbols.file=~/.stockmonitor/symbols.tsv -Dstockmonitor.symbols.refreshHours=24
+    public static final File DEFAULT_CACHE_FILE = new File(System.getProperty("stockmonitor.symbols.file",
+            System.getProperty("user.home") + File.separator + ".stockmonitor" + File.separator + "symbols.tsv"));
+    static final long REFRESH_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(Long.getLong("stockmonitor.symbols.refreshHours", 24L));
+    // -Dstockmonitor.symbols.stockExchanges=US -Dstockmonitor.symbols.cryptoExchanges=BINANCE,COINBASE -Dstockmonitor.symbols.forexExchanges=OANDA
+    private static final String STOCK_EXCHANGES = System.getProperty("stockmonitor.symbols.stockExchanges", "US");
+    private static final String CRYPTO_EXCHANGES = System.getProperty("stockmonitor.symbols.cryptoExchanges", "BINANCE,COINBASE");
+    private static final String FOREX_EXCHANGES = System.getProperty("stockmonitor.symbols.forexExchanges", "OANDA");
+
+    private static final String API_BASE_URL = PriceFetcher.DEFAULT_BASE_URL; // -Dstockmonitor.finnhub.baseUrl
+    private static final String FINNHUB_API_KEY = System.getenv("FINNHUB_API_KEY");
+    private static final int MIN_WORD_LENGTH = 2; // Description words shorter than this are not indexed
+
+    private final File cacheFile;
+    private volatile Index index;
+    private volatile long lastRefreshMillis = 0L;
+    private Thread loaderThread;
+
+    public SymbolDirectory() {
+        this(DEFAULT_CACHE_FILE);
+    }
+
+    public SymbolDirectory(File cacheFile) {
+        this.cacheFile = cacheFile;
+        List<SymbolInfo> builtIn = new ArrayList<>();
+        for (String symbol : BUILT_IN_SYMBOLS) {
+            builtIn.add(new SymbolInfo(symbol, symbol, "", ""));
+        }
+        this.index = new Index(builtIn);
+    }
+
+    /**
+     * Loads the cache and, if it is missing or stale, downloads the lists, on a background thread.
+     */
+    public synchronized void start() {
+        if (loaderThread != null) return;
+        loaderThread = new Thread(this::loadAndRefresh, "SymbolDirectoryLoader");
+        loaderThread.setDaemon(true);
+        loaderThread.start();
+    }
+
+    private void loadAndRefresh() {
+        boolean stale = true;
+        if (cacheFile.isFile()) {
+            try {
+                long start = System.nanoTime();
+                List<SymbolInfo> cached = readCache();
+                publish(cached);
+                lastRefreshMillis = cacheFile.lastModified();
+                stale = System.currentTimeMillis() - lastRefreshMillis > REFRESH_INTERVAL_MILLIS;
+                System.out.println("[SymbolDirectory] [Thread: " + Thread.currentThread().getName() + "] Loaded " + cached.size() + " symbols from " + cacheFile + " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms" + (stale ? " (stale, refreshing)." : "."));
+            } catch (IOException e) {
+                System.err.println("[SymbolDirectory] [Thread: " + Thread.currentThread().getName() + "] Could not read symbol cache " + cacheFile + ": " + e.getMessage());
+            }
+        }
+        if (stale) {
+            refresh();
+        }
+    }
+
+    /**
+     * Downloads all configured symbol lists, replaces the index and rewrites the cache.
+     * Blocking; called on the loader thread. Keeps the current index if the download fails.
+     */
+    public void refresh() {
+        if (FINNHUB_API_KEY == null || FINNHUB_API_KEY.trim().isEmpty()) {
+            System.err.println("[SymbolDirectory] [Thread: " + Thread.currentThread().getName() + "] FINNHUB_API_KEY is not set, symbol lists not downloaded.");
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            List<SymbolInfo> symbols = new ArrayList<>();
+            for (String exchange : splitList(STOCK_EXCHANGES)) {
+                symbols.addAll(download("/stock/symbol", exchange));
+            }
+            for (String exchange : splitList(CRYPTO_EXCHANGES)) {
+                symbols.addAll(download("/crypto/symbol", exchange));
+            }
+            for (String exchange : splitList(FOREX_EXCHANGES)) {
+                symbols.addAll(download("/forex/symbol", exchange));
+            }
+            publish(symbols);
+            writeCache(symbols);
+            lastRefreshMillis = System.currentTimeMillis();
+            System.out.println("[SymbolDirectory] [Thread: " + Thread.currentThread().getName() + "] Downloaded " + symbols.size() + " symbols in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms.");
+        } catch (IOException e) {
+            System.err.println("[SymbolDirectory] [Thread: " + Thread.currentThread().getName() + "] Symbol list download failed, keeping " + size() + " symbols: " + e.getMessage());
+        }
+    }
+
+    private void publish(List<SymbolInfo> symbols) {
+        List<SymbolInfo> all = new ArrayList<>(symbols);
+        for (String symbol : BUILT_IN_SYMBOLS) {
+            all.add(new SymbolInfo(symbol, symbol, "", "")); // Duplicates are dropped by the index
+        }
+        long start = System.nanoTime();
+        Index built = new Index(all);
+        this.index = built; // Readers see either the old or the new index, never a partial one
+        System.out.println("[SymbolDirectory] [Thread: " + Thread.currentThread().getName() + "] Index built: " + built.symbols.length + " symbols, " + built.trie.getNodeCount() + " trie nodes in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms.");
+    }
+
+    /**
+     * Autocomplete for typed text: prefix matches on symbols, display symbols and description words,
+     * then fuzzy matches (one edit, two for longer text) if there are fewer than limit. Never blocks.
+     */
+    public List<SymbolInfo> search(String text, int limit) {
+        String query = normalize(text);
+        if (query.isEmpty() || limit <= 0) return Collections.emptyList();
+        Index current = index;
+        int[] ids = current.trie.prefix(query, limit);
+        if (ids.length < limit && query.length() >= 3) {
+            int[] fuzzy = current.trie.fuzzy(query, query.length() >= 6 ? 2 : 1, limit);
+            ids = merge(ids, fuzzy, limit);
+        }
+        return current.toInfos(ids);
+    }
+
+    public List<SymbolInfo> complete(String prefix, int limit) {
+        String query = normalize(prefix);
+        if (query.isEmpty()) return Collections.emptyList();
+        Index current = index;
+        return current.toInfos(current.trie.prefix(query, limit));
+    }
+
+    public List<SymbolInfo> fuzzy(String text, int maxDistance, int limit) {
+        String query = normalize(text);
+        if (query.isEmpty()) return Collections.emptyList();
+        Index current = index;
+        return current.toInfos(current.trie.fuzzy(query, maxDistance, limit));
+    }
+
+    // Exact symbol lookup, null if unknown
+    public SymbolInfo lookup(String symbol) {
+        return symbol == null ? null : index.bySymbol.get(symbol.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public int size() {
+        return index.symbols.length;
+    }
+
+    public long getLastRefreshMillis() {
+        return lastRefreshMillis;
+    }
+
+    private static int[] merge(int[] first, int[] second, int limit) {
+        int[] merged = Arrays.copyOf(first, Math.min(limit, first.length + second.length));
+        int size = first.length;
+        outer:
+        for (int id : second) {
+            if (size == merged.length) break;
+            for (int i = 0; i < size; i++) {
+                if (merged[i] == id) continue outer;
+            }
+            merged[size++] = id;
+        }
+        return Arrays.copyOf(merged, size);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static List<String> splitList(String list) {
+        List<String> values = new ArrayList<>();
+        for (String value : list.split(",")) {
+            if (!value.trim().isEmpty()) values.add(value.trim());
+        }
+        return values;
+    }
+
+    private List<SymbolInfo> download(String path, String exchange) throws IOException {
+        URL url = new URL(API_BASE_URL + path + "?exchange=" + URLEncoder.encode(exchange, StandardCharsets.UTF_8.name()) + "&token=" + FINNHUB_API_KEY);
+        Metrics.increment(Metrics.REQUESTS);
+        Metrics.recordApiRequest(); // Shares the per-minute budget with the quote polls
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("GET");
+        connection.setConnectTimeout(10000);
+        connection.setReadTimeout(60000); // The US stock list is several megabytes
+        try {
+            int responseCode = connection.getResponseCode();
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                Metrics.increment(responseCode == 429 ? Metrics.RATE_LIMITED : Metrics.HTTP_ERRORS);
+                throw new IOException("Finnhub API (" + path + ") request failed for exchange " + exchange + ". HTTP Code: " + responseCode);
+            }
+            StringBuilder response = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+                char[] buffer = new char[16384];
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    response.append(buffer, 0, read);
+                }
+            }
+            JSONArray array = new JSONArray(response.toString());
+            List<SymbolInfo> symbols = new ArrayList<>(array.length());
+            String defaultType = path.startsWith("/crypto") ? "Crypto" : path.startsWith("/forex") ? "Forex" : "";
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject item = array.getJSONObject(i);
+                String symbol = item.optString("symbol", "");
+                if (symbol.isEmpty()) continue;
+                symbols.add(new SymbolInfo(symbol, item.optString("displaySymbol", symbol),
+                        item.optString("description", ""), item.optString("type", defaultType)));
+            }
+            return symbols;
+        } catch (JSONException e) {
+            throw new IOException("Could not parse Finnhub (" + path + ") response for exchange " + exchange, e);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    // Cache line: symbol \t displaySymbol \t description \t type
+    private List<SymbolInfo> readCache() throws IOException {
+        List<SymbolInfo> symbols = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length < 4 || fields[0].isEmpty()) continue;
+                symbols.add(new SymbolInfo(fields[0], fields[1], fields[2], fields[3]));
+            }
+        }
+        return symbols;
+    }
+
+    // Written to a temporary file and moved into place, so a crash never leaves a half-written cache
+    private void writeCache(List<SymbolInfo> symbols) throws IOException {
+        File directory = cacheFile.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+        File temp = new File(cacheFile.getPath() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+            for (SymbolInfo info : symbols) {
+                writer.write(clean(info.getSymbol()) + '\t' + clean(info.getDisplaySymbol()) + '\t'
+                        + clean(info.getDescription()) + '\t' + clean(info.getType()) + '\n');
+            }
+        }
+        Files.move(temp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String clean(String value) {
+        return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    // Immutable lookup structures for one symbol list
+    private static final class Index {
+        final SymbolInfo[] symbols;
+        final Map<String, SymbolInfo> bySymbol;
+        final SymbolTrie trie = new SymbolTrie();
+
+        Index(List<SymbolInfo> list) {
+            Map<String, SymbolInfo> unique = new LinkedHashMap<>();
+            for (SymbolInfo info : list) {
+                unique.putIfAbsent(info.getSymbol().toUpperCase(Locale.ROOT), info); // First (downloaded) entry wins
+            }
+            symbols = unique.values().toArray(new SymbolInfo[0]);
+            bySymbol = new HashMap<>(unique);
+            for (int id = 0; id < symbols.length; id++) {
+                SymbolInfo info = symbols[id];
+                String symbol = info.getSymbol().toUpperCase(Locale.ROOT);
+                trie.add(symbol, id);
+                int colon = symbol.indexOf(':');
+                if (colon >= 0) {
+                    trie.add(symbol.substring(colon + 1), id); // "BTCUSDT" finds "BINANCE:BTCUSDT"
+                }
+                trie.add(info.getDisplaySymbol().toUpperCase(Locale.ROOT), id);
+                for (String word : info.getDescription().toUpperCase(Locale.ROOT).split("[^A-Z0-9]+")) {
+                    if (word.length() >= MIN_WORD_LENGTH) {
+                        trie.add(word, id); // "APPLE" finds "AAPL"
+                    }
+                }
+            }
+        }
+
+        List<SymbolInfo> toInfos(int[] ids) {
+            List<SymbolInfo> result = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                result.add(symbols[id]);
+            }
+            return result;
+        }
+    }
+}
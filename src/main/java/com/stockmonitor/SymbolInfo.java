@@ -0,0 +1,40 @@
+package com.stockmonitor;
+
+/**
+ * One entry of the symbol directory, e.g. "BINANCE:BTCUSDT" / "BTC/USDT" / "Binance BTCUSDT".
+ */
+public final class SymbolInfo {
+
+    private final String symbol;        // As used for quotes
+    private final String displaySymbol; // As shown by the exchange
+    private final String description;
+    private final String type;          // "Common Stock", "Crypto", "Forex", ...
+
+    public SymbolInfo(String symbol, String displaySymbol, String description, String type) {
+        this.symbol = symbol;
+        this.displaySymbol = displaySymbol != null ? displaySymbol : symbol;
+        this.description = description != null ? description : "";
+        this.type = type != null ? type : "";
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public String getDisplaySymbol() {
+        return displaySymbol;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return symbol;
+    }
+}
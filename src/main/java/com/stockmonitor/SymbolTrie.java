@@ -0,0 +1,250 @@
+package com.stockmonitor;
+
+import java.util.Arrays;
+
+/**
+ * Uppercase string keys mapped to int ids, for symbol autocomplete. Nodes are stored in parallel
+ * primitive arrays (first child / next sibling / label), so a trie over several hundred thousand
+ * keys is a few arrays instead of millions of objects. Siblings are kept in character order.
+ * Built once by one thread, then read-only: queries are safe from any thread after publication.
+ */
+final class SymbolTrie {
+
+    private static final int NONE = -1;
+
+    // Nodes; node 0 is the root
+    private char[] labels = new char[1024];
+    private int[] firstChild = new int[1024];
+    private int[] nextSibling = new int[1024];
+    private int[] firstValue = new int[1024];
+    private int nodeCount = 1;
+
+    // Ids of the keys ending at a node, as linked lists
+    private int[] valueIds = new int[256];
+    private int[] valueNext = new int[256];
+    private int valueCount = 0;
+
+    private int maxDepth = 0;
+
+    SymbolTrie() {
+        firstChild[0] = NONE;
+        nextSibling[0] = NONE;
+        firstValue[0] = NONE;
+    }
+
+    /**
+     * Adds the key for the id. The key must already be uppercase. All keys of one id are added
+     * together, so a repeated key/id pair is found at the head of the node's value list.
+     */
+    void add(String key, int id) {
+        if (key.isEmpty()) return;
+        int node = 0;
+        for (int i = 0; i < key.length(); i++) {
+            node = childFor(node, key.charAt(i));
+        }
+        if (firstValue[node] != NONE && valueIds[firstValue[node]] == id) return; // O(1), common words have thousands of ids
+        if (valueCount == valueIds.length) {
+            valueIds = Arrays.copyOf(valueIds, valueCount * 2);
+            valueNext = Arrays.copyOf(valueNext, valueCount * 2);
+        }
+        valueIds[valueCount] = id;
+        valueNext[valueCount] = firstValue[node];
+        firstValue[node] = valueCount++;
+        maxDepth = Math.max(maxDepth, key.length());
+    }
+
+    // Finds or inserts the child with the label, keeping siblings sorted
+    private int childFor(int parent, char label) {
+        int previous = NONE;
+        int child = firstChild[parent];
+        while (child != NONE && labels[child] < label) {
+            previous = child;
+            child = nextSibling[child];
+        }
+        if (child != NONE && labels[child] == label) {
+            return child;
+        }
+        int created = newNode(label);
+        nextSibling[created] = child;
+        if (previous == NONE) {
+            firstChild[parent] = created;
+        } else {
+            nextSibling[previous] = created;
+        }
+        return created;
+    }
+
+    private int newNode(char label) {
+        if (nodeCount == labels.length) {
+            int capacity = nodeCount * 2;
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            firstValue = Arrays.copyOf(firstValue, capacity);
+        }
+        int node = nodeCount++;
+        labels[node] = label;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        firstValue[node] = NONE;
+        return node;
+    }
+
+    private int find(String key) {
+        int node = 0;
+        for (int i = 0; i < key.length() && node != NONE; i++) {
+            char c = key.charAt(i);
+            int child = firstChild[node];
+            while (child != NONE && labels[child] < c) {
+                child = nextSibling[child];
+            }
+            node = child != NONE && labels[child] == c ? child : NONE;
+        }
+        return node;
+    }
+
+    /**
+     * Ids of the keys starting with the prefix: shorter keys first, alphabetical within a length.
+     * Breadth-first, so the walk stops as soon as the limit is reached.
+     */
+    int[] prefix(String prefix, int limit) {
+        int start = find(prefix);
+        if (start == NONE || limit <= 0) return new int[0];
+        int[] result = new int[limit];
+        int found = 0;
+        int[] queue = new int[64];
+        int head = 0, tail = 0;
+        queue[tail++] = start;
+        while (head < tail && found < limit) {
+            int node = queue[head++];
+            for (int v = firstValue[node]; v != NONE && found < limit; v = valueNext[v]) {
+                found = addUnique(result, found, valueIds[v]);
+            }
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                if (tail == queue.length) {
+                    if (head > queue.length / 2) { // Reuse the consumed front of the queue
+                        System.arraycopy(queue, head, queue, 0, tail - head);
+                        tail -= head;
+                        head = 0;
+                    } else {
+                        queue = Arrays.copyOf(queue, queue.length * 2);
+                    }
+                }
+                queue[tail++] = child;
+            }
+        }
+        return Arrays.copyOf(result, found);
+    }
+
+    /**
+     * Ids of the keys within maxDistance edits (Levenshtein) of the query, closest first. Only keys
+     * with the query's first character are searched: typos there are rare, and the other first
+     * characters are most of the trie. Subtrees whose best possible distance already exceeds
+     * maxDistance are skipped.
+     */
+    int[] fuzzy(String query, int maxDistance, int limit) {
+        if (limit <= 0 || query.isEmpty()) return new int[0];
+        int columns = query.length() + 1;
+        int[][] rows = new int[maxDepth + 1][columns]; // One row per depth, reused
+        for (int i = 0; i < columns; i++) rows[0][i] = i;
+        FuzzyMatches matches = new FuzzyMatches(limit);
+        int first = find(query.substring(0, 1));
+        if (first != NONE) {
+            fuzzySearch(first, 1, query, rows, maxDistance, matches);
+        }
+        return matches.toIds();
+    }
+
+    private void fuzzySearch(int node, int depth, String query, int[][] rows, int maxDistance, FuzzyMatches matches) {
+        int[] previous = rows[depth - 1];
+        int[] current = rows[depth];
+        char label = labels[node];
+        current[0] = previous[0] + 1;
+        int rowMin = current[0];
+        for (int i = 1; i < current.length; i++) {
+            int insert = current[i - 1] + 1;
+            int delete = previous[i] + 1;
+            int replace = previous[i - 1] + (query.charAt(i - 1) == label ? 0 : 1);
+            current[i] = Math.min(Math.min(insert, delete), replace);
+            rowMin = Math.min(rowMin, current[i]);
+        }
+        int distance = current[current.length - 1];
+        if (distance <= maxDistance) {
+            int rank = FuzzyMatches.rank(distance, depth);
+            for (int v = firstValue[node]; v != NONE && matches.accepts(rank); v = valueNext[v]) {
+                matches.add(valueIds[v], rank);
+            }
+        }
+        if (rowMin <= maxDistance) {
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                fuzzySearch(child, depth + 1, query, rows, maxDistance, matches);
+            }
+        }
+    }
+
+    private static int addUnique(int[] result, int found, int id) {
+        for (int i = 0; i < found; i++) {
+            if (result[i] == id) return found;
+        }
+        result[found] = id;
+        return found + 1;
+    }
+
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+    // Keeps the best `limit` matches by (distance, key length); an id keeps its best match only.
+    private static final class FuzzyMatches {
+        private final int limit;
+        private final int[] ids;
+        private final int[] ranks;
+        private int size = 0;
+
+        FuzzyMatches(int limit) {
+            this.limit = limit;
+            this.ids = new int[limit];
+            this.ranks = new int[limit];
+        }
+
+        static int rank(int distance, int keyLength) {
+            return distance * 1024 + Math.min(keyLength, 1023);
+        }
+
+        // False once full with matches at least as close, so the rest of a long value list is skipped
+        boolean accepts(int rank) {
+            return size < limit || rank < ranks[size - 1];
+        }
+
+        void add(int id, int rank) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    if (rank < ranks[i]) {
+                        remove(i);
+                        break;
+                    }
+                    return;
+                }
+            }
+            if (size == limit && rank >= ranks[size - 1]) return;
+            int position = size == limit ? size - 1 : size++;
+            while (position > 0 && ranks[position - 1] > rank) { // Insertion sort, the array is tiny
+                ids[position] = ids[position - 1];
+                ranks[position] = ranks[position - 1];
+                position--;
+            }
+            ids[position] = id;
+            ranks[position] = rank;
+        }
+
+        private void remove(int index) {
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            System.arraycopy(ranks, index + 1, ranks, index, size - index - 1);
+            size--;
+        }
+
+        int[] toIds() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
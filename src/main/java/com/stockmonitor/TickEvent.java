@@ -0,0 +1,133 @@
+package com.stockmonitor;
+
+/**
+ * One price tick as it travels through the TickRingBuffer. Instances are preallocated and reused:
+ * each watcher fills its own event and the ring copies it into a slot, and each consumer copies a
+ * slot into its own event before handling it, so handlers may read the fields freely but must not
+ * keep the object. The indicators are carried as primitives, so a tick allocates nothing.
+ */
+public final class TickEvent implements IndicatorValues {
+
+    StockWatcherThread watcher; // Producer of the tick, for its alert rules and running state
+    String symbol;
+    long timestampMillis;
+    double open;
+    double high;
+    double low;
+    double close;              // The fetched price
+    double previousPrice;      // -1 for the first tick of a watcher
+    double sma = Double.NaN;   // Indicators after this tick, NaN while warming up
+    double ema = Double.NaN;
+    double rsi = Double.NaN;
+    double upperBand = Double.NaN;
+    double lowerBand = Double.NaN;
+    double percentChange = Double.NaN;
+    long indicatorSamples;
+    long tickNanos;            // System.nanoTime() when the price's HTTP response arrived
+    long publishedNanos;       // System.nanoTime() when the tick was published to the ring
+
+    void copyFrom(TickEvent other) {
+        watcher = other.watcher;
+        symbol = other.symbol;
+        timestampMillis = other.timestampMillis;
+        open = other.open;
+        high = other.high;
+        low = other.low;
+        close = other.close;
+        previousPrice = other.previousPrice;
+        sma = other.sma;
+        ema = other.ema;
+        rsi = other.rsi;
+        upperBand = other.upperBand;
+        lowerBand = other.lowerBand;
+        percentChange = other.percentChange;
+        indicatorSamples = other.indicatorSamples;
+        tickNanos = other.tickNanos;
+        publishedNanos = other.publishedNanos;
+    }
+
+    void clearIndicators() {
+        sma = Double.NaN;
+        ema = Double.NaN;
+        rsi = Double.NaN;
+        upperBand = Double.NaN;
+        lowerBand = Double.NaN;
+        percentChange = Double.NaN;
+        indicatorSamples = 0;
+    }
+
+    public StockWatcherThread getWatcher() {
+        return watcher;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public double getOpen() {
+        return open;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    public double getClose() {
+        return close;
+    }
+
+    public double getPreviousPrice() {
+        return previousPrice;
+    }
+
+    @Override
+    public double getSma() {
+        return sma;
+    }
+
+    @Override
+    public double getEma() {
+        return ema;
+    }
+
+    @Override
+    public double getRsi() {
+        return rsi;
+    }
+
+    @Override
+    public double getUpperBand() {
+        return upperBand;
+    }
+
+    @Override
+    public double getLowerBand() {
+        return lowerBand;
+    }
+
+    @Override
+    public double getPercentChange() {
+        return percentChange;
+    }
+
+    @Override
+    public long getSampleCount() {
+        return indicatorSamples;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+}
@@ -0,0 +1,24 @@
+package com.stockmonitor;
+
+/**
+ * Consumer of the TickRingBuffer. Each handler runs on its own thread and sees every tick in
+ * publication order, unless it fell a whole ring behind (see TickRingBuffer).
+ */
+public interface TickHandler {
+
+    /**
+     * Handles one tick. The event is the consumer's own copy and is reused for the next tick.
+     */
+    void onTick(TickEvent event) throws Exception;
+
+    /**
+     * Called after a batch of ticks was handled and before the consumer waits for more,
+     * e.g. to flush a writer once per batch instead of once per tick.
+     */
+    default void onBatchEnd() throws Exception {
+    }
+
+    // Called on the consumer thread when the ring shuts down
+    default void onShutdown() throws Exception {
+    }
+}
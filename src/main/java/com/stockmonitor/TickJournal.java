@@ -0,0 +1,99 @@
+package com.stockmonitor;
+
+import com.stockmonitor.logging.Log;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tick consumer that appends every tick to a CSV file
+ * (epochMillis,symbol,open,high,low,close,previousPrice), e.g. to replay or analyse a session.
+ * Lines are buffered and flushed once per batch of the ring, not per tick. A write error
+ * disables the journal; it never affects fetching or the other consumers.
+ */
+final class TickJournal implements TickHandler {
+
+    private static final Log LOG = Log.get(TickJournal.class);
+
+    private final File file;
+    private Writer writer; // Consumer thread only
+    private boolean failed;
+    private final StringBuilder line = new StringBuilder(128);
+
+    TickJournal(String path) {
+        this.file = new File(path);
+    }
+
+    @Override
+    public void onTick(TickEvent event) {
+        if (failed) {
+            return;
+        }
+        line.setLength(0);
+        line.append(event.timestampMillis).append(',').append(event.symbol)
+                .append(',').append(event.open).append(',').append(event.high)
+                .append(',').append(event.low).append(',').append(event.close)
+                .append(',').append(event.previousPrice).append('\n');
+        try {
+            if (writer == null) {
+                open();
+            }
+            writer.append(line);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onBatchEnd() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onShutdown() {
+        onBatchEnd();
+        close();
+    }
+
+    private void open() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create directory " + parent);
+        }
+        boolean newFile = !file.exists() || file.length() == 0;
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8), 64 * 1024);
+        if (newFile) {
+            writer.write("epochMillis,symbol,open,high,low,close,previousPrice\n");
+        }
+        LOG.info("Journaling ticks to {}", file);
+    }
+
+    private void fail(IOException e) {
+        failed = true;
+        close();
+        LOG.error("Tick journal {} disabled: {}", file, e.getMessage());
+    }
+
+    private void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // Already failing or shutting down
+            }
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.stockmonitor;
+
+import com.stockmonitor.listeners.GraphDataListener;
+import com.stockmonitor.listeners.QuoteListener;
+import com.stockmonitor.logging.Log;
+import com.stockmonitor.metrics.Metrics;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands ticks from the watchers to several independent consumers (charts, alerts, journal,
+ * metrics). The watchers claim a slot of a preallocated ring of TickEvents with an atomic
+ * increment, copy their tick into it and publish it, with no lock and no allocation. Every consumer runs on its
+ * own thread, keeps its own sequence and drains all published ticks as one batch before it waits.
+ *
+ * Producers never wait for consumers: a consumer that falls a whole ring behind skips to the
+ * oldest tick still in the ring and counts the ones it missed, so a slow consumer (e.g. the
+ * journal on a stalled disk) neither blocks fetching nor the other consumers. A slot is marked as
+ * being written while a producer fills it, and consumers copy the slot and check the marker
+ * afterwards, so a tick overwritten while it was read is counted as lost instead of handled torn.
+ * Only producers a whole ring apart ever meet on a slot; they take turns on the marker.
+ */
+public final class TickRingBuffer {
+
+    private static final Log LOG = Log.get(TickRingBuffer.class);
+
+    // -Dstockmonitor.tickRing.size=16384: ticks the ring holds, rounded up to a power of two
+    static final int DEFAULT_SIZE = Integer.getInteger("stockmonitor.tickRing.size", 16384);
+    // -Dstockmonitor.tickJournal.file=: CSV file every tick is appended to, empty for no journal
+    static final String JOURNAL_FILE = System.getProperty("stockmonitor.tickJournal.file", "");
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final TickEvent[] entries;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(); // Next sequence to claim
+    // Per slot: the sequence last published in it, or -(sequence + 1) while that sequence is written
+    private final AtomicLongArray published;
+    private final List<Consumer> consumers = new ArrayList<>();
+    private volatile Consumer[] consumerArray = new Consumer[0]; // Copy of consumers for publish(), which must not lock
+    private volatile boolean running = true;
+
+    public TickRingBuffer(int size) {
+        int capacity = Integer.highestOneBit(Math.max(16, size) - 1) << 1;
+        this.entries = new TickEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new TickEvent();
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, Long.MIN_VALUE); // Never published
+        }
+    }
+
+    /**
+     * Creates a ring with the application's consumers: charts (chart, indicators and watchlist),
+     * alerts (rule evaluation of the producing watcher), metrics, and the journal if
+     * -Dstockmonitor.tickJournal.file is set.
+     */
+    public static TickRingBuffer createDefault(GraphDataListener graphDataListener, QuoteListener quoteListener) {
+        TickRingBuffer ring = new TickRingBuffer(DEFAULT_SIZE);
+        ring.addConsumer("charts", _e -> {
+            if (!_e.watcher.isRunning()) {
+                return; // Stopped after publishing; its chart was already cleared
+            }
+            graphDataListener.onOHLCDataUpdate(_e.symbol, _e.timestampMillis, _e.open, _e.high, _e.low, _e.close, _e.tickNanos);
+            quoteListener.onQuote(_e.symbol, _e.close, _e.timestampMillis);
+            graphDataListener.onIndicatorUpdate(_e.symbol, _e.timestampMillis, _e);
+        });
+        ring.addConsumer("alerts", _e -> _e.watcher.checkAlerts(_e));
+        ring.addConsumer("metrics", _e -> {
+            Metrics.increment(Metrics.TICKS);
+            Metrics.TICK_RING.recordSince(_e.publishedNanos);
+        });
+        if (!JOURNAL_FILE.trim().isEmpty()) {
+            ring.addConsumer("journal", new TickJournal(JOURNAL_FILE.trim()));
+        }
+        return ring;
+    }
+
+    /**
+     * Adds a consumer and starts its thread; it sees the ticks published from now on.
+     */
+    public synchronized Consumer addConsumer(String name, TickHandler handler) {
+        Consumer consumer = new Consumer(name, handler, claimed.get());
+        consumers.add(consumer);
+        consumerArray = consumers.toArray(new Consumer[0]);
+        consumer.thread.start();
+        return consumer;
+    }
+
+    public synchronized List<Consumer> getConsumers() {
+        return Collections.unmodifiableList(new ArrayList<>(consumers));
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    // Ticks published so far
+    public long getPublishedCount() {
+        return claimed.get();
+    }
+
+    /**
+     * Publishes one tick by copying it into a slot; the caller may reuse the event right away.
+     * Called by the watchers on their pool threads; never waits for a consumer.
+     */
+    void publish(TickEvent tick) {
+        long sequence = claimed.getAndIncrement();
+        int index = (int) (sequence & mask);
+        if (!markWriting(index, sequence)) {
+            return; // A producer a whole ring later already owns the slot; consumers count this tick as lost
+        }
+        VarHandle.storeStoreFence(); // Keeps the field writes below after the marker
+        TickEvent event = entries[index];
+        event.copyFrom(tick);
+        event.publishedNanos = System.nanoTime();
+        published.set(index, sequence); // Volatile write, makes the fields above visible to the consumers
+        for (Consumer consumer : consumerArray) {
+            if (consumer.waiting) {
+                LockSupport.unpark(consumer.thread);
+            }
+        }
+    }
+
+    // Replaces the slot's older sequence with the writing marker; consumers reading the slot now retry or count it as lost
+    private boolean markWriting(int index, long sequence) {
+        while (true) {
+            long state = published.get(index);
+            if (isWriting(state)) {
+                Thread.onSpinWait(); // Another producer is filling the slot, which takes nanoseconds
+            } else if (state > sequence) {
+                return false;
+            } else if (published.compareAndSet(index, state, -sequence - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean isWriting(long state) {
+        return state < 0 && state != Long.MIN_VALUE;
+    }
+
+    /**
+     * Stops the consumers after they drained the published ticks, waiting at most timeoutMillis.
+     */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (Consumer consumer : getConsumers()) {
+            LockSupport.unpark(consumer.thread);
+            try {
+                consumer.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * One consumer: its handler, thread and sequence. Lag and lost ticks are exposed as metrics.
+     */
+    public final class Consumer {
+        private final String name;
+        private final TickHandler handler;
+        private final Thread thread;
+        private final TickEvent event = new TickEvent(); // The consumer's copy of the current slot
+        private volatile long sequence; // Next sequence this consumer handles
+        private volatile boolean waiting;
+        private final AtomicLong lostCount = new AtomicLong();
+        private final AtomicLong failedCount = new AtomicLong();
+
+        private Consumer(String name, TickHandler handler, long firstSequence) {
+            this.name = name;
+            this.handler = handler;
+            this.sequence = firstSequence;
+            this.thread = new Thread(this::runLoop, "TickConsumer-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // Ticks published but not yet handled by this consumer
+        public long getLag() {
+            return Math.max(0, claimed.get() - sequence);
+        }
+
+        // Ticks this consumer skipped because it fell a whole ring behind
+        public long getLostCount() {
+            return lostCount.get();
+        }
+
+        // Ticks whose handler threw
+        public long getFailedCount() {
+            return failedCount.get();
+        }
+
+        private void runLoop() {
+            long next = sequence;
+            while (true) {
+                long end = claimed.get();
+                if (end - next > entries.length) {
+                    long oldest = end - entries.length;
+                    lostCount.addAndGet(oldest - next);
+                    next = oldest;
+                    sequence = next;
+                }
+                int handled = 0;
+                while (next < end) {
+                    int index = (int) (next & mask);
+                    long state = published.get(index);
+                    if (state == next) {
+                        event.copyFrom(entries[index]);
+                        VarHandle.loadLoadFence(); // Keeps the copy above before the re-check
+                        if (published.get(index) == next) {
+                            handle();
+                            handled++;
+                        } else {
+                            lostCount.incrementAndGet(); // Overwritten while copying
+                        }
+                    } else if (isWriting(state) ? -state - 1 > next : state > next) {
+                        lostCount.incrementAndGet(); // Already overwritten by a later lap
+                    } else {
+                        break; // Claimed but not yet published; wait for it below
+                    }
+                    next++;
+                    sequence = next;
+                }
+                if (handled > 0) {
+                    try {
+                        handler.onBatchEnd();
+                    } catch (Exception e) {
+                        LOG.warn("Tick consumer {} failed at the end of a batch: {}", name, e.getMessage());
+                    }
+                }
+                if (next < end) {
+                    Thread.yield(); // A producer is between claim and publish, which is short
+                    continue;
+                }
+                if (!running) {
+                    if (claimed.get() == next) {
+                        break; // Drained everything published before the shutdown
+                    }
+                    continue;
+                }
+                waiting = true;
+                if (claimed.get() == next && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                waiting = false;
+            }
+            try {
+                handler.onShutdown();
+            } catch (Exception e) {
+                LOG.warn("Tick consumer {} failed to shut down: {}", name, e.getMessage());
+            }
+        }
+
+        private void handle() {
+            try {
+                handler.onTick(event);
+            } catch (Exception e) {
+                // One bad tick must not stop the consumer
+                if (failedCount.getAndIncrement() == 0 || LOG.isDebugEnabled()) {
+                    LOG.error("Tick consumer " + name + " failed for " + event.symbol, e);
+                }
+            } finally {
+                event.watcher = null;
+            }
+        }
+    }
+}
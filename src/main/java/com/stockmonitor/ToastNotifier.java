@@ -0,0 +1,244 @@
+package com.stockmonitor;
+
+import javax.swing.BorderFactory;
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JLayeredPane;
+import javax.swing.JPanel;
+import javax.swing.Timer;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-modal toast notifications in the top-right corner of the main window.
+ * There is at most one toast per symbol: a new alert for a symbol that already has a toast
+ * updates its text and repeat count instead of stacking another one. Toasts dismiss themselves
+ * after a timeout or on click. show() is thread-safe; pending alerts are applied on the EDT
+ * once per frame, so a burst of alerts never blocks rendering the way a modal dialog did.
+ */
+public class ToastNotifier {
+
+    // -Dstockmonitor.toast.dismissMs=8000 -Dstockmonitor.toast.maxVisible=5
+    public static final int DEFAULT_DISMISS_MS = Integer.getInteger("stockmonitor.toast.dismissMs", 8000);
+    public static final int DEFAULT_MAX_VISIBLE = Integer.getInteger("stockmonitor.toast.maxVisible", 5);
+    private static final int FLUSH_INTERVAL_MS = 50;
+    private static final int SWEEP_INTERVAL_MS = 500;
+    private static final int TOAST_WIDTH = 360;
+    private static final int MARGIN = 12;
+
+    private final JLayeredPane layeredPane;
+    private final JPanel toastStack;
+    private final int dismissMs;
+    private final int maxVisible;
+
+    // Latest pending alert and number of alerts received per symbol since the last flush
+    private final Map<String, AlertEvent> pendingAlerts = new ConcurrentHashMap<>();
+    private final Map<String, Integer> pendingCounts = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Timer flushTimer;
+    private final Timer sweepTimer;
+
+    // Visible toasts by symbol, in creation order (EDT only)
+    private final LinkedHashMap<String, Toast> visibleToasts = new LinkedHashMap<>();
+
+    public ToastNotifier(JFrame owner) {
+        this(owner, DEFAULT_DISMISS_MS, DEFAULT_MAX_VISIBLE);
+    }
+
+    public ToastNotifier(JFrame owner, int dismissMs, int maxVisible) {
+        this.layeredPane = owner.getLayeredPane();
+        this.dismissMs = dismissMs;
+        this.maxVisible = Math.max(1, maxVisible);
+
+        toastStack = new JPanel();
+        toastStack.setLayout(new BoxLayout(toastStack, BoxLayout.Y_AXIS));
+        toastStack.setOpaque(false);
+        layeredPane.add(toastStack, JLayeredPane.POPUP_LAYER);
+        layeredPane.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                relayout();
+            }
+        });
+
+        flushTimer = new Timer(FLUSH_INTERVAL_MS, _e -> flushPending());
+        flushTimer.setRepeats(false);
+        flushTimer.setCoalesce(false);
+        sweepTimer = new Timer(SWEEP_INTERVAL_MS, _e -> dismissExpired());
+        System.out.println("[ToastNotifier] [Thread: " + Thread.currentThread().getName() + "] Instance created. Dismiss after: " + dismissMs + "ms, max visible: " + this.maxVisible + ".");
+    }
+
+    /**
+     * Shows (or updates) the toast for the alert's symbol. Thread-safe and non-blocking.
+     */
+    public void show(AlertEvent alert) {
+        if (alert == null) return;
+        pendingAlerts.put(alert.getSymbol(), alert);
+        pendingCounts.merge(alert.getSymbol(), 1, Integer::sum);
+        if (flushScheduled.compareAndSet(false, true)) {
+            flushTimer.restart();
+        }
+    }
+
+    // Runs on the EDT (Swing timer).
+    private void flushPending() {
+        flushScheduled.set(false);
+        long now = System.currentTimeMillis();
+        for (Iterator<Map.Entry<String, AlertEvent>> it = pendingAlerts.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, AlertEvent> entry = it.next();
+            it.remove();
+            String symbol = entry.getKey();
+            Integer received = pendingCounts.remove(symbol);
+            int count = received != null ? received : 1;
+
+            Toast toast = visibleToasts.get(symbol);
+            if (toast == null) {
+                toast = new Toast(symbol);
+                visibleToasts.put(symbol, toast);
+                toastStack.add(toast);
+                toastStack.add(Box.createVerticalStrut(6));
+            }
+            toast.update(entry.getValue(), count, now + dismissMs);
+        }
+        // Collapse the oldest toasts when more symbols alert at once than fit on screen
+        while (visibleToasts.size() > maxVisible) {
+            Iterator<Toast> oldest = visibleToasts.values().iterator();
+            removeToast(oldest.next());
+        }
+        if (!visibleToasts.isEmpty() && !sweepTimer.isRunning()) {
+            sweepTimer.start();
+        }
+        relayout();
+    }
+
+    private void dismissExpired() {
+        long now = System.currentTimeMillis();
+        boolean changed = false;
+        for (Iterator<Toast> it = visibleToasts.values().iterator(); it.hasNext(); ) {
+            Toast toast = it.next();
+            if (toast.expiresAtMillis <= now) {
+                it.remove();
+                removeFromStack(toast);
+                changed = true;
+            }
+        }
+        if (visibleToasts.isEmpty()) {
+            sweepTimer.stop();
+        }
+        if (changed) {
+            relayout();
+        }
+    }
+
+    private void removeToast(Toast toast) {
+        visibleToasts.remove(toast.symbol);
+        removeFromStack(toast);
+    }
+
+    private void removeFromStack(Toast toast) {
+        int index = indexInStack(toast);
+        if (index >= 0) {
+            toastStack.remove(index); // The toast
+            if (index < toastStack.getComponentCount()) {
+                toastStack.remove(index); // Its spacer
+            }
+        }
+    }
+
+    private int indexInStack(Toast toast) {
+        for (int i = 0; i < toastStack.getComponentCount(); i++) {
+            if (toastStack.getComponent(i) == toast) return i;
+        }
+        return -1;
+    }
+
+    private void relayout() {
+        Dimension preferred = toastStack.getPreferredSize();
+        int x = Math.max(0, layeredPane.getWidth() - TOAST_WIDTH - MARGIN);
+        toastStack.setBounds(x, MARGIN, TOAST_WIDTH, preferred.height);
+        toastStack.revalidate();
+        toastStack.repaint();
+    }
+
+    public void dismissAll() {
+        pendingAlerts.clear();
+        pendingCounts.clear();
+        visibleToasts.clear();
+        toastStack.removeAll();
+        sweepTimer.stop();
+        relayout();
+    }
+
+    // A single toast panel. Only touched on the EDT.
+    private final class Toast extends JPanel {
+        private final String symbol;
+        private final JLabel titleLabel = new JLabel();
+        private final JLabel messageLabel = new JLabel();
+        private int totalCount = 0;
+        private long expiresAtMillis;
+
+        Toast(String symbol) {
+            super(new BorderLayout(6, 2));
+            this.symbol = symbol;
+            setBackground(new Color(40, 40, 40)); // Border and accent color are set in update()
+            titleLabel.setFont(titleLabel.getFont().deriveFont(Font.BOLD));
+            messageLabel.setForeground(Color.WHITE);
+
+            JButton closeButton = new JButton("x");
+            closeButton.setMargin(new java.awt.Insets(0, 4, 0, 4));
+            closeButton.setFocusable(false);
+            closeButton.addActionListener(_e -> {
+                removeToast(this);
+                relayout();
+            });
+
+            JPanel header = new JPanel(new BorderLayout());
+            header.setOpaque(false);
+            header.add(titleLabel, BorderLayout.CENTER);
+            header.add(closeButton, BorderLayout.EAST);
+            add(header, BorderLayout.NORTH);
+            add(messageLabel, BorderLayout.CENTER);
+
+            addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    removeToast(Toast.this);
+                    relayout();
+                }
+            });
+        }
+
+        void update(AlertEvent alert, int newAlerts, long expiresAtMillis) {
+            totalCount += newAlerts;
+            this.expiresAtMillis = expiresAtMillis;
+            boolean error = alert.getType() == AlertEvent.Type.FETCH_ERROR;
+            Color accent = error ? new Color(220, 80, 80) : Color.ORANGE;
+            setBorder(BorderFactory.createCompoundBorder(
+                    BorderFactory.createLineBorder(accent, 2),
+                    BorderFactory.createEmptyBorder(6, 8, 6, 8)));
+            titleLabel.setForeground(accent);
+            titleLabel.setText(symbol + (error ? " - Error" : " - Alert") + (totalCount > 1 ? "  (x" + totalCount + ")" : ""));
+            // HTML lets long messages wrap inside the fixed toast width
+            messageLabel.setText("<html><body style='width:" + (TOAST_WIDTH - 40) + "px'>" + escapeHtml(alert.getMessage()) + "</body></html>");
+            setMaximumSize(new Dimension(TOAST_WIDTH, getPreferredSize().height));
+        }
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
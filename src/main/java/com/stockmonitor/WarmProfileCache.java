@@ -0,0 +1,97 @@
+package com.stockmonitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paused watchers of recently used profiles. A watcher parked here does not poll, but keeps its
+ * chart buffer, indicator windows and rule state, so switching back to the profile shows the
+ * history at once instead of starting from an empty chart. Only the most recently used profiles
+ * are kept (LRU); the watchers of an evicted profile are returned to the caller to be discarded.
+ * Not thread-safe; MainController guards it with its watcher lock.
+ */
+final class WarmProfileCache {
+
+    // -Dstockmonitor.profiles.warmCount=3: inactive profiles whose data is kept
+    static final int DEFAULT_CAPACITY = Math.max(0, Integer.getInteger("stockmonitor.profiles.warmCount", 3));
+
+    private final int capacity;
+    private final LinkedHashMap<String, Map<String, StockWatcherThread>> profiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    WarmProfileCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Parks paused watchers (by symbol) under the profile and makes it the most recently used one.
+     * Returns the watchers of the profiles evicted beyond the capacity.
+     */
+    List<StockWatcherThread> park(String profile, Map<String, StockWatcherThread> watchers) {
+        List<StockWatcherThread> evicted = new ArrayList<>();
+        if (watchers.isEmpty()) {
+            return evicted;
+        }
+        profiles.computeIfAbsent(profile, _p -> new HashMap<>()).putAll(watchers);
+        Iterator<Map<String, StockWatcherThread>> eldest = profiles.values().iterator();
+        while (profiles.size() > capacity && eldest.hasNext()) {
+            evicted.addAll(eldest.next().values());
+            eldest.remove();
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes and returns the parked watcher of the symbol, preferring the given profile's; null if none is parked.
+     */
+    StockWatcherThread take(String profile, String symbol) {
+        Map<String, StockWatcherThread> preferred = profiles.get(profile);
+        if (preferred != null && preferred.containsKey(symbol)) {
+            return removeFrom(profile, preferred, symbol);
+        }
+        for (Map.Entry<String, Map<String, StockWatcherThread>> entry : new ArrayList<>(profiles.entrySet())) {
+            if (entry.getValue().containsKey(symbol)) {
+                return removeFrom(entry.getKey(), entry.getValue(), symbol);
+            }
+        }
+        return null;
+    }
+
+    private StockWatcherThread removeFrom(String profile, Map<String, StockWatcherThread> watchers, String symbol) {
+        StockWatcherThread watcher = watchers.remove(symbol);
+        if (watchers.isEmpty()) {
+            profiles.remove(profile);
+        }
+        return watcher;
+    }
+
+    // Drops a deleted profile; its watchers are returned to be discarded
+    List<StockWatcherThread> remove(String profile) {
+        Map<String, StockWatcherThread> watchers = profiles.remove(profile);
+        return watchers == null ? new ArrayList<>() : new ArrayList<>(watchers.values());
+    }
+
+    List<StockWatcherThread> clear() {
+        List<StockWatcherThread> all = new ArrayList<>();
+        for (Map<String, StockWatcherThread> watchers : profiles.values()) {
+            all.addAll(watchers.values());
+        }
+        profiles.clear();
+        return all;
+    }
+
+    int getProfileCount() {
+        return profiles.size();
+    }
+
+    int getWatcherCount() {
+        int count = 0;
+        for (Map<String, StockWatcherThread> watchers : profiles.values()) {
+            count += watchers.size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,143 @@
+package com.stockmonitor;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A parsed watchlist file (-Dstockmonitor.watchlist.file), for watchlists too large for the
+ * symbol rows. Version 1 format:
+ * <pre>
+ * {
+ *   "version": 1,
+ *   "symbols": [
+ *     "MSFT",
+ *     {"symbol": "AAPL", "priority": "high", "rules": ["Price &gt; Value@200", {"condition": "RSI &gt; Value", "value": 70}]}
+ *   ],
+ *   "sinks": [{"type": "webhook", "target": "https://example.com/hook"}]
+ * }
+ * </pre>
+ * Rules use the "Condition@Value" format of the symbol rows; priority is high, normal (default) or low.
+ * Immutable; a reload parses a new instance and MainController applies the difference.
+ */
+final class WatchlistFile {
+
+    static final int CURRENT_VERSION = 1;
+
+    private final int version;
+    private final Map<String, StockConfig> symbols; // By uppercase symbol, in file order
+    private final Map<String, SinkConfig> sinks;    // By SinkConfig.key()
+
+    private WatchlistFile(int version, Map<String, StockConfig> symbols, Map<String, SinkConfig> sinks) {
+        this.version = version;
+        this.symbols = Collections.unmodifiableMap(symbols);
+        this.sinks = Collections.unmodifiableMap(sinks);
+    }
+
+    static WatchlistFile load(File file) throws IOException {
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        try {
+            return parse(content);
+        } catch (JSONException e) {
+            throw new IOException("Invalid watchlist file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    static WatchlistFile parse(String content) throws IOException {
+        JSONObject root = new JSONObject(content);
+        int version = root.optInt("version", CURRENT_VERSION);
+        if (version > CURRENT_VERSION) {
+            throw new IOException("Unsupported watchlist file version " + version + " (supported: " + CURRENT_VERSION + ")");
+        }
+        Map<String, StockConfig> symbols = new LinkedHashMap<>();
+        JSONArray symbolArray = root.optJSONArray("symbols");
+        for (int i = 0; symbolArray != null && i < symbolArray.length(); i++) {
+            StockConfig config = parseSymbol(symbolArray.get(i), i);
+            if (symbols.putIfAbsent(config.getSymbol(), config) != null) {
+                System.err.println("[WatchlistFile] [Thread: " + Thread.currentThread().getName() + "] Duplicate symbol " + config.getSymbol() + " at symbols[" + i + "] ignored.");
+            }
+        }
+        Map<String, SinkConfig> sinks = new LinkedHashMap<>();
+        JSONArray sinkArray = root.optJSONArray("sinks");
+        for (int i = 0; sinkArray != null && i < sinkArray.length(); i++) {
+            JSONObject item = sinkArray.getJSONObject(i);
+            SinkConfig sink = new SinkConfig(item.getString("type").trim().toLowerCase(), item.getString("target").trim());
+            sinks.putIfAbsent(sink.key(), sink);
+        }
+        return new WatchlistFile(version, symbols, sinks);
+    }
+
+    // A plain string is a symbol without rules
+    private static StockConfig parseSymbol(Object item, int index) throws IOException {
+        if (item instanceof String) {
+            return new StockConfig(checkedSymbol((String) item, index), Collections.emptyList(), PollPriority.NORMAL);
+        }
+        if (!(item instanceof JSONObject)) {
+            throw new IOException("symbols[" + index + "] must be a string or an object");
+        }
+        JSONObject object = (JSONObject) item;
+        String symbol = checkedSymbol(object.optString("symbol", ""), index);
+        String priorityName = object.optString("priority", PollPriority.NORMAL.name());
+        PollPriority priority = PollPriority.fromName(priorityName, null);
+        if (priority == null) {
+            throw new IOException("symbols[" + index + "] (" + symbol + "): unknown priority " + priorityName);
+        }
+        List<String> rules = new ArrayList<>();
+        JSONArray ruleArray = object.optJSONArray("rules");
+        for (int r = 0; ruleArray != null && r < ruleArray.length(); r++) {
+            Object rule = ruleArray.get(r);
+            if (rule instanceof JSONObject) {
+                JSONObject ruleObject = (JSONObject) rule;
+                Object value = ruleObject.opt("value"); // Indicator conditions have no value
+                rules.add(ruleObject.getString("condition") + "@" + (value != null ? value.toString() : ""));
+            } else {
+                rules.add(rule.toString());
+            }
+        }
+        return new StockConfig(symbol, rules, priority);
+    }
+
+    private static String checkedSymbol(String symbol, int index) throws IOException {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            throw new IOException("symbols[" + index + "] has no symbol");
+        }
+        return symbol.trim().toUpperCase();
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    Map<String, StockConfig> getSymbols() {
+        return symbols;
+    }
+
+    Map<String, SinkConfig> getSinks() {
+        return sinks;
+    }
+
+    // One "sinks" entry, created with AlertSinkFactory
+    static final class SinkConfig {
+        final String type;
+        final String target;
+
+        SinkConfig(String type, String target) {
+            this.type = type;
+            this.target = target;
+        }
+
+        String key() {
+            return type + ":" + target;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.stockmonitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reloads the watchlist file when it changes. The file's directory is watched with a WatchService
+ * (editors often save by writing a new file and renaming it), events are debounced, and each
+ * successfully parsed version is handed to the listener on the watcher thread. A file that does
+ * not parse is reported and ignored, so the running watchlist stays as it was.
+ */
+final class WatchlistFileWatcher {
+
+    // -Dstockmonitor.watchlist.reloadDelayMs=250: quiet time after the last change before reloading
+    static final long RELOAD_DELAY_MS = Long.getLong("stockmonitor.watchlist.reloadDelayMs", 250L);
+
+    private final File file;
+    private final Consumer<WatchlistFile> listener;
+    private WatchService watchService;
+    private Thread thread;
+    private volatile boolean running = false;
+
+    WatchlistFileWatcher(File file, Consumer<WatchlistFile> listener) {
+        this.file = file.getAbsoluteFile();
+        this.listener = listener;
+    }
+
+    /**
+     * Loads and applies the file on the watcher thread, then applies every saved change.
+     * A missing or invalid file is reported and picked up as soon as a valid version is saved.
+     */
+    synchronized void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        file.getParentFile().toPath().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        running = true;
+        thread = new Thread(this::watchLoop, "WatchlistFileWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    synchronized void stop() {
+        running = false;
+        if (watchService != null) {
+            try {
+                watchService.close(); // Wakes the watcher thread
+            } catch (IOException e) {
+                System.err.println("[WatchlistFileWatcher] [Thread: " + Thread.currentThread().getName() + "] Error closing watch service: " + e.getMessage());
+            }
+        }
+    }
+
+    private WatchlistFile load() throws IOException {
+        long start = System.nanoTime();
+        WatchlistFile watchlist = WatchlistFile.load(file);
+        System.out.println("[WatchlistFileWatcher] [Thread: " + Thread.currentThread().getName() + "] Loaded " + watchlist.getSymbols().size() + " symbols and " + watchlist.getSinks().size() + " sinks from " + file + " in " + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) + "us.");
+        return watchlist;
+    }
+
+    private void watchLoop() {
+        Path fileName = file.toPath().getFileName();
+        if (file.isFile()) {
+            reload();
+        } else {
+            System.err.println("[WatchlistFileWatcher] [Thread: " + Thread.currentThread().getName() + "] Watchlist file " + file + " does not exist yet, waiting for it.");
+        }
+        try {
+            while (running) {
+                WatchKey key = watchService.take();
+                boolean changed = consume(key, fileName);
+                // Saving can produce several events; wait until the file has been quiet for a moment
+                while (running) {
+                    WatchKey next = watchService.poll(RELOAD_DELAY_MS, TimeUnit.MILLISECONDS);
+                    if (next == null) break;
+                    changed |= consume(next, fileName);
+                }
+                if (changed && running) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // stop() was called
+        }
+        System.out.println("[WatchlistFileWatcher] [Thread: " + Thread.currentThread().getName() + "] Stopped watching " + file + ".");
+    }
+
+    private static boolean consume(WatchKey key, Path fileName) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void reload() {
+        if (!file.isFile()) {
+            return; // Deleted or being replaced; the next event reloads it
+        }
+        try {
+            listener.accept(load());
+        } catch (IOException e) {
+            System.err.println("[WatchlistFileWatcher] [Thread: " + Thread.currentThread().getName() + "] Watchlist file not applied, keeping the current watchlist: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("[WatchlistFileWatcher] [Thread: " + Thread.currentThread().getName() + "] Error applying watchlist file: " + e);
+        }
+    }
+
+    File getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,321 @@
+package com.stockmonitor;
+
+import com.stockmonitor.listeners.QuoteListener;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Table model of the watchlist: last price, change, % change, update age and alert status per symbol.
+ * onQuote() and onAlert() can be called from any thread at any rate. They only store the latest
+ * value in the symbol's row and queue the row once; a Swing timer applies all queued rows per
+ * flush and fires one cell update per cell whose value actually changed, so the table repaints
+ * single cells instead of refreshing. Change is measured against the first price of the session.
+ */
+public class WatchlistTableModel extends AbstractTableModel implements QuoteListener {
+
+    // -Dstockmonitor.watchlist.flushIntervalMs=50
+    public static final int DEFAULT_FLUSH_INTERVAL_MS = Integer.getInteger("stockmonitor.watchlist.flushIntervalMs", 50);
+    private static final int AGE_REFRESH_MS = 1000;
+
+    public static final int COLUMN_SYMBOL = 0;
+    public static final int COLUMN_LAST = 1;
+    public static final int COLUMN_CHANGE = 2;
+    public static final int COLUMN_CHANGE_PERCENT = 3;
+    public static final int COLUMN_AGE = 4;
+    public static final int COLUMN_ALERT = 5;
+    private static final String[] COLUMN_NAMES = {"Symbol", "Last", "Change", "% Change", "Updated", "Alert"};
+
+    private final Map<String, Row> rowsBySymbol = new ConcurrentHashMap<>();
+    private final List<Row> rows = new ArrayList<>(); // EDT only, in insertion order; row.index is the position
+    private final ConcurrentLinkedQueue<Row> dirtyRows = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Timer flushTimer;
+    private final Timer ageTimer;
+
+    private final AtomicLong quotesReceived = new AtomicLong();
+    private long rowsFlushed = 0;  // EDT only
+    private long cellsUpdated = 0; // EDT only
+
+    public WatchlistTableModel() {
+        this(DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    public WatchlistTableModel(int flushIntervalMs) {
+        // One-shot timer, started by the first update after a flush
+        flushTimer = new Timer(Math.max(1, flushIntervalMs), _e -> flushDirtyRows());
+        flushTimer.setRepeats(false);
+        flushTimer.setCoalesce(false); // A restart while the previous flush still runs must not be coalesced away
+        // Ages advance without updates; one column event per second, JTable repaints only the visible cells
+        ageTimer = new Timer(AGE_REFRESH_MS, _e -> {
+            if (!rows.isEmpty()) {
+                fireTableChanged(new TableModelEvent(this, 0, rows.size() - 1, COLUMN_AGE));
+            }
+        });
+        ageTimer.start();
+        System.out.println("[WatchlistTableModel] [Thread: " + Thread.currentThread().getName() + "] Instance created. Flush interval: " + flushIntervalMs + "ms.");
+    }
+
+    /**
+     * Stores the latest price of the symbol. Thread-safe and non-blocking apart from a per-row lock.
+     */
+    @Override
+    public void onQuote(String symbol, double price, long timestampMillis) {
+        if (symbol == null || Double.isNaN(price) || price == -1) return;
+        quotesReceived.incrementAndGet();
+        Row row = rowFor(symbol);
+        synchronized (row) {
+            row.pendingPrice = price;
+            row.pendingMillis = timestampMillis;
+        }
+        markDirty(row);
+    }
+
+    /**
+     * Shows the alert in the symbol's Alert column. Thread-safe.
+     */
+    public void onAlert(AlertEvent alert) {
+        String status = alert.getType() == AlertEvent.Type.FETCH_ERROR
+                ? "Fetch error"
+                : alert.getSeverity() + ": " + alert.getCondition().getDisplayName();
+        Row row = rowFor(alert.getSymbol());
+        synchronized (row) {
+            row.pendingAlert = status;
+        }
+        markDirty(row);
+    }
+
+    private Row rowFor(String symbol) {
+        return rowsBySymbol.computeIfAbsent(symbol.toUpperCase(), Row::new);
+    }
+
+    private void markDirty(Row row) {
+        if (row.queued.compareAndSet(false, true)) { // Queued once until the next flush, however many updates
+            dirtyRows.offer(row);
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            flushTimer.restart(); // javax.swing.Timer can be started from any thread
+        }
+    }
+
+    // Runs on the EDT (Swing timer).
+    private void flushDirtyRows() {
+        flushScheduled.set(false); // Updates from now on schedule another flush
+        long now = System.currentTimeMillis();
+        int firstNewRow = rows.size();
+        Row row;
+        while ((row = dirtyRows.poll()) != null) {
+            row.queued.set(false);
+            if (row.removed) {
+                continue; // Removed before its first flush, or its deletion is already queued
+            }
+            double price;
+            long millis;
+            String alert;
+            synchronized (row) {
+                price = row.pendingPrice;
+                millis = row.pendingMillis;
+                alert = row.pendingAlert;
+            }
+            rowsFlushed++;
+            if (row.index < 0) { // First update of the symbol, the insert event repaints the whole row
+                row.index = rows.size();
+                rows.add(row);
+                row.apply(price, millis, alert);
+                continue;
+            }
+            int index = row.index;
+            if (index >= firstNewRow) {
+                row.apply(price, millis, alert); // Inserted in this flush, not visible yet
+                continue;
+            }
+            double oldLast = row.last;
+            double oldChange = row.change;
+            long oldAgeSeconds = row.ageSeconds(now);
+            String oldAlert = row.alert;
+            row.apply(price, millis, alert);
+            if (Double.compare(oldLast, row.last) != 0) fireCell(index, COLUMN_LAST);
+            if (Double.compare(oldChange, row.change) != 0) {
+                fireCell(index, COLUMN_CHANGE);
+                fireCell(index, COLUMN_CHANGE_PERCENT);
+            }
+            if (oldAgeSeconds != row.ageSeconds(now)) fireCell(index, COLUMN_AGE);
+            if (oldAlert != row.alert) fireCell(index, COLUMN_ALERT); // Same string instance when unchanged
+        }
+        if (rows.size() > firstNewRow) {
+            fireTableRowsInserted(firstNewRow, rows.size() - 1);
+        }
+    }
+
+    /**
+     * Removes the symbol's row, e.g. when its watcher stopped. Thread-safe; the row is deleted on the EDT.
+     */
+    public void removeSymbol(String symbol) {
+        if (symbol == null) return;
+        Row row = rowsBySymbol.remove(symbol.toUpperCase());
+        if (row == null) return;
+        row.removed = true; // Pending updates of the row are skipped from now on
+        if (SwingUtilities.isEventDispatchThread()) {
+            removeRow(row);
+        } else {
+            SwingUtilities.invokeLater(() -> removeRow(row));
+        }
+    }
+
+    // EDT only
+    private void removeRow(Row row) {
+        int index = row.index;
+        if (index < 0) {
+            return; // Never shown
+        }
+        rows.remove(index);
+        for (int i = index; i < rows.size(); i++) {
+            rows.get(i).index = i; // Later rows move up
+        }
+        row.index = -1;
+        fireTableRowsDeleted(index, index);
+    }
+
+    private void fireCell(int rowIndex, int column) {
+        cellsUpdated++;
+        fireTableCellUpdated(rowIndex, column);
+    }
+
+    /**
+     * Stops the age refresh timer. The model keeps its data.
+     */
+    public void dispose() {
+        ageTimer.stop();
+        flushTimer.stop();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        switch (column) {
+            case COLUMN_LAST:
+            case COLUMN_CHANGE:
+            case COLUMN_CHANGE_PERCENT:
+                return Double.class;
+            case COLUMN_AGE:
+                return Long.class;
+            default:
+                return String.class;
+        }
+    }
+
+    // Called by the JTable for visible cells only (EDT).
+    @Override
+    public Object getValueAt(int rowIndex, int column) {
+        Row row = rows.get(rowIndex);
+        switch (column) {
+            case COLUMN_SYMBOL:
+                return row.symbol;
+            case COLUMN_LAST:
+                return row.last;
+            case COLUMN_CHANGE:
+                return row.change;
+            case COLUMN_CHANGE_PERCENT:
+                return row.changePercent();
+            case COLUMN_AGE:
+                return row.ageSeconds(System.currentTimeMillis()); // Seconds since the last update
+            case COLUMN_ALERT:
+                return row.alert;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Latest price of the symbol if it is at most maxAgeMillis old, otherwise NaN. Thread-safe.
+     */
+    public double getRecentPrice(String symbol, long maxAgeMillis) {
+        Row row = symbol == null ? null : rowsBySymbol.get(symbol.toUpperCase());
+        if (row == null) return Double.NaN;
+        synchronized (row) {
+            return System.currentTimeMillis() - row.pendingMillis <= maxAgeMillis ? row.pendingPrice : Double.NaN;
+        }
+    }
+
+    public int getSymbolCount() {
+        return rowsBySymbol.size();
+    }
+
+    public long getQuotesReceived() {
+        return quotesReceived.get();
+    }
+
+    // Rows applied on the EDT; lower than getQuotesReceived() by the number of coalesced quotes.
+    public long getRowsFlushed() {
+        return rowsFlushed;
+    }
+
+    public long getCellsUpdated() {
+        return cellsUpdated;
+    }
+
+    private static final class Row {
+        final String symbol;
+        final AtomicBoolean queued = new AtomicBoolean(false);
+        volatile boolean removed; // Set by removeSymbol(); a later quote of the symbol gets a new row
+        int index = -1; // EDT only
+
+        // Latest values from any thread, guarded by the row's monitor
+        double pendingPrice = Double.NaN;
+        long pendingMillis = 0L;
+        String pendingAlert = "";
+
+        // Displayed values, EDT only
+        double last = Double.NaN;
+        double reference = Double.NaN; // First price of the session
+        double change = Double.NaN;
+        long updatedMillis = 0L;
+        String alert = "";
+
+        Row(String symbol) {
+            this.symbol = symbol;
+        }
+
+        void apply(double price, long millis, String alertStatus) {
+            if (!Double.isNaN(price)) {
+                if (Double.isNaN(reference)) {
+                    reference = price;
+                }
+                last = price;
+                change = price - reference;
+                updatedMillis = millis;
+            }
+            alert = alertStatus;
+        }
+
+        double changePercent() {
+            return reference > 0 ? change * 100.0 / reference : Double.NaN;
+        }
+
+        long ageSeconds(long nowMillis) {
+            return updatedMillis == 0L ? -1L : Math.max(0L, (nowMillis - updatedMillis) / 1000L);
+        }
+    }
+}
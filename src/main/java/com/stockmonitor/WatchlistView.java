@@ -0,0 +1,98 @@
+package com.stockmonitor;
+
+import javax.swing.JLabel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.SwingConstants;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.Color;
+import java.awt.Component;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Scrollable watchlist table. Sorting is by click on a column header; rows are not re-sorted
+ * on every price update, so rows do not jump around while prices stream in.
+ */
+public class WatchlistView extends JScrollPane {
+
+    private static final Color UP_COLOR = new Color(0, 128, 0);
+    private static final Color DOWN_COLOR = new Color(200, 0, 0);
+
+    private final JTable table;
+
+    public WatchlistView(WatchlistTableModel model) {
+        table = new JTable(model);
+        table.setAutoCreateRowSorter(true);
+        table.setFillsViewportHeight(true);
+        table.getTableHeader().setReorderingAllowed(false);
+
+        DecimalFormat priceFormat = new DecimalFormat("0.####", new DecimalFormatSymbols(Locale.US));
+        DecimalFormat changeFormat = new DecimalFormat("+0.####;-0.####", new DecimalFormatSymbols(Locale.US));
+        DecimalFormat percentFormat = new DecimalFormat("+0.00'%';-0.00'%'", new DecimalFormatSymbols(Locale.US));
+        table.getColumnModel().getColumn(WatchlistTableModel.COLUMN_LAST).setCellRenderer(new NumberRenderer(priceFormat, false));
+        table.getColumnModel().getColumn(WatchlistTableModel.COLUMN_CHANGE).setCellRenderer(new NumberRenderer(changeFormat, true));
+        table.getColumnModel().getColumn(WatchlistTableModel.COLUMN_CHANGE_PERCENT).setCellRenderer(new NumberRenderer(percentFormat, true));
+        table.getColumnModel().getColumn(WatchlistTableModel.COLUMN_AGE).setCellRenderer(new AgeRenderer());
+        table.getColumnModel().getColumn(WatchlistTableModel.COLUMN_ALERT).setCellRenderer(new AlertRenderer());
+        table.getColumnModel().getColumn(WatchlistTableModel.COLUMN_ALERT).setPreferredWidth(220);
+        setViewportView(table);
+    }
+
+    public JTable getTable() {
+        return table;
+    }
+
+    // Formats prices and changes; changes are green when up and red when down.
+    private static final class NumberRenderer extends DefaultTableCellRenderer {
+        private final DecimalFormat format;
+        private final boolean colorBySign;
+
+        NumberRenderer(DecimalFormat format, boolean colorBySign) {
+            this.format = format;
+            this.colorBySign = colorBySign;
+            setHorizontalAlignment(SwingConstants.RIGHT);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+            JLabel label = (JLabel) super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            double number = value instanceof Double ? (Double) value : Double.NaN;
+            label.setText(Double.isNaN(number) ? "N/A" : format.format(number));
+            if (!isSelected) {
+                label.setForeground(!colorBySign || Double.isNaN(number) || number == 0 ? table.getForeground()
+                        : number > 0 ? UP_COLOR : DOWN_COLOR);
+            }
+            return label;
+        }
+    }
+
+    private static final class AgeRenderer extends DefaultTableCellRenderer {
+        AgeRenderer() {
+            setHorizontalAlignment(SwingConstants.RIGHT);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+            JLabel label = (JLabel) super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            long seconds = value instanceof Long ? (Long) value : -1L;
+            label.setText(seconds < 0 ? "-" : seconds < 60 ? seconds + "s ago" : (seconds / 60) + "m ago");
+            return label;
+        }
+    }
+
+    private static final class AlertRenderer extends DefaultTableCellRenderer {
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+            JLabel label = (JLabel) super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            if (!isSelected) {
+                String text = value == null ? "" : value.toString();
+                label.setForeground(text.startsWith(AlertSeverity.CRITICAL.name()) ? DOWN_COLOR
+                        : text.startsWith(AlertSeverity.WARNING.name()) ? Color.ORANGE.darker()
+                        : table.getForeground());
+            }
+            return label;
+        }
+    }
+}
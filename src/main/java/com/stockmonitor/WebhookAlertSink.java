@@ -0,0 +1,148 @@
+package com.stockmonitor;
+
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * POSTs each batch as one JSON array to an HTTP endpoint (Slack/Teams relays, incident tools, ...).
+ * Any 2xx response is success; anything else fails the batch so the runner retries it.
+ */
+public class WebhookAlertSink implements AlertSink {
+
+    // -Dstockmonitor.sink.webhook.timeoutMs=5000
+    public static final int DEFAULT_TIMEOUT_MS = Integer.getInteger("stockmonitor.sink.webhook.timeoutMs", 5000);
+
+    private final URL url;
+    private final int timeoutMs;
+
+    public WebhookAlertSink(URL url) {
+        this(url, DEFAULT_TIMEOUT_MS);
+    }
+
+    public WebhookAlertSink(URL url, int timeoutMs) {
+        this.url = url;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public void deliver(List<AlertEvent> batch) throws IOException {
+        byte[] body = toJson(batch).toString().getBytes(StandardCharsets.UTF_8);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setConnectTimeout(timeoutMs);
+            connection.setReadTimeout(timeoutMs);
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+            int responseCode = connection.getResponseCode();
+            drain(responseCode < 400 ? connection.getInputStream() : connection.getErrorStream()); // Lets the connection be reused
+            if (responseCode < 200 || responseCode >= 300) {
+                throw new IOException("Webhook " + url + " returned HTTP " + responseCode);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    static JSONArray toJson(List<AlertEvent> batch) {
+        JSONArray array = new JSONArray();
+        for (AlertEvent alert : batch) {
+            JSONObject json = new JSONObject();
+            json.put("symbol", alert.getSymbol());
+            json.put("type", alert.getType().name());
+            json.put("severity", alert.getSeverity().name());
+            json.put("timestampMillis", alert.getTimestampEpochMillis());
+            json.put("message", alert.getMessage());
+            if (alert.getType() == AlertEvent.Type.CONDITION) {
+                json.put("ruleId", alert.getRuleId());
+                json.put("condition", alert.getCondition().name());
+                json.put("value", alert.getValue());
+                json.put("target", alert.getTarget());
+            }
+            array.put(json);
+        }
+        return array;
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        if (in == null) return;
+        try (InputStream stream = in) {
+            byte[] buffer = new byte[1024];
+            while (stream.read(buffer) != -1) {
+                // Discard
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "WebhookAlertSink[" + url + "]";
+    }
+
+    // Main method for testing against a local stand-in server (no external service needed)
+    public static void main(String[] args) throws Exception {
+        System.out.println("Starting Webhook Sink Test...");
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger alertsReceived = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/alerts", exchange -> {
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            exchange.getRequestBody().transferTo(received);
+            int request = requests.incrementAndGet();
+            // First request fails to exercise the retry path
+            int status = request == 1 ? 503 : 200;
+            if (status == 200) {
+                JSONArray alerts = new JSONArray(received.toString(StandardCharsets.UTF_8));
+                System.out.println("Stand-in server received " + alerts.length() + " alert(s): " + alerts);
+                if (alertsReceived.addAndGet(alerts.length()) >= 3) done.countDown();
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/alerts");
+            AsyncAlertSinkRunner runner = new AsyncAlertSinkRunner(new WebhookAlertSink(url));
+            runner.start();
+            for (AlertEvent alert : Arrays.asList(
+                    AlertEvent.conditionMet("AAPL", 1, AlertCondition.PRICE_ABOVE, 190.12, 190.0),
+                    AlertEvent.conditionMet("TSLA", 2, AlertCondition.RSI_ABOVE, 71.5, 70.0),
+                    AlertEvent.fetchError("MSFT", "HTTP 429"))) {
+                runner.offer(alert);
+            }
+            boolean delivered = done.await(10, TimeUnit.SECONDS);
+            runner.stop(2000);
+            System.out.println(delivered
+                    ? "TEST PASSED: 3 alerts delivered in " + requests.get() + " request(s) (including 1 retry)."
+                    : "TEST FAILED: alerts not delivered. Requests: " + requests.get() + ", failed: " + runner.getFailedCount());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
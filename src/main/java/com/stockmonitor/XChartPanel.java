@@ -1,36 +1,69 @@
 package com.stockmonitor;
 
+import com.stockmonitor.logging.Log;
+import com.stockmonitor.metrics.ChartRenderEvent;
+import com.stockmonitor.metrics.Metrics;
 import org.knowm.xchart.OHLCChart;
 import org.knowm.xchart.OHLCChartBuilder;
 import org.knowm.xchart.OHLCSeries;
+import org.knowm.xchart.XYChart;
+import org.knowm.xchart.XYChartBuilder;
+import org.knowm.xchart.XYSeries;
+import org.knowm.xchart.internal.chartpart.Chart;
 import org.knowm.xchart.style.AxesChartStyler;
 import org.knowm.xchart.style.Styler;
 
+import javax.swing.JComboBox;
 import javax.swing.JPanel;
 import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.FlowLayout;
+import java.awt.Graphics;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.OptionalDouble;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Candle, line or area chart showing the ChartDataBuffer of one symbol. The type is chosen per panel;
+ * line and area charts are XYCharts fed with primitive arrays of times and close prices, which is much
+ * cheaper than one candle per poll for dense views. Panels are reused: the chart grid binds
+ * a visible panel to whichever symbol is on screen (bindData). Data can be added from any thread;
+ * adding only stores the point and marks the bound panel dirty in the ChartRenderScheduler,
+ * which redraws it from the latest data at most once per frame on the EDT.
+ * With -Dstockmonitor.chart.renderMode=offscreen the chart is rasterized on a render pool
+ * (see OffscreenChartView) and the EDT only blits the finished image; tooltips are not available then.
+ */
+public class XChartPanel extends JPanel implements ChartRenderScheduler.FrameRenderable {
+
+    private static final Log LOG = Log.get(XChartPanel.class);
 
-public class XChartPanel extends JPanel {
     private String seriesName; 
     private String initialPanelTitle;
 
-    private OHLCChart chart; // Always OHLCChart now
-    private org.knowm.xchart.XChartPanel<OHLCChart> chartComponentPanel; 
+    private GraphType graphType = DEFAULT_GRAPH_TYPE;
+    private Chart<?, ?> chart;    // The current chart, one of:
+    private OHLCChart ohlcChart;  // CANDLE
+    private XYChart lineChart;    // LINE and AREA
+    private org.knowm.xchart.XChartPanel<Chart<?, ?>> chartComponentPanel; // EDT rendering mode
+    private OffscreenChartView offscreenView; // Offscreen rendering mode
+    private final Object chartLock = new Object(); // Guards chart mutation and painting (contended only in offscreen mode)
+    private final AtomicLong frameTickNanos = new AtomicLong(); // Arrival of the oldest tick in the chart but not yet on screen, 0 if none
 
-    // Data lists for Candle Chart
-    private final List<Date> xDataCandle;
-    private final List<Double> openDataCandle;
-    private final List<Double> highDataCandle;
-    private final List<Double> lowDataCandle;
-    private final List<Double> closeDataCandle;
+    // -Dstockmonitor.chart.renderMode=edt|offscreen
+    static final boolean OFFSCREEN_RENDERING = "offscreen".equalsIgnoreCase(System.getProperty("stockmonitor.chart.renderMode", "edt"));
+    // -Dstockmonitor.chart.type=CANDLE|LINE|AREA, chart type of new panels
+    static final GraphType DEFAULT_GRAPH_TYPE = GraphType.fromName(System.getProperty("stockmonitor.chart.type"), GraphType.CANDLE);
+    private static final DateTimeFormatter TIME_AXIS_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
 
-    // MAX_DATA_POINTS_CANDLE is set to accommodate 1-minute candles for the last hour (60) + incoming live data (e.g., 60 more)
-    private static final int MAX_DATA_POINTS_CANDLE = 300; 
+    private final ChartRenderScheduler renderScheduler;
+    // Data shown by this panel: the bound symbol's buffer, or a private one when unbound
+    private volatile ChartDataBuffer dataBuffer;
+    private volatile boolean indicatorOverlayVisible = true;
+    private boolean overlaySeriesExist = false;
 
     // New Constants for Y-Axis Dynamic Range Settings
     private static final double MIN_Y_AXIS_SPAN_PERCENTAGE_OF_MIDPRICE = 0.001; // Reduced from 2.5% to 0.1% (0.025 -> 0.001)
@@ -39,34 +72,84 @@ public class XChartPanel extends JPanel {
 
     private boolean seriesExists = false;
 
+    // Overlay series names (unique per chart, the candle series uses the symbol title)
+    private static final String OVERLAY_SMA = "SMA";
+    private static final String OVERLAY_EMA = "EMA";
+    private static final String OVERLAY_UPPER_BAND = "Upper Band";
+    private static final String OVERLAY_LOWER_BAND = "Lower Band";
+
     public XChartPanel(String initialTitle) {
+        this(initialTitle, ChartRenderScheduler.getDefault());
+    }
+
+    public XChartPanel(String initialTitle, ChartRenderScheduler renderScheduler) {
+        this.renderScheduler = renderScheduler;
         this.initialPanelTitle = initialTitle;
         this.seriesName = initialTitle; 
-        System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] Instance created with initial title: " + initialTitle);
+        LOG.info("Instance created with initial title: {}", initialTitle);
         
-        this.xDataCandle = new CopyOnWriteArrayList<>();
-        this.openDataCandle = new CopyOnWriteArrayList<>();
-        this.highDataCandle = new CopyOnWriteArrayList<>();
-        this.lowDataCandle = new CopyOnWriteArrayList<>();
-        this.closeDataCandle = new CopyOnWriteArrayList<>();
+        this.dataBuffer = new ChartDataBuffer(renderScheduler);
+        this.dataBuffer.bind(this);
 
         setLayout(new BorderLayout());
+        JComboBox<GraphType> graphTypeCombo = new JComboBox<>(GraphType.values());
+        graphTypeCombo.setSelectedItem(graphType);
+        graphTypeCombo.setToolTipText("Chart type of this panel");
+        graphTypeCombo.addActionListener(_e -> setGraphType((GraphType) graphTypeCombo.getSelectedItem()));
+        JPanel header = new JPanel(new FlowLayout(FlowLayout.RIGHT, 2, 0));
+        header.add(graphTypeCombo);
+        add(header, BorderLayout.NORTH);
         setupChartComponent();
     }
 
+    /**
+     * Switches this panel between candle, line and area charts (EDT). The data is kept; the new chart
+     * is drawn from the bound buffer with the next frame.
+     */
+    public void setGraphType(GraphType type) {
+        if (type == null || type == graphType) return;
+        LOG.info("Chart type of {} changed to {}.", initialPanelTitle, type);
+        synchronized (chartLock) {
+            graphType = type;
+        }
+        setupChartComponent();
+        renderScheduler.markDirty(this);
+    }
+
+    public GraphType getGraphType() {
+        return graphType;
+    }
+
+    private void initLineChart() {
+        LOG.info("initLineChart called for: {}", (this.seriesName != null ? this.seriesName : this.initialPanelTitle));
+        lineChart = new XYChartBuilder()
+                .title(this.seriesName != null && !this.seriesName.equals(this.initialPanelTitle) ? this.seriesName : this.initialPanelTitle)
+                .xAxisTitle("Time").yAxisTitle("Price").build();
+
+        AxesChartStyler styler = lineChart.getStyler();
+        commonStylerSettings(styler);
+        // X values are epoch millis as doubles
+        styler.setxAxisTickLabelsFormattingFunction(millis -> TIME_AXIS_FORMAT.format(Instant.ofEpochMilli(millis.longValue())));
+        styler.setXAxisTickMarkSpacingHint(100); // Time labels are wider than the numbers the default spacing is made for
+        styler.setYAxisDecimalPattern("#,##0.0000");
+        lineChart.getStyler().setMarkerSize(0); // Dense tick data, lines only
+        styler.setToolTipsEnabled(!OFFSCREEN_RENDERING); // XYChart tooltips need an org.knowm.xchart.XChartPanel
+        styler.setLegendVisible(false);
+    }
+
     private void initOHLCChart() {
-        System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] initOHLCChart called for: " + (this.seriesName != null ? this.seriesName : this.initialPanelTitle));
-        chart = new OHLCChartBuilder()
+        LOG.info("initOHLCChart called for: {}", (this.seriesName != null ? this.seriesName : this.initialPanelTitle));
+        ohlcChart = new OHLCChartBuilder()
                 // .width(350).height(250) // Fixed sizes removed, will rely on layout manager
                 .title(this.seriesName != null && !this.seriesName.equals(this.initialPanelTitle) ? this.seriesName : this.initialPanelTitle)
                 .xAxisTitle("Time").yAxisTitle("Price").build();
 
-        AxesChartStyler styler = chart.getStyler();
+        AxesChartStyler styler = ohlcChart.getStyler();
         commonStylerSettings(styler);
         styler.setDatePattern("HH:mm:ss");
         styler.setYAxisDecimalPattern("#,##0.0000");
         // Custom settings for candle colors (optional)
-        styler.setToolTipsEnabled(true); // Enable tooltips
+        styler.setToolTipsEnabled(!OFFSCREEN_RENDERING); // Enable tooltips; painting without a Swing chart panel fails with them
         styler.setLegendVisible(false); 
     }
 
@@ -87,122 +170,343 @@ public class XChartPanel extends JPanel {
     }
     
     private void setupChartComponent() {
-        System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] setupChartComponent called for: " + this.initialPanelTitle);
+        LOG.info("setupChartComponent called for: {}", this.initialPanelTitle);
         if (chartComponentPanel != null) {
             remove(chartComponentPanel); 
         }
-        seriesExists = false; 
-        initOHLCChart(); 
-        chartComponentPanel = new org.knowm.xchart.XChartPanel<>(chart); 
-        add(chartComponentPanel, BorderLayout.CENTER);
+        if (offscreenView != null) {
+            remove(offscreenView);
+        }
+        synchronized (chartLock) {
+            seriesExists = false; 
+            overlaySeriesExist = false;
+            if (graphType == GraphType.CANDLE) {
+                initOHLCChart();
+                lineChart = null;
+                chart = ohlcChart;
+            } else {
+                initLineChart();
+                ohlcChart = null;
+                chart = lineChart;
+            }
+        }
+        if (OFFSCREEN_RENDERING) {
+            offscreenView = new OffscreenChartView(chart, chartLock, this::updateChartFromData, this::onFramePresented);
+            add(offscreenView, BorderLayout.CENTER);
+        } else {
+            chartComponentPanel = new org.knowm.xchart.XChartPanel<>(chart) {
+                @Override
+                protected void paintComponent(Graphics g) {
+                    ChartRenderEvent event = new ChartRenderEvent();
+                    event.begin();
+                    long paintStart = System.nanoTime();
+                    super.paintComponent(g);
+                    Metrics.CHART_PAINT.recordSince(paintStart);
+                    commitRenderEvent(event, "paint");
+                    onFramePresented();
+                }
+            };
+            add(chartComponentPanel, BorderLayout.CENTER);
+        }
         revalidate();
         repaint();
     }
 
     public void setSeriesNameAndTitle(String newSeriesName) {
         this.seriesName = (newSeriesName != null && !newSeriesName.trim().isEmpty()) ? newSeriesName : this.initialPanelTitle;
-        System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] setSeriesNameAndTitle called. New series name: " + this.seriesName + " (Panel: " + this.initialPanelTitle + ")");
+        LOG.info("setSeriesNameAndTitle called. New series name: {} (Panel: {})", this.seriesName, this.initialPanelTitle);
         if (chart != null) {
-            chart.setTitle(this.seriesName);
-            if (chartComponentPanel != null) {
-                chartComponentPanel.repaint();
+            synchronized (chartLock) {
+                chart.setTitle(this.seriesName);
             }
+            repaintChart();
+        }
+    }
+
+    // Repaints directly in EDT mode, or asks the render pool for a new frame in offscreen mode.
+    private void repaintChart() {
+        if (offscreenView != null) {
+            offscreenView.requestRender();
+        } else if (chartComponentPanel != null) {
+            chartComponentPanel.repaint();
         }
     }
     
     private void clearLocalData(){
-        System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] clearLocalData called for: " + this.initialPanelTitle);
-        xDataCandle.clear();
-        openDataCandle.clear();
-        highDataCandle.clear();
-        lowDataCandle.clear();
-        closeDataCandle.clear();
+        LOG.info("clearLocalData called for: {}", this.initialPanelTitle);
+        dataBuffer.clear();
         seriesExists = false;
     }
 
-    public void addOHLCDataPoint(Date timestamp, double open, double high, double low, double close) {
-        // System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] addOHLCDataPoint called for: " + this.seriesName);
-        if (this.seriesName == null || this.seriesName.equals(this.initialPanelTitle)) {
-            // System.err.println("[XChartPanel] Series name not assigned, cannot add OHLC data for: " + this.initialPanelTitle);
-            return; // Do not add data until series name is assigned
+    /**
+     * Shows the given symbol's data in this panel (EDT). The buffer keeps receiving data while
+     * no panel shows it; binding only redraws the panel from what is already there.
+     */
+    public void bindData(String symbol, ChartDataBuffer buffer, String title) {
+        ChartDataBuffer previous = dataBuffer;
+        if (previous == buffer) return;
+        previous.unbind(this);
+        resetSeries();
+        setPanelTitle(title);
+        this.dataBuffer = buffer;
+        buffer.bind(this);
+        renderScheduler.markDirty(this);
+        LOG.info("{} now shows {} ({} points).", initialPanelTitle, symbol, buffer.size());
+    }
+
+    /**
+     * Detaches the panel from its symbol and shows an empty chart (EDT). The symbol's data is kept.
+     */
+    public void unbindData() {
+        dataBuffer.unbind(this);
+        resetSeries();
+        this.dataBuffer = new ChartDataBuffer(renderScheduler);
+        this.dataBuffer.bind(this);
+        setPanelTitle(initialPanelTitle);
+        renderScheduler.markDirty(this);
+    }
+
+    // Removes the series from the chart without touching any data buffer.
+    private void resetSeries() {
+        if (chart == null) return;
+        synchronized (chartLock) {
+            if (seriesExists && chart.getSeriesMap().containsKey(seriesName)) {
+                chart.removeSeries(seriesName);
+            }
+            removeOverlaySeriesLocked();
+            seriesExists = false;
         }
-        synchronized (xDataCandle) { // Synchronize access to data lists
-            xDataCandle.add(timestamp);
-            openDataCandle.add(open);
-            highDataCandle.add(high);
-            lowDataCandle.add(low);
-            closeDataCandle.add(close);
-
-            while (xDataCandle.size() > MAX_DATA_POINTS_CANDLE) {
-                xDataCandle.remove(0);
-                openDataCandle.remove(0);
-                highDataCandle.remove(0);
-                lowDataCandle.remove(0);
-                closeDataCandle.remove(0);
+    }
+
+    public void setIndicatorOverlayVisible(boolean visible) {
+        this.indicatorOverlayVisible = visible;
+        LOG.info("Indicator overlay {} for: {}", (visible ? "enabled" : "disabled"), this.initialPanelTitle);
+        javax.swing.SwingUtilities.invokeLater(() -> {
+            if (!visible) {
+                removeOverlaySeries();
             }
-            // System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] Data point added for " + this.seriesName + ". Total points: " + xDataCandle.size());
-            updateOHLCChartSeries();
+            renderScheduler.markDirty(this);
+        });
+    }
+
+    // Must run on the EDT, like every other chart mutation.
+    private void updateCandleOverlaySeries(List<Date> xCopy, List<Double> smaCopy, List<Double> emaCopy,
+                                     List<Double> upperCopy, List<Double> lowerCopy) {
+        if (!indicatorOverlayVisible || xCopy.size() < 2) {
+            return;
+        }
+        if (!overlaySeriesExist) {
+            addOverlaySeries(OVERLAY_SMA, xCopy, smaCopy, new Color(255, 200, 0));
+            addOverlaySeries(OVERLAY_EMA, xCopy, emaCopy, new Color(0, 200, 255));
+            addOverlaySeries(OVERLAY_UPPER_BAND, xCopy, upperCopy, new Color(180, 120, 255));
+            addOverlaySeries(OVERLAY_LOWER_BAND, xCopy, lowerCopy, new Color(180, 120, 255));
+            overlaySeriesExist = true;
+            chart.getStyler().setLegendVisible(true); // Legend tells the overlay lines apart
+        } else {
+            ohlcChart.updateOHLCSeries(OVERLAY_SMA, xCopy, smaCopy);
+            ohlcChart.updateOHLCSeries(OVERLAY_EMA, xCopy, emaCopy);
+            ohlcChart.updateOHLCSeries(OVERLAY_UPPER_BAND, xCopy, upperCopy);
+            ohlcChart.updateOHLCSeries(OVERLAY_LOWER_BAND, xCopy, lowerCopy);
         }
     }
 
-    private void updateOHLCChartSeries() {
-        final List<Date> xCopy = new ArrayList<>(xDataCandle);
-        final List<Double> openCopy = new ArrayList<>(openDataCandle);
-        final List<Double> highCopy = new ArrayList<>(highDataCandle);
-        final List<Double> lowCopy = new ArrayList<>(lowDataCandle);
-        final List<Double> closeCopy = new ArrayList<>(closeDataCandle);
-        // System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] Scheduling updateOHLCChartSeries for " + this.seriesName + " on EDT. Data points: " + xCopy.size());
+    private void addOverlaySeries(String name, List<Date> xData, List<Double> yData, Color color) {
+        if (ohlcChart.getSeriesMap().containsKey(name)) ohlcChart.removeSeries(name);
+        OHLCSeries series = ohlcChart.addSeries(name, xData, yData); // Two-list variant renders as a line
+        series.setLineColor(color);
+        series.setLineWidth(1.0f);
+    }
 
-        javax.swing.SwingUtilities.invokeLater(() -> {
-            // System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] updateOHLCChartSeries (EDT) running for: " + this.seriesName);
+    private void updateLineOverlaySeries(ChartDataBuffer.LineSnapshot data) {
+        if (!indicatorOverlayVisible || data.xOverlay.length < 2) {
+            return;
+        }
+        if (!overlaySeriesExist) {
+            addLineOverlaySeries(OVERLAY_SMA, data.xOverlay, data.sma, new Color(255, 200, 0));
+            addLineOverlaySeries(OVERLAY_EMA, data.xOverlay, data.ema, new Color(0, 200, 255));
+            addLineOverlaySeries(OVERLAY_UPPER_BAND, data.xOverlay, data.upperBand, new Color(180, 120, 255));
+            addLineOverlaySeries(OVERLAY_LOWER_BAND, data.xOverlay, data.lowerBand, new Color(180, 120, 255));
+            overlaySeriesExist = true;
+            lineChart.getStyler().setLegendVisible(true);
+        } else {
+            lineChart.updateXYSeries(OVERLAY_SMA, data.xOverlay, data.sma, null);
+            lineChart.updateXYSeries(OVERLAY_EMA, data.xOverlay, data.ema, null);
+            lineChart.updateXYSeries(OVERLAY_UPPER_BAND, data.xOverlay, data.upperBand, null);
+            lineChart.updateXYSeries(OVERLAY_LOWER_BAND, data.xOverlay, data.lowerBand, null);
+        }
+    }
+
+    private void addLineOverlaySeries(String name, double[] xData, double[] yData, Color color) {
+        if (lineChart.getSeriesMap().containsKey(name)) lineChart.removeSeries(name);
+        XYSeries series = lineChart.addSeries(name, xData, yData);
+        series.setXYSeriesRenderStyle(XYSeries.XYSeriesRenderStyle.Line); // Overlays stay lines in area mode
+        series.setLineColor(color);
+        series.setLineWidth(1.0f);
+    }
+
+    private void removeOverlaySeries() {
+        if (chart == null) return;
+        synchronized (chartLock) {
+            removeOverlaySeriesLocked();
+        }
+    }
+
+    private void removeOverlaySeriesLocked() {
+        for (String name : new String[]{OVERLAY_SMA, OVERLAY_EMA, OVERLAY_UPPER_BAND, OVERLAY_LOWER_BAND}) {
+            if (chart.getSeriesMap().containsKey(name)) {
+                chart.removeSeries(name);
+            }
+        }
+        overlaySeriesExist = false;
+        chart.getStyler().setLegendVisible(false);
+    }
+
+    /**
+     * Pushes the latest data into the chart and repaints it. Called by the ChartRenderScheduler on the EDT,
+     * at most once per frame however many ticks arrived since the last one.
+     */
+    @Override
+    public void renderFrame() {
+        if (offscreenView != null) {
+            offscreenView.requestRender(); // Data is pulled and painted on a render thread
+            return;
+        }
+        updateChartFromData();
+        if (chartComponentPanel != null) chartComponentPanel.repaint();
+    }
+
+    // Runs on the EDT (EDT mode) or on a ChartRenderThread (offscreen mode).
+    private void updateChartFromData() {
+        ChartRenderEvent event = new ChartRenderEvent();
+        event.begin();
+        long updateStart = System.nanoTime();
+        long tickNanos = dataBuffer.takeUnrenderedTickNanos(); // Taken before the snapshot, so the snapshot contains that tick
+        if (tickNanos != 0L) {
+            frameTickNanos.compareAndSet(0L, tickNanos); // A frame not yet shown keeps the older tick
+        }
+        if (graphType == GraphType.CANDLE) {
+            updateCandleChart(dataBuffer.snapshot()); // One copy per frame
+        } else {
+            updateLineChart(dataBuffer.lineSnapshot());
+        }
+        Metrics.CHART_UPDATE.recordSince(updateStart);
+        commitRenderEvent(event, "update");
+    }
+
+    // Runs on the EDT once a frame is on screen; records tick-to-pixel latency for the ticks it shows first.
+    private void onFramePresented() {
+        long tickNanos = frameTickNanos.getAndSet(0L);
+        if (tickNanos != 0L) {
+            Metrics.TICK_TO_PIXEL.recordSince(tickNanos);
+        }
+    }
+
+    private void commitRenderEvent(ChartRenderEvent event, String stage) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.panel = seriesName != null ? seriesName : initialPanelTitle;
+            event.stage = stage;
+            event.offscreen = OFFSCREEN_RENDERING;
+            event.commit();
+        }
+    }
+
+    private void updateCandleChart(ChartDataBuffer.Snapshot data) {
+        final List<Date> xCopy = data.x;
+        final List<Double> openCopy = data.open, highCopy = data.high, lowCopy = data.low, closeCopy = data.close;
+        final List<Date> xOverlayCopy = data.xOverlay;
+        final List<Double> smaCopy = data.sma, emaCopy = data.ema, upperCopy = data.upperBand, lowerCopy = data.lowerBand;
+        final double candleMin = data.candleMin, candleMax = data.candleMax, bandMin = data.bandMin, bandMax = data.bandMax;
+        synchronized (chartLock) { // Already held when called from the render thread
+            if (ohlcChart == null) return; // Chart type changed since the snapshot was taken
             try {
                 if (xCopy.isEmpty()) {
-                    // If no data and series exists, clear/remove series
-                    if(seriesExists && chart.getSeriesMap().containsKey(this.seriesName)){
-                        // System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] Removing existing series " + this.seriesName + " due to empty data.");
-                        chart.removeSeries(this.seriesName);
-                        seriesExists = false;
-                    }
-                    applyYAxisPadding(new ArrayList<>(), new ArrayList<>(), (AxesChartStyler) chart.getStyler());
-                    if (chartComponentPanel != null) chartComponentPanel.repaint();
+                    clearSeriesLocked();
                     return;
                 }
 
-                if (!seriesExists || !chart.getSeriesMap().containsKey(this.seriesName)) {
-                    if (chart.getSeriesMap().containsKey(this.seriesName)) chart.removeSeries(this.seriesName); // Should not happen if !seriesExists
-                    // System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] Adding new OHLC series: " + this.seriesName);
-                    OHLCSeries series = chart.addSeries(this.seriesName, xCopy, openCopy, highCopy, lowCopy, closeCopy);
+                if (!seriesExists || !ohlcChart.getSeriesMap().containsKey(this.seriesName)) {
+                    if (ohlcChart.getSeriesMap().containsKey(this.seriesName)) ohlcChart.removeSeries(this.seriesName); // Should not happen if !seriesExists
+                    // LOG.info("Adding new OHLC series: {}", this.seriesName);
+                    OHLCSeries series = ohlcChart.addSeries(this.seriesName, xCopy, openCopy, highCopy, lowCopy, closeCopy);
                     // You can set candle colors here (optional)
                     // series.setUpColor(XChartSeriesColors.GREEN); 
                     // series.setDownColor(XChartSeriesColors.RED);
                     seriesExists = true;
                 } else {
-                    // System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] Updating existing OHLC series: " + this.seriesName);
-                    chart.updateOHLCSeries(this.seriesName, xCopy, openCopy, highCopy, lowCopy, closeCopy, null);
+                    // LOG.info("Updating existing OHLC series: {}", this.seriesName);
+                    ohlcChart.updateOHLCSeries(this.seriesName, xCopy, openCopy, highCopy, lowCopy, closeCopy, null);
                 }
-                applyYAxisPadding(highCopy, lowCopy, (AxesChartStyler) chart.getStyler());
-                if (chartComponentPanel != null) chartComponentPanel.repaint();
+                updateCandleOverlaySeries(xOverlayCopy, smaCopy, emaCopy, upperCopy, lowerCopy);
+                applyYRange(candleMin, candleMax, bandMin, bandMax);
             } catch (Exception e) { 
                 seriesExists = false; // Try to recreate series in case of error
-                System.err.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] Error in updateOHLCChartSeries for " + this.seriesName + ": " + e.getMessage());
+                overlaySeriesExist = false;
+                LOG.error("Error in renderFrame for {}: {}", this.seriesName, e.getMessage());
                 // e.printStackTrace();
             }
-        });
+        }
     }
-    
-    private void applyYAxisPadding(List<Double> highValues, List<Double> lowValues, AxesChartStyler styler) {
-        if (highValues.isEmpty() || lowValues.isEmpty()) {
-            styler.setYAxisMin(-1.0);
-            styler.setYAxisMax(1.0);
-            return;
+
+    private void updateLineChart(ChartDataBuffer.LineSnapshot data) {
+        synchronized (chartLock) { // Already held when called from the render thread
+            if (lineChart == null) return; // Chart type changed since the snapshot was taken
+            try {
+                if (data.x.length == 0) {
+                    clearSeriesLocked();
+                    return;
+                }
+                if (!seriesExists || !lineChart.getSeriesMap().containsKey(this.seriesName)) {
+                    if (lineChart.getSeriesMap().containsKey(this.seriesName)) lineChart.removeSeries(this.seriesName);
+                    XYSeries series = lineChart.addSeries(this.seriesName, data.x, data.close);
+                    series.setXYSeriesRenderStyle(graphType == GraphType.AREA
+                            ? XYSeries.XYSeriesRenderStyle.Area : XYSeries.XYSeriesRenderStyle.Line);
+                    series.setLineColor(new Color(0, 200, 120));
+                    series.setFillColor(new Color(0, 200, 120, 70));
+                    seriesExists = true;
+                } else {
+                    lineChart.updateXYSeries(this.seriesName, data.x, data.close, null); // Arrays are used as they are, no boxing
+                }
+                updateLineOverlaySeries(data);
+                applyYRange(data.min, data.max, data.bandMin, data.bandMax);
+            } catch (Exception e) {
+                seriesExists = false;
+                overlaySeriesExist = false;
+                LOG.error("Error in renderFrame for {}: {}", this.seriesName, e.getMessage());
+            }
         }
+    }
 
-        OptionalDouble minOptional = lowValues.stream().mapToDouble(Double::doubleValue).min();
-        OptionalDouble maxOptional = highValues.stream().mapToDouble(Double::doubleValue).max();
+    // If no data and series exists, clear/remove series. Caller holds chartLock.
+    private void clearSeriesLocked() {
+        if (seriesExists && chart.getSeriesMap().containsKey(this.seriesName)) {
+            chart.removeSeries(this.seriesName);
+            seriesExists = false;
+        }
+        removeOverlaySeriesLocked();
+        applyYAxisPadding(Double.NaN, Double.NaN, (AxesChartStyler) chart.getStyler());
+    }
 
-        if (minOptional.isPresent() && maxOptional.isPresent()) {
-            double actualMinVal = minOptional.getAsDouble();
-            double actualMaxVal = maxOptional.getAsDouble();
+    private void applyYRange(double dataMin, double dataMax, double bandMin, double bandMax) {
+        if (overlaySeriesExist) {
+            // Keep the Bollinger bands inside the visible range
+            applyYAxisPadding(minIgnoringNaN(dataMin, bandMin), maxIgnoringNaN(dataMax, bandMax), (AxesChartStyler) chart.getStyler());
+        } else {
+            applyYAxisPadding(dataMin, dataMax, (AxesChartStyler) chart.getStyler());
+        }
+    }
+
+    private static double minIgnoringNaN(double a, double b) {
+        return Double.isNaN(a) ? b : Double.isNaN(b) ? a : Math.min(a, b);
+    }
+
+    private static double maxIgnoringNaN(double a, double b) {
+        return Double.isNaN(a) ? b : Double.isNaN(b) ? a : Math.max(a, b);
+    }
+
+    // actualMinVal/actualMaxVal come from the ring buffers' sliding min/max, NaN when there is no data
+    private void applyYAxisPadding(double actualMinVal, double actualMaxVal, AxesChartStyler styler) {
+        if (!Double.isNaN(actualMinVal) && !Double.isNaN(actualMaxVal)) {
             double dataRange = actualMaxVal - actualMinVal;
             double midPrice = (actualMinVal + actualMaxVal) / 2.0;
             if (Double.isNaN(midPrice) || Double.isInfinite(midPrice)) midPrice = 0; // Assign zero if NaN or Infinite
@@ -225,35 +529,38 @@ public class XChartPanel extends JPanel {
             styler.setYAxisMin(displayMin - padding);
             styler.setYAxisMax(displayMax + padding);
 
-        } else { // This should not happen if lists are not empty, kept as a fallback
+        } else { // No data yet
             styler.setYAxisMin(-1.0);
             styler.setYAxisMax(1.0);
         }
     }
 
     public void clearChart() {
-        System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] clearChart called for: " + this.initialPanelTitle + ", current series: " + this.seriesName);
+        LOG.info("clearChart called for: {}, current series: {}", this.initialPanelTitle, this.seriesName);
         clearLocalData();
         if (chart != null) {
-            if (seriesExists && seriesName != null && !seriesName.equals(initialPanelTitle) && chart.getSeriesMap().containsKey(seriesName)) {
-                 try { 
-                     // System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] Removing series: " + seriesName + " from chart.");
-                     chart.removeSeries(seriesName); 
-                 } catch (Exception e) { /* Ignore error */ }
+            synchronized (chartLock) {
+                if (seriesExists && seriesName != null && !seriesName.equals(initialPanelTitle) && chart.getSeriesMap().containsKey(seriesName)) {
+                     try { 
+                         // LOG.info("Removing series: {} from chart.", seriesName);
+                         chart.removeSeries(seriesName); 
+                     } catch (Exception e) { /* Ignore error */ }
+                }
+                removeOverlaySeriesLocked();
+                seriesExists = false;
+                if (chart.getStyler() instanceof AxesChartStyler) { // Check styler type
+                    applyYAxisPadding(Double.NaN, Double.NaN, (AxesChartStyler) chart.getStyler());
+                }
             }
         }
         seriesExists = false;
         // Call setSeriesNameAndTitle from MainController to reset panel title to initial.
         // setPanelTitle(this.initialPanelTitle); // Let MainController manage this instead of direct call
-        
-        if (chart != null && chart.getStyler() instanceof AxesChartStyler) { // Check styler type
-            applyYAxisPadding(new ArrayList<>(), new ArrayList<>(), (AxesChartStyler) chart.getStyler());
-        }
 
         if (chartComponentPanel != null) {
             chartComponentPanel.revalidate();
-            chartComponentPanel.repaint();
         }
+        repaintChart();
     }
 
     // To update panel title (called by MainController)
@@ -262,24 +569,24 @@ public class XChartPanel extends JPanel {
         // For now, we use chart.setTitle directly, but updating seriesName is also important.
         String oldSeriesName = this.seriesName;
         this.seriesName = (title != null && !title.trim().isEmpty()) ? title : this.initialPanelTitle;
-        System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] setPanelTitle called for: " + this.initialPanelTitle + ". New title/series name: " + this.seriesName);
+        LOG.info("setPanelTitle called for: {}. New title/series name: {}", this.initialPanelTitle, this.seriesName);
         if (chart != null) {
-            chart.setTitle(this.seriesName);
-            // If series name changes and series exists with old name, it might need to be renamed or re-added.
-            // This is complex because chart.updateSeriesName might not exist.
-            // For now, clearing and re-adding is handled by updateOHLCChartSeries logic when seriesName changes.
-            if (seriesExists && oldSeriesName != null && !oldSeriesName.equals(this.seriesName) && chart.getSeriesMap().containsKey(oldSeriesName)){
-                try {
-                    // System.out.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] Title changed, removing old series: " + oldSeriesName);
-                    chart.removeSeries(oldSeriesName);
-                    seriesExists = false; // Force re-creation with new name on next data point
-                } catch (Exception e) {
-                     System.err.println("[XChartPanel] [Thread: " + Thread.currentThread().getName() + "] Error removing old series " + oldSeriesName + " after title change: " + e.getMessage());
+            synchronized (chartLock) {
+                chart.setTitle(this.seriesName);
+                // If series name changes and series exists with old name, it might need to be renamed or re-added.
+                // This is complex because chart.updateSeriesName might not exist.
+                // For now, clearing and re-adding is handled by updateOHLCChartSeries logic when seriesName changes.
+                if (seriesExists && oldSeriesName != null && !oldSeriesName.equals(this.seriesName) && chart.getSeriesMap().containsKey(oldSeriesName)){
+                    try {
+                        // LOG.info("Title changed, removing old series: {}", oldSeriesName);
+                        chart.removeSeries(oldSeriesName);
+                        seriesExists = false; // Force re-creation with new name on next data point
+                    } catch (Exception e) {
+                         LOG.error("Error removing old series {} after title change: {}", oldSeriesName, e.getMessage());
+                    }
                 }
             }
-            if (chartComponentPanel != null) {
-                chartComponentPanel.repaint();
-            }
+            repaintChart();
         }
     }
 } 
\ No newline at end of file
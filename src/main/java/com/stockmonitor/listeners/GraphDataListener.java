@@ -1,5 +1,6 @@
 package com.stockmonitor.listeners;
 
+import com.stockmonitor.IndicatorValues;
 import java.util.Date;
 // import java.util.List; // For onCandleDataUpdate, if re-enabled
 // import com.stockmonitor.CandleData; // For onCandleDataUpdate, if re-enabled
@@ -21,14 +22,27 @@ public interface GraphDataListener {
 
     /**
      * Called when OHLC (Open, High, Low, Close) data is updated (for candlestick charts).
+     * Called for every tick, so the timestamp is passed in epoch milliseconds rather than as a Date.
      * @param symbol The symbol.
-     * @param timestamp The timestamp (usually the start of the day or period).
+     * @param timestampMillis The timestamp of the price, in epoch milliseconds.
      * @param open The opening price.
      * @param high The highest price.
      * @param low The lowest price.
      * @param close The closing price.
+     * @param tickNanos System.nanoTime() when the price's HTTP response arrived, so the chart can measure
+     *                  how long the tick takes to reach the screen; 0 if unknown.
      */
-    void onOHLCDataUpdate(String symbol, Date timestamp, double open, double high, double low, double close);
+    void onOHLCDataUpdate(String symbol, long timestampMillis, double open, double high, double low, double close, long tickNanos);
+
+    /**
+     * Called after the technical indicators of a symbol were updated for a new price.
+     * Used to draw indicator overlays (moving averages, Bollinger bands) on the chart.
+     * @param symbol The symbol.
+     * @param timestampMillis The timestamp of the price the indicators were computed for, in epoch milliseconds.
+     * @param indicators The indicator values; entries still warming up are NaN. Only valid during the call,
+     *                   the object is reused for the next tick.
+     */
+    void onIndicatorUpdate(String symbol, long timestampMillis, IndicatorValues indicators);
 
     /**
      * Called to clear the graph for a specific stock.
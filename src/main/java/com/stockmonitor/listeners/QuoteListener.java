@@ -0,0 +1,17 @@
+package com.stockmonitor.listeners;
+
+/**
+ * Interface for receiving the latest price of a symbol, e.g. for the watchlist table.
+ * Implementations are called on the fetching thread and must return quickly.
+ */
+public interface QuoteListener {
+
+    /**
+     * Called for every price received for a symbol.
+     *
+     * @param symbol The symbol (e.g., "AAPL").
+     * @param price The latest price.
+     * @param timestampMillis The time the price was received, in epoch milliseconds.
+     */
+    void onQuote(String symbol, double price, long timestampMillis);
+}
@@ -0,0 +1,256 @@
+package com.stockmonitor.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes log messages on one background thread. Callers claim a slot of a preallocated ring
+ * buffer with a CAS, fill it and publish it; there is no lock and no allocation per message
+ * (apart from varargs arrays). When the buffer is full the message is dropped and counted
+ * instead of blocking the caller. The writer thread formats the messages and writes them to a
+ * rolling file (log -> log.1 -> log.2 ...) and, unless disabled, to the console, flushing
+ * whenever the buffer runs empty.
+ */
+final class AsyncLogAppender {
+
+    // -Dstockmonitor.log.file=~/.stockmonitor/stockmonitor.log, empty to log to the console only
+    static final String DEFAULT_FILE = System.getProperty("stockmonitor.log.file",
+            System.getProperty("user.home") + File.separator + ".stockmonitor" + File.separator + "stockmonitor.log");
+    // -Dstockmonitor.log.maxBytes=10485760 -Dstockmonitor.log.maxBackups=5
+    static final long DEFAULT_MAX_BYTES = Long.getLong("stockmonitor.log.maxBytes", 10L * 1024 * 1024);
+    static final int DEFAULT_MAX_BACKUPS = Integer.getInteger("stockmonitor.log.maxBackups", 5);
+    // -Dstockmonitor.log.console=true: also print messages to stdout (stderr for WARN and ERROR)
+    static final boolean DEFAULT_CONSOLE = Boolean.parseBoolean(System.getProperty("stockmonitor.log.console", "true"));
+    // -Dstockmonitor.log.bufferSize=8192: messages the ring buffer holds, rounded up to a power of two
+    static final int DEFAULT_BUFFER_SIZE = Integer.getInteger("stockmonitor.log.bufferSize", 8192);
+
+    private static final int INLINE_ARGS = 2;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static final class Holder {
+        static final AsyncLogAppender INSTANCE = createDefault();
+    }
+
+    // One slot of the ring; written by the claiming thread, read and cleared by the writer thread
+    private static final class Entry {
+        Log.Level level;
+        String component;
+        String threadName;
+        long epochMillis;
+        String format;
+        final Object[] inlineArgs = new Object[INLINE_ARGS];
+        Object[] args;
+        int argCount;
+        Throwable thrown;
+
+        Object arg(int index) {
+            return args != null ? args[index] : inlineArgs[index];
+        }
+
+        void clear() {
+            component = null;
+            threadName = null;
+            format = null;
+            inlineArgs[0] = null;
+            inlineArgs[1] = null;
+            args = null;
+            thrown = null;
+        }
+    }
+
+    private final Entry[] entries;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(); // Next sequence to claim
+    private final AtomicLongArray published; // Sequence last published in each slot
+    private volatile long consumed; // Next sequence the writer reads; slots below it are free
+    private volatile long flushedSequence; // Everything below it has been written and flushed
+    private volatile boolean writerWaiting;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final RollingFileWriter rollingFile; // Writer thread only; null to log to the console only
+    private final boolean console;
+    private final Thread worker;
+    private boolean fileFailed;
+    private final StringBuilder line = new StringBuilder(256);
+
+    AsyncLogAppender(File file, long maxBytes, int maxBackups, boolean console, int bufferSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, bufferSize) - 1) << 1;
+        this.entries = new Entry[capacity];
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new Entry();
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1L);
+        }
+        this.rollingFile = file == null ? null : new RollingFileWriter(file, maxBytes, maxBackups, 64 * 1024);
+        this.console = console;
+        this.worker = new Thread(this::runLoop, "LogWriter");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    private static AsyncLogAppender createDefault() {
+        File file = DEFAULT_FILE.trim().isEmpty() ? null : new File(DEFAULT_FILE.trim());
+        AsyncLogAppender appender = new AsyncLogAppender(file, DEFAULT_MAX_BYTES, DEFAULT_MAX_BACKUPS, DEFAULT_CONSOLE, DEFAULT_BUFFER_SIZE);
+        Runtime.getRuntime().addShutdownHook(new Thread(appender::flush, "LogWriterShutdown"));
+        return appender;
+    }
+
+    static AsyncLogAppender get() {
+        return Holder.INSTANCE;
+    }
+
+    void append(Log.Level level, String component, String format, Object arg1, Object arg2, Object[] args, int argCount, Throwable thrown) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= entries.length) {
+                droppedCount.incrementAndGet(); // Full: the writer is behind, drop rather than block the caller
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        int index = (int) (sequence & mask);
+        Entry entry = entries[index];
+        entry.level = level;
+        entry.component = component;
+        entry.threadName = Thread.currentThread().getName();
+        entry.epochMillis = System.currentTimeMillis();
+        entry.format = format;
+        entry.inlineArgs[0] = arg1;
+        entry.inlineArgs[1] = arg2;
+        entry.args = args;
+        entry.argCount = argCount;
+        entry.thrown = thrown;
+        published.set(index, sequence); // Volatile write, makes the fields above visible to the writer
+        if (writerWaiting) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    void flush() {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (flushedSequence < target && System.nanoTime() < deadline && worker.isAlive()) {
+            LockSupport.unpark(worker);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private void runLoop() {
+        long sequence = 0;
+        boolean unflushed = false;
+        while (true) {
+            int index = (int) (sequence & mask);
+            if (published.get(index) == sequence) {
+                Entry entry = entries[index];
+                write(entry);
+                entry.clear();
+                sequence++;
+                consumed = sequence; // Frees the slot for producers
+                unflushed = true;
+                continue;
+            }
+            if (unflushed) {
+                flushOutputs();
+                unflushed = false;
+            }
+            flushedSequence = sequence;
+            writerWaiting = true;
+            if (published.get(index) != sequence) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+            }
+            writerWaiting = false;
+        }
+    }
+
+    private void write(Entry entry) {
+        line.setLength(0);
+        line.append(TIME_FORMAT.format(Instant.ofEpochMilli(entry.epochMillis))).append(' ');
+        line.append(entry.level.name());
+        for (int i = entry.level.name().length(); i < 5; i++) {
+            line.append(' ');
+        }
+        line.append(" [").append(entry.component).append("] [Thread: ").append(entry.threadName).append("] ");
+        appendFormatted(entry);
+        if (entry.thrown != null) {
+            StringWriter trace = new StringWriter();
+            entry.thrown.printStackTrace(new PrintWriter(trace));
+            line.append(System.lineSeparator()).append(trace.toString().trim());
+        }
+        String text = line.toString();
+        if (console) {
+            if (entry.level.ordinal() >= Log.Level.WARN.ordinal()) {
+                System.err.println(text);
+            } else {
+                System.out.println(text);
+            }
+        }
+        writeToFile(text);
+    }
+
+    // Replaces each {} with the next argument; surplus placeholders are kept as they are
+    private void appendFormatted(Entry entry) {
+        String format = entry.format;
+        if (format == null) {
+            line.append("null");
+            return;
+        }
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while (argIndex < entry.argCount && (placeholder = format.indexOf("{}", start)) >= 0) {
+            line.append(format, start, placeholder).append(entry.arg(argIndex++));
+            start = placeholder + 2;
+        }
+        line.append(format, start, format.length());
+    }
+
+    private void writeToFile(String text) {
+        if (rollingFile == null || fileFailed) {
+            return;
+        }
+        try {
+            rollingFile.writeLine(text);
+        } catch (IOException e) {
+            disableFile(e);
+        }
+    }
+
+    private void flushOutputs() {
+        if (console) {
+            System.out.flush();
+        }
+        if (rollingFile != null && !fileFailed) {
+            try {
+                rollingFile.flush();
+            } catch (IOException e) {
+                disableFile(e);
+            }
+        }
+    }
+
+    private void disableFile(IOException e) {
+        fileFailed = true; // Keep logging to the console
+        try {
+            rollingFile.close();
+        } catch (IOException closeFailure) {
+            // Already failing; the message below reports the problem
+        }
+        System.err.println("[AsyncLogAppender] [Thread: " + Thread.currentThread().getName() + "] Logging to " + rollingFile.getFile() + " disabled: " + e.getMessage());
+    }
+}
@@ -0,0 +1,139 @@
+package com.stockmonitor.logging;
+
+/**
+ * Levelled logger with parameterized messages: {@code LOG.debug("{}: Price fetched: {}", symbol, price)}.
+ * The level is checked before anything is formatted, and formatting and output happen on the
+ * appender thread, so a call costs a few field writes into a ring buffer and a disabled call
+ * costs a comparison. Callers on hot paths guard calls with primitive arguments with
+ * isDebugEnabled() to avoid boxing. Arguments are formatted later, so only immutable values
+ * (strings, numbers, events) should be passed.
+ */
+public final class Log {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    // -Dstockmonitor.log.level=INFO: DEBUG, INFO, WARN or ERROR
+    private static volatile int threshold = parseLevel(System.getProperty("stockmonitor.log.level"), Level.INFO).ordinal();
+
+    private static final int DEBUG = Level.DEBUG.ordinal();
+    private static final int INFO = Level.INFO.ordinal();
+    private static final int WARN = Level.WARN.ordinal();
+    private static final int ERROR = Level.ERROR.ordinal();
+
+    private final String component;
+
+    private Log(String component) {
+        this.component = component;
+    }
+
+    public static Log get(Class<?> type) {
+        return new Log(type.getSimpleName());
+    }
+
+    public static Log get(String component) {
+        return new Log(component);
+    }
+
+    static Level parseLevel(String name, Level fallback) {
+        if (name == null) return fallback;
+        try {
+            return Level.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+
+    public static void setLevel(Level level) {
+        threshold = level.ordinal();
+    }
+
+    public static Level getLevel() {
+        return Level.values()[threshold];
+    }
+
+    // Messages lost because the ring buffer was full
+    public static long getDroppedCount() {
+        return AsyncLogAppender.get().getDroppedCount();
+    }
+
+    // Blocks until everything logged so far is written, e.g. before the application exits
+    public static void flush() {
+        AsyncLogAppender.get().flush();
+    }
+
+    public boolean isDebugEnabled() {
+        return threshold <= DEBUG;
+    }
+
+    public boolean isInfoEnabled() {
+        return threshold <= INFO;
+    }
+
+    public void debug(String message) {
+        if (threshold <= DEBUG) AsyncLogAppender.get().append(Level.DEBUG, component, message, null, null, null, 0, null);
+    }
+
+    public void debug(String format, Object arg) {
+        if (threshold <= DEBUG) AsyncLogAppender.get().append(Level.DEBUG, component, format, arg, null, null, 1, null);
+    }
+
+    public void debug(String format, Object arg1, Object arg2) {
+        if (threshold <= DEBUG) AsyncLogAppender.get().append(Level.DEBUG, component, format, arg1, arg2, null, 2, null);
+    }
+
+    public void debug(String format, Object... args) {
+        if (threshold <= DEBUG) AsyncLogAppender.get().append(Level.DEBUG, component, format, null, null, args, args == null ? 0 : args.length, null);
+    }
+
+    public void info(String message) {
+        if (threshold <= INFO) AsyncLogAppender.get().append(Level.INFO, component, message, null, null, null, 0, null);
+    }
+
+    public void info(String format, Object arg) {
+        if (threshold <= INFO) AsyncLogAppender.get().append(Level.INFO, component, format, arg, null, null, 1, null);
+    }
+
+    public void info(String format, Object arg1, Object arg2) {
+        if (threshold <= INFO) AsyncLogAppender.get().append(Level.INFO, component, format, arg1, arg2, null, 2, null);
+    }
+
+    public void info(String format, Object... args) {
+        if (threshold <= INFO) AsyncLogAppender.get().append(Level.INFO, component, format, null, null, args, args == null ? 0 : args.length, null);
+    }
+
+    public void warn(String message) {
+        if (threshold <= WARN) AsyncLogAppender.get().append(Level.WARN, component, message, null, null, null, 0, null);
+    }
+
+    public void warn(String format, Object arg) {
+        if (threshold <= WARN) AsyncLogAppender.get().append(Level.WARN, component, format, arg, null, null, 1, null);
+    }
+
+    public void warn(String format, Object arg1, Object arg2) {
+        if (threshold <= WARN) AsyncLogAppender.get().append(Level.WARN, component, format, arg1, arg2, null, 2, null);
+    }
+
+    public void warn(String format, Object... args) {
+        if (threshold <= WARN) AsyncLogAppender.get().append(Level.WARN, component, format, null, null, args, args == null ? 0 : args.length, null);
+    }
+
+    public void error(String message) {
+        if (threshold <= ERROR) AsyncLogAppender.get().append(Level.ERROR, component, message, null, null, null, 0, null);
+    }
+
+    public void error(String message, Throwable thrown) {
+        if (threshold <= ERROR) AsyncLogAppender.get().append(Level.ERROR, component, message, null, null, null, 0, thrown);
+    }
+
+    public void error(String format, Object arg) {
+        if (threshold <= ERROR) AsyncLogAppender.get().append(Level.ERROR, component, format, arg, null, null, 1, null);
+    }
+
+    public void error(String format, Object arg1, Object arg2) {
+        if (threshold <= ERROR) AsyncLogAppender.get().append(Level.ERROR, component, format, arg1, arg2, null, 2, null);
+    }
+
+    public void error(String format, Object... args) {
+        if (threshold <= ERROR) AsyncLogAppender.get().append(Level.ERROR, component, format, null, null, args, args == null ? 0 : args.length, null);
+    }
+}
@@ -0,0 +1,138 @@
+package com.stockmonitor.logging;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Appends UTF-8 text to a file and rolls it when it would grow past maxBytes:
+ * file -> file.1 -> file.2 ... keeping at most maxBackups old files (none with 0).
+ * The file is opened on the first write. Not thread-safe; each owner writes from one thread.
+ */
+public final class RollingFileWriter implements Closeable {
+
+    private final File file;
+    private final long maxBytes;
+    private final int maxBackups;
+    private final int bufferSize;
+    private Writer writer;
+    private long currentSize;
+
+    public RollingFileWriter(File file, long maxBytes, int maxBackups, int bufferSize) {
+        this.file = file;
+        this.maxBytes = Math.max(1024, maxBytes);
+        this.maxBackups = Math.max(0, maxBackups);
+        this.bufferSize = Math.max(1024, bufferSize);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Writes the text, rolling the file first if the text would not fit. A write never splits
+     * the text over two files.
+     */
+    public void write(String text) throws IOException {
+        write(text, false);
+    }
+
+    // Writes the text and a line separator
+    public void writeLine(String text) throws IOException {
+        write(text, true);
+    }
+
+    private void write(String text, boolean newLine) throws IOException {
+        String separator = System.lineSeparator();
+        long length = utf8Length(text) + (newLine ? separator.length() : 0);
+        if (writer != null && currentSize > 0 && currentSize + length > maxBytes) {
+            roll();
+        }
+        if (writer == null) {
+            open();
+        }
+        writer.write(text);
+        if (newLine) {
+            writer.write(separator);
+        }
+        currentSize += length;
+    }
+
+    public void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Closes the current file; the next write opens it again.
+     */
+    @Override
+    public void close() throws IOException {
+        Writer current = writer;
+        if (current != null) {
+            writer = null;
+            currentSize = 0;
+            current.close();
+        }
+    }
+
+    private void open() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create directory " + parent);
+        }
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8), bufferSize);
+        currentSize = file.length();
+    }
+
+    private void roll() throws IOException {
+        close();
+        if (maxBackups == 0) {
+            if (!file.delete()) {
+                throw new IOException("Could not delete " + file + " for rolling");
+            }
+            return;
+        }
+        File oldest = backup(maxBackups);
+        if (oldest.exists() && !oldest.delete()) {
+            throw new IOException("Could not delete " + oldest + " for rolling");
+        }
+        for (int i = maxBackups - 1; i >= 1; i--) {
+            File from = backup(i);
+            if (from.exists() && !from.renameTo(backup(i + 1))) {
+                throw new IOException("Could not rename " + from + " for rolling");
+            }
+        }
+        if (!file.renameTo(backup(1))) {
+            throw new IOException("Could not rename " + file + " for rolling");
+        }
+    }
+
+    private File backup(int index) {
+        return new File(file.getPath() + "." + index);
+    }
+
+    // Encoded size of the text, counted without encoding it
+    static long utf8Length(String text) {
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isSurrogate(c)) {
+                length += 2; // Half of a 4-byte surrogate pair
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,33 @@
+package com.stockmonitor.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Hand-off of one alert to the log, toast, sound and sinks (JFR); the duration covers the
+ * dispatch itself, queuedTime the wait in the alert queue before it.
+ */
+@Name("com.stockmonitor.AlertDispatch")
+@Label("Alert Dispatch")
+@Description("Alert taken from the queue and shown in the UI and sinks")
+@Category({ "Stock Monitor", "Alerts" })
+@StackTrace(false)
+public class AlertDispatchEvent extends jdk.jfr.Event {
+
+    @Label("Symbol")
+    public String symbol;
+
+    @Label("Type")
+    public String type;
+
+    @Label("Condition")
+    public String condition;
+
+    @Label("Time in Queue")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queuedTime;
+}
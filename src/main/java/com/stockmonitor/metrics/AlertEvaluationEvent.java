@@ -0,0 +1,27 @@
+package com.stockmonitor.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evaluation of all alert rules of a symbol for one tick (JFR).
+ */
+@Name("com.stockmonitor.AlertEvaluation")
+@Label("Alert Evaluation")
+@Description("Alert rules of one symbol evaluated against a new price")
+@Category({ "Stock Monitor", "Alerts" })
+@StackTrace(false)
+public class AlertEvaluationEvent extends jdk.jfr.Event {
+
+    @Label("Symbol")
+    public String symbol;
+
+    @Label("Rules")
+    public int rules;
+
+    @Label("Alerts Fired")
+    public int fired;
+}
@@ -0,0 +1,27 @@
+package com.stockmonitor.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One chart frame step (JFR): "update" pushes the buffered data into the chart, "paint" draws it.
+ */
+@Name("com.stockmonitor.ChartRender")
+@Label("Chart Render")
+@Description("Chart data update or paint of one panel")
+@Category({ "Stock Monitor", "Chart" })
+@StackTrace(false)
+public class ChartRenderEvent extends jdk.jfr.Event {
+
+    @Label("Panel")
+    public String panel;
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Offscreen")
+    public boolean offscreen;
+}
@@ -0,0 +1,29 @@
+package com.stockmonitor.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One quote request to the price API (JFR). Status is -1 if no HTTP response was received.
+ */
+@Name("com.stockmonitor.Fetch")
+@Label("Price Fetch")
+@Description("HTTP request for one quote")
+@Category({ "Stock Monitor", "Fetch" })
+@StackTrace(false)
+public class FetchEvent extends jdk.jfr.Event {
+
+    @Label("Symbol")
+    public String symbol;
+
+    @Label("HTTP Status")
+    public int status = -1;
+
+    @Label("Response Size")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,94 @@
+package com.stockmonitor.metrics;
+
+import com.stockmonitor.logging.Log;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Built-in Java Flight Recorder recording. With -Dstockmonitor.jfr.file=stockmonitor.jfr a
+ * recording with the JDK's settings plus the com.stockmonitor events (fetch, alert evaluation
+ * and dispatch, chart render) starts with the application and is written to the file on exit.
+ * Without it the events cost a disabled check; an external recording (jcmd JFR.start) picks
+ * them up as well.
+ */
+public final class FlightRecording {
+
+    private static final Log LOG = Log.get(FlightRecording.class);
+
+    // -Dstockmonitor.jfr.file: recording destination, unset to not record
+    public static final String DEFAULT_FILE = System.getProperty("stockmonitor.jfr.file");
+    // -Dstockmonitor.jfr.settings=default: JDK settings to record with, "default" (about 1% overhead) or "profile"
+    public static final String DEFAULT_SETTINGS = System.getProperty("stockmonitor.jfr.settings", "default");
+    // -Dstockmonitor.jfr.maxAgeMinutes=0: keep only this much history on disk, 0 keeps everything
+    public static final long DEFAULT_MAX_AGE_MINUTES = Long.getLong("stockmonitor.jfr.maxAgeMinutes", 0L);
+
+    // Recorded without a duration threshold, so every event is kept
+    private static final List<Class<? extends Event>> EVENTS = Arrays.asList(
+            FetchEvent.class, AlertEvaluationEvent.class, AlertDispatchEvent.class, ChartRenderEvent.class);
+
+    private static Recording recording;
+
+    private FlightRecording() {
+    }
+
+    // Starts the recording configured by the system properties; does nothing without stockmonitor.jfr.file
+    public static void startFromSystemProperties() {
+        if (DEFAULT_FILE == null || DEFAULT_FILE.trim().isEmpty()) {
+            return;
+        }
+        try {
+            start(Paths.get(DEFAULT_FILE.trim()), DEFAULT_SETTINGS, DEFAULT_MAX_AGE_MINUTES);
+        } catch (IOException | ParseException | RuntimeException e) {
+            LOG.error("Flight recording not started: {}", e.toString());
+        }
+    }
+
+    public static synchronized void start(Path destination, String settings, long maxAgeMinutes) throws IOException, ParseException {
+        if (recording != null) {
+            return;
+        }
+        Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+        newRecording.setName("stockmonitor");
+        for (Class<? extends Event> event : EVENTS) {
+            newRecording.enable(event).withoutThreshold();
+        }
+        newRecording.setToDisk(true);
+        if (maxAgeMinutes > 0) {
+            newRecording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        }
+        newRecording.setDestination(destination);
+        newRecording.setDumpOnExit(true);
+        newRecording.start();
+        recording = newRecording;
+        LOG.info("Flight recording started ({} settings), written to {} on exit.", settings, destination.toAbsolutePath());
+    }
+
+    // Stops the recording and writes it to its destination
+    public static synchronized void stop() {
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.stop();
+            LOG.info("Flight recording written to {}.", recording.getDestination());
+        } catch (RuntimeException e) {
+            LOG.error("Flight recording could not be stopped: {}", e.toString());
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public static synchronized boolean isRecording() {
+        return recording != null;
+    }
+}
@@ -0,0 +1,170 @@
+package com.stockmonitor.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram in nanoseconds with HDR-style log-linear buckets: every power of two is split
+ * into 2^subBucketBits linear sub-buckets, so the relative error is at most 1/2^subBucketBits
+ * (about 3% with 5 bits) from nanoseconds up to MAX_VALUE_NANOS, in a fixed array of counts.
+ * record() is lock-free (one atomic increment per bucket plus count, sum and max) and allocation-free,
+ * so it can be called on every poll, tick and frame. Reads work on a copied snapshot.
+ */
+public final class LatencyHistogram {
+
+    public static final int DEFAULT_SUB_BUCKET_BITS = 5;
+    private static final int MAX_EXPONENT = 36; // 2^36 ns is about 69 s; larger values are counted in the last bucket
+    public static final long MAX_VALUE_NANOS = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final String name;
+    private final int subBucketBits;
+    private final int subBucketCount;
+    private final AtomicLongArray counts;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this(name, DEFAULT_SUB_BUCKET_BITS);
+    }
+
+    /**
+     * @param subBucketBits precision: 3 bits (about 12%) needs 280 buckets, 5 bits (about 3%) 1056
+     */
+    public LatencyHistogram(String name, int subBucketBits) {
+        if (subBucketBits < 1 || subBucketBits > 10) {
+            throw new IllegalArgumentException("subBucketBits must be 1..10: " + subBucketBits);
+        }
+        this.name = name;
+        this.subBucketBits = subBucketBits;
+        this.subBucketCount = 1 << subBucketBits;
+        this.counts = new AtomicLongArray((MAX_EXPONENT - subBucketBits + 2) * subBucketCount);
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0L, Math.min(nanos, MAX_VALUE_NANOS));
+        counts.incrementAndGet(indexFor(value));
+        count.increment();
+        sum.add(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    // Records the time since startNanos (a System.nanoTime() value)
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    private int indexFor(long value) {
+        if (value < subBucketCount) {
+            return (int) value; // Exact below 2^subBucketBits
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - subBucketBits)) & (subBucketCount - 1);
+        return (exponent - subBucketBits + 1) * subBucketCount + subBucket;
+    }
+
+    // Highest value that falls into the bucket
+    private long highestValueAt(int index) {
+        int bucket = index / subBucketCount;
+        int subBucket = index % subBucketCount;
+        if (bucket == 0) {
+            return subBucket;
+        }
+        int shift = bucket - 1;
+        long lowest = ((long) (subBucketCount | subBucket)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Clears the histogram. Values recorded concurrently may be partly kept; fine for monitoring.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sum.sum(), max.get());
+    }
+
+    /**
+     * Consistent copy of the counts; percentiles are computed from it without touching the live histogram.
+     */
+    public final class Snapshot {
+        private final long[] bucketCounts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] bucketCounts, long count, long sum, long max) {
+            this.bucketCounts = bucketCounts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSumNanos() {
+            return sum;
+        }
+
+        public long getMaxNanos() {
+            return max;
+        }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        /**
+         * Value at the percentile (0..100) in nanoseconds, within the bucket precision; 0 if empty.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) return 0L;
+            long rank = Math.max(1L, (long) Math.ceil(count * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+            long seen = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                seen += bucketCounts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueAt(i), max);
+                }
+            }
+            return max;
+        }
+
+        // Cumulative count of values up to and including each bound (nanoseconds), e.g. for Prometheus buckets
+        public long getCountAtOrBelow(long boundNanos) {
+            long cumulative = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                if (highestValueAt(i) > boundNanos) break;
+                cumulative += bucketCounts[i];
+            }
+            return cumulative;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.stockmonitor.metrics;
+
+/**
+ * JMX view of one LatencyHistogram (com.stockmonitor:type=Latency,name=... or type=SymbolLatency,symbol=...).
+ */
+public interface LatencyHistogramMXBean {
+
+    long getCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
@@ -0,0 +1,298 @@
+package com.stockmonitor.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.swing.SwingUtilities;
+
+/**
+ * Process-wide latency histograms, counters and gauges. Components record into the static
+ * histograms and counters on their hot paths (lock-free, no allocation); components that already
+ * keep their own statistics register them as suppliers instead of counting twice. Everything is
+ * exposed over JMX (jconsole / VisualVM) once registerMBeans() has been called.
+ */
+public final class Metrics {
+
+    // Pipeline stages, in order: poll, parse, per-tick processing, alert evaluation and
+    // dispatch, then the EDT and chart rendering.
+    public static final LatencyHistogram FETCH = new LatencyHistogram("fetch");
+    public static final LatencyHistogram PARSE = new LatencyHistogram("parse");
+    public static final LatencyHistogram TICK = new LatencyHistogram("tick");
+    public static final LatencyHistogram TICK_RING = new LatencyHistogram("tickRing"); // published -> taken by a consumer
+    public static final LatencyHistogram ALERT_EVAL = new LatencyHistogram("alertEval");
+    public static final LatencyHistogram ALERT_DISPATCH = new LatencyHistogram("alertDispatch"); // queued -> shown
+    public static final LatencyHistogram EDT_QUEUE = new LatencyHistogram("edtQueue"); // invokeLater -> run
+    public static final LatencyHistogram CHART_UPDATE = new LatencyHistogram("chartUpdate");
+    public static final LatencyHistogram CHART_PAINT = new LatencyHistogram("chartPaint");
+    // End to end, from the HTTP response of a price: until its alert is shown, and until a frame containing it is on screen
+    public static final LatencyHistogram TICK_TO_ALERT = new LatencyHistogram("tickToAlert");
+    public static final LatencyHistogram TICK_TO_PIXEL = new LatencyHistogram("tickToPixel");
+
+    private static final LatencyHistogram[] STAGES = {
+            FETCH, PARSE, TICK, TICK_RING, ALERT_EVAL, ALERT_DISPATCH, EDT_QUEUE, CHART_UPDATE, CHART_PAINT, TICK_TO_ALERT, TICK_TO_PIXEL
+    };
+
+    public static final String REQUESTS = "requests";
+    public static final String RATE_LIMITED = "rateLimited";
+    public static final String HTTP_ERRORS = "httpErrors";
+    public static final String FETCH_ERRORS = "fetchErrors";
+    public static final String TICKS = "ticks";
+    public static final String ALERTS_QUEUED = "alertsQueued";
+    public static final String ALERTS_DISPLAYED = "alertsDisplayed";
+
+    // Provider limit the last-minute request count is compared to (Finnhub free tier)
+    private static volatile int apiBudgetPerMinute = 60;
+    // -Dstockmonitor.metrics.edtProbeMs=100: interval of the EDT latency probe, 0 to disable
+    private static final long EDT_PROBE_INTERVAL_MS = Long.getLong("stockmonitor.metrics.edtProbeMs", 100L);
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> COUNTER_SUPPLIERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> SYMBOL_FETCH = new ConcurrentHashMap<>();
+    private static final SlidingWindowCounter API_REQUESTS = new SlidingWindowCounter(60);
+    private static final AtomicBoolean MBEANS_REGISTERED = new AtomicBoolean(false);
+    private static final AtomicBoolean EDT_PROBE_STARTED = new AtomicBoolean(false);
+
+    static {
+        for (String name : new String[] { REQUESTS, RATE_LIMITED, HTTP_ERRORS, FETCH_ERRORS, TICKS, ALERTS_QUEUED, ALERTS_DISPLAYED }) {
+            COUNTERS.put(name, new LongAdder());
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static void increment(String counter) {
+        COUNTERS.computeIfAbsent(counter, _c -> new LongAdder()).increment();
+    }
+
+    public static long getCounter(String counter) {
+        LongAdder adder = COUNTERS.get(counter);
+        if (adder != null) return adder.sum();
+        LongSupplier supplier = COUNTER_SUPPLIERS.get(counter);
+        return supplier == null ? 0L : supplier.getAsLong();
+    }
+
+    /**
+     * Registers a counter kept elsewhere (e.g. AlertManager's dropped alerts); replaces one of the same name.
+     */
+    public static void registerCounter(String name, LongSupplier supplier) {
+        COUNTER_SUPPLIERS.put(name, supplier);
+    }
+
+    /**
+     * Registers a gauge read on demand (e.g. a queue depth); replaces one of the same name.
+     */
+    public static void registerGauge(String name, LongSupplier supplier) {
+        GAUGES.put(name, supplier);
+    }
+
+    public static Map<String, Long> counters() {
+        Map<String, Long> values = new TreeMap<>();
+        COUNTERS.forEach((name, adder) -> values.put(name, adder.sum()));
+        COUNTER_SUPPLIERS.forEach((name, supplier) -> values.put(name, safeRead(supplier)));
+        return values;
+    }
+
+    public static Map<String, Long> gauges() {
+        Map<String, Long> values = new TreeMap<>();
+        GAUGES.forEach((name, supplier) -> values.put(name, safeRead(supplier)));
+        return values;
+    }
+
+    private static long safeRead(LongSupplier supplier) {
+        try {
+            return supplier.getAsLong();
+        } catch (RuntimeException e) {
+            return -1L; // A failing gauge must not break the whole JMX read
+        }
+    }
+
+    public static LatencyHistogram[] stages() {
+        return STAGES.clone();
+    }
+
+    /**
+     * Fetch latency of one symbol, created on first use. Coarser (about 12%) than the stage
+     * histograms to keep the footprint small with many symbols.
+     */
+    public static LatencyHistogram symbolFetch(String symbol) {
+        LatencyHistogram histogram = SYMBOL_FETCH.get(symbol);
+        if (histogram != null) {
+            return histogram;
+        }
+        histogram = SYMBOL_FETCH.computeIfAbsent(symbol, _s -> new LatencyHistogram(_s, 3));
+        if (MBEANS_REGISTERED.get()) {
+            registerSymbolMBean(symbol, histogram);
+        }
+        return histogram;
+    }
+
+    public static Map<String, LatencyHistogram> symbolFetchHistograms() {
+        return Collections.unmodifiableMap(new TreeMap<>(SYMBOL_FETCH));
+    }
+
+    // Counts a request against the per-minute provider budget
+    public static void recordApiRequest() {
+        API_REQUESTS.increment();
+    }
+
+    public static long apiRequestsLastMinute() {
+        return API_REQUESTS.sum();
+    }
+
+    public static double apiBudgetUsedPercent() {
+        return 100.0 * apiRequestsLastMinute() / apiBudgetPerMinute;
+    }
+
+    public static void setApiBudgetPerMinute(int budget) {
+        apiBudgetPerMinute = Math.max(1, budget);
+    }
+
+    public static int getApiBudgetPerMinute() {
+        return apiBudgetPerMinute;
+    }
+
+    /**
+     * Starts a daemon thread that posts an empty task to the EDT every probe interval and records how
+     * long it waited in the event queue. A new probe is not posted while the previous one is still
+     * queued, so a stalled EDT is measured once instead of being flooded.
+     */
+    public static void startEdtProbe() {
+        if (EDT_PROBE_INTERVAL_MS <= 0 || !EDT_PROBE_STARTED.compareAndSet(false, true)) {
+            return;
+        }
+        AtomicBoolean pending = new AtomicBoolean(false);
+        Thread probe = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (pending.compareAndSet(false, true)) {
+                    long posted = System.nanoTime();
+                    SwingUtilities.invokeLater(() -> {
+                        EDT_QUEUE.recordSince(posted);
+                        pending.set(false);
+                    });
+                }
+                try {
+                    Thread.sleep(EDT_PROBE_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "EdtLatencyProbe");
+        probe.setDaemon(true);
+        probe.start();
+    }
+
+    /**
+     * Registers com.stockmonitor:type=Metrics, one com.stockmonitor:type=Latency,name=<stage> per stage
+     * and one com.stockmonitor:type=SymbolLatency,symbol=<symbol> per polled symbol. Safe to call twice.
+     */
+    public static void registerMBeans() {
+        if (!MBEANS_REGISTERED.compareAndSet(false, true)) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new MetricsBean(), new ObjectName("com.stockmonitor:type=Metrics"));
+            for (LatencyHistogram stage : STAGES) {
+                server.registerMBean(new HistogramBean(stage), new ObjectName("com.stockmonitor:type=Latency,name=" + stage.getName()));
+            }
+        } catch (Exception e) {
+            System.err.println("[Metrics] [Thread: " + Thread.currentThread().getName() + "] Failed to register MBeans: " + e.getMessage());
+        }
+        SYMBOL_FETCH.forEach(Metrics::registerSymbolMBean);
+    }
+
+    private static void registerSymbolMBean(String symbol, LatencyHistogram histogram) {
+        try {
+            ObjectName name = new ObjectName("com.stockmonitor:type=SymbolLatency,symbol=" + ObjectName.quote(symbol));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new HistogramBean(histogram), name);
+            }
+        } catch (Exception e) {
+            // Registered concurrently or an unusual symbol; the histogram is still recorded
+        }
+    }
+
+    private static final class MetricsBean implements MetricsMXBean {
+        @Override
+        public Map<String, Long> getCounters() {
+            return counters();
+        }
+
+        @Override
+        public Map<String, Long> getGauges() {
+            return gauges();
+        }
+
+        @Override
+        public long getApiRequestsLastMinute() {
+            return apiRequestsLastMinute();
+        }
+
+        @Override
+        public double getApiBudgetUsedPercent() {
+            return apiBudgetUsedPercent();
+        }
+    }
+
+    private static final class HistogramBean implements LatencyHistogramMXBean {
+        private final LatencyHistogram histogram;
+
+        HistogramBean(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        private static double micros(long nanos) {
+            return nanos / 1000.0;
+        }
+
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public double getMeanMicros() {
+            return histogram.snapshot().getMeanNanos() / 1000.0;
+        }
+
+        @Override
+        public double getP50Micros() {
+            return micros(histogram.snapshot().getValueAtPercentile(50.0));
+        }
+
+        @Override
+        public double getP90Micros() {
+            return micros(histogram.snapshot().getValueAtPercentile(90.0));
+        }
+
+        @Override
+        public double getP99Micros() {
+            return micros(histogram.snapshot().getValueAtPercentile(99.0));
+        }
+
+        @Override
+        public double getP999Micros() {
+            return micros(histogram.snapshot().getValueAtPercentile(99.9));
+        }
+
+        @Override
+        public double getMaxMicros() {
+            return micros(histogram.snapshot().getMaxNanos());
+        }
+
+        @Override
+        public void reset() {
+            histogram.reset();
+        }
+    }
+}
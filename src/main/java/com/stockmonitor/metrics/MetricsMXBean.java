@@ -0,0 +1,19 @@
+package com.stockmonitor.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the counters and gauges (com.stockmonitor:type=Metrics).
+ */
+public interface MetricsMXBean {
+
+    // Monotonic totals since start, by name
+    Map<String, Long> getCounters();
+
+    // Current levels (queue depths, active watchers, ...), by name
+    Map<String, Long> getGauges();
+
+    long getApiRequestsLastMinute();
+
+    double getApiBudgetUsedPercent();
+}
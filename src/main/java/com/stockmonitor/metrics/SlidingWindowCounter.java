@@ -0,0 +1,46 @@
+package com.stockmonitor.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts events over the last windowSeconds in one-second slots, e.g. API requests over the last
+ * minute against the provider's per-minute limit. Lock-free; a slot is reused once it is older
+ * than the window. Concurrent increments at a slot rollover may lose a count, fine for a gauge.
+ */
+public final class SlidingWindowCounter {
+
+    private final int windowSeconds;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray slotSeconds; // Epoch second each slot currently counts
+
+    public SlidingWindowCounter(int windowSeconds) {
+        this.windowSeconds = Math.max(1, windowSeconds);
+        this.counts = new AtomicLongArray(this.windowSeconds);
+        this.slotSeconds = new AtomicLongArray(this.windowSeconds);
+    }
+
+    public void increment() {
+        long second = System.currentTimeMillis() / 1000;
+        int slot = (int) (second % windowSeconds);
+        long slotSecond = slotSeconds.get(slot);
+        if (slotSecond != second && slotSeconds.compareAndSet(slot, slotSecond, second)) {
+            counts.set(slot, 0); // First event of a new second in this slot
+        }
+        counts.incrementAndGet(slot);
+    }
+
+    public long sum() {
+        long now = System.currentTimeMillis() / 1000;
+        long total = 0;
+        for (int slot = 0; slot < windowSeconds; slot++) {
+            if (now - slotSeconds.get(slot) < windowSeconds) {
+                total += counts.get(slot);
+            }
+        }
+        return total;
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+}
@@ -0,0 +1,75 @@
+package com.stockmonitor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlertRuleTest {
+
+    private static AlertEvent evaluate(AlertRule rule, double price, long nowMillis) {
+        return rule.evaluate("AAPL", price, -1, IndicatorSnapshot.EMPTY, nowMillis, 0L);
+    }
+
+    @Test
+    void firesOnceWhileConditionStaysTrue() {
+        AlertRule rule = new AlertRule(AlertCondition.PRICE_ABOVE, 100.0, 1.0, 0L);
+        assertNotNull(evaluate(rule, 101.0, 0));
+        assertFalse(rule.isArmed());
+        assertNull(evaluate(rule, 102.0, 1000));
+        assertNull(evaluate(rule, 103.0, 2000));
+        assertEquals(2, rule.getSuppressedCount());
+    }
+
+    @Test
+    void rearmsOnlyAfterMovingBackBeyondHysteresisBand() {
+        AlertRule rule = new AlertRule(AlertCondition.PRICE_ABOVE, 100.0, 1.0, 0L); // Band: 1.0
+        assertNotNull(evaluate(rule, 101.0, 0));
+        assertNull(evaluate(rule, 99.5, 1000)); // Below the target but inside the band
+        assertFalse(rule.isArmed());
+        assertNull(evaluate(rule, 100.5, 2000));
+        assertNull(evaluate(rule, 99.0, 3000)); // At target - band
+        assertTrue(rule.isArmed());
+        assertNotNull(evaluate(rule, 100.5, 4000));
+    }
+
+    @Test
+    void belowConditionRearmsAboveTheBand() {
+        AlertRule rule = new AlertRule(AlertCondition.PRICE_BELOW, 100.0, 2.0, 0L); // Band: 2.0
+        assertNotNull(evaluate(rule, 99.0, 0));
+        assertNull(evaluate(rule, 101.0, 1000));
+        assertFalse(rule.isArmed());
+        assertNull(evaluate(rule, 102.0, 2000));
+        assertTrue(rule.isArmed());
+    }
+
+    @Test
+    void throttlesFiringWithinMinimumInterval() {
+        AlertRule rule = new AlertRule(AlertCondition.PRICE_ABOVE, 100.0, 0.0, 10_000L);
+        assertNotNull(evaluate(rule, 101.0, 0));
+        assertNull(evaluate(rule, 99.0, 1000)); // Re-arms immediately without a band
+        assertNull(evaluate(rule, 101.0, 5000)); // Armed, but throttled
+        assertNotNull(evaluate(rule, 101.0, 10_001));
+    }
+
+    @Test
+    void alertCarriesRuleId() {
+        AlertRule rule = new AlertRule(AlertCondition.PRICE_ABOVE, 100.0, 1.0, 0L);
+        assertEquals(rule.getId(), evaluate(rule, 101.0, 0).getRuleId());
+    }
+
+    @Test
+    void parseRejectsInvalidThresholds() {
+        assertNull(AlertRule.parse(null));
+        assertNull(AlertRule.parse("Price > Value"));
+        assertNull(AlertRule.parse("Unknown@5"));
+        assertNull(AlertRule.parse("Price > Value@abc"));
+        AlertRule indicatorRule = AlertRule.parse("Price > SMA@");
+        assertNotNull(indicatorRule);
+        assertTrue(Double.isNaN(indicatorRule.getTargetValue()));
+        assertEquals("Price > Value@100", AlertRule.parse("Price > Value@100").getSource());
+    }
+}
@@ -0,0 +1,135 @@
+package com.stockmonitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedAlertQueueTest {
+
+    private static AlertEvent alert(String symbol, int ruleId, double price) {
+        return AlertEvent.conditionMet(symbol, ruleId, AlertCondition.PRICE_ABOVE, price, 100.0);
+    }
+
+    private static List<AlertEvent> drain(BoundedAlertQueue queue) throws InterruptedException {
+        List<AlertEvent> alerts = new ArrayList<>();
+        AlertEvent alert;
+        while ((alert = queue.poll(0, TimeUnit.MILLISECONDS)) != null) {
+            alerts.add(alert);
+        }
+        return alerts;
+    }
+
+    @Test
+    void coalesceKeepsEveryAlertWhileNotFull() throws InterruptedException {
+        BoundedAlertQueue queue = new BoundedAlertQueue(8, BoundedAlertQueue.OverflowPolicy.COALESCE);
+        // Two rules with the same condition on one symbol, e.g. "Price > Value@100" and "Price > Value@110"
+        AlertEvent first = alert("AAPL", 1, 101.0);
+        AlertEvent second = alert("AAPL", 2, 111.0);
+        AlertEvent again = alert("AAPL", 1, 102.0);
+        assertTrue(queue.offer(first));
+        assertTrue(queue.offer(second));
+        assertTrue(queue.offer(again));
+
+        List<AlertEvent> alerts = drain(queue);
+        assertEquals(3, alerts.size());
+        assertSame(first, alerts.get(0));
+        assertSame(second, alerts.get(1));
+        assertSame(again, alerts.get(2));
+        assertEquals(0, queue.getCoalescedCount());
+        assertEquals(0, queue.getDroppedCount());
+    }
+
+    @Test
+    void coalesceReplacesPendingAlertOfSameRuleWhenFull() throws InterruptedException {
+        BoundedAlertQueue queue = new BoundedAlertQueue(2, BoundedAlertQueue.OverflowPolicy.COALESCE);
+        AlertEvent rule1 = alert("AAPL", 1, 101.0);
+        AlertEvent rule2 = alert("AAPL", 2, 111.0);
+        AlertEvent rule2Newer = alert("AAPL", 2, 112.0);
+        queue.offer(rule1);
+        queue.offer(rule2);
+        assertTrue(queue.offer(rule2Newer));
+
+        List<AlertEvent> alerts = drain(queue);
+        assertEquals(2, alerts.size());
+        assertSame(rule1, alerts.get(0));
+        assertSame(rule2Newer, alerts.get(1)); // Newer value, original position
+        assertEquals(1, queue.getCoalescedCount());
+        assertEquals(0, queue.getDroppedCount());
+    }
+
+    @Test
+    void coalesceDropsOldestWhenFullWithoutPendingAlertOfSameRule() throws InterruptedException {
+        BoundedAlertQueue queue = new BoundedAlertQueue(2, BoundedAlertQueue.OverflowPolicy.COALESCE);
+        AlertEvent oldest = alert("AAPL", 1, 101.0);
+        AlertEvent middle = alert("MSFT", 2, 101.0);
+        AlertEvent newest = alert("AAPL", 3, 101.0);
+        queue.offer(oldest);
+        queue.offer(middle);
+        assertFalse(queue.offer(newest));
+
+        List<AlertEvent> alerts = drain(queue);
+        assertEquals(2, alerts.size());
+        assertSame(middle, alerts.get(0));
+        assertSame(newest, alerts.get(1));
+        assertEquals(1, queue.getDroppedCount());
+    }
+
+    @Test
+    void coalesceDoesNotReplaceAlertAlreadyTaken() throws InterruptedException {
+        BoundedAlertQueue queue = new BoundedAlertQueue(1, BoundedAlertQueue.OverflowPolicy.COALESCE);
+        queue.offer(alert("AAPL", 1, 101.0));
+        queue.poll(0, TimeUnit.MILLISECONDS);
+        AlertEvent other = alert("MSFT", 2, 101.0);
+        AlertEvent again = alert("AAPL", 1, 102.0);
+        queue.offer(other);
+        assertFalse(queue.offer(again)); // The taken alert is gone; the pending one of another rule is dropped
+
+        List<AlertEvent> alerts = drain(queue);
+        assertEquals(1, alerts.size());
+        assertSame(again, alerts.get(0));
+    }
+
+    @Test
+    void symbolsWithCollidingHashCodesAreDistinctRules() throws InterruptedException {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        BoundedAlertQueue queue = new BoundedAlertQueue(1, BoundedAlertQueue.OverflowPolicy.COALESCE);
+        queue.offer(alert("Aa", AlertEvent.NO_RULE, 101.0));
+        AlertEvent bb = alert("BB", AlertEvent.NO_RULE, 101.0);
+        assertFalse(queue.offer(bb)); // Not coalesced into "Aa"
+        assertEquals(0, queue.getCoalescedCount());
+        assertSame(bb, drain(queue).get(0));
+    }
+
+    @Test
+    void dropOldestKeepsNewestAlerts() throws InterruptedException {
+        BoundedAlertQueue queue = new BoundedAlertQueue(2, BoundedAlertQueue.OverflowPolicy.DROP_OLDEST);
+        AlertEvent first = alert("AAPL", 1, 101.0);
+        AlertEvent second = alert("AAPL", 1, 102.0);
+        AlertEvent third = alert("AAPL", 1, 103.0);
+        assertTrue(queue.offer(first));
+        assertTrue(queue.offer(second));
+        assertFalse(queue.offer(third));
+
+        List<AlertEvent> alerts = drain(queue);
+        assertEquals(2, alerts.size());
+        assertSame(second, alerts.get(0));
+        assertSame(third, alerts.get(1));
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(0, queue.getCoalescedCount());
+    }
+
+    @Test
+    void pollTimesOutOnEmptyQueue() throws InterruptedException {
+        BoundedAlertQueue queue = new BoundedAlertQueue(4, BoundedAlertQueue.OverflowPolicy.COALESCE);
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        assertTrue(queue.isEmpty());
+    }
+}
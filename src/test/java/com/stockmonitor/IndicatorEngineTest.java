@@ -0,0 +1,174 @@
+package com.stockmonitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndicatorEngineTest {
+
+    private static final int SMA = IndicatorEngine.DEFAULT_SMA_PERIOD;
+    private static final int EMA = IndicatorEngine.DEFAULT_EMA_PERIOD;
+    private static final int RSI = IndicatorEngine.DEFAULT_RSI_PERIOD;
+    private static final int CHANGE = IndicatorEngine.DEFAULT_CHANGE_PERIOD;
+    private static final double TOLERANCE = 1e-9;
+
+    // Random walk long enough for every RollingWindow to resync its running sums (64 wraps) several times
+    private static double[] randomSeries(long seed, int length) {
+        Random random = new Random(seed);
+        double[] prices = new double[length];
+        double price = 100.0;
+        for (int i = 0; i < length; i++) {
+            price = Math.max(1.0, price + random.nextGaussian());
+            prices[i] = price;
+        }
+        return prices;
+    }
+
+    private static double mean(double[] prices, int from, int to) {
+        double sum = 0.0;
+        for (int i = from; i < to; i++) {
+            sum += prices[i];
+        }
+        return sum / (to - from);
+    }
+
+    // Population standard deviation, as drawn for the Bollinger bands
+    private static double standardDeviation(double[] prices, int from, int to) {
+        double mean = mean(prices, from, to);
+        double squares = 0.0;
+        for (int i = from; i < to; i++) {
+            squares += (prices[i] - mean) * (prices[i] - mean);
+        }
+        return Math.sqrt(squares / (to - from));
+    }
+
+    private static double ema(double[] prices, int last) {
+        double alpha = 2.0 / (EMA + 1);
+        double ema = prices[0];
+        for (int i = 1; i <= last; i++) {
+            ema += alpha * (prices[i] - ema);
+        }
+        return ema;
+    }
+
+    // Wilder's RSI: simple averages over the first RSI changes, then (average * (n - 1) + value) / n
+    private static double rsi(double[] prices, int last) {
+        double gain = 0.0;
+        double loss = 0.0;
+        for (int i = 1; i <= RSI; i++) {
+            double delta = prices[i] - prices[i - 1];
+            gain += Math.max(delta, 0.0);
+            loss += Math.max(-delta, 0.0);
+        }
+        gain /= RSI;
+        loss /= RSI;
+        for (int i = RSI + 1; i <= last; i++) {
+            double delta = prices[i] - prices[i - 1];
+            gain = (gain * (RSI - 1) + Math.max(delta, 0.0)) / RSI;
+            loss = (loss * (RSI - 1) + Math.max(-delta, 0.0)) / RSI;
+        }
+        if (loss == 0.0) {
+            return gain == 0.0 ? 50.0 : 100.0;
+        }
+        return 100.0 - 100.0 / (1.0 + gain / loss);
+    }
+
+    private static void assertClose(double expected, double actual, String what, int tick) {
+        assertEquals(expected, actual, TOLERANCE * Math.max(1.0, Math.abs(expected)), what + " at tick " + tick);
+    }
+
+    @Test
+    void valuesMatchBruteForceRecomputation() {
+        double[] prices = randomSeries(7, 64 * SMA * 3 + 100);
+        IndicatorEngine engine = new IndicatorEngine();
+        TickEvent tick = new TickEvent();
+        for (int i = 0; i < prices.length; i++) {
+            engine.update("AAPL", prices[i], tick);
+            int samples = i + 1;
+            assertEquals(samples, tick.getSampleCount());
+
+            if (samples >= SMA) {
+                double sma = mean(prices, samples - SMA, samples);
+                double width = IndicatorEngine.DEFAULT_BOLLINGER_STDDEV_MULTIPLIER * standardDeviation(prices, samples - SMA, samples);
+                assertClose(sma, tick.getSma(), "SMA", i);
+                assertClose(sma + width, tick.getUpperBand(), "upper band", i);
+                assertClose(sma - width, tick.getLowerBand(), "lower band", i);
+            } else {
+                assertTrue(Double.isNaN(tick.getSma()) && Double.isNaN(tick.getUpperBand()) && Double.isNaN(tick.getLowerBand()));
+            }
+
+            if (samples >= EMA) {
+                assertClose(ema(prices, i), tick.getEma(), "EMA", i);
+            } else {
+                assertTrue(Double.isNaN(tick.getEma()));
+            }
+
+            if (samples > RSI) {
+                assertClose(rsi(prices, i), tick.getRsi(), "RSI", i);
+            } else {
+                assertTrue(Double.isNaN(tick.getRsi()));
+            }
+
+            if (samples > CHANGE) {
+                double reference = prices[i - CHANGE];
+                assertClose((prices[i] - reference) / reference * 100.0, tick.getPercentChange(), "% change", i);
+            } else {
+                assertTrue(Double.isNaN(tick.getPercentChange()));
+            }
+        }
+    }
+
+    @Test
+    void rsiOfFlatAndRisingPrices() {
+        IndicatorEngine engine = new IndicatorEngine();
+        TickEvent tick = new TickEvent();
+        for (int i = 0; i <= RSI; i++) {
+            engine.update("FLAT", 10.0, tick);
+        }
+        assertEquals(50.0, tick.getRsi()); // No gains and no losses
+        for (int i = 0; i <= RSI; i++) {
+            engine.update("UP", 10.0 + i, tick);
+        }
+        assertEquals(100.0, tick.getRsi()); // Only gains
+    }
+
+    @Test
+    void tickValuesMatchSnapshots() {
+        IndicatorEngine snapshots = new IndicatorEngine();
+        IndicatorEngine ticks = new IndicatorEngine();
+        TickEvent tick = new TickEvent();
+        Random random = new Random(3);
+        double price = 100.0;
+        for (int i = 0; i < 200; i++) {
+            price += random.nextGaussian();
+            IndicatorSnapshot snapshot = snapshots.update("AAPL", price);
+            ticks.update("aapl", price, tick);
+            assertEquals(snapshot.getSma(), tick.getSma());
+            assertEquals(snapshot.getEma(), tick.getEma());
+            assertEquals(snapshot.getRsi(), tick.getRsi());
+            assertEquals(snapshot.getUpperBand(), tick.getUpperBand());
+            assertEquals(snapshot.getLowerBand(), tick.getLowerBand());
+            assertEquals(snapshot.getPercentChange(), tick.getPercentChange());
+            assertEquals(snapshot.getSampleCount(), tick.getSampleCount());
+            assertEquals(snapshot.hasOverlayValues(), tick.hasOverlayValues());
+        }
+        assertTrue(tick.hasOverlayValues());
+        assertEquals(price, ticks.getSnapshot("AAPL").getPrice());
+    }
+
+    @Test
+    void warmingUpValuesAreNaN() {
+        IndicatorEngine engine = new IndicatorEngine();
+        TickEvent tick = new TickEvent();
+        engine.update("MSFT", 50.0, tick);
+        assertTrue(Double.isNaN(tick.getSma()));
+        assertTrue(Double.isNaN(tick.getRsi()));
+        assertFalse(tick.hasOverlayValues());
+        assertEquals(1, tick.getSampleCount());
+        assertEquals(IndicatorSnapshot.EMPTY, engine.getSnapshot("AAPL"));
+    }
+}
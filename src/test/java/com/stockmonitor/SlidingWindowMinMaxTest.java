@@ -0,0 +1,99 @@
+package com.stockmonitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowMinMaxTest {
+
+    @Test
+    void emptyWindowIsNaN() {
+        SlidingWindowMinMax range = new SlidingWindowMinMax(3);
+        assertTrue(Double.isNaN(range.min()));
+        assertTrue(Double.isNaN(range.max()));
+    }
+
+    @Test
+    void extremesSlideOutOfTheWindow() {
+        SlidingWindowMinMax range = new SlidingWindowMinMax(3);
+        range.add(5);
+        range.add(1);
+        range.add(9);
+        assertEquals(1, range.min());
+        assertEquals(9, range.max());
+        range.add(4); // Evicts 5
+        assertEquals(1, range.min());
+        range.add(6); // Evicts 1
+        assertEquals(4, range.min());
+        assertEquals(9, range.max());
+        range.add(2); // Evicts 9
+        assertEquals(2, range.min());
+        assertEquals(6, range.max());
+    }
+
+    @Test
+    void nanTakesASlotButIsIgnored() {
+        SlidingWindowMinMax range = new SlidingWindowMinMax(2);
+        range.add(3);
+        range.add(Double.NaN);
+        assertEquals(3, range.min());
+        range.add(Double.NaN); // Evicts 3
+        assertTrue(Double.isNaN(range.min()));
+        assertTrue(Double.isNaN(range.max()));
+    }
+
+    @Test
+    void lowAndHighFeedMinimumAndMaximum() {
+        SlidingWindowMinMax range = new SlidingWindowMinMax(2);
+        range.add(10, 20);
+        range.add(12, 15);
+        assertEquals(10, range.min());
+        assertEquals(20, range.max());
+        range.add(11, 14);
+        assertEquals(11, range.min());
+        assertEquals(15, range.max());
+    }
+
+    @Test
+    void matchesBruteForceOnRandomValues() {
+        Random random = new Random(42);
+        for (int window : new int[] {1, 2, 7, 64}) {
+            SlidingWindowMinMax range = new SlidingWindowMinMax(window);
+            double[] values = new double[2000];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(10) == 0 ? Double.NaN : random.nextInt(50); // Duplicates and NaNs
+                range.add(values[i]);
+                double min = Double.NaN;
+                double max = Double.NaN;
+                for (int j = Math.max(0, i - window + 1); j <= i; j++) {
+                    if (Double.isNaN(values[j])) continue;
+                    min = Double.isNaN(min) ? values[j] : Math.min(min, values[j]);
+                    max = Double.isNaN(max) ? values[j] : Math.max(max, values[j]);
+                }
+                assertEquals(min, range.min(), "min at " + i + ", window " + window);
+                assertEquals(max, range.max(), "max at " + i + ", window " + window);
+            }
+        }
+    }
+
+    @Test
+    void clearStartsOver() {
+        SlidingWindowMinMax range = new SlidingWindowMinMax(4);
+        range.add(1);
+        range.add(8);
+        range.clear();
+        assertTrue(Double.isNaN(range.min()));
+        range.add(5);
+        assertEquals(5, range.min());
+        assertEquals(5, range.max());
+    }
+
+    @Test
+    void rejectsNonPositiveWindow() {
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowMinMax(0));
+    }
+}
@@ -0,0 +1,49 @@
+package com.stockmonitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatusHttpServerTest {
+
+    private static String get(int port, String path) throws IOException {
+        URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(), port, path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(5000); // A scrape blocked on a lock fails here instead of hanging the build
+        try {
+            assertEquals(200, connection.getResponseCode());
+            try (InputStream in = connection.getInputStream()) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    void metricsScrapeReturnsWhileWatcherLockIsHeld() throws IOException {
+        MainController controller = new MainController();
+        controller.registerWatcherGauges();
+        StatusHttpServer server = new StatusHttpServer(controller, 0, 0);
+        server.start();
+        try {
+            String body;
+            synchronized (controller.watcherLock) { // As during a reconcile or a profile switch
+                body = get(server.getPort(), "/metrics");
+            }
+            assertTrue(body.contains("stockmonitor_active_watchers 0\n"), body);
+            assertTrue(body.contains("stockmonitor_warm_watchers 0\n"), body);
+        } finally {
+            server.stop();
+        }
+    }
+}
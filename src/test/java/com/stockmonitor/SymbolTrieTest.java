@@ -0,0 +1,62 @@
+package com.stockmonitor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SymbolTrieTest {
+
+    private static SymbolTrie trie(String... keys) {
+        SymbolTrie trie = new SymbolTrie();
+        for (int i = 0; i < keys.length; i++) {
+            trie.add(keys[i], i);
+        }
+        return trie;
+    }
+
+    @Test
+    void prefixListsShorterKeysFirstThenAlphabetical() {
+        SymbolTrie trie = trie("AAPL", "AA", "AAL", "AMZN", "AAPLX", "MSFT");
+        assertArrayEquals(new int[] {1, 2, 0, 4}, trie.prefix("AA", 10)); // AA, AAL, AAPL, AAPLX
+        assertArrayEquals(new int[] {1, 2, 0, 3, 4}, trie.prefix("A", 10)); // AA, AAL, AAPL, AMZN, AAPLX
+    }
+
+    @Test
+    void prefixStopsAtLimitAndIgnoresUnknownPrefixes() {
+        SymbolTrie trie = trie("AAPL", "AA", "AAL", "AMZN");
+        assertArrayEquals(new int[] {1, 2}, trie.prefix("A", 2));
+        assertEquals(0, trie.prefix("X", 5).length);
+        assertEquals(0, trie.prefix("AAPLZ", 5).length);
+        assertEquals(0, trie.prefix("A", 0).length);
+    }
+
+    @Test
+    void keysCanShareAnIdAndAnIdIsListedOnce() {
+        SymbolTrie trie = new SymbolTrie();
+        trie.add("APPLE", 7); // Description word
+        trie.add("AAPL", 7);  // Symbol of the same entry
+        trie.add("APP", 8);
+        assertArrayEquals(new int[] {8, 7}, trie.prefix("AP", 10));
+        assertArrayEquals(new int[] {8, 7}, trie.prefix("A", 10)); // APP is shorter than AAPL
+    }
+
+    @Test
+    void fuzzyRanksByDistanceThenKeyLength() {
+        SymbolTrie trie = trie("MSFT", "MSFTX", "MSTF", "MSF", "NSFT");
+        // Distance 0: MSFT; distance 1: MSF (shorter), MSFTX; distance 2: MSTF. NSFT has another first character.
+        assertArrayEquals(new int[] {0, 3, 1, 2}, trie.fuzzy("MSFT", 2, 10));
+        assertArrayEquals(new int[] {0, 3, 1}, trie.fuzzy("MSFT", 1, 10));
+        assertArrayEquals(new int[] {0, 3}, trie.fuzzy("MSFT", 2, 2));
+    }
+
+    @Test
+    void fuzzyKeepsBestMatchOfAnId() {
+        SymbolTrie trie = new SymbolTrie();
+        trie.add("TESLA", 1);
+        trie.add("TSLA", 1);
+        trie.add("TSLL", 2);
+        // TSLA matches exactly, TESLA with one edit; id 1 is listed once, ahead of TSLL (one edit)
+        assertArrayEquals(new int[] {1, 2}, trie.fuzzy("TSLA", 1, 10));
+    }
+}
@@ -0,0 +1,181 @@
+package com.stockmonitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickRingBufferTest {
+
+    // Every price field is derived from the timestamp, so a tick mixed from two writes is detected
+    private static void fill(TickEvent tick, String symbol, long value) {
+        tick.symbol = symbol;
+        tick.timestampMillis = value;
+        tick.open = value;
+        tick.high = value + 1;
+        tick.low = value - 1;
+        tick.close = value;
+        tick.previousPrice = value - 1;
+        tick.sma = value;
+        tick.tickNanos = value;
+    }
+
+    private static boolean isConsistent(TickEvent tick) {
+        long value = tick.timestampMillis;
+        return tick.open == value && tick.high == value + 1 && tick.low == value - 1 && tick.close == value
+                && tick.previousPrice == value - 1 && tick.sma == value && tick.tickNanos == value;
+    }
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        TickRingBuffer ring = new TickRingBuffer(100);
+        assertEquals(128, ring.getCapacity());
+        assertEquals(16, new TickRingBuffer(3).getCapacity());
+        assertEquals(16, new TickRingBuffer(16).getCapacity());
+        assertEquals(64, new TickRingBuffer(64).getCapacity());
+        ring.shutdown(1000);
+    }
+
+    @Test
+    void consumerSeesTicksInOrderAndDrainsOnShutdown() {
+        TickRingBuffer ring = new TickRingBuffer(64);
+        List<Long> seen = new ArrayList<>();
+        AtomicInteger batches = new AtomicInteger();
+        AtomicBoolean shutDown = new AtomicBoolean();
+        TickRingBuffer.Consumer consumer = ring.addConsumer("test", new TickHandler() {
+            @Override
+            public void onTick(TickEvent event) {
+                seen.add(event.timestampMillis);
+            }
+
+            @Override
+            public void onBatchEnd() {
+                batches.incrementAndGet();
+            }
+
+            @Override
+            public void onShutdown() {
+                shutDown.set(true);
+            }
+        });
+        TickEvent tick = new TickEvent();
+        for (long i = 0; i < 50; i++) {
+            fill(tick, "AAPL", i);
+            ring.publish(tick);
+        }
+        ring.shutdown(5000);
+
+        assertTrue(shutDown.get());
+        assertEquals(50, ring.getPublishedCount());
+        assertEquals(50, seen.size());
+        for (int i = 0; i < seen.size(); i++) {
+            assertEquals(i, (long) seen.get(i));
+        }
+        assertTrue(batches.get() >= 1);
+        assertEquals(0, consumer.getLostCount());
+        assertEquals(0, consumer.getLag());
+    }
+
+    @Test
+    void lappedConsumerSkipsAheadAndCountsLostTicks() throws InterruptedException {
+        TickRingBuffer ring = new TickRingBuffer(16);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> slowSeen = new ArrayList<>();
+        AtomicLong fastSeen = new AtomicLong();
+        TickRingBuffer.Consumer slow = ring.addConsumer("slow", _e -> {
+            if (slowSeen.isEmpty()) {
+                entered.countDown();
+                release.await();
+            }
+            slowSeen.add(_e.timestampMillis);
+        });
+        TickRingBuffer.Consumer fast = ring.addConsumer("fast", _e -> fastSeen.incrementAndGet());
+
+        TickEvent tick = new TickEvent();
+        fill(tick, "AAPL", 0);
+        ring.publish(tick);
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        for (long i = 1; i < 200; i++) { // More than a whole ring while the slow consumer is stuck
+            fill(tick, "AAPL", i);
+            ring.publish(tick);
+        }
+        assertTrue(slow.getLag() > ring.getCapacity());
+        release.countDown();
+        ring.shutdown(5000);
+
+        assertTrue(slow.getLostCount() > 0);
+        assertEquals(200, slowSeen.size() + slow.getLostCount());
+        for (int i = 1; i < slowSeen.size(); i++) {
+            assertTrue(slowSeen.get(i) > slowSeen.get(i - 1));
+        }
+        assertEquals(199L, (long) slowSeen.get(slowSeen.size() - 1)); // Caught up to the newest tick
+        assertEquals(200, fastSeen.get() + fast.getLostCount()); // The slow consumer did not hold up the fast one
+    }
+
+    @Test
+    void concurrentProducersNeverDeliverTornTicks() throws InterruptedException {
+        TickRingBuffer ring = new TickRingBuffer(16);
+        AtomicLong handled = new AtomicLong();
+        AtomicLong torn = new AtomicLong();
+        TickRingBuffer.Consumer consumer = ring.addConsumer("check", _e -> {
+            if (!isConsistent(_e)) {
+                torn.incrementAndGet();
+            }
+            handled.incrementAndGet();
+        });
+        int producers = 4;
+        int ticksPerProducer = 50_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * ticksPerProducer;
+            Thread thread = new Thread(() -> {
+                TickEvent tick = new TickEvent();
+                for (int i = 0; i < ticksPerProducer; i++) {
+                    fill(tick, "SYM", base + i);
+                    ring.publish(tick);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        ring.shutdown(10_000);
+
+        assertEquals((long) producers * ticksPerProducer, ring.getPublishedCount());
+        assertEquals(0, torn.get());
+        assertEquals(ring.getPublishedCount(), handled.get() + consumer.getLostCount());
+    }
+
+    @Test
+    void failingHandlerIsCountedAndKeepsConsuming() {
+        TickRingBuffer ring = new TickRingBuffer(16);
+        AtomicInteger seen = new AtomicInteger();
+        TickRingBuffer.Consumer consumer = ring.addConsumer("failing", _e -> {
+            seen.incrementAndGet();
+            if (_e.timestampMillis % 2 == 0) {
+                throw new IllegalStateException("bad tick " + _e.timestampMillis);
+            }
+        });
+        TickEvent tick = new TickEvent();
+        for (long i = 0; i < 10; i++) {
+            fill(tick, "AAPL", i);
+            ring.publish(tick);
+        }
+        ring.shutdown(5000);
+
+        assertEquals(10, seen.get());
+        assertEquals(5, consumer.getFailedCount());
+        assertEquals(0, consumer.getLostCount());
+    }
+}
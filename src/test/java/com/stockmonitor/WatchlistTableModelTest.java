@@ -0,0 +1,97 @@
+package com.stockmonitor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WatchlistTableModelTest {
+
+    private final WatchlistTableModel model = new WatchlistTableModel(1);
+
+    @AfterEach
+    void tearDown() {
+        model.dispose();
+    }
+
+    private static <T> T onEdt(Callable<T> task) throws Exception {
+        AtomicReference<T> result = new AtomicReference<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                result.set(task.call());
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        });
+        if (failure.get() != null) throw failure.get();
+        return result.get();
+    }
+
+    private void awaitRowCount(int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (onEdt(model::getRowCount) != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, (int) onEdt(model::getRowCount));
+    }
+
+    private List<Object> symbols() throws Exception {
+        return onEdt(() -> {
+            List<Object> symbols = new ArrayList<>();
+            for (int i = 0; i < model.getRowCount(); i++) {
+                symbols.add(model.getValueAt(i, WatchlistTableModel.COLUMN_SYMBOL));
+            }
+            return symbols;
+        });
+    }
+
+    @Test
+    void removeSymbolDeletesRowAndReindexesLaterRows() throws Exception {
+        long now = System.currentTimeMillis();
+        model.onQuote("AAA", 1.0, now);
+        model.onQuote("BBB", 2.0, now);
+        model.onQuote("CCC", 3.0, now);
+        awaitRowCount(3);
+        List<TableModelEvent> deletions = new ArrayList<>();
+        onEdt(() -> {
+            model.addTableModelListener(_e -> {
+                if (_e.getType() == TableModelEvent.DELETE) deletions.add(_e);
+            });
+            return null;
+        });
+
+        model.removeSymbol("bbb"); // From a non-EDT thread, case-insensitive
+        awaitRowCount(2);
+        assertEquals(List.of("AAA", "CCC"), symbols());
+        assertEquals(1, deletions.size());
+        assertEquals(1, deletions.get(0).getFirstRow());
+        assertEquals(2, model.getSymbolCount());
+
+        model.onQuote("CCC", 4.0, now); // Updates the moved row, not a stale index
+        model.onQuote("BBB", 5.0, now); // A later quote adds the symbol again, at the end
+        awaitRowCount(3);
+        assertEquals(List.of("AAA", "CCC", "BBB"), symbols());
+        assertEquals(4.0, onEdt(() -> model.getValueAt(1, WatchlistTableModel.COLUMN_LAST)));
+    }
+
+    @Test
+    void removeSymbolBeforeFirstFlushAddsNoRow() throws Exception {
+        onEdt(() -> {
+            model.onQuote("AAA", 1.0, System.currentTimeMillis());
+            model.removeSymbol("AAA"); // The flush timer has not run yet
+            return null;
+        });
+        Thread.sleep(50);
+        awaitRowCount(0);
+        assertTrue(Double.isNaN(model.getRecentPrice("AAA", 60000)));
+    }
+}
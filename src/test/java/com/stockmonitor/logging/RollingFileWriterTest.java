@@ -0,0 +1,70 @@
+package com.stockmonitor.logging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class RollingFileWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder text = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            text.append(c);
+        }
+        return text.toString();
+    }
+
+    @Test
+    void rollsBeforeTextThatWouldNotFitAndKeepsMaxBackups() throws IOException {
+        File file = directory.resolve("sub").resolve("alerts.log").toFile(); // The directory is created on open
+        RollingFileWriter writer = new RollingFileWriter(file, 1024, 2, 1024);
+        String a = repeat('a', 600);
+        String b = repeat('b', 600);
+        String c = repeat('c', 600);
+        String d = repeat('d', 600);
+        writer.write(a);
+        writer.write(b); // 1200 > 1024: rolls first, never splits the text
+        writer.write(c);
+        writer.write(d);
+        writer.close();
+
+        assertEquals(d, read(file));
+        assertEquals(c, read(new File(file.getPath() + ".1")));
+        assertEquals(b, read(new File(file.getPath() + ".2")));
+        assertFalse(new File(file.getPath() + ".3").exists()); // a was rolled away
+    }
+
+    @Test
+    void appendsToExistingFileAndCountsItsSize() throws IOException {
+        File file = directory.resolve("app.log").toFile();
+        Files.write(file.toPath(), repeat('x', 1000).getBytes(StandardCharsets.UTF_8));
+        RollingFileWriter writer = new RollingFileWriter(file, 1024, 1, 1024);
+        writer.writeLine("short"); // Opens the file and counts its 1000 bytes
+        writer.writeLine(repeat('y', 100));
+        writer.close();
+
+        assertEquals(repeat('x', 1000) + "short" + System.lineSeparator(), read(new File(file.getPath() + ".1")));
+        assertEquals(repeat('y', 100) + System.lineSeparator(), read(file));
+    }
+
+    @Test
+    void utf8LengthMatchesEncodedSize() {
+        String text = "aé€😀"; // 1 + 2 + 3 + 4 bytes
+        assertEquals(text.getBytes(StandardCharsets.UTF_8).length, RollingFileWriter.utf8Length(text));
+    }
+}
@@ -0,0 +1,98 @@
+package com.stockmonitor.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void emptySnapshotIsZero() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram("empty").snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0L, snapshot.getValueAtPercentile(99.0));
+        assertEquals(0.0, snapshot.getMeanNanos());
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram("small");
+        for (long value = 0; value < 32; value++) {
+            histogram.record(value);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(32, snapshot.getCount());
+        assertEquals(0L, snapshot.getValueAtPercentile(0.0));
+        assertEquals(15L, snapshot.getValueAtPercentile(50.0)); // Rank 16
+        assertEquals(31L, snapshot.getValueAtPercentile(100.0));
+        assertEquals(31L, snapshot.getMaxNanos());
+        assertEquals(15.5, snapshot.getMeanNanos());
+    }
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram("random");
+        Random random = new Random(7);
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * Math.log(5_000_000_000L)); // 1 ns .. 5 s
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        for (double percentile : new double[] {1.0, 25.0, 50.0, 90.0, 99.0, 99.9, 100.0}) {
+            long exact = values[(int) Math.ceil(values.length * percentile / 100.0) - 1];
+            long estimate = snapshot.getValueAtPercentile(percentile);
+            assertTrue(estimate >= exact && estimate <= exact + exact / 32,
+                    "p" + percentile + ": " + estimate + " vs " + exact);
+        }
+        assertEquals(values[values.length - 1], snapshot.getMaxNanos());
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram("clamped");
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(0L, snapshot.getValueAtPercentile(50.0));
+        assertEquals(LatencyHistogram.MAX_VALUE_NANOS, snapshot.getValueAtPercentile(100.0));
+        assertEquals(LatencyHistogram.MAX_VALUE_NANOS, snapshot.getMaxNanos());
+    }
+
+    @Test
+    void countAtOrBelowIsCumulative() {
+        LatencyHistogram histogram = new LatencyHistogram("cumulative");
+        histogram.record(10);
+        histogram.record(100);
+        histogram.record(1000);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(0, snapshot.getCountAtOrBelow(5));
+        assertEquals(1, snapshot.getCountAtOrBelow(31));
+        assertEquals(2, snapshot.getCountAtOrBelow(127));
+        assertEquals(3, snapshot.getCountAtOrBelow(1023));
+    }
+
+    @Test
+    void resetClearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram("reset");
+        histogram.record(1_000_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0L, snapshot.getMaxNanos());
+        assertEquals(0L, snapshot.getSumNanos());
+    }
+
+    @Test
+    void rejectsInvalidPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram("bad", 0));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram("bad", 11));
+    }
+}